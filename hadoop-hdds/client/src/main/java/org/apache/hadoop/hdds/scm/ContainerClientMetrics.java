@@ -66,6 +66,14 @@ public final class ContainerClientMetrics {
   private MutableCounterLong writeChunksDuringWrite;
   @Metric
   private MutableCounterLong flushesDuringWrite;
+  @Metric
+  private MutableCounterLong readAheadChunks;
+  @Metric
+  private MutableCounterLong readAheadHits;
+  @Metric
+  private MutableCounterLong readAheadHitBytes;
+  @Metric
+  private MutableCounterLong readAheadWastedBytes;
 
   private MutableQuantiles[] listBlockLatency;
   private MutableQuantiles[] getBlockLatency;
@@ -219,6 +227,22 @@ public void recordWriteChunk(Pipeline pipeline, long chunkSizeBytes) {
     totalWriteChunkBytes.incr(chunkSizeBytes);
   }
 
+  /** Record a chunk read ahead of a sequential reader. */
+  public void recordReadAhead() {
+    readAheadChunks.incr();
+  }
+
+  /** Record a chunk read that was served by read-ahead. */
+  public void recordReadAheadHit(long bytes) {
+    readAheadHits.incr();
+    readAheadHitBytes.incr(bytes);
+  }
+
+  /** Record read-ahead data dropped without being read. */
+  public void recordReadAheadWasted(long bytes) {
+    readAheadWastedBytes.incr(bytes);
+  }
+
   public void addListBlockLatency(long latency) {
     for (MutableQuantiles q : listBlockLatency) {
       if (q != null) {
@@ -327,4 +351,20 @@ public MutableCounterLong getWriteChunksDuringWrite() {
   public MutableCounterLong getFlushesDuringWrite() {
     return flushesDuringWrite;
   }
+
+  public MutableCounterLong getReadAheadChunks() {
+    return readAheadChunks;
+  }
+
+  public MutableCounterLong getReadAheadHits() {
+    return readAheadHits;
+  }
+
+  public MutableCounterLong getReadAheadHitBytes() {
+    return readAheadHitBytes;
+  }
+
+  public MutableCounterLong getReadAheadWastedBytes() {
+    return readAheadWastedBytes;
+  }
 }
@@ -355,6 +355,67 @@ public class OzoneClientConfig {
       description = "Timeout for receiving streaming read responses.")
   private Duration streamReadTimeout = Duration.ofSeconds(10);
 
+  @Config(key = "ozone.client.read.ahead.chunks",
+      defaultValue = "0",
+      tags = ConfigTag.CLIENT,
+      description = "Number of chunks to read asynchronously ahead of the "
+          + "current position once a block is being read sequentially. "
+          + "Read-ahead stops on random access. 0 disables read-ahead.")
+  private int readAheadChunks = 0;
+
+  @Config(key = "ozone.client.read.hedge.enabled",
+      defaultValue = "false",
+      tags = ConfigTag.CLIENT,
+      description = "If enabled, a chunk read not completed within "
+          + "ozone.client.read.hedge.threshold is also sent to another "
+          + "replica, and the first response is used.")
+  private boolean hedgedReadEnabled = false;
+
+  @Config(key = "ozone.client.read.hedge.threshold",
+      defaultValue = "500ms",
+      type = ConfigType.TIME,
+      tags = ConfigTag.CLIENT,
+      description = "Time to wait for a chunk read before sending a hedged "
+          + "read to another replica.")
+  private Duration hedgedReadThreshold = Duration.ofMillis(500);
+
+  @Config(key = "ozone.client.read.hedge.percentile",
+      defaultValue = "0",
+      tags = ConfigTag.CLIENT,
+      description = "If set to a value between 1 and 99, the hedged read "
+          + "threshold is this percentile of the recent chunk read "
+          + "latencies of the client, instead of the static "
+          + "ozone.client.read.hedge.threshold.")
+  private int hedgedReadPercentile = 0;
+
+  @Config(key = "ozone.client.read.hedge.max.concurrent",
+      defaultValue = "16",
+      tags = ConfigTag.CLIENT,
+      description = "Maximum number of hedged reads in flight per pipeline "
+          + "client. Further slow reads wait for their replica without "
+          + "hedging.")
+  private int hedgedReadMaxConcurrent = 16;
+
+  @Config(key = "ozone.client.read.parallel.blocks",
+      defaultValue = "1",
+      tags = ConfigTag.CLIENT,
+      description = "Number of blocks of a key read concurrently by a single "
+          + "key input stream, ahead of a sequential reader. Blocks are "
+          + "usually stored on different pipelines, so reading them in "
+          + "parallel increases the bandwidth of a single large GET. "
+          + "1 disables parallel reads.")
+  private int readParallelBlocks = 1;
+
+  @Config(key = "ozone.client.read.parallel.buffer.size",
+      defaultValue = "64MB",
+      type = ConfigType.SIZE,
+      tags = ConfigTag.CLIENT,
+      description = "Maximum amount of data read ahead, but not yet "
+          + "consumed, per key input stream when "
+          + "ozone.client.read.parallel.blocks is greater than 1. It is "
+          + "divided equally among the blocks in flight.")
+  private long readParallelBufferSize = 64 * 1024 * 1024;
+
   @PostConstruct
   public void validate() {
     Preconditions.checkState(streamBufferSize > 0);
@@ -694,6 +755,62 @@ public Duration getStreamReadTimeout() {
     return streamReadTimeout;
   }
 
+  public int getReadAheadChunks() {
+    return readAheadChunks;
+  }
+
+  public void setReadAheadChunks(int readAheadChunks) {
+    this.readAheadChunks = readAheadChunks;
+  }
+
+  public boolean isHedgedReadEnabled() {
+    return hedgedReadEnabled;
+  }
+
+  public void setHedgedReadEnabled(boolean hedgedReadEnabled) {
+    this.hedgedReadEnabled = hedgedReadEnabled;
+  }
+
+  public Duration getHedgedReadThreshold() {
+    return hedgedReadThreshold;
+  }
+
+  public void setHedgedReadThreshold(Duration hedgedReadThreshold) {
+    this.hedgedReadThreshold = hedgedReadThreshold;
+  }
+
+  public int getHedgedReadPercentile() {
+    return hedgedReadPercentile;
+  }
+
+  public void setHedgedReadPercentile(int hedgedReadPercentile) {
+    this.hedgedReadPercentile = hedgedReadPercentile;
+  }
+
+  public int getHedgedReadMaxConcurrent() {
+    return hedgedReadMaxConcurrent;
+  }
+
+  public void setHedgedReadMaxConcurrent(int hedgedReadMaxConcurrent) {
+    this.hedgedReadMaxConcurrent = hedgedReadMaxConcurrent;
+  }
+
+  public int getReadParallelBlocks() {
+    return readParallelBlocks;
+  }
+
+  public void setReadParallelBlocks(int readParallelBlocks) {
+    this.readParallelBlocks = readParallelBlocks;
+  }
+
+  public long getReadParallelBufferSize() {
+    return readParallelBufferSize;
+  }
+
+  public void setReadParallelBufferSize(long readParallelBufferSize) {
+    this.readParallelBufferSize = readParallelBufferSize;
+  }
+
   public void setStreamReadPreReadSize(long streamReadPreReadSize) {
     this.streamReadPreReadSize = streamReadPreReadSize;
   }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+/**
+ * Estimates a percentile of the most recent latencies of an operation.
+ * The estimate is refreshed after every {@value #REFRESH_INTERVAL} samples.
+ */
+final class ReadLatencyTracker {
+
+  static final int MAX_SAMPLES = 1024;
+  static final int REFRESH_INTERVAL = 64;
+
+  private final int percentile;
+  private final long[] samples = new long[MAX_SAMPLES];
+  private long count;
+  private volatile long estimate = -1;
+
+  ReadLatencyTracker(int percentile) {
+    Preconditions.checkArgument(percentile > 0 && percentile < 100,
+        "percentile = %s is out of range (0, 100)", percentile);
+    this.percentile = percentile;
+  }
+
+  synchronized void add(long latency) {
+    samples[(int) (count % MAX_SAMPLES)] = latency;
+    count++;
+    if (count % REFRESH_INTERVAL == 0) {
+      final int n = (int) Math.min(count, MAX_SAMPLES);
+      final long[] sorted = Arrays.copyOf(samples, n);
+      Arrays.sort(sorted);
+      final int index = (int) Math.ceil(percentile * n / 100.0) - 1;
+      estimate = sorted[Math.max(0, index)];
+    }
+  }
+
+  /**
+   * @return the estimated percentile, or -1 if there are not enough samples
+   */
+  long getEstimate() {
+    return estimate;
+  }
+}
@@ -28,16 +28,20 @@
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 import org.apache.hadoop.hdds.HddsConfigKeys;
@@ -107,6 +111,12 @@ public class XceiverClientGrpc extends XceiverClientSpi {
   // command can be sent to the same DN.
   private final Map<DatanodeBlockID, DatanodeDetails> getBlockDNcache;
 
+  private final boolean hedgedReadEnabled;
+  private final long hedgedReadThresholdMs;
+  private final Semaphore hedgedReadPermits;
+  // null if the static hedged read threshold is used
+  private final ReadLatencyTracker readChunkLatency;
+
   private final AtomicBoolean isClosed = new AtomicBoolean(false);
 
   /**
@@ -124,8 +134,18 @@ public XceiverClientGrpc(Pipeline pipeline, ConfigurationSource config,
     Objects.requireNonNull(config, "config == null");
     setTimeout(config.getTimeDuration(OzoneConfigKeys.OZONE_CLIENT_READ_TIMEOUT,
         OzoneConfigKeys.OZONE_CLIENT_READ_TIMEOUT_DEFAULT, TimeUnit.SECONDS));
-    this.streamReadTimeoutNanos = config.getObject(OzoneClientConfig.class)
-        .getStreamReadTimeout().toNanos();
+    final OzoneClientConfig clientConfig =
+        config.getObject(OzoneClientConfig.class);
+    this.streamReadTimeoutNanos =
+        clientConfig.getStreamReadTimeout().toNanos();
+    this.hedgedReadEnabled = clientConfig.isHedgedReadEnabled();
+    this.hedgedReadThresholdMs =
+        clientConfig.getHedgedReadThreshold().toMillis();
+    this.hedgedReadPermits = new Semaphore(
+        Math.max(0, clientConfig.getHedgedReadMaxConcurrent()));
+    final int percentile = clientConfig.getHedgedReadPercentile();
+    this.readChunkLatency = percentile > 0 && percentile < 100
+        ? new ReadLatencyTracker(percentile) : null;
     this.pipeline = pipeline;
     this.config = config;
     this.secConfig = new SecurityConfig(config);
@@ -495,6 +515,10 @@ private XceiverClientReply sendCommandWithRetry(
     // datanodes in the pipeline in a round-robin fashion.
     XceiverClientReply reply = new XceiverClientReply(null);
     List<DatanodeDetails> datanodeList = sortDatanodes(request);
+    if (hedgedReadEnabled && datanodeList.size() > 1
+        && request.getCmdType() == ContainerProtos.Type.ReadChunk) {
+      return sendHedgedRead(request, validators, datanodeList);
+    }
 
     for (DatanodeDetails dn : datanodeList) {
       try {
@@ -562,6 +586,155 @@ private XceiverClientReply sendCommandWithRetry(
     }
   }
 
+  /**
+   * Send the read to the datanodes in order.  Move on to the next datanode
+   * when the read fails, or, as a hedged read, when it does not complete
+   * within the hedged read threshold.  The first successful response is
+   * used.
+   */
+  private XceiverClientReply sendHedgedRead(
+      ContainerCommandRequestProto request, List<Validator> validators,
+      List<DatanodeDetails> datanodeList) throws IOException {
+    final XceiverClientReply reply = new XceiverClientReply(null);
+    final List<HedgedRead> outstanding = new ArrayList<>();
+    IOException ioException = null;
+    int next = 0;
+
+    while (!outstanding.isEmpty() || next < datanodeList.size()) {
+      if (outstanding.isEmpty()) {
+        outstanding.add(new HedgedRead(request, validators,
+            datanodeList.get(next++), reply, false));
+      }
+
+      boolean completed = awaitAny(outstanding,
+          next < datanodeList.size() ? getHedgedReadThresholdMs() : -1,
+          request);
+      if (!completed) {
+        if (hedgedReadPermits.tryAcquire()) {
+          metrics.incHedgedReadOps();
+          final HedgedRead hedge = new HedgedRead(request, validators,
+              datanodeList.get(next++), reply, true);
+          hedge.response.whenComplete((r, e) -> hedgedReadPermits.release());
+          outstanding.add(hedge);
+        } else {
+          // too many hedged reads, wait for the outstanding reads
+          awaitAny(outstanding, -1, request);
+        }
+      }
+
+      for (Iterator<HedgedRead> i = outstanding.iterator(); i.hasNext();) {
+        final HedgedRead read = i.next();
+        if (!read.response.isDone()) {
+          continue;
+        }
+        try {
+          final ContainerCommandResponseProto response = read.response.join();
+          if (read.hedge) {
+            metrics.incHedgedReadWins();
+          }
+          if (readChunkLatency != null) {
+            readChunkLatency.add(Time.monotonicNow() - read.startTime);
+          }
+          reply.setResponse(CompletableFuture.completedFuture(response));
+          return reply;
+        } catch (CompletionException | CancellationException e) {
+          i.remove();
+          final Throwable cause = e.getCause() != null ? e.getCause() : e;
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("Failed to execute command {} on datanode {}",
+                processForDebug(request), read.datanode, cause);
+          }
+          if (Status.fromThrowable(cause).getCode()
+              == Status.UNAUTHENTICATED.getCode()) {
+            throw new SCMSecurityException("Failed to authenticate with "
+                + "GRPC XceiverServer with Ozone block token.");
+          }
+          ioException = cause instanceof IOException
+              ? (IOException) cause : new IOException(cause);
+        }
+      }
+    }
+
+    Objects.requireNonNull(ioException, "ioException == null");
+    LOG.warn("Failed to execute command {} on the pipeline {}.",
+        request.getCmdType(), pipeline);
+    throw ioException;
+  }
+
+  private long getHedgedReadThresholdMs() {
+    final long estimate =
+        readChunkLatency != null ? readChunkLatency.getEstimate() : -1;
+    return estimate >= 0 ? Math.max(1, estimate) : hedgedReadThresholdMs;
+  }
+
+  /**
+   * Wait until any of the reads completes.
+   * @param timeoutMs time to wait, or -1 to wait without a limit
+   * @return false if timed out
+   */
+  private static boolean awaitAny(List<HedgedRead> reads, long timeoutMs,
+      ContainerCommandRequestProto request) throws IOException {
+    final CompletableFuture<Object> any = CompletableFuture.anyOf(
+        reads.stream().map(r -> r.response).toArray(CompletableFuture[]::new));
+    try {
+      if (timeoutMs < 0) {
+        any.get();
+      } else {
+        any.get(timeoutMs, TimeUnit.MILLISECONDS);
+      }
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      // the failed read is handled by the caller
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw (IOException) new InterruptedIOException(
+          "Command " + processForDebug(request) + " was interrupted.")
+          .initCause(e);
+    }
+    return true;
+  }
+
+  /** A read sent to one datanode, completed after validation. */
+  private final class HedgedRead {
+    private final DatanodeDetails datanode;
+    private final boolean hedge;
+    private final long startTime = Time.monotonicNow();
+    private final CompletableFuture<ContainerCommandResponseProto> response;
+
+    HedgedRead(ContainerCommandRequestProto request,
+        List<Validator> validators, DatanodeDetails datanode,
+        XceiverClientReply reply, boolean hedge) throws IOException {
+      this.datanode = datanode;
+      this.hedge = hedge;
+      reply.addDatanode(datanode);
+      CompletableFuture<ContainerCommandResponseProto> sent;
+      try {
+        sent = sendCommandAsync(request, datanode).getResponse();
+      } catch (IOException e) {
+        sent = new CompletableFuture<>();
+        sent.completeExceptionally(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw (IOException) new InterruptedIOException(
+            "Command " + processForDebug(request) + " was interrupted.")
+            .initCause(e);
+      }
+      this.response = sent.thenApply(r -> {
+        try {
+          if (validators != null) {
+            for (Validator validator : validators) {
+              validator.accept(request, r);
+            }
+          }
+        } catch (IOException e) {
+          throw new CompletionException(e);
+        }
+        return r;
+      });
+    }
+  }
+
   @Override
   public void streamRead(ContainerCommandRequestProto request,
       StreamingReadResponse streamObserver) throws IOException {
@@ -48,6 +48,8 @@ public class XceiverClientMetrics implements MetricsSource {
   private @Metric MutableCounterLong totalOps;
   private @Metric MutableCounterLong ecReconstructionTotal;
   private @Metric MutableCounterLong ecReconstructionFailsTotal;
+  private @Metric MutableCounterLong hedgedReadOps;
+  private @Metric MutableCounterLong hedgedReadWins;
   private EnumMap<ContainerProtos.Type, MutableCounterLong> pendingOpsArray;
   private EnumMap<ContainerProtos.Type, MutableCounterLong> opsArray;
   private EnumMap<ContainerProtos.Type, PerformanceMetrics> containerOpsLatency;
@@ -115,6 +117,24 @@ public void incECReconstructionFailsTotal() {
     ecReconstructionFailsTotal.incr();
   }
 
+  public void incHedgedReadOps() {
+    hedgedReadOps.incr();
+  }
+
+  public void incHedgedReadWins() {
+    hedgedReadWins.incr();
+  }
+
+  @VisibleForTesting
+  public long getHedgedReadOps() {
+    return hedgedReadOps.value();
+  }
+
+  @VisibleForTesting
+  public long getHedgedReadWins() {
+    return hedgedReadWins.value();
+  }
+
   @VisibleForTesting
   public long getTotalOpCount() {
     return totalOps.value();
@@ -144,6 +164,8 @@ public void getMetrics(MetricsCollector collector, boolean b) {
     totalOps.snapshot(recordBuilder, true);
     ecReconstructionTotal.snapshot(recordBuilder, true);
     ecReconstructionFailsTotal.snapshot(recordBuilder, true);
+    hedgedReadOps.snapshot(recordBuilder, true);
+    hedgedReadWins.snapshot(recordBuilder, true);
 
     for (ContainerProtos.Type type : ContainerProtos.Type.values()) {
       pendingOpsArray.get(type).snapshot(recordBuilder, b);
@@ -19,6 +19,7 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.EOFException;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -26,6 +27,9 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -36,6 +40,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DatanodeBlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetBlockResponseProto;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientShortCircuit;
@@ -63,6 +68,11 @@ public class BlockInputStream extends BlockExtendedInputStream {
   private static final List<Validator> VALIDATORS =
       ContainerProtocolCalls.toValidatorList((request, response) -> validate(response));
 
+  // Number of consecutive reads, each starting where the previous one
+  // ended, after which the stream is considered sequential.
+  private static final int SEQUENTIAL_READS_FOR_READ_AHEAD = 2;
+  private static final int READ_AHEAD_MAX_THREADS = 64;
+
   private final BlockID blockID;
   private long length;
   private final BlockLocationInfo blockInfo;
@@ -115,6 +125,13 @@ public class BlockInputStream extends BlockExtendedInputStream {
 
   private BlockData blockData;
 
+  // Number of chunks to read ahead of a sequential reader, 0 if disabled
+  private final int readAheadChunks;
+  private ContainerClientMetrics.Handle readAheadMetrics;
+  // Block position where the last read ended
+  private long lastReadEnd;
+  private int sequentialReads;
+
   public BlockInputStream(
       BlockLocationInfo blockInfo,
       Pipeline pipeline,
@@ -131,6 +148,7 @@ public BlockInputStream(
     this.xceiverClientFactory = xceiverClientFactory;
     this.refreshFunction = refreshFunction;
     this.retryPolicy = getReadRetryPolicy(config);
+    this.readAheadChunks = Math.max(0, config.getReadAheadChunks());
   }
 
   // only for unit tests
@@ -407,6 +425,7 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
     }
 
     checkOpen();
+    trackSequentialRead();
     int totalReadLen = 0;
     int len = strategy.getTargetLength();
     while (len > 0) {
@@ -467,9 +486,46 @@ protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
         chunkIndex += 1;
       }
     }
+    lastReadEnd = getPos();
     return totalReadLen;
   }
 
+  /**
+   * Once the block is being read sequentially, read the next chunks ahead of
+   * the current position.
+   */
+  private void trackSequentialRead() {
+    if (readAheadChunks == 0 || blockFileInputStream != null
+        || chunkStreams == null || chunkStreams.isEmpty()) {
+      return;
+    }
+    if (getPos() != lastReadEnd) {
+      sequentialReads = 0;
+      return;
+    }
+    if (++sequentialReads < SEQUENTIAL_READS_FOR_READ_AHEAD) {
+      return;
+    }
+    if (readAheadMetrics == null) {
+      readAheadMetrics = ContainerClientMetrics.acquireHandle();
+    }
+    final int last = Math.min(chunkIndex + readAheadChunks,
+        chunkStreams.size() - 1);
+    for (int i = chunkIndex + 1; i <= last; i++) {
+      chunkStreams.get(i).readAhead(ReadAheadExecutor.INSTANCE,
+          readAheadMetrics.metrics());
+    }
+  }
+
+  private void cancelReadAhead() {
+    final List<ChunkInputStream> inputStreams = this.chunkStreams;
+    if (inputStreams != null) {
+      for (ChunkInputStream is : inputStreams) {
+        is.cancelReadAhead();
+      }
+    }
+  }
+
   /**
    * Seeks the BlockInputStream to the specified position. If the stream is
    * not initialized, save the seeked position via blockPosition. Otherwise,
@@ -506,6 +562,12 @@ public synchronized void seek(long pos) throws IOException {
           "EOF encountered at pos: " + pos + " for block: " + blockID);
     }
 
+    if (pos != lastReadEnd) {
+      // random access, the data read ahead is unlikely to be used
+      sequentialReads = 0;
+      cancelReadAhead();
+    }
+
     if (chunkIndex >= chunkStreams.size()) {
       chunkIndex = Arrays.binarySearch(chunkOffsets, pos);
     } else if (pos < chunkOffsets[chunkIndex]) {
@@ -574,6 +636,10 @@ public synchronized void close() {
         LOG.error("Failed to close file InputStream for block " + blockID, e);
       }
     }
+    if (readAheadMetrics != null) {
+      readAheadMetrics.close();
+      readAheadMetrics = null;
+    }
   }
 
   private void releaseClient() {
@@ -658,4 +724,16 @@ public BlockData getStreamBlockData() {
     return blockData;
   }
 
+  /**
+   * Threads shared by all streams for reading chunks ahead.  A read-ahead is
+   * skipped if all threads are busy.
+   */
+  private static final class ReadAheadExecutor {
+    private static final ThreadPoolExecutor INSTANCE = new ThreadPoolExecutor(
+        0, READ_AHEAD_MAX_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("ChunkReadAhead-%d")
+            .build());
+  }
 }
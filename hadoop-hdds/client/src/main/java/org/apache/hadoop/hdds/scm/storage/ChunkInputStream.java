@@ -22,10 +22,18 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.fs.ByteBufferReadable;
@@ -38,6 +46,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadChunkResponseProto;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi.Validator;
@@ -98,6 +107,14 @@ public class ChunkInputStream extends InputStream
 
   private final Supplier<Token<?>> tokenSupplier;
 
+  // Data of the whole chunk being read ahead of the reader, consumed by the
+  // next read from the container.
+  private CompletableFuture<ByteBuffer[]> readAhead;
+  private ContainerClientMetrics readAheadMetrics;
+  // The last read-ahead started, which may still be using the client after
+  // being cancelled.
+  private ReadAheadTask readAheadTask;
+
   private static final int EOF = -1;
   private final List<Validator> validators;
 
@@ -280,10 +297,66 @@ public boolean seekToNewSource(long targetPos) {
 
   @Override
   public synchronized void close() {
+    cancelReadAhead();
+    awaitReadAhead();
     releaseBuffers();
     releaseClient();
   }
 
+  /**
+   * Start reading the whole chunk asynchronously, if it has not been read
+   * yet.  The data is used by the next read from this stream, instead of
+   * reading from the container again.
+   * @return true if the read-ahead was started
+   */
+  synchronized boolean readAhead(Executor executor,
+      ContainerClientMetrics metrics) {
+    if (readAhead != null || (readAheadTask != null && !readAheadTask.isDone())
+        || buffersAllocated() || getPos() >= length) {
+      return false;
+    }
+    try {
+      acquireClient();
+      final ReadAheadTask task = new ReadAheadTask();
+      readAhead = CompletableFuture.supplyAsync(task, executor);
+      readAheadTask = task;
+    } catch (IOException | RejectedExecutionException e) {
+      // the chunk will be read on demand
+      return false;
+    }
+    readAheadMetrics = metrics;
+    metrics.recordReadAhead();
+    return true;
+  }
+
+  /**
+   * Drop the data being read ahead, if not used yet.
+   */
+  synchronized void cancelReadAhead() {
+    if (readAhead != null) {
+      readAhead.cancel(false);
+      readAheadTask.cancel();
+      readAhead = null;
+      readAheadMetrics.recordReadAheadWasted(length);
+    }
+  }
+
+  /**
+   * Wait for the last read-ahead to stop using the client, so that the
+   * client can be released.
+   */
+  private synchronized void awaitReadAhead() {
+    if (readAheadTask != null) {
+      readAheadTask.done.join();
+      readAheadTask = null;
+    }
+  }
+
+  @VisibleForTesting
+  synchronized boolean hasReadAhead() {
+    return readAhead != null;
+  }
+
   protected synchronized void releaseClient() {
     if (xceiverClientFactory != null && xceiverClient != null) {
       xceiverClientFactory.releaseClientForReadData(xceiverClient, false);
@@ -378,6 +451,11 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
     // successful read in adjustBufferPosition()
     storePosition();
 
+    if (readAhead != null && readFromReadAhead()) {
+      adjustBufferPosition(startByteIndex - bufferOffsetWrtChunkData);
+      return;
+    }
+
     long adjustedBuffersOffset, adjustedBuffersLen;
     if (verifyChecksum) {
       // Adjust the chunk offset and length to include required checksum
@@ -412,10 +490,39 @@ private synchronized void readChunkFromContainer(int len) throws IOException {
     adjustBufferPosition(startByteIndex - bufferOffsetWrtChunkData);
   }
 
+  /**
+   * Fill the buffers with the whole chunk read ahead, waiting for the read
+   * to complete if necessary.
+   * @return false if the read-ahead failed, the data should be read again
+   */
+  private boolean readFromReadAhead() throws IOException {
+    final CompletableFuture<ByteBuffer[]> future = readAhead;
+    readAhead = null;
+    final ByteBuffer[] data;
+    try {
+      data = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for "
+          + "read-ahead of chunk " + chunkInfo.getChunkName());
+    } catch (ExecutionException | CancellationException e) {
+      // let the regular read handle the error and retries
+      return false;
+    }
+    setBuffers(data, length);
+    bufferOffsetWrtChunkData = 0;
+    readAheadMetrics.recordReadAheadHit(length);
+    return true;
+  }
+
   protected void readChunkDataIntoBuffers(ChunkInfo readChunkInfo)
       throws IOException {
-    buffers = readChunk(readChunkInfo);
-    buffersSize = readChunkInfo.getLen();
+    setBuffers(readChunk(readChunkInfo), readChunkInfo.getLen());
+  }
+
+  private void setBuffers(ByteBuffer[] data, long dataLength) {
+    buffers = data;
+    buffersSize = dataLength;
 
     bufferOffsets = new long[buffers.length];
     int tempOffset = 0;
@@ -733,6 +840,8 @@ protected long getChunkPosition() {
 
   @Override
   public synchronized void unbuffer() {
+    cancelReadAhead();
+    awaitReadAhead();
     storePosition();
     releaseBuffers();
     releaseClient();
@@ -746,4 +855,39 @@ public ByteBuffer[] getCachedBuffers() {
   public ChunkInfo getChunkInfo() {
     return chunkInfo;
   }
+
+  /**
+   * Reads the whole chunk with the client of this stream.  A task cancelled
+   * before it starts does not read at all, otherwise it completes
+   * {@link #done} once it no longer uses the client.
+   */
+  private final class ReadAheadTask implements Supplier<ByteBuffer[]> {
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    @Override
+    public ByteBuffer[] get() {
+      if (!started.compareAndSet(false, true)) {
+        throw new CancellationException("Read-ahead of chunk "
+            + chunkInfo.getChunkName() + " was cancelled");
+      }
+      try {
+        return readChunk(chunkInfo);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      } finally {
+        done.complete(null);
+      }
+    }
+
+    void cancel() {
+      if (started.compareAndSet(false, true)) {
+        done.complete(null);
+      }
+    }
+
+    boolean isDone() {
+      return done.isDone();
+    }
+  }
 }
@@ -26,6 +26,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import org.apache.hadoop.fs.ByteBufferReadable;
 import org.apache.hadoop.fs.FSExceptionMessages;
 import org.apache.ratis.util.Preconditions;
 
@@ -219,6 +220,62 @@ int readImpl(InputStream inputStream) throws IOException {
     return true;
   }
 
+  /**
+   * Positioned read which does not change the position of this stream.
+   * Only the part streams covering the range are locked while reading, so
+   * that ranges in different parts (blocks) can be read concurrently.
+   *
+   * @throws EOFException if the range goes beyond the end of the stream
+   */
+  public void readFullyFromParts(long position, ByteBuffer buffer)
+      throws IOException {
+    checkOpen();
+    initialize();
+    if (position < 0 || position + buffer.remaining() > length) {
+      throw new EOFException("Range [" + position + ", "
+          + (position + buffer.remaining()) + ") is out of bounds for key: "
+          + key + " of length " + length);
+    }
+
+    int index = Arrays.binarySearch(partOffsets, position);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    long pos = position;
+    for (; buffer.hasRemaining(); index++) {
+      final PartInputStream part = partStreams.get(index);
+      final long partPosition = pos - partOffsets[index];
+      final int len = (int) Math.min(buffer.remaining(),
+          part.getLength() - partPosition);
+      if (len > 0) {
+        readFully(part, partPosition, buffer, len);
+        pos += len;
+      }
+    }
+  }
+
+  private void readFully(PartInputStream part, long partPosition,
+      ByteBuffer buffer, int len) throws IOException {
+    final ByteBuffer target = buffer.duplicate();
+    target.limit(target.position() + len);
+    synchronized (part) {
+      final long oldPosition = part.getPos();
+      try {
+        part.seek(partPosition);
+        while (target.hasRemaining()) {
+          if (((ByteBufferReadable) part).read(target) < 0) {
+            throw new EOFException("EOF encountered at pos: "
+                + (partPosition + len - target.remaining())
+                + " of part for key: " + key);
+          }
+        }
+      } finally {
+        part.seek(oldPosition);
+      }
+    }
+    buffer.position(target.position());
+  }
+
   public synchronized void initialize() throws IOException {
     // Pre-check that the stream has not been intialized already
     if (initialized) {
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ReadLatencyTracker}.
+ */
+public class TestReadLatencyTracker {
+
+  @Test
+  public void testEstimate() {
+    ReadLatencyTracker tracker = new ReadLatencyTracker(90);
+    for (int i = 1; i < ReadLatencyTracker.REFRESH_INTERVAL; i++) {
+      tracker.add(i);
+    }
+    // not enough samples yet
+    assertEquals(-1, tracker.getEstimate());
+
+    tracker.add(ReadLatencyTracker.REFRESH_INTERVAL);
+    assertEquals(58, tracker.getEstimate());
+  }
+
+  @Test
+  public void testOldSamplesDropped() {
+    ReadLatencyTracker tracker = new ReadLatencyTracker(50);
+    for (int i = 0; i < ReadLatencyTracker.MAX_SAMPLES; i++) {
+      tracker.add(1000);
+    }
+    assertEquals(1000, tracker.getEstimate());
+    for (int i = 0; i < ReadLatencyTracker.MAX_SAMPLES; i++) {
+      tracker.add(10);
+    }
+    assertEquals(10, tracker.getEstimate());
+  }
+
+  @Test
+  public void testInvalidPercentile() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ReadLatencyTracker(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ReadLatencyTracker(100));
+  }
+}
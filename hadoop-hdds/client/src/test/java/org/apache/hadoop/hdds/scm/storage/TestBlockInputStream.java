@@ -52,6 +52,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.OzoneClientConfig;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
@@ -265,6 +266,67 @@ public void testSeekAndRead() throws Exception {
     matchWithInputData(b2, 150, 100);
   }
 
+  @Test
+  public void testReadAheadOnSequentialRead() throws Exception {
+    ContainerClientMetrics metrics = ContainerClientMetrics.acquire();
+    try {
+      long hits = metrics.getReadAheadHits().value();
+      long wasted = metrics.getReadAheadWastedBytes().value();
+      BlockInputStream stream = createReadAheadStream(2);
+      byte[] b = new byte[50];
+      for (int pos = 0; pos < blockSize; pos += b.length) {
+        assertEquals(b.length, stream.read(b, 0, b.length));
+        matchWithInputData(b, pos, b.length);
+      }
+      stream.close();
+
+      // all chunks but the first one are read ahead
+      assertEquals(4, metrics.getReadAheadHits().value() - hits);
+      assertEquals(0, metrics.getReadAheadWastedBytes().value() - wasted);
+    } finally {
+      ContainerClientMetrics.release();
+    }
+  }
+
+  @Test
+  public void testReadAheadStopsOnSeek() throws Exception {
+    ContainerClientMetrics metrics = ContainerClientMetrics.acquire();
+    try {
+      long hits = metrics.getReadAheadHits().value();
+      long wasted = metrics.getReadAheadWastedBytes().value();
+      BlockInputStream stream = createReadAheadStream(2);
+      byte[] b = new byte[50];
+      stream.read(b, 0, b.length);
+      stream.read(b, 0, b.length);
+      assertTrue(stream.getChunkStreams().get(1).hasReadAhead());
+      assertTrue(stream.getChunkStreams().get(2).hasReadAhead());
+
+      stream.seek(CHUNK_SIZE * 3 + 50);
+      assertFalse(stream.getChunkStreams().get(1).hasReadAhead());
+      assertFalse(stream.getChunkStreams().get(2).hasReadAhead());
+      assertEquals(2 * CHUNK_SIZE,
+          metrics.getReadAheadWastedBytes().value() - wasted);
+
+      assertEquals(b.length, stream.read(b, 0, b.length));
+      matchWithInputData(b, CHUNK_SIZE * 3 + 50, b.length);
+      assertFalse(stream.getChunkStreams().get(4).hasReadAhead());
+      assertEquals(0, metrics.getReadAheadHits().value() - hits);
+      stream.close();
+    } finally {
+      ContainerClientMetrics.release();
+    }
+  }
+
+  private BlockInputStream createReadAheadStream(int readAheadChunks)
+      throws Exception {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setChecksumVerify(false);
+    clientConfig.setReadAheadChunks(readAheadChunks);
+    return new DummyBlockInputStream(new BlockID(new ContainerBlockID(1, 1)),
+        blockSize, MockPipeline.createSingleNodePipeline(), null, null,
+        refreshFunction, chunks, chunkDataMap, clientConfig);
+  }
+
   @Test
   public void testRefreshPipelineFunction() throws Exception {
     LogCapturer logCapturer = LogCapturer.captureLogs(BlockExtendedInputStream.class);
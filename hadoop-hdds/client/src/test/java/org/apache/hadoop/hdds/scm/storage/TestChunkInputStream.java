@@ -23,8 +23,11 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +35,12 @@
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.hadoop.hdds.client.BlockID;
@@ -39,6 +48,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
 import org.apache.hadoop.hdds.scm.ByteStringConversion;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
 import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
@@ -284,4 +294,48 @@ public void connectsToNewPipeline() throws Exception {
       verify(newToken).encodeToUrlString();
     }
   }
+
+  @Test
+  public void testCloseWaitsForReadAhead() throws Exception {
+    XceiverClientFactory clientFactory = mock(XceiverClientFactory.class);
+    XceiverClientSpi client = mock(XceiverClientSpi.class);
+    when(clientFactory.acquireClientForReadData(any())).thenReturn(client);
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch proceed = new CountDownLatch(1);
+    ChunkInputStream stream = new DummyChunkInputStream(chunkInfo, blockID,
+        clientFactory, true, chunkData,
+        MockPipeline.createSingleNodePipeline()) {
+      @Override
+      protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo) {
+        reading.countDown();
+        try {
+          proceed.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.readChunk(readChunkInfo);
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    ContainerClientMetrics metrics = ContainerClientMetrics.acquire();
+    try {
+      assertTrue(stream.readAhead(executor, metrics));
+      reading.await();
+      Future<?> closed = executor.submit(stream::close);
+
+      // the client is in use by the read-ahead
+      assertThrows(TimeoutException.class,
+          () -> closed.get(100, TimeUnit.MILLISECONDS));
+      verify(clientFactory, never())
+          .releaseClientForReadData(any(), anyBoolean());
+
+      proceed.countDown();
+      closed.get();
+      verify(clientFactory).releaseClientForReadData(client, false);
+    } finally {
+      executor.shutdownNow();
+      ContainerClientMetrics.release();
+    }
+  }
 }
@@ -435,6 +435,7 @@ public static boolean isReadOnly(
     case DeleteBlock:
     case PutBlock:
     case PutSmallFile:
+    case PutSmallFileBatch:
     case StreamInit:
     case StreamInitWithPutBlock:
     case StreamWrite:
@@ -726,7 +727,8 @@ public static String processForDebug(ContainerCommandRequestProto msg) {
       return null;
     }
 
-    if (msg.hasWriteChunk() || msg.hasPutBlock() || msg.hasPutSmallFile()) {
+    if (msg.hasWriteChunk() || msg.hasPutBlock() || msg.hasPutSmallFile()
+        || msg.hasPutSmallFileBatch()) {
       final ContainerCommandRequestProto.Builder builder = msg.toBuilder();
       if (msg.hasWriteChunk()) {
         if (builder.getWriteChunkBuilder().hasData()) {
@@ -759,6 +761,11 @@ public static String processForDebug(ContainerCommandRequestProto msg) {
       if (msg.hasPutSmallFile()) {
         builder.getPutSmallFileBuilder().setData(REDACTED);
       }
+
+      if (msg.hasPutSmallFileBatch()) {
+        builder.getPutSmallFileBatchBuilder().getFilesBuilderList()
+            .forEach(f -> f.setData(REDACTED));
+      }
       return TextFormat.shortDebugString(builder);
     }
 
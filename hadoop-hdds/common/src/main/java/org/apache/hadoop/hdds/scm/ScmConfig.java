@@ -62,6 +62,19 @@ public class ScmConfig extends ReconfigurableConfig {
   )
   private String action;
 
+  @Config(key = "hdds.scm.container.report.skip.unchanged.replicas",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "true",
+      tags = { ConfigTag.SCM, ConfigTag.PERFORMANCE },
+      description =
+          "Whether full container reports skip the CLOSED replicas of CLOSED "
+          + "containers which SCM already has with the same state, usage, "
+          + "sequence ID and checksum from the same datanode. Most replicas "
+          + "of a periodic report are unchanged, so skipping them avoids "
+          + "taking the container state lock for each of them."
+  )
+  private boolean skipUnchangedReplicas = true;
+
   private static final String DESCRIPTION_COMMON_CHOICES_OF_PIPELINE_CHOOSE_POLICY_IMPL =
       "One of the following values can be used: "
       + "(1) org.apache.hadoop.hdds.scm.pipeline.choose.algorithms.RandomPipelineChoosePolicy"
@@ -186,6 +199,14 @@ public String getUnknownContainerAction() {
     return this.action;
   }
 
+  public boolean isSkipUnchangedReplicas() {
+    return skipUnchangedReplicas;
+  }
+
+  public void setSkipUnchangedReplicas(boolean skipUnchangedReplicas) {
+    this.skipUnchangedReplicas = skipUnchangedReplicas;
+  }
+
   public String getPipelineChoosePolicyName() {
     return pipelineChoosePolicyName;
   }
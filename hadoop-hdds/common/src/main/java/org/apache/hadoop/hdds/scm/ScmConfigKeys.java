@@ -147,9 +147,16 @@ public final class ScmConfigKeys {
       "ozone.chunk.read.mapped.buffer.max.count";
   // this max_count could not be greater than Linux platform max_map_count which by default is 65530.
   public static final int OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_DEFAULT = 0;
+  public static final String OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_SIZE_KEY =
+      "ozone.chunk.read.mapped.buffer.max.size";
+  public static final String OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_SIZE_DEFAULT =
+      "4GB";
   public static final String OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_KEY =
       "ozone.chunk.read.netty.ChunkedNioFile";
   public static final boolean OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_DEFAULT = false;
+  public static final String OZONE_CHUNK_READ_BLOCK_ZERO_COPY_KEY =
+      "ozone.chunk.read.block.zero.copy";
+  public static final boolean OZONE_CHUNK_READ_BLOCK_ZERO_COPY_DEFAULT = false;
 
   public static final String OZONE_SCM_CONTAINER_LAYOUT_KEY =
       "ozone.scm.container.layout";
@@ -533,6 +540,12 @@ public final class ScmConfigKeys {
       = 120000;
   public static final int OZONE_SCM_EVENT_CONTAINER_REPORT_QUEUE_SIZE_DEFAULT 
       = 100000;
+  /**
+  SCM Event Report queue time to wait for space when full in millisec,
+  before dropping the report.
+   */
+  public static final int OZONE_SCM_EVENT_REPORT_QUEUE_OFFER_TIMEOUT_DEFAULT
+      = 1000;
 
   public static final String OZONE_SCM_HA_RATIS_RPC_TYPE =
           "ozone.scm.ha.ratis.rpc.type";
@@ -38,6 +38,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetSmallFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ListBlockResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutBlockResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileBatchResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadChunkResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadContainerResponseProto;
@@ -223,6 +224,29 @@ public static ContainerCommandResponseProto getPutFileResponseSuccess(
         .build();
   }
 
+  /**
+   * Gets a response for the putSmallFileBatch RPC.
+   * @param msg - ContainerCommandRequestProto
+   * @param blocks - the committed blocks, in the order of the request
+   * @return - ContainerCommandResponseProto
+   */
+  public static ContainerCommandResponseProto getPutFileBatchResponseSuccess(
+      ContainerCommandRequestProto msg, List<BlockData> blocks) {
+
+    PutSmallFileBatchResponseProto.Builder batch =
+        PutSmallFileBatchResponseProto.newBuilder();
+    for (BlockData blockData : blocks) {
+      batch.addFiles(PutSmallFileResponseProto.newBuilder()
+          .setCommittedBlockLength(getCommittedBlockLengthResponseBuilder(
+              blockData.getSize(), blockData.getBlockID())));
+    }
+
+    return getSuccessResponseBuilder(msg)
+        .setCmdType(Type.PutSmallFileBatch)
+        .setPutSmallFileBatch(batch)
+        .build();
+  }
+
   /**
    * Gets a response for the WriteChunk RPC.
    * @param msg - ContainerCommandRequestProto
@@ -345,10 +369,25 @@ public static ContainerCommandResponseProto getReadChunkResponse(
 
   public static ContainerCommandResponseProto getReadBlockResponse(
       ContainerCommandRequestProto request, ChecksumData checksumData, ByteBuffer data, long offset) {
+    return getReadBlockResponse(request, checksumData, ByteString.copyFrom(data), offset);
+  }
+
+  /**
+   * Similar to {@link #getReadBlockResponse(ContainerCommandRequestProto, ChecksumData, ByteBuffer, long)}
+   * except that the data is wrapped instead of copied.
+   * The caller must not modify the data afterwards.
+   */
+  public static ContainerCommandResponseProto getReadBlockResponseWithoutCopy(
+      ContainerCommandRequestProto request, ChecksumData checksumData, ByteBuffer data, long offset) {
+    return getReadBlockResponse(request, checksumData, UnsafeByteOperations.unsafeWrap(data), offset);
+  }
+
+  private static ContainerCommandResponseProto getReadBlockResponse(
+      ContainerCommandRequestProto request, ChecksumData checksumData, ByteString data, long offset) {
 
     ContainerProtos.ReadBlockResponseProto response = ContainerProtos.ReadBlockResponseProto.newBuilder()
         .setChecksumData(checksumData.getProtoBufMessage())
-        .setData(ByteString.copyFrom(data))
+        .setData(data)
         .setOffset(offset)
         .build();
 
@@ -20,6 +20,7 @@
 import static java.util.Collections.singletonList;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.BLOCK_TOKEN_VERIFICATION_FAILED;
 
+import com.google.common.base.Preconditions;
 import io.opentelemetry.api.trace.Span;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -53,6 +54,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ListBlockRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ListBlockResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutBlockRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileBatchRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ReadBlockRequestProto;
@@ -561,6 +563,72 @@ public static PutSmallFileResponseProto writeSmallFile(
       XceiverClientSpi client, BlockID blockID, byte[] data,
       Token<OzoneBlockTokenIdentifier> token) throws IOException {
 
+    String id = client.getPipeline().getFirstNode().getUuidString();
+    ContainerCommandRequestProto.Builder builder =
+        ContainerCommandRequestProto.newBuilder()
+            .setCmdType(Type.PutSmallFile)
+            .setContainerID(blockID.getContainerID())
+            .setDatanodeUuid(id)
+            .setPutSmallFile(getPutSmallFileRequest(blockID, data));
+    if (token != null) {
+      builder.setEncodedToken(token.encodeToUrlString());
+    }
+    ContainerCommandRequestProto request = builder.build();
+    ContainerCommandResponseProto response =
+        client.sendCommand(request, getValidatorList());
+    return response.getPutSmallFile();
+  }
+
+  /**
+   * Allows writing many small files of the same container using a single
+   * RPC, which is replicated as a single transaction.
+   * See {@link #writeSmallFile}.
+   *
+   * @param client - client that communicates with the container.
+   * @param blockIDs - IDs of the blocks, all in the same container
+   * @param data - Data to be written into each block.
+   * @param tokens tokens for the blocks (may be null, or contain null for
+   *               the blocks without token)
+   * @return container protocol writeSmallFile response of each block
+   */
+  public static List<PutSmallFileResponseProto> writeSmallFiles(
+      XceiverClientSpi client, List<BlockID> blockIDs, List<byte[]> data,
+      List<Token<OzoneBlockTokenIdentifier>> tokens) throws IOException {
+    Preconditions.checkArgument(!blockIDs.isEmpty(), "blockIDs is empty");
+    Preconditions.checkArgument(blockIDs.size() == data.size(),
+        "blockIDs and data sizes differ: %s != %s", blockIDs.size(),
+        data.size());
+    final long containerID = blockIDs.get(0).getContainerID();
+
+    PutSmallFileBatchRequestProto.Builder batch =
+        PutSmallFileBatchRequestProto.newBuilder();
+    for (int i = 0; i < blockIDs.size(); i++) {
+      final BlockID blockID = blockIDs.get(i);
+      Preconditions.checkArgument(blockID.getContainerID() == containerID,
+          "Block %s is not in container %s", blockID, containerID);
+      batch.addFiles(getPutSmallFileRequest(blockID, data.get(i)));
+      if (tokens != null) {
+        // the tokens are matched to the files by position
+        final Token<OzoneBlockTokenIdentifier> token = tokens.get(i);
+        batch.addEncodedTokens(token != null ? token.encodeToUrlString() : "");
+      }
+    }
+
+    String id = client.getPipeline().getFirstNode().getUuidString();
+    ContainerCommandRequestProto request =
+        ContainerCommandRequestProto.newBuilder()
+            .setCmdType(Type.PutSmallFileBatch)
+            .setContainerID(containerID)
+            .setDatanodeUuid(id)
+            .setPutSmallFileBatch(batch)
+            .build();
+    ContainerCommandResponseProto response =
+        client.sendCommand(request, getValidatorList());
+    return response.getPutSmallFileBatch().getFilesList();
+  }
+
+  private static PutSmallFileRequestProto getPutSmallFileRequest(
+      BlockID blockID, byte[] data) throws IOException {
     BlockData containerBlockData =
         BlockData.newBuilder().setBlockID(blockID.getDatanodeBlockIDProtobuf())
             .build();
@@ -583,25 +651,9 @@ public static PutSmallFileResponseProto writeSmallFile(
             .setChecksumData(checksumData.getProtoBufMessage())
             .build();
 
-    PutSmallFileRequestProto putSmallFileRequest =
-        PutSmallFileRequestProto.newBuilder().setChunkInfo(chunk)
-            .setBlock(createBlockRequest).setData(ByteString.copyFrom(data))
-            .build();
-
-    String id = client.getPipeline().getFirstNode().getUuidString();
-    ContainerCommandRequestProto.Builder builder =
-        ContainerCommandRequestProto.newBuilder()
-            .setCmdType(Type.PutSmallFile)
-            .setContainerID(blockID.getContainerID())
-            .setDatanodeUuid(id)
-            .setPutSmallFile(putSmallFileRequest);
-    if (token != null) {
-      builder.setEncodedToken(token.encodeToUrlString());
-    }
-    ContainerCommandRequestProto request = builder.build();
-    ContainerCommandResponseProto response =
-        client.sendCommand(request, getValidatorList());
-    return response.getPutSmallFile();
+    return PutSmallFileRequestProto.newBuilder().setChunkInfo(chunk)
+        .setBlock(createBlockRequest).setData(ByteString.copyFrom(data))
+        .build();
   }
 
   /**
@@ -85,6 +85,12 @@ public synchronized boolean read(ByteBuffer buffer) throws IOException {
     return true;
   }
 
+  /** Similar to {@link FileChannel#size()}. */
+  public synchronized long size() throws IOException {
+    Preconditions.assertTrue(isOpen(), "Not opened");
+    return channel.size();
+  }
+
   /**
    * Close the underlying channel and file.
    * In case of exception, this method catches the exception, logs a warning message,
@@ -68,6 +68,20 @@ public final class OzoneConfigKeys {
   public static final String HDDS_CONTAINER_CHUNK_WRITE_SYNC_KEY =
       "hdds.container.chunk.write.sync";
   public static final boolean HDDS_CONTAINER_CHUNK_WRITE_SYNC_DEFAULT = false;
+  public static final String HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_KEY =
+      "hdds.container.chunk.write.sync.group-commit.enabled";
+  public static final boolean
+      HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_DEFAULT = false;
+  public static final String
+      HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_WINDOW_KEY =
+      "hdds.container.chunk.write.sync.group-commit.window";
+  public static final String
+      HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_WINDOW_DEFAULT = "2ms";
+  public static final String
+      HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_MAX_BATCH_KEY =
+      "hdds.container.chunk.write.sync.group-commit.max.batch";
+  public static final int
+      HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_MAX_BATCH_DEFAULT = 64;
   /**
    * Ratis Port where containers listen to.
    */
@@ -525,6 +539,10 @@ public final class OzoneConfigKeys {
       "ozone.client.leader.read.default.consistency";
   public static final String OZONE_CLIENT_LEADER_READ_DEFAULT_CONSISTENCY_DEFAULT =
       "DEFAULT";
+  public static final String OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_LOG_LIMIT_KEY =
+      "ozone.client.follower.read.local.lease.log.limit";
+  public static final String OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_TIME_KEY =
+      "ozone.client.follower.read.local.lease.time";
 
   public static final String OZONE_FREON_HTTP_ENABLED_KEY =
       "ozone.freon.http.enabled";
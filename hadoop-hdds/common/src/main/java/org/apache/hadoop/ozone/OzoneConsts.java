@@ -408,6 +408,9 @@ public final class OzoneConsts {
   public static final String TRANSACTION_INFO_KEY = "#TRANSACTIONINFO";
   public static final String TRANSACTION_INFO_SPLIT_KEY = "#";
 
+  // Highest execution index of the requests executed on the OM leader
+  public static final String OM_EXECUTION_INDEX_KEY = "#EXECUTIONINDEX";
+
   public static final String PREPARE_MARKER_KEY = "#PREPAREDINFO";
 
   public static final String CONTAINER_DB_TYPE_ROCKSDB = "RocksDB";
@@ -45,7 +45,8 @@ public enum DNAction implements AuditAction {
   FINALIZE_BLOCK,
   ECHO,
   GET_CONTAINER_CHECKSUM_INFO,
-  READ_BLOCK;
+  READ_BLOCK,
+  PUT_SMALL_FILE_BATCH;
 
   @Override
   public String getAction() {
@@ -415,6 +415,9 @@ public static boolean isContainerCreatable(ContainerCommandRequestProto request)
       return isContainerAutoCreateAllowed(request.getWriteChunk());
     case PutSmallFile:
       return isContainerAutoCreateAllowed(request.getPutSmallFile().getBlock());
+    case PutSmallFileBatch:
+      return request.getPutSmallFileBatch().getFilesList().stream()
+          .allMatch(f -> isContainerAutoCreateAllowed(f.getBlock()));
     default:
       return true;
     }
@@ -78,6 +78,7 @@
 import org.apache.hadoop.ozone.container.ozoneimpl.DataScanResult;
 import org.apache.hadoop.util.Time;
 import org.apache.ratis.statemachine.StateMachine;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.apache.ratis.util.UncheckedAutoCloseable;
 import org.apache.ratis.util.function.CheckedConsumer;
@@ -299,6 +300,7 @@ && getMissingContainerSet().contains(containerID)) {
        */
       if (container == null && ((isWriteStage || isCombinedStage)
           || cmdType == Type.PutSmallFile
+          || cmdType == Type.PutSmallFileBatch
           || cmdType == Type.PutBlock)) {
 
         if (!ContainerUtils.isContainerCreatable(msg)) {
@@ -324,7 +326,8 @@ && getMissingContainerSet().contains(containerID)) {
         }
         Preconditions.checkArgument(isWriteStage && container2BCSIDMap != null
             || dispatcherContext == null
-            || cmdType == Type.PutBlock);
+            || cmdType == Type.PutBlock
+            || cmdType == Type.PutSmallFileBatch);
         if (container2BCSIDMap != null) {
           // adds this container to list of containers created in the pipeline
           // with initial BCSID recorded as 0.
@@ -361,7 +364,8 @@ && getMissingContainerSet().contains(containerID)) {
       } catch (StorageContainerException e) {
         LOG.warn(e.getMessage());
         isVolumeFullForWrite = true;
-        if (cmdType == Type.WriteChunk || cmdType == Type.PutBlock || cmdType == Type.PutSmallFile) {
+        if (cmdType == Type.WriteChunk || cmdType == Type.PutBlock || cmdType == Type.PutSmallFile
+            || cmdType == Type.PutSmallFileBatch) {
           audit(action, eventType, msg, dispatcherContext, AuditEventStatus.FAILURE, e);
           return ContainerUtils.logAndReturnError(LOG, e, msg);
         }
@@ -480,7 +484,7 @@ private long getSlowOpThresholdMs(ConfigurationSource config) {
   private void updateBCSID(Container container,
       DispatcherContext dispatcherContext, Type cmdType) {
     if (dispatcherContext != null && (cmdType == Type.PutBlock
-        || cmdType == Type.PutSmallFile)) {
+        || cmdType == Type.PutSmallFile || cmdType == Type.PutSmallFileBatch)) {
       Objects.requireNonNull(container, "container == null");
       long bcsID = container.getBlockCommitSequenceId();
       long containerId = container.getContainerData().getContainerID();
@@ -537,12 +541,37 @@ ContainerCommandResponseProto createContainer(
 
   private void validateToken(
       ContainerCommandRequestProto msg) throws IOException {
+    if (msg.hasPutSmallFileBatch()) {
+      validateBatchTokens(msg);
+      return;
+    }
     tokenVerifier.verify(
         msg,
         msg.getEncodedToken()
     );
   }
 
+  /**
+   * Each file of a batch carries the token of its block, verify them as if
+   * the files were written by separate PutSmallFile requests.
+   */
+  private void validateBatchTokens(
+      ContainerCommandRequestProto msg) throws IOException {
+    final ContainerProtos.PutSmallFileBatchRequestProto batch =
+        msg.getPutSmallFileBatch();
+    final ContainerCommandRequestProto.Builder single = msg.toBuilder()
+        .clearPutSmallFileBatch()
+        .setCmdType(Type.PutSmallFile);
+    for (int i = 0; i < batch.getFilesCount(); i++) {
+      final String token = i < batch.getEncodedTokensCount()
+          ? batch.getEncodedTokens(i) : null;
+      // the data is not needed for verification
+      single.setPutSmallFile(batch.getFiles(i).toBuilder()
+          .setData(ByteString.EMPTY));
+      tokenVerifier.verify(single, token);
+    }
+  }
+
   /**
    * This will be called as a part of creating the log entry during
    * startTransaction in Ratis on the leader node. In such cases, if the
@@ -931,6 +960,7 @@ private static DNAction getAuditAction(Type cmdType) {
     case Echo             : return DNAction.ECHO;
     case GetContainerChecksumInfo: return DNAction.GET_CONTAINER_CHECKSUM_INFO;
     case ReadBlock        : return DNAction.READ_BLOCK;
+    case PutSmallFileBatch: return DNAction.PUT_SMALL_FILE_BATCH;
     default :
       LOG.debug("Invalid command type - {}", cmdType);
       return null;
@@ -1062,6 +1092,12 @@ private static Map<String, String> getAuditParams(
               .toString());
       return auditParams;
 
+    case PutSmallFileBatch:
+      auditParams.put(AUDIT_PARAM_CONTAINER_ID, containerID);
+      auditParams.put(AUDIT_PARAM_COUNT,
+          String.valueOf(msg.getPutSmallFileBatch().getFilesCount()));
+      return auditParams;
+
     case CloseContainer:
       auditParams.put(AUDIT_PARAM_CONTAINER_ID, containerID);
       return auditParams;
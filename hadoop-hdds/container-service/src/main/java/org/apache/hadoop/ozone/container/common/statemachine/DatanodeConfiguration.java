@@ -176,6 +176,79 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
   )
   private int grpcSoBacklog = GRPC_SO_BACKLOG_DEFAULT;
 
+  @Config(key = "hdds.datanode.chunk.io.engine",
+      type = ConfigType.STRING,
+      defaultValue = "direct",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Engine executing chunk reads and writes of the container"
+          + " dispatcher. 'direct' does the I/O on the dispatcher thread."
+          + " 'threadpool' does the I/O on a thread pool per volume with a"
+          + " bounded number of outstanding operations, so that a slow volume"
+          + " does not hold on to the dispatcher threads."
+  )
+  private String chunkIOEngine = "direct";
+
+  @Config(key = "hdds.datanode.chunk.io.engine.threads.per.volume",
+      type = ConfigType.INT,
+      defaultValue = "8",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Number of threads per volume of the 'threadpool' chunk"
+          + " I/O engine."
+  )
+  private int chunkIOEngineThreadsPerVolume = 8;
+
+  @Config(key = "hdds.datanode.chunk.io.engine.queue.depth",
+      type = ConfigType.INT,
+      defaultValue = "64",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Maximum number of chunk operations outstanding per volume"
+          + " in the 'threadpool' chunk I/O engine.  Reads exceeding the limit"
+          + " fail right away, writes wait for a free slot up to the write"
+          + " timeout."
+  )
+  private int chunkIOEngineQueueDepth = 64;
+
+  @Config(key = "hdds.datanode.chunk.io.engine.read.timeout",
+      type = ConfigType.TIME,
+      defaultValue = "30s",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Time the dispatcher waits for a chunk read submitted to"
+          + " the 'threadpool' chunk I/O engine before failing the request,"
+          + " 0 to wait without limit. Unit could be defined with postfix"
+          + " (ns,ms,s,m,h,d)."
+  )
+  private Duration chunkIOEngineReadTimeout = Duration.ofSeconds(30);
+
+  @Config(key = "hdds.datanode.chunk.io.engine.write.timeout",
+      type = ConfigType.TIME,
+      defaultValue = "60s",
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Time the dispatcher waits for a chunk write submitted to"
+          + " the 'threadpool' chunk I/O engine to start, including the wait"
+          + " for a free slot, before cancelling it and failing the request,"
+          + " 0 to wait without limit. A write which has started is always"
+          + " waited for. Unit could be defined with postfix (ns,ms,s,m,h,d)."
+  )
+  private Duration chunkIOEngineWriteTimeout = Duration.ofSeconds(60);
+
+  @Config(key = "hdds.datanode.chunk.read.cache.size.per.volume",
+      defaultValue = "0B",
+      type = ConfigType.SIZE,
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Off-heap memory per volume for caching chunks read by"
+          + " clients, 0 to disable the cache.  Chunks are admitted only if"
+          + " they are read more frequently than the chunks they would evict."
+  )
+  private long chunkReadCacheSizePerVolume = 0;
+
+  @Config(key = "hdds.datanode.chunk.read.cache.max.entry.size",
+      defaultValue = "1MB",
+      type = ConfigType.SIZE,
+      tags = {DATANODE, ConfigTag.PERFORMANCE},
+      description = "Largest chunk read kept in the chunk read cache."
+  )
+  private long chunkReadCacheMaxEntrySize = 1024 * 1024;
+
   /**
    * The maximum number of threads used to delete containers on a datanode
    * simultaneously.
@@ -1303,6 +1376,42 @@ static long getDefaultFreeSpace() {
     return Math.round(measure.getUnit().toBytes(measure.getValue()));
   }
 
+  public String getChunkIOEngine() {
+    return chunkIOEngine;
+  }
+
+  public void setChunkIOEngine(String chunkIOEngine) {
+    this.chunkIOEngine = chunkIOEngine;
+  }
+
+  public int getChunkIOEngineThreadsPerVolume() {
+    return chunkIOEngineThreadsPerVolume;
+  }
+
+  public int getChunkIOEngineQueueDepth() {
+    return chunkIOEngineQueueDepth;
+  }
+
+  public Duration getChunkIOEngineReadTimeout() {
+    return chunkIOEngineReadTimeout;
+  }
+
+  public Duration getChunkIOEngineWriteTimeout() {
+    return chunkIOEngineWriteTimeout;
+  }
+
+  public long getChunkReadCacheSizePerVolume() {
+    return chunkReadCacheSizePerVolume;
+  }
+
+  public void setChunkReadCacheSizePerVolume(long size) {
+    this.chunkReadCacheSizePerVolume = size;
+  }
+
+  public long getChunkReadCacheMaxEntrySize() {
+    return chunkReadCacheMaxEntrySize;
+  }
+
   public int getGrpcSoBacklog() {
     return grpcSoBacklog;
   }
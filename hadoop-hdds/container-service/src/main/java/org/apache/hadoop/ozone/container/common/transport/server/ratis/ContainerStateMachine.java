@@ -1157,6 +1157,7 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
         builder.setStage(DispatcherContext.WriteChunkStage.COMMIT_DATA);
       }
       if (cmdType == Type.WriteChunk || cmdType == Type.PutSmallFile
+          || cmdType == Type.PutSmallFileBatch
           || cmdType == Type.PutBlock || cmdType == Type.CreateContainer
           || cmdType == Type.StreamInit) {
         builder.setContainer2BCSIDMap(container2BCSIDMap);
@@ -1214,6 +1215,11 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
           if (cmdType == Type.WriteChunk || cmdType == Type.PutSmallFile) {
             metrics.incNumBytesCommittedCount(
                 requestProto.getWriteChunk().getChunkData().getLen());
+          } else if (cmdType == Type.PutSmallFileBatch) {
+            for (ContainerProtos.PutSmallFileRequestProto file
+                : requestProto.getPutSmallFileBatch().getFilesList()) {
+              metrics.incNumBytesCommittedCount(file.getChunkInfo().getLen());
+            }
           }
           applyTransactionFuture.complete(r::toByteString);
           // add the entry to the applyTransactionCompletionMap only if the
@@ -22,8 +22,10 @@
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 import org.apache.hadoop.metrics2.lib.MutableQuantiles;
 import org.apache.hadoop.metrics2.lib.MutableRate;
+import org.apache.hadoop.metrics2.lib.MutableStat;
 
 /**
  * This class is used to track Volume IO stats for each HDDS Volume.
@@ -48,6 +50,41 @@ public class VolumeIOStats {
   private MutableRate writeTime;
   @Metric
   private MutableQuantiles[] writeLatencyQuantiles;
+  @Metric
+  private MutableCounterLong fsyncBatchCount;
+  @Metric(about = "Number of write requests covered by one fsync batch.",
+      valueName = "Requests")
+  private MutableStat fsyncBatchSize;
+  @Metric
+  private MutableRate fsyncTime;
+  @Metric
+  private MutableGaugeLong ioEngineInFlight;
+  @Metric
+  private MutableCounterLong ioEngineRejected;
+  @Metric
+  private MutableCounterLong ioEngineTimedOut;
+  @Metric
+  private MutableRate ioEngineQueueTime;
+  @Metric
+  private MutableQuantiles[] ioEngineLatencyQuantiles;
+  @Metric
+  private MutableCounterLong readCacheHits;
+  @Metric
+  private MutableCounterLong readCacheMisses;
+  @Metric
+  private MutableCounterLong readCacheEvictions;
+  @Metric
+  private MutableCounterLong readCacheRejected;
+  @Metric
+  private MutableGaugeLong readCacheBytes;
+  @Metric
+  private MutableGaugeLong mappedBytes;
+  @Metric
+  private MutableCounterLong mappedRegionHits;
+  @Metric
+  private MutableCounterLong mappedRegionMaps;
+  @Metric(about = "Time to fault in the pages of newly mapped regions.")
+  private MutableRate mappedLoadTime;
 
   @Deprecated
   public VolumeIOStats() {
@@ -66,6 +103,7 @@ public VolumeIOStats(String identifier, String storageDirectory, int[] intervals
       final int length = intervals.length;
       readLatencyQuantiles = new MutableQuantiles[intervals.length];
       writeLatencyQuantiles = new MutableQuantiles[intervals.length];
+      ioEngineLatencyQuantiles = new MutableQuantiles[intervals.length];
       for (int i = 0; i < length; i++) {
         readLatencyQuantiles[i] = registry.newQuantiles(
             "readLatency" + intervals[i] + "s",
@@ -73,6 +111,10 @@ public VolumeIOStats(String identifier, String storageDirectory, int[] intervals
         writeLatencyQuantiles[i] = registry.newQuantiles(
             "writeLatency" + intervals[i] + "s",
             "Write Data File Io Latency in ms", "ops", "latency", intervals[i]);
+        ioEngineLatencyQuantiles[i] = registry.newQuantiles(
+            "ioEngineLatency" + intervals[i] + "s",
+            "Chunk I/O engine latency including queueing in ms", "ops",
+            "latency", intervals[i]);
       }
     }
     init();
@@ -157,6 +199,173 @@ public void incWriteTime(long time) {
     }
   }
 
+  /**
+   * Record a group-commit fsync batch.
+   * @param requests number of write requests covered by the batch
+   * @param time time taken to sync the batch in milliseconds
+   */
+  public void incFsyncBatch(long requests, long time) {
+    fsyncBatchCount.incr();
+    fsyncBatchSize.add(requests);
+    fsyncTime.add(time);
+  }
+
+  /**
+   * Increment the number of chunk I/O engine operations outstanding on the
+   * volume.
+   */
+  public void incIOEngineInFlight() {
+    ioEngineInFlight.incr();
+  }
+
+  /**
+   * Decrement the number of chunk I/O engine operations outstanding on the
+   * volume.
+   */
+  public void decIOEngineInFlight() {
+    ioEngineInFlight.decr();
+  }
+
+  /**
+   * Increment the operations rejected because the volume queue was full.
+   */
+  public void incIOEngineRejected() {
+    ioEngineRejected.incr();
+  }
+
+  /**
+   * Increment the operations abandoned by the caller after a timeout.
+   */
+  public void incIOEngineTimedOut() {
+    ioEngineTimedOut.incr();
+  }
+
+  /**
+   * Record the latency of a completed chunk I/O engine operation.
+   * @param queueTime time spent waiting for a worker thread in milliseconds
+   * @param totalTime time from submission to completion in milliseconds
+   */
+  public void addIOEngineLatency(long queueTime, long totalTime) {
+    ioEngineQueueTime.add(queueTime);
+    for (MutableQuantiles q : ioEngineLatencyQuantiles) {
+      q.add(totalTime);
+    }
+  }
+
+  /**
+   * Increment the chunk reads served from the read cache.
+   */
+  public void incReadCacheHits() {
+    readCacheHits.incr();
+  }
+
+  /**
+   * Increment the chunk reads not found in the read cache.
+   */
+  public void incReadCacheMisses() {
+    readCacheMisses.incr();
+  }
+
+  /**
+   * Record chunks evicted from the read cache.
+   * @param bytes total size of the evicted chunks
+   */
+  public void incReadCacheEvictions(long count, long bytes) {
+    readCacheEvictions.incr(count);
+    readCacheBytes.decr(bytes);
+  }
+
+  /**
+   * Increment the chunks not admitted to the read cache.
+   */
+  public void incReadCacheRejected() {
+    readCacheRejected.incr();
+  }
+
+  /**
+   * Record chunks added to (positive) or invalidated in (negative) the read
+   * cache.
+   */
+  public void addReadCacheBytes(long bytes) {
+    readCacheBytes.incr(bytes);
+  }
+
+  /**
+   * Record regions mapped (positive) or unmapped (negative) for reads.
+   */
+  public void addMappedBytes(long bytes) {
+    mappedBytes.incr(bytes);
+  }
+
+  /**
+   * Increment the chunk reads served from an already mapped region.
+   */
+  public void incMappedRegionHits() {
+    mappedRegionHits.incr();
+  }
+
+  /**
+   * Increment the regions mapped for reads.
+   */
+  public void incMappedRegionMaps() {
+    mappedRegionMaps.incr();
+  }
+
+  /**
+   * Add the time to fault in the pages of a newly mapped region.
+   */
+  public void addMappedLoadTime(long time) {
+    mappedLoadTime.add(time);
+  }
+
+  public long getMappedBytes() {
+    return mappedBytes.value();
+  }
+
+  public long getMappedRegionHits() {
+    return mappedRegionHits.value();
+  }
+
+  public long getMappedRegionMaps() {
+    return mappedRegionMaps.value();
+  }
+
+  public long getReadCacheHits() {
+    return readCacheHits.value();
+  }
+
+  public long getReadCacheMisses() {
+    return readCacheMisses.value();
+  }
+
+  public long getReadCacheEvictions() {
+    return readCacheEvictions.value();
+  }
+
+  public long getReadCacheRejected() {
+    return readCacheRejected.value();
+  }
+
+  public long getReadCacheBytes() {
+    return readCacheBytes.value();
+  }
+
+  /**
+   * Returns the number of chunk I/O engine operations outstanding.
+   * @return long
+   */
+  public long getIOEngineInFlight() {
+    return ioEngineInFlight.value();
+  }
+
+  /**
+   * Returns the number of chunk I/O engine operations timed out.
+   * @return long
+   */
+  public long getIOEngineTimedOut() {
+    return ioEngineTimedOut.value();
+  }
+
   /**
    * Returns total number of bytes read from the volume.
    * @return long
@@ -205,6 +414,14 @@ public long getWriteTime() {
     return (long) writeTime.lastStat().total();
   }
 
+  /**
+   * Returns total number of group-commit fsync batches on the volume.
+   * @return long
+   */
+  public long getFsyncBatchCount() {
+    return fsyncBatchCount.value();
+  }
+
   @Metric
   public String getStorageDirectory() {
     return storageDirectory;
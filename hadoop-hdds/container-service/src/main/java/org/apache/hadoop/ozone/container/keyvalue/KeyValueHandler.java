@@ -46,8 +46,10 @@
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getGetContainerMerkleTreeResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getGetSmallFileResponseSuccess;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getListBlockResponse;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getPutFileBatchResponseSuccess;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getPutFileResponseSuccess;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadBlockResponse;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadBlockResponseWithoutCopy;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadChunkResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadContainerResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getSuccessResponse;
@@ -168,6 +170,8 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
 import org.apache.hadoop.ozone.container.keyvalue.impl.BlockManagerImpl;
 import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkManagerFactory;
+import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkReadCache;
+import org.apache.hadoop.ozone.container.keyvalue.impl.MappedBufferManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.ozoneimpl.OzoneContainer;
@@ -193,6 +197,8 @@ public class KeyValueHandler extends Handler {
 
   private final BlockManager blockManager;
   private final ChunkManager chunkManager;
+  // null if the chunk read cache is disabled
+  private final ChunkReadCache readCache;
   private final VolumeChoosingPolicy volumeChoosingPolicy;
   private final long maxContainerSize;
   private final long maxDeleteLockWaitMs;
@@ -249,6 +255,7 @@ public KeyValueHandler(ConfigurationSource config,
 
     DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
     maxDeleteLockWaitMs = dnConf.getDeleteContainerTimeoutMs();
+    readCache = ChunkReadCache.create(dnConf);
     // this striped handler lock is used for synchronizing createContainer
     // Requests.
     final int threadCountPerDisk = conf.getInt(
@@ -304,6 +311,9 @@ public StateMachine.DataChannel getStreamDataChannel(
 
   @Override
   public void stop() {
+    if (readCache != null) {
+      readCache.clear();
+    }
     chunkManager.shutdown();
     blockManager.shutdown();
   }
@@ -375,6 +385,9 @@ static ContainerCommandResponseProto dispatchRequest(KeyValueHandler handler,
     case PutSmallFile:
       return handler
           .handlePutSmallFile(request, kvContainer, dispatcherContext);
+    case PutSmallFileBatch:
+      return handler
+          .handlePutSmallFileBatch(request, kvContainer, dispatcherContext);
     case GetSmallFile:
       return handler.handleGetSmallFile(request, kvContainer);
     case GetCommittedBlockLength:
@@ -1023,13 +1036,34 @@ ContainerCommandResponseProto handleReadChunk(
         chunkInfo.setReadDataIntoSingleBuffer(true);
       }
 
-      data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
-          dispatcherContext);
-      LOG.debug("read chunk from block {} chunk {}", blockID, chunkInfo);
+      // Only client reads of non-open containers are cached, their chunks
+      // no longer change.
+      final boolean readFromTmpFile =
+          DispatcherContext.op(dispatcherContext).readFromTmpFile();
+      final HddsVolume volume = kvContainer.getContainerData().getVolume();
+      final boolean cacheable = readCache != null && !readFromTmpFile
+          && checkContainerClose(kvContainer)
+          && readCache.isCacheable(chunkInfo.getLen());
+      final ChunkBuffer cached = cacheable ? readCache.get(volume, blockID,
+          chunkInfo.getOffset(), chunkInfo.getLen()) : null;
+      if (cached != null) {
+        data = cached;
+        LOG.debug("read chunk from cache for block {} chunk {}", blockID,
+            chunkInfo);
+      } else {
+        final long cacheEpoch = cacheable ? readCache.epoch(blockID) : 0;
+        data = chunkManager.readChunk(kvContainer, blockID, chunkInfo,
+            dispatcherContext);
+        LOG.debug("read chunk from block {} chunk {}", blockID, chunkInfo);
+        if (cacheable) {
+          readCache.put(volume, blockID, chunkInfo.getOffset(),
+              chunkInfo.getLen(), data, cacheEpoch);
+        }
+      }
       // Validate data only if the read chunk is issued by Ratis for its
       // internal logic.
       //  For client reads, the client is expected to validate.
-      if (DispatcherContext.op(dispatcherContext).readFromTmpFile()) {
+      if (readFromTmpFile) {
         validateChunkChecksumData(data, chunkInfo);
         metrics.incBytesReadStateMachine(chunkInfo.getLen());
         metrics.incNumReadStateMachine();
@@ -1184,8 +1218,15 @@ public void writeChunkForClosedContainer(ChunkInfo chunkInfo, BlockID blockID,
     }
 
     DispatcherContext dispatcherContext = DispatcherContext.getHandleWriteChunk();
-    chunkManager.writeChunk(kvContainer, blockID, chunkInfo, data,
-        dispatcherContext);
+    try {
+      chunkManager.writeChunk(kvContainer, blockID, chunkInfo, data,
+          dispatcherContext);
+    } finally {
+      // after the overwrite, so that no read of the old data is cached again
+      if (readCache != null) {
+        readCache.invalidate(blockID);
+      }
+    }
 
     // Increment write stats for WriteChunk after write.
     metrics.incClosedContainerBytesStats(Type.WriteChunk, chunkInfo.getLen());
@@ -1298,6 +1339,81 @@ ContainerCommandResponseProto handlePutSmallFile(
     return getPutFileResponseSuccess(request, blockDataProto);
   }
 
+  /**
+   * Handle Put Small File Batch operation. Writes the chunks of all the
+   * files, then commits their blocks to the container DB in a single batch.
+   */
+  ContainerCommandResponseProto handlePutSmallFileBatch(
+      ContainerCommandRequestProto request, KeyValueContainer kvContainer,
+      DispatcherContext dispatcherContext) {
+
+    if (!request.hasPutSmallFileBatch()) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Malformed Put Small File Batch request. trace ID: {}",
+            request.getTraceID());
+      }
+      return malformedRequest(request);
+    }
+
+    final List<PutSmallFileRequestProto> files =
+        request.getPutSmallFileBatch().getFilesList();
+    final List<ContainerProtos.BlockData> blockDataProtos =
+        new ArrayList<>(files.size());
+    try {
+      checkContainerOpen(kvContainer);
+      if (dispatcherContext == null) {
+        dispatcherContext = DispatcherContext.getHandlePutSmallFile();
+      }
+
+      final List<BlockData> blocks = new ArrayList<>(files.size());
+      long bytes = 0;
+      for (PutSmallFileRequestProto file : files) {
+        BlockData blockData = BlockData.getFromProtoBuf(
+            file.getBlock().getBlockData());
+        Objects.requireNonNull(blockData, "blockData == null");
+        if (blockData.getContainerID() != kvContainer.getContainerData().getContainerID()) {
+          throw new StorageContainerException("Block " + blockData.getBlockID()
+              + " does not belong to container "
+              + kvContainer.getContainerData().getContainerID(),
+              INVALID_ARGUMENT);
+        }
+
+        ContainerProtos.ChunkInfo chunkInfoProto = file.getChunkInfo();
+        ChunkInfo chunkInfo = ChunkInfo.getFromProtoBuf(chunkInfoProto);
+        Objects.requireNonNull(chunkInfo, "chunkInfo == null");
+
+        ChunkBuffer data = ChunkBuffer.wrap(
+            file.getData().asReadOnlyByteBufferList());
+        validateChunkChecksumData(data, chunkInfo);
+        chunkManager.writeChunk(kvContainer, blockData.getBlockID(), chunkInfo,
+            data, dispatcherContext);
+        chunkManager.finishWriteChunks(kvContainer, blockData);
+
+        List<ContainerProtos.ChunkInfo> chunks = new LinkedList<>();
+        chunks.add(chunkInfoProto);
+        blockData.setChunks(chunks);
+        blockData.setBlockCommitSequenceId(dispatcherContext.getLogIndex());
+        blocks.add(blockData);
+        bytes += chunkInfo.getLen();
+      }
+
+      blockManager.putBlocks(kvContainer, blocks);
+
+      for (BlockData blockData : blocks) {
+        blockDataProtos.add(blockData.getProtoBufMessage());
+      }
+      metrics.incContainerBytesStats(Type.PutSmallFileBatch, bytes);
+    } catch (StorageContainerException ex) {
+      return ContainerUtils.logAndReturnError(LOG, ex, request);
+    } catch (IOException ex) {
+      return ContainerUtils.logAndReturnError(LOG,
+          new StorageContainerException("Put Small File Batch failed", ex,
+              PUT_SMALL_FILE_ERROR), request);
+    }
+
+    return getPutFileBatchResponseSuccess(request, blockDataProtos);
+  }
+
   /**
    * Handle Get Small File operation. Gets a data stream using a key. This
    * helps in reducing the RPC overhead for small files. Calls BlockManager and
@@ -1686,6 +1802,9 @@ public void closeContainer(Container container)
     } finally {
       lockedContainer.writeUnlock();
     }
+    if (readCache != null) {
+      readCache.invalidate(containerID);
+    }
     updateContainerChecksumFromMetadataIfNeeded(lockedContainer);
     ContainerLogger.logClosed(lockedContainer.getContainerData());
     sendICR(lockedContainer);
@@ -2215,7 +2334,13 @@ private boolean previousChunkPresent(BlockID blockID, long chunkOffset,
   @Override
   public void deleteBlock(Container container, BlockData blockData)
       throws IOException {
-    chunkManager.deleteChunks(container, blockData);
+    try {
+      chunkManager.deleteChunks(container, blockData);
+    } finally {
+      if (readCache != null) {
+        readCache.invalidate(blockData.getBlockID());
+      }
+    }
     if (LOG.isDebugEnabled()) {
       for (ContainerProtos.ChunkInfo chunkInfo : blockData.getChunks()) {
         ChunkInfo info = ChunkInfo.getFromProtoBuf(chunkInfo);
@@ -2262,17 +2387,23 @@ public void deleteUnreferenced(Container container, long localID)
           containerID, localID);
       return;
     }
-    for (String name: chunkNames) {
-      File file = new File(chunkDir, name);
-      if (!file.isFile()) {
-        continue;
+    try {
+      for (String name: chunkNames) {
+        File file = new File(chunkDir, name);
+        if (!file.isFile()) {
+          continue;
+        }
+        if (!deleteUnreferencedFile(file)) {
+          throw new IOException("Failed to delete unreferenced chunk/block "
+              + file + " in container " + containerID);
+        }
+        LOG.info("Deleted unreferenced chunk/block {} in container {}", name,
+            containerID);
       }
-      if (!deleteUnreferencedFile(file)) {
-        throw new IOException("Failed to delete unreferenced chunk/block "
-            + file + " in container " + containerID);
+    } finally {
+      if (readCache != null) {
+        readCache.invalidate(new BlockID(containerID, localID));
       }
-      LOG.info("Deleted unreferenced chunk/block {} in container {}", name,
-          containerID);
     }
   }
 
@@ -2372,41 +2503,74 @@ private long readBlockImpl(ContainerCommandRequestProto request, RandomAccessFil
     final long offsetAlignment = readBlock.getOffset() % bytesPerChecksum;
     long adjustedOffset = readBlock.getOffset() - offsetAlignment;
 
-    final ByteBuffer buffer = ByteBuffer.allocate(responseDataSize);
-    blockFile.position(adjustedOffset);
+    // With zero copy, each response wraps a region of the block file mapped by the chunk manager, so the data is
+    // copied only once, by the transport, and the checksums come from the block metadata.  A region which cannot be
+    // mapped is read into a heap buffer instead.  The transport serializes the response in onNext, after which the
+    // region is released, so that it is unmapped once evicted.
+    final boolean zeroCopy = getBlockManager().isReadBlockZeroCopy();
+    ByteBuffer readBuffer = null;
+    final long fileSize = zeroCopy ? blockFile.size() : -1;
     long totalDataLength = 0;
     int numResponses = 0;
     final long rounded = roundUp(readBlock.getLength() + offsetAlignment, bytesPerChecksum);
     final long requiredLength = Math.min(rounded, blockData.getSize() - adjustedOffset);
-    LOG.debug("adjustedOffset {}, requiredLength {}, blockSize {}",
-        adjustedOffset, requiredLength, blockData.getSize());
+    LOG.debug("adjustedOffset {}, requiredLength {}, blockSize {}, zeroCopy {}",
+        adjustedOffset, requiredLength, blockData.getSize(), zeroCopy);
     for (boolean shouldRead = true; totalDataLength < requiredLength && shouldRead;) {
-      shouldRead = blockFile.read(buffer);
-      buffer.flip();
-      final int readLength = buffer.remaining();
-      if (readLength == 0) {
-        assertTrue(!shouldRead);
-        break;
-      }
-      assertTrue(readLength > 0, () -> "readLength = " + readLength + " <= 0");
-
-      if (checksumType != ContainerProtos.ChecksumType.NONE) {
-        final List<ByteString> checksums = getChecksums(adjustedOffset, readLength,
-            bytesPerChunk, bytesPerChecksum, chunkInfos);
-        LOG.debug("Read {} at adjustedOffset {}, readLength {}, bytesPerChunk {}, bytesPerChecksum {}",
-            readBlock, adjustedOffset, readLength, bytesPerChunk, bytesPerChecksum);
-        checksumData = new ChecksumData(checksumType, bytesPerChecksum, checksums);
-        if (verifyChecksum) {
-          Checksum.verifyChecksum(buffer.duplicate(), checksumData, 0);
+      MappedBufferManager.Region region = null;
+      if (zeroCopy) {
+        final int mapLength = Math.toIntExact(Math.min(responseDataSize, fileSize - adjustedOffset));
+        if (mapLength > 0) {
+          region = getChunkManager().mapBlockRegion(kvContainer, blockID, adjustedOffset, mapLength);
+        }
+      }
+      final boolean mapped = region != null;
+      final ByteBuffer buffer;
+      if (mapped) {
+        buffer = region.getBuffer();
+        shouldRead = adjustedOffset + buffer.remaining() < fileSize;
+      } else {
+        if (readBuffer == null) {
+          readBuffer = ByteBuffer.allocate(responseDataSize);
+        }
+        buffer = readBuffer;
+        blockFile.position(adjustedOffset);
+        shouldRead = blockFile.read(buffer);
+        buffer.flip();
+      }
+      final int readLength;
+      final int dataLength;
+      try {
+        readLength = buffer.remaining();
+        if (readLength == 0) {
+          assertTrue(!shouldRead);
+          break;
+        }
+        assertTrue(readLength > 0, () -> "readLength = " + readLength + " <= 0");
+
+        if (checksumType != ContainerProtos.ChecksumType.NONE) {
+          final List<ByteString> checksums = getChecksums(adjustedOffset, readLength,
+              bytesPerChunk, bytesPerChecksum, chunkInfos);
+          LOG.debug("Read {} at adjustedOffset {}, readLength {}, bytesPerChunk {}, bytesPerChecksum {}",
+              readBlock, adjustedOffset, readLength, bytesPerChunk, bytesPerChecksum);
+          checksumData = new ChecksumData(checksumType, bytesPerChecksum, checksums);
+          if (verifyChecksum) {
+            Checksum.verifyChecksum(buffer.duplicate(), checksumData, 0);
+          }
+        }
+        final ContainerCommandResponseProto response = mapped
+            ? getReadBlockResponseWithoutCopy(request, checksumData, buffer, adjustedOffset)
+            : getReadBlockResponse(request, checksumData, buffer, adjustedOffset);
+        dataLength = response.getReadBlock().getData().size();
+        LOG.debug("server onNext response {}: dataLength={}, numChecksums={}",
+            numResponses, dataLength, response.getReadBlock().getChecksumData().getChecksumsList().size());
+        streamObserver.onNext(response);
+        buffer.clear();
+      } finally {
+        if (mapped) {
+          region.release();
         }
       }
-      final ContainerCommandResponseProto response = getReadBlockResponse(
-          request, checksumData, buffer, adjustedOffset);
-      final int dataLength = response.getReadBlock().getData().size();
-      LOG.debug("server onNext response {}: dataLength={}, numChecksums={}",
-          numResponses, dataLength, response.getReadBlock().getChecksumData().getChecksumsList().size());
-      streamObserver.onNext(response);
-      buffer.clear();
 
       adjustedOffset += readLength;
       totalDataLength += dataLength;
@@ -2590,7 +2754,13 @@ private void deleteInternal(Container container, boolean force)
           containerLocked.markContainerForDelete();
           containerSet.removeContainer(containerId);
           ContainerLogger.logDeleted(containerLocked.getContainerData(), force);
-          KeyValueContainerUtil.removeContainer(keyValueContainerData, conf);
+          try {
+            KeyValueContainerUtil.removeContainer(keyValueContainerData, conf);
+          } finally {
+            if (readCache != null) {
+              readCache.invalidate(containerId);
+            }
+          }
         } catch (IOException ioe) {
           LOG.error("Failed to move container under " + hddsVolume
               .getDeletedContainerDir());
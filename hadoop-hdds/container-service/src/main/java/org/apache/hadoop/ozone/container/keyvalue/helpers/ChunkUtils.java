@@ -50,7 +50,6 @@
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.ToLongFunction;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
@@ -216,6 +215,39 @@ public static ChunkBuffer readData(long len, int bufferCapacity,
     return ChunkBuffer.wrap(Arrays.asList(buffers));
   }
 
+  /**
+   * Similar to {@link #readData(long, int, File, long, HddsVolume, int,
+   * boolean, MappedBufferManager)}, but if the context supports release,
+   * the mapped regions are held only until the response has been sent, so
+   * they can be unmapped as soon as they are evicted.
+   *
+   * @param mappedBufferManager null if memory mapped reads are disabled
+   */
+  @SuppressWarnings("checkstyle:parameternumber")
+  public static ChunkBufferToByteString readData(long len, int bufferCapacity,
+      File file, long off, HddsVolume volume, int readMappedBufferThreshold,
+      MappedBufferManager mappedBufferManager, DispatcherContext context)
+      throws StorageContainerException {
+    final boolean tracked = context != null && context.isReleaseSupported();
+    if (!tracked || mappedBufferManager == null
+        || len <= readMappedBufferThreshold
+        || bufferCapacity <= readMappedBufferThreshold) {
+      return readData(len, bufferCapacity, file, off, volume,
+          readMappedBufferThreshold, mappedBufferManager != null,
+          mappedBufferManager);
+    }
+
+    final List<MappedBufferManager.Region> regions = readMappedRegions(file,
+        bufferCapacity, off, len, volume, mappedBufferManager, true);
+    if (regions == null) {
+      return readData(len, bufferCapacity, file, off, volume,
+          readMappedBufferThreshold, false, null);
+    }
+    final ChunkBufferToByteString data = MappedBufferManager.wrap(regions);
+    context.setReleaseMethod(data::release);
+    return data;
+  }
+
   private static void readData(File file, long offset, long len,
       CheckedFunction<FileChannel, Long, Exception> readMethod,
       HddsVolume volume) throws StorageContainerException {
@@ -255,50 +287,108 @@ private static void readData(File file, long offset, long len,
   private static ChunkBuffer readData(File file, int chunkSize,
       long offset, long length, HddsVolume volume, MappedBufferManager mappedBufferManager)
       throws StorageContainerException {
-
-    final int bufferNum = Math.toIntExact((length - 1) / chunkSize) + 1;
-    if (!mappedBufferManager.getQuota(bufferNum)) {
+    final List<MappedBufferManager.Region> regions = readMappedRegions(file,
+        chunkSize, offset, length, volume, mappedBufferManager, false);
+    if (regions == null) {
       // proceed with normal buffer
       final ByteBuffer[] buffers = BufferUtils.assignByteBuffers(length,
           chunkSize);
       readData(file, offset, length, c -> c.position(offset).read(buffers), volume);
       Arrays.stream(buffers).forEach(ByteBuffer::flip);
       return ChunkBuffer.wrap(Arrays.asList(buffers));
-    } else {
-      try {
-        // proceed with mapped buffer
-        final List<ByteBuffer> buffers = new ArrayList<>(bufferNum);
-        readData(file, offset, length, channel -> {
-          long readLen = 0;
-          while (readLen < length) {
-            final int n = Math.toIntExact(Math.min(length - readLen, chunkSize));
-            final long finalOffset = offset + readLen;
-            final AtomicReference<IOException> exception = new AtomicReference<>();
-            ByteBuffer mapped = mappedBufferManager.computeIfAbsent(file.getAbsolutePath(), finalOffset, n,
-                () -> {
-                  try {
-                    return channel.map(FileChannel.MapMode.READ_ONLY, finalOffset, n);
-                  } catch (IOException e) {
-                    LOG.error("Failed to map file {} with offset {} and length {}", file, finalOffset, n);
-                    exception.set(e);
-                    return null;
-                  }
-                });
-            if (mapped == null) {
-              throw exception.get();
-            }
-            LOG.debug("mapped: offset={}, readLen={}, n={}, {}", finalOffset, readLen, n, mapped.getClass());
-            readLen += mapped.remaining();
-            buffers.add(mapped);
+    }
+    final List<ByteBuffer> buffers = new ArrayList<>(regions.size());
+    for (MappedBufferManager.Region region : regions) {
+      buffers.add(region.getBuffer());
+    }
+    return ChunkBuffer.wrap(buffers);
+  }
+
+  /**
+   * Map the given range of the file as a single region through the
+   * {@link MappedBufferManager}, so that repeated reads of the same range
+   * reuse the mapping.  The region is tracked: the caller must release it
+   * once its data has been sent.
+   *
+   * @return the region of the range, or null if it cannot be mapped now
+   */
+  public static MappedBufferManager.Region mapData(File file, long offset,
+      int length, HddsVolume volume, MappedBufferManager mappedBufferManager)
+      throws StorageContainerException {
+    final List<MappedBufferManager.Region> regions = readMappedRegions(file,
+        length, offset, length, volume, mappedBufferManager, true);
+    return regions == null ? null : regions.get(0);
+  }
+
+  /**
+   * Get the mapped regions covering the given range of the file, in pieces
+   * of chunkSize.  Regions already mapped are served without opening the
+   * file.
+   *
+   * @param tracked whether the caller releases the regions
+   * @return the regions, or null if they cannot be mapped now
+   */
+  @SuppressWarnings("checkstyle:parameternumber")
+  private static List<MappedBufferManager.Region> readMappedRegions(
+      File file, int chunkSize, long offset, long length, HddsVolume volume,
+      MappedBufferManager mappedBufferManager, boolean tracked)
+      throws StorageContainerException {
+    final String path = file.getAbsolutePath();
+    final long startTime = Time.monotonicNow();
+    final List<MappedBufferManager.Region> regions = new ArrayList<>(
+        Math.toIntExact((length - 1) / chunkSize) + 1);
+    long readLen = 0;
+    while (readLen < length) {
+      final int n = Math.toIntExact(Math.min(length - readLen, chunkSize));
+      final MappedBufferManager.Region region =
+          mappedBufferManager.get(path, offset + readLen, n, tracked);
+      if (region == null) {
+        break;
+      }
+      regions.add(region);
+      readLen += n;
+    }
+
+    if (readLen < length) {
+      final Path filePath = file.toPath();
+      try (AutoCloseableLock ignoredLock = getFileReadLock(filePath);
+           FileChannel channel = open(filePath, READ_OPTIONS, NO_ATTRIBUTES)) {
+        while (readLen < length) {
+          final int n = Math.toIntExact(Math.min(length - readLen, chunkSize));
+          final long regionOffset = offset + readLen;
+          final MappedBufferManager.Region region = mappedBufferManager.map(
+              path, regionOffset, n, volume, tracked,
+              () -> channel.map(FileChannel.MapMode.READ_ONLY, regionOffset, n));
+          if (region == null) {
+            LOG.debug("Too many mapped regions, reading {} into heap buffers",
+                file);
+            release(regions, tracked);
+            return null;
           }
-          return readLen;
-        }, volume);
-        return ChunkBuffer.wrap(buffers);
-      } catch (Throwable e) {
-        mappedBufferManager.releaseQuota(bufferNum);
-        throw e;
+          LOG.debug("mapped: offset={}, readLen={}, n={}", regionOffset, readLen, n);
+          regions.add(region);
+          readLen += n;
+        }
+      } catch (Exception e) {
+        release(regions, tracked);
+        LOG.error("Failed to map file {} with offset {} and length {}",
+            file, offset + readLen, length - readLen);
+        onFailure(volume);
+        throw wrapInStorageContainerException(e);
       }
     }
+
+    if (volume != null) {
+      volume.getVolumeIOStats().recordReadOperation(startTime, length);
+    }
+    return regions;
+  }
+
+  private static void release(List<MappedBufferManager.Region> regions,
+      boolean tracked) {
+    if (tracked) {
+      regions.forEach(MappedBufferManager.Region::release);
+    }
   }
 
   public static ChunkBufferToByteString readData(File file, long chunkSize,
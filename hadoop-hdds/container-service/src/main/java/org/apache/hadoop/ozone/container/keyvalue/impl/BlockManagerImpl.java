@@ -24,10 +24,13 @@
 import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.conf.StorageUnit;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.upgrade.HDDSLayoutFeature;
@@ -62,7 +65,9 @@ public class BlockManagerImpl implements BlockManager {
   private final int defaultReadBufferCapacity;
   private final int readMappedBufferThreshold;
   private final int readMappedBufferMaxCount;
+  private final long readMappedBufferMaxSize;
   private final boolean readNettyChunkedNioFile;
+  private final boolean readBlockZeroCopy;
 
   /**
    * Constructs a Block Manager.
@@ -81,9 +86,16 @@ public BlockManagerImpl(ConfigurationSource conf) {
     this.readMappedBufferMaxCount = config.getInt(
         ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_KEY,
         ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_DEFAULT);
+    this.readMappedBufferMaxSize = (long) config.getStorageSize(
+        ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_SIZE_KEY,
+        ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_SIZE_DEFAULT,
+        StorageUnit.BYTES);
     this.readNettyChunkedNioFile = config.getBoolean(
         ScmConfigKeys.OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_KEY,
         ScmConfigKeys.OZONE_CHUNK_READ_NETTY_CHUNKED_NIO_FILE_DEFAULT);
+    this.readBlockZeroCopy = config.getBoolean(
+        ScmConfigKeys.OZONE_CHUNK_READ_BLOCK_ZERO_COPY_KEY,
+        ScmConfigKeys.OZONE_CHUNK_READ_BLOCK_ZERO_COPY_DEFAULT);
   }
 
   @Override
@@ -99,6 +111,94 @@ public long putBlock(Container container, BlockData data,
         data, endOfBlock);
   }
 
+  @Override
+  public long putBlocks(Container container, List<BlockData> blocks)
+      throws IOException {
+    Objects.requireNonNull(blocks, "blocks == null");
+    final KeyValueContainer kvContainer = (KeyValueContainer) container;
+    final KeyValueContainerData containerData = kvContainer.getContainerData();
+    long size = 0;
+    for (BlockData data : blocks) {
+      Preconditions.checkState(
+          data.getContainerID() == containerData.getContainerID(),
+          "Block %s does not belong to container %s", data.getBlockID(),
+          containerData.getContainerID());
+      size += data.getSize();
+    }
+    if (blocks.isEmpty()) {
+      return size;
+    }
+
+    try (DBHandle db = BlockUtils.getDB(containerData, config)) {
+      Objects.requireNonNull(db, "db == null");
+
+      // All the blocks are committed by the same transaction.
+      final long bcsId = blocks.get(0).getBlockCommitSequenceId();
+      final long containerBCSId = containerData.getBlockCommitSequenceId();
+      if ((bcsId != 0) && (bcsId <= containerBCSId)) {
+        // the transaction is reapplied on restart, see persistPutBlock
+        LOG.debug("blockCommitSequenceId {} in the Container Db is greater"
+                + " than the supplied value {}. Ignoring it",
+            containerBCSId, bcsId);
+        return size;
+      }
+
+      final boolean incrementalEnabled =
+          VersionedDatanodeFeatures.isFinalized(HDDSLayoutFeature.HBASE_SUPPORT);
+      final Set<Long> newBlocks = new HashSet<>();
+      try (BatchOperation batch = db.getStore().getBatchHandler()
+          .initBatchOperation()) {
+        for (BlockData data : blocks) {
+          Preconditions.checkState(data.getBlockCommitSequenceId() == bcsId,
+              "Block %s has bcsId %s, expected %s", data.getBlockID(),
+              data.getBlockCommitSequenceId(), bcsId);
+          if (!incrementalEnabled && isPartialChunkList(data)) {
+            throw new StorageContainerException("DataNode has not finalized " +
+                "upgrading to a version that supports incremental chunk list.", UNSUPPORTED_REQUEST);
+          }
+          final long localID = data.getLocalID();
+          if (!newBlocks.contains(localID)
+              && !kvContainer.isBlockInPendingPutBlockCache(localID)
+              && db.getStore().getBlockDataTable().get(
+                  containerData.getBlockKey(localID)) == null) {
+            newBlocks.add(localID);
+          }
+          db.getStore().putBlockByID(batch, incrementalEnabled, localID, data,
+              containerData, true);
+        }
+        if (bcsId != 0) {
+          db.getStore().getMetadataTable().putWithBatch(
+              batch, containerData.getBcsIdKey(), bcsId);
+        }
+
+        final ContainerData.BlockByteAndCounts b = containerData.getStatistics().getBlockByteAndCounts();
+        db.getStore().getMetadataTable().putWithBatch(batch, containerData.getBytesUsedKey(), b.getBytes());
+        if (!newBlocks.isEmpty()) {
+          db.getStore().getMetadataTable().putWithBatch(batch, containerData.getBlockCountKey(),
+              b.getCount() + newBlocks.size());
+        }
+
+        db.getStore().getBatchHandler().commitBatchOperation(batch);
+      }
+
+      if (bcsId != 0) {
+        container.updateBlockCommitSequenceId(bcsId);
+      }
+      for (int i = 0; i < newBlocks.size(); i++) {
+        containerData.getStatistics().incrementBlockCount();
+      }
+      for (BlockData data : blocks) {
+        kvContainer.removeFromPendingPutBlockCache(data.getLocalID());
+      }
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("{} blocks successfully committed to container {} with"
+            + " bcsId {}", blocks.size(), containerData.getContainerID(), bcsId);
+      }
+      return size;
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -407,11 +507,21 @@ public int getReadMappedBufferMaxCount() {
     return readMappedBufferMaxCount;
   }
 
+  @Override
+  public long getReadMappedBufferMaxSize() {
+    return readMappedBufferMaxSize;
+  }
+
   @Override
   public boolean isReadNettyChunkedNioFile() {
     return readNettyChunkedNioFile;
   }
 
+  @Override
+  public boolean isReadBlockZeroCopy() {
+    return readBlockZeroCopy;
+  }
+
   /**
    * Deletes an existing block.
    * As Deletion is handled by BlockDeletingService,
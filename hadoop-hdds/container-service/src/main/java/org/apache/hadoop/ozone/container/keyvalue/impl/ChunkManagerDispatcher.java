@@ -40,6 +40,7 @@
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkIOEngine;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.ratis.statemachine.StateMachine;
 import org.apache.ratis.util.function.CheckedConsumer;
@@ -57,11 +58,21 @@ public class ChunkManagerDispatcher implements ChunkManager {
   private final Map<ContainerLayoutVersion, ChunkManager> handlers
       = new EnumMap<>(ContainerLayoutVersion.class);
 
+  private final ChunkIOEngine ioEngine;
+
   ChunkManagerDispatcher(boolean sync, BlockManager manager) {
+    this(sync, manager, -1, 1, DirectChunkIOEngine.INSTANCE);
+  }
+
+  ChunkManagerDispatcher(boolean sync, BlockManager manager,
+      long groupCommitWindowNanos, int groupCommitMaxBatch,
+      ChunkIOEngine ioEngine) {
+    this.ioEngine = Objects.requireNonNull(ioEngine, "ioEngine == null");
     handlers.put(FILE_PER_CHUNK,
         new FilePerChunkStrategy(sync, manager));
     handlers.put(FILE_PER_BLOCK,
-        new FilePerBlockStrategy(sync, manager));
+        new FilePerBlockStrategy(sync, manager,
+            groupCommitWindowNanos, groupCommitMaxBatch));
   }
 
   @Override
@@ -69,8 +80,12 @@ public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
       ChunkBuffer data, DispatcherContext dispatcherContext)
       throws StorageContainerException {
 
-    selectHandler(container)
-        .writeChunk(container, blockID, info, data, dispatcherContext);
+    final ChunkManager handler = selectHandler(container);
+    ioEngine.execute(container.getContainerData().getVolume(),
+        ChunkIOEngine.Op.WRITE, () -> {
+          handler.writeChunk(container, blockID, info, data, dispatcherContext);
+          return null;
+        }, ignored -> { });
   }
 
   @Override
@@ -109,8 +124,11 @@ public ChunkBufferToByteString readChunk(Container container, BlockID blockID,
       ChunkInfo info, DispatcherContext dispatcherContext)
       throws StorageContainerException {
 
-    final ChunkBufferToByteString data = selectHandler(container)
-        .readChunk(container, blockID, info, dispatcherContext);
+    final ChunkManager handler = selectHandler(container);
+    final ChunkBufferToByteString data = ioEngine.execute(
+        container.getContainerData().getVolume(), ChunkIOEngine.Op.READ,
+        () -> handler.readChunk(container, blockID, info, dispatcherContext),
+        ChunkBufferToByteString::release);
 
     Objects.requireNonNull(data, "data == null");
     container.getContainerData().getStatistics().updateRead(info.getLen());
@@ -145,6 +163,13 @@ public void deleteChunks(Container container, BlockData blockData)
     selectHandler(container).deleteChunks(container, blockData);
   }
 
+  @Override
+  public MappedBufferManager.Region mapBlockRegion(Container container, BlockID blockID,
+      long offset, int length) throws StorageContainerException {
+    return selectHandler(container)
+        .mapBlockRegion(container, blockID, offset, length);
+  }
+
   @Override
   public RandomAccessFile getShortCircuitFd(Container container, BlockID blockID)
       throws StorageContainerException {
@@ -154,6 +179,7 @@ public RandomAccessFile getShortCircuitFd(Container container, BlockID blockID)
   @Override
   public void shutdown() {
     handlers.values().forEach(ChunkManager::shutdown);
+    ioEngine.shutdown();
   }
 
   private @Nonnull ChunkManager selectHandler(Container container)
@@ -21,10 +21,13 @@
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_PERSISTDATA_DEFAULT;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.HDDS_CONTAINER_SCRUB_ENABLED;
 
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkIOEngine;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration;
 import org.slf4j.Logger;
@@ -74,6 +77,39 @@ public static ChunkManager createChunkManager(ConfigurationSource conf,
       return new ChunkManagerDummyImpl();
     }
 
-    return new ChunkManagerDispatcher(sync, manager);
+    long groupCommitWindowNanos = -1;
+    int groupCommitMaxBatch = 1;
+    if (sync && conf.getBoolean(
+        OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_KEY,
+        OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_DEFAULT)) {
+      groupCommitWindowNanos = conf.getTimeDuration(
+          OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_WINDOW_KEY,
+          OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_WINDOW_DEFAULT,
+          TimeUnit.NANOSECONDS);
+      groupCommitMaxBatch = Math.max(1, conf.getInt(
+          OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_MAX_BATCH_KEY,
+          OzoneConfigKeys.HDDS_CONTAINER_CHUNK_WRITE_SYNC_GROUP_COMMIT_MAX_BATCH_DEFAULT));
+      LOG.info("Chunk write group-commit sync enabled: window {} ns,"
+          + " max batch {}", groupCommitWindowNanos, groupCommitMaxBatch);
+    }
+
+    return new ChunkManagerDispatcher(sync, manager,
+        groupCommitWindowNanos, groupCommitMaxBatch,
+        createIOEngine(conf.getObject(DatanodeConfiguration.class)));
+  }
+
+  static ChunkIOEngine createIOEngine(DatanodeConfiguration dnConf) {
+    final String engine = dnConf.getChunkIOEngine();
+    if ("threadpool".equalsIgnoreCase(engine)) {
+      return new VolumeThreadPoolChunkIOEngine(
+          dnConf.getChunkIOEngineThreadsPerVolume(),
+          dnConf.getChunkIOEngineQueueDepth(),
+          dnConf.getChunkIOEngineReadTimeout().toMillis(),
+          dnConf.getChunkIOEngineWriteTimeout().toMillis());
+    }
+    if (!"direct".equalsIgnoreCase(engine)) {
+      LOG.warn("Unknown chunk I/O engine {}, using direct I/O", engine);
+    }
+    return DirectChunkIOEngine.INSTANCE;
   }
 }
@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.common.ChunkBufferToByteString;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
+
+/**
+ * Off-heap cache of chunk data read by clients, with a memory limit per
+ * volume.
+ * <p>
+ * Entries are evicted in LRU order, but a new entry is admitted only if it
+ * has been requested more frequently than each entry it would evict
+ * (TinyLFU), so that a scan of cold data does not flush hot chunks.
+ * The access frequencies are estimated by a count-min sketch per volume,
+ * which is periodically halved to age out past popularity.
+ * <p>
+ * Only data of non-open containers should be cached.  Callers take the
+ * {@link #epoch(BlockID)} of the block before reading from disk and pass it
+ * to {@link #put}, so that data read concurrently with an invalidation is not
+ * cached.  The epochs are striped by container, so an invalidation discards
+ * only the concurrent reads of containers sharing its stripe.  Data must be
+ * invalidated after it has been deleted or overwritten on disk.
+ */
+public class ChunkReadCache {
+
+  private static final int EPOCH_STRIPES = 1024;
+
+  private final long capacityPerVolume;
+  private final long maxEntrySize;
+  private final Map<HddsVolume, Segment> segments = new ConcurrentHashMap<>();
+  /** Invalidation epochs, striped by container ID. */
+  private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+  public ChunkReadCache(long capacityPerVolume, long maxEntrySize) {
+    Preconditions.checkArgument(capacityPerVolume > 0,
+        "capacityPerVolume = %s <= 0", capacityPerVolume);
+    Preconditions.checkArgument(maxEntrySize > 0 && maxEntrySize <= Integer.MAX_VALUE,
+        "maxEntrySize = %s is out of range", maxEntrySize);
+    this.capacityPerVolume = capacityPerVolume;
+    this.maxEntrySize = Math.min(maxEntrySize, capacityPerVolume);
+  }
+
+  /**
+   * @return the cache configured for the datanode, or null if disabled
+   */
+  public static ChunkReadCache create(DatanodeConfiguration conf) {
+    final long capacity = conf.getChunkReadCacheSizePerVolume();
+    if (capacity <= 0) {
+      return null;
+    }
+    return new ChunkReadCache(capacity, conf.getChunkReadCacheMaxEntrySize());
+  }
+
+  /** @return whether a chunk read of the given length may be cached. */
+  public boolean isCacheable(long length) {
+    return length > 0 && length <= maxEntrySize;
+  }
+
+  /**
+   * @return the current invalidation epoch of the block, to be passed to
+   *         {@link #put}.
+   */
+  public long epoch(BlockID blockID) {
+    return epochs.get(stripe(blockID.getContainerID()));
+  }
+
+  /**
+   * Look up a chunk and record the access for admission.
+   *
+   * @return the cached data, or null if not cached
+   */
+  public ChunkBuffer get(HddsVolume volume, BlockID blockID, long offset,
+      long length) {
+    if (volume == null || !isCacheable(length)) {
+      return null;
+    }
+    final ByteBuffer data = segment(volume).get(
+        new Key(blockID.getContainerID(), blockID.getLocalID(), offset, length));
+    return data == null ? null : ChunkBuffer.wrap(data);
+  }
+
+  /**
+   * Offer a chunk read from disk to the cache.
+   *
+   * @param readEpoch value of {@link #epoch(BlockID)} before the data was
+   *                  read
+   */
+  public void put(HddsVolume volume, BlockID blockID, long offset,
+      long length, ChunkBufferToByteString data, long readEpoch) {
+    if (volume == null || !isCacheable(length)) {
+      return;
+    }
+    final Key key = new Key(blockID.getContainerID(), blockID.getLocalID(),
+        offset, length);
+    final Segment segment = segment(volume);
+    if (!segment.admit(key)) {
+      return;
+    }
+
+    final ByteBuffer copy = ByteBuffer.allocateDirect((int) length);
+    for (ByteString b : data.toByteStringList(UnsafeByteOperations::unsafeWrap)) {
+      if (b.size() > copy.remaining()) {
+        return;
+      }
+      b.copyTo(copy);
+    }
+    if (copy.hasRemaining()) {
+      return;
+    }
+    copy.flip();
+    segment.put(key, copy.asReadOnlyBuffer(), readEpoch);
+  }
+
+  /** Drop the cached chunks of the given block. */
+  public void invalidate(BlockID blockID) {
+    epochs.incrementAndGet(stripe(blockID.getContainerID()));
+    for (Segment segment : segments.values()) {
+      segment.invalidate(blockID.getContainerID(), blockID.getLocalID());
+    }
+  }
+
+  /** Drop the cached chunks of the given container. */
+  public void invalidate(long containerID) {
+    epochs.incrementAndGet(stripe(containerID));
+    for (Segment segment : segments.values()) {
+      segment.invalidate(containerID, null);
+    }
+  }
+
+  /** Drop all cached chunks. */
+  public void clear() {
+    for (int i = 0; i < EPOCH_STRIPES; i++) {
+      epochs.incrementAndGet(i);
+    }
+    segments.values().forEach(Segment::clear);
+  }
+
+  private static int stripe(long containerID) {
+    return (Long.hashCode(containerID) & Integer.MAX_VALUE) % EPOCH_STRIPES;
+  }
+
+  private Segment segment(HddsVolume volume) {
+    return segments.computeIfAbsent(volume, Segment::new);
+  }
+
+  /** The cached chunks of one volume. */
+  private final class Segment {
+    private final VolumeIOStats stats;
+    private final FrequencySketch sketch;
+    /** Entries in access order, the eldest is the LRU victim. */
+    private final LinkedHashMap<Key, ByteBuffer> entries =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Set<Key>> byContainer = new HashMap<>();
+    private long usedBytes;
+
+    Segment(HddsVolume volume) {
+      this.stats = volume.getVolumeIOStats();
+      // assume a typical chunk read of 4KB to size the sketch
+      this.sketch = new FrequencySketch(capacityPerVolume / 4096);
+    }
+
+    synchronized ByteBuffer get(Key key) {
+      sketch.increment(key);
+      final ByteBuffer data = entries.get(key);
+      if (stats != null) {
+        if (data != null) {
+          stats.incReadCacheHits();
+        } else {
+          stats.incReadCacheMisses();
+        }
+      }
+      return data == null ? null : data.duplicate();
+    }
+
+    /** @return whether the key would be admitted now. */
+    synchronized boolean admit(Key key) {
+      if (entries.containsKey(key)) {
+        return false;
+      }
+      if (victims(key) == null) {
+        if (stats != null) {
+          stats.incReadCacheRejected();
+        }
+        return false;
+      }
+      return true;
+    }
+
+    synchronized void put(Key key, ByteBuffer data, long readEpoch) {
+      if (readEpoch != epochs.get(stripe(key.containerID))
+          || entries.containsKey(key)) {
+        return;
+      }
+      final List<Key> victims = victims(key);
+      if (victims == null) {
+        if (stats != null) {
+          stats.incReadCacheRejected();
+        }
+        return;
+      }
+
+      long evictedBytes = 0;
+      for (Key victim : victims) {
+        evictedBytes += victim.length;
+        remove(victim);
+      }
+      if (stats != null && !victims.isEmpty()) {
+        stats.incReadCacheEvictions(victims.size(), evictedBytes);
+      }
+
+      entries.put(key, data);
+      byContainer.computeIfAbsent(key.containerID, k -> new HashSet<>())
+          .add(key);
+      usedBytes += key.length;
+      if (stats != null) {
+        stats.addReadCacheBytes(key.length);
+      }
+    }
+
+    /**
+     * @return the entries to evict for making room for the key, or null if
+     *         the key is not more popular than any of them
+     */
+    private List<Key> victims(Key key) {
+      final List<Key> victims = new ArrayList<>();
+      long free = capacityPerVolume - usedBytes;
+      if (free >= key.length) {
+        return victims;
+      }
+      final int frequency = sketch.frequency(key);
+      for (Iterator<Key> i = entries.keySet().iterator();
+           i.hasNext() && free < key.length;) {
+        final Key victim = i.next();
+        if (sketch.frequency(victim) >= frequency) {
+          return null;
+        }
+        victims.add(victim);
+        free += victim.length;
+      }
+      return free >= key.length ? victims : null;
+    }
+
+    synchronized void invalidate(long containerID, Long localID) {
+      final Set<Key> keys = byContainer.get(containerID);
+      if (keys == null) {
+        return;
+      }
+      final List<Key> removed = new ArrayList<>();
+      for (Key key : keys) {
+        if (localID == null || key.localID == localID) {
+          removed.add(key);
+        }
+      }
+      long bytes = 0;
+      for (Key key : removed) {
+        bytes += key.length;
+        remove(key);
+      }
+      if (stats != null) {
+        stats.addReadCacheBytes(-bytes);
+      }
+    }
+
+    synchronized void clear() {
+      if (stats != null) {
+        stats.addReadCacheBytes(-usedBytes);
+      }
+      entries.clear();
+      byContainer.clear();
+      usedBytes = 0;
+    }
+
+    private void remove(Key key) {
+      if (entries.remove(key) == null) {
+        return;
+      }
+      usedBytes -= key.length;
+      final Set<Key> keys = byContainer.get(key.containerID);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          byContainer.remove(key.containerID);
+        }
+      }
+    }
+  }
+
+  /**
+   * Count-min sketch of 4-bit counters estimating access frequencies.
+   * All counters are halved once the number of recorded accesses reaches
+   * ten times the width of the sketch.
+   */
+  static final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {
+        0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedEntries) {
+      final int width = Integer.highestOneBit(
+          (int) Math.max(1024, Math.min(expectedEntries, 1 << 20)) * 2 - 1);
+      counters = new byte[DEPTH][width];
+      mask = width - 1;
+      sampleSize = 10 * width;
+    }
+
+    void increment(Object item) {
+      final int hash = item.hashCode();
+      boolean added = false;
+      for (int i = 0; i < DEPTH; i++) {
+        final int index = index(hash, i);
+        if (counters[i][index] < MAX_COUNT) {
+          counters[i][index]++;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    int frequency(Object item) {
+      final int hash = item.hashCode();
+      int min = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        min = Math.min(min, counters[i][index(hash, i)]);
+      }
+      return min;
+    }
+
+    private int index(int hash, int row) {
+      int h = hash * SEEDS[row];
+      h ^= h >>> 16;
+      return h & mask;
+    }
+
+    private void reset() {
+      for (byte[] row : counters) {
+        for (int j = 0; j < row.length; j++) {
+          row[j] >>= 1;
+        }
+      }
+      additions /= 2;
+    }
+  }
+
+  /** Identifies a chunk read by block, offset and length. */
+  private static final class Key {
+    private final long containerID;
+    private final long localID;
+    private final long offset;
+    private final long length;
+
+    Key(long containerID, long localID, long offset, long length) {
+      this.containerID = containerID;
+      this.localID = localID;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return containerID == that.containerID && localID == that.localID
+          && offset == that.offset && length == that.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(containerID, localID, offset, length);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkIOEngine;
+import org.apache.ratis.util.function.CheckedSupplier;
+
+/**
+ * {@link ChunkIOEngine} running the I/O on the calling thread.
+ */
+public final class DirectChunkIOEngine implements ChunkIOEngine {
+
+  public static final DirectChunkIOEngine INSTANCE = new DirectChunkIOEngine();
+
+  private DirectChunkIOEngine() {
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      future.complete(task.get());
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    }
+    return future;
+  }
+
+  @Override
+  public <T> T execute(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task,
+      Consumer<? super T> discard) throws StorageContainerException {
+    return task.get();
+  }
+
+  @Override
+  public void shutdown() {
+    // nothing to release
+  }
+}
@@ -39,7 +39,9 @@
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import org.apache.hadoop.fs.FileUtil;
 import org.apache.hadoop.hdds.client.BlockID;
@@ -81,8 +83,27 @@ public class FilePerBlockStrategy implements ChunkManager {
 
   private final boolean readNettyChunkedNioFile;
 
+  /** Sync window for group commit, negative if group commit is disabled. */
+  private final long groupCommitWindowNanos;
+  private final int groupCommitMaxBatch;
+  private final Map<HddsVolume, GroupCommitSyncer> syncers =
+      new ConcurrentHashMap<>();
+
   public FilePerBlockStrategy(boolean sync, BlockManager manager) {
+    this(sync, manager, -1, 1);
+  }
+
+  /**
+   * @param groupCommitWindowNanos if non-negative and {@code sync} is set,
+   *        chunk writes on the same volume are synced together in windows of
+   *        at most this length instead of opening files with synchronous I/O.
+   * @param groupCommitMaxBatch number of writes closing a window early
+   */
+  public FilePerBlockStrategy(boolean sync, BlockManager manager,
+      long groupCommitWindowNanos, int groupCommitMaxBatch) {
     doSyncWrite = sync;
+    this.groupCommitWindowNanos = sync ? groupCommitWindowNanos : -1;
+    this.groupCommitMaxBatch = groupCommitMaxBatch;
     this.defaultReadBufferCapacity = manager == null ? 0 :
         manager.getDefaultReadBufferCapacity();
     this.readMappedBufferThreshold = manager == null ? 0
@@ -91,7 +112,8 @@ public FilePerBlockStrategy(boolean sync, BlockManager manager) {
         : manager.getReadMappedBufferMaxCount();
     LOG.info("ozone.chunk.read.mapped.buffer.max.count is load with {}", readMappedBufferMaxCount);
     if (this.readMappedBufferMaxCount > 0) {
-      mappedBufferManager = new MappedBufferManager(this.readMappedBufferMaxCount);
+      mappedBufferManager = new MappedBufferManager(
+          this.readMappedBufferMaxCount, manager.getReadMappedBufferMaxSize());
     } else {
       mappedBufferManager = null;
     }
@@ -156,35 +178,54 @@ public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
 
     HddsVolume volume = containerData.getVolume();
 
+    // with group commit, the file is kept open until its pending sync is done
+    OpenFile pinned = null;
     FileChannel channel = null;
     boolean overwrite;
     try {
-      channel = files.getChannel(chunkFile, doSyncWrite);
+      if (isGroupCommit()) {
+        pinned = files.pin(chunkFile);
+        channel = pinned.getChannel();
+      } else {
+        channel = files.getChannel(chunkFile, doSyncWrite);
+      }
       overwrite = validateChunkForOverwrite(channel, info);
     } catch (IOException e) {
+      if (pinned != null) {
+        pinned.unpin();
+      }
       onFailure(volume);
       throw e;
     }
 
-    if (LOG.isDebugEnabled()) {
-      LOG.debug("Writing chunk {} (overwrite: {}) in stage {} to file {}",
-          info, overwrite, stage, chunkFile);
-    }
-
-    // check whether offset matches block file length if its an overwrite
-    if (!overwrite) {
-      ChunkUtils.validateChunkSize(channel, info, chunkFile.getName());
-    }
-
     long fileLengthBeforeWrite;
     try {
-      fileLengthBeforeWrite = channel.size();
-    } catch (IOException e) {
-      throw new StorageContainerException("Encountered an error while getting the file size for "
-          + chunkFile.getName(), CHUNK_FILE_INCONSISTENCY);
-    }
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Writing chunk {} (overwrite: {}) in stage {} to file {}",
+            info, overwrite, stage, chunkFile);
+      }
 
-    ChunkUtils.writeData(channel, chunkFile.getName(), data, offset, chunkLength, volume);
+      // check whether offset matches block file length if its an overwrite
+      if (!overwrite) {
+        ChunkUtils.validateChunkSize(channel, info, chunkFile.getName());
+      }
+
+      try {
+        fileLengthBeforeWrite = channel.size();
+      } catch (IOException e) {
+        throw new StorageContainerException("Encountered an error while getting the file size for "
+            + chunkFile.getName(), CHUNK_FILE_INCONSISTENCY);
+      }
+
+      ChunkUtils.writeData(channel, chunkFile.getName(), data, offset, chunkLength, volume);
+      if (pinned != null) {
+        groupCommitSync(channel, chunkFile, volume);
+      }
+    } finally {
+      if (pinned != null) {
+        pinned.unpin();
+      }
+    }
 
     // Handle space accounting for overwrites that extend the file length.
     // For overwrites, we must distinguish between:
@@ -218,6 +259,26 @@ public void writeChunk(Container container, BlockID blockID, ChunkInfo info,
     containerData.updateWriteStats(chunkLength, overwrite);
   }
 
+  private boolean isGroupCommit() {
+    return groupCommitWindowNanos >= 0;
+  }
+
+  private void groupCommitSync(FileChannel channel, File chunkFile,
+      HddsVolume volume) throws StorageContainerException {
+    final GroupCommitSyncer syncer = syncers.computeIfAbsent(volume,
+        v -> new GroupCommitSyncer(groupCommitWindowNanos,
+            groupCommitMaxBatch, v.getVolumeIOStats(), () -> onFailure(v)));
+    try {
+      // the syncer reports a failed sync to the volume once per batch
+      syncer.sync(channel);
+    } catch (IOException e) {
+      throw ChunkUtils.wrapInStorageContainerException(e);
+    }
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Synced chunk file {}", chunkFile);
+    }
+  }
+
   @Override
   public ChunkBufferToByteString readChunk(Container container, BlockID blockID,
       ChunkInfo info, DispatcherContext dispatcherContext)
@@ -248,7 +309,20 @@ public ChunkBufferToByteString readChunk(Container container, BlockID blockID,
       return ChunkUtils.readData(chunkFile, bufferCapacity, offset, len, volume, dispatcherContext);
     }
     return ChunkUtils.readData(len, bufferCapacity, chunkFile, offset, volume,
-        readMappedBufferThreshold, readMappedBufferMaxCount > 0, mappedBufferManager);
+        readMappedBufferThreshold, mappedBufferManager, dispatcherContext);
+  }
+
+  @Override
+  public MappedBufferManager.Region mapBlockRegion(Container container, BlockID blockID,
+      long offset, int length) throws StorageContainerException {
+    if (mappedBufferManager == null || length <= readMappedBufferThreshold) {
+      return null;
+    }
+    checkLayoutVersion(container);
+    final HddsVolume volume =
+        ((KeyValueContainerData) container.getContainerData()).getVolume();
+    return ChunkUtils.mapData(getChunkFile(container, blockID), offset, length,
+        volume, mappedBufferManager);
   }
 
   @Override
@@ -270,6 +344,13 @@ public RandomAccessFile getShortCircuitFd(Container container, BlockID blockID)
     }
   }
 
+  @Override
+  public void shutdown() {
+    if (mappedBufferManager != null) {
+      mappedBufferManager.clear();
+    }
+  }
+
   @Override
   public void deleteChunk(Container container, BlockID blockID, ChunkInfo info)
       throws StorageContainerException {
@@ -334,6 +415,9 @@ private void deleteChunk(Container container, BlockID blockID,
     }
 
     FileUtil.fullyDelete(file);
+    if (mappedBufferManager != null) {
+      mappedBufferManager.unmap(file.getAbsolutePath());
+    }
     LOG.info("Deleted block file: {}", file);
   }
 
@@ -366,9 +450,27 @@ private static final class OpenFiles {
 
     public FileChannel getChannel(File file, boolean sync)
         throws StorageContainerException {
+      return get(file, sync).getChannel();
+    }
+
+    /**
+     * Get the file opened without sync mode, and keep it from being closed
+     * until {@link OpenFile#unpin()} is called.
+     */
+    public OpenFile pin(File file) throws StorageContainerException {
+      while (true) {
+        final OpenFile openFile = get(file, false);
+        if (openFile.pin()) {
+          return openFile;
+        }
+        // closed concurrently, it is already removed from the cache
+      }
+    }
+
+    private OpenFile get(File file, boolean sync)
+        throws StorageContainerException {
       try {
-        return files.get(file.getPath(),
-            () -> open(file, sync)).getChannel();
+        return files.get(file.getPath(), () -> open(file, sync));
       } catch (ExecutionException e) {
         if (e.getCause() instanceof IOException) {
           throw new UncheckedIOException((IOException) e.getCause());
@@ -414,6 +516,10 @@ private static void close(String filename, OpenFile openFile) {
   private static final class OpenFile {
 
     private final RandomAccessFile file;
+    /** Number of writers waiting for a sync of this file, guarded by this. */
+    private int pins;
+    /** Whether the file is closed, or to be closed once unpinned. */
+    private boolean closing;
 
     private OpenFile(File file, boolean sync) throws FileNotFoundException {
       String mode = sync ? "rws" : "rw";
@@ -427,7 +533,36 @@ public FileChannel getChannel() {
       return file.getChannel();
     }
 
+    synchronized boolean pin() {
+      if (closing) {
+        return false;
+      }
+      pins++;
+      return true;
+    }
+
+    public void unpin() {
+      synchronized (this) {
+        Preconditions.checkState(pins > 0, "File is not pinned");
+        pins--;
+        if (pins > 0 || !closing) {
+          return;
+        }
+      }
+      closeFile();
+    }
+
     public void close() {
+      synchronized (this) {
+        closing = true;
+        if (pins > 0) {
+          return;
+        }
+      }
+      closeFile();
+    }
+
+    private void closeFile() {
       try {
         file.close();
       } catch (IOException e) {
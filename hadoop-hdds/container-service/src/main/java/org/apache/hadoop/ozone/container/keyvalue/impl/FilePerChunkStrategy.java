@@ -79,7 +79,8 @@ public FilePerChunkStrategy(boolean sync, BlockManager manager) {
         : manager.getReadMappedBufferMaxCount();
     LOG.info("ozone.chunk.read.mapped.buffer.max.count is load with {}", readMappedBufferMaxCount);
     if (this.readMappedBufferMaxCount > 0) {
-      mappedBufferManager = new MappedBufferManager(this.readMappedBufferMaxCount);
+      mappedBufferManager = new MappedBufferManager(
+          this.readMappedBufferMaxCount, manager.getReadMappedBufferMaxSize());
     } else {
       mappedBufferManager = null;
     }
@@ -325,6 +326,9 @@ public void deleteChunk(Container container, BlockID blockID, ChunkInfo info)
         || info.getLen() + info.getOffset() == chunkFileSize;
     if (allowed) {
       FileUtil.fullyDelete(chunkFile);
+      if (mappedBufferManager != null) {
+        mappedBufferManager.unmap(chunkFile.getAbsolutePath());
+      }
       LOG.info("Deleted chunk file {} (size {}) for chunk {}",
           chunkFile, chunkFileSize, info);
     } else {
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.util.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces fsync calls issued by concurrent chunk writers on one volume.
+ * <p>
+ * The first writer to arrive opens a sync window and becomes its leader.
+ * The leader waits until the window expires or the batch is full, then
+ * forces every file registered in the window once and releases all writers
+ * of the batch.  Writers arriving while the leader is syncing open the next
+ * window, so at most one window per volume is accepting new requests.
+ * <p>
+ * A writer fails only if the file it registered failed to sync, and the
+ * failure handler of the volume is called once per batch with any failure.
+ */
+final class GroupCommitSyncer {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(GroupCommitSyncer.class);
+
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final VolumeIOStats stats;
+  private final Runnable onFailure;
+
+  /** The batch currently accepting requests, guarded by this. */
+  private Batch current;
+
+  GroupCommitSyncer(long windowNanos, int maxBatchSize, VolumeIOStats stats,
+      Runnable onFailure) {
+    Preconditions.checkArgument(windowNanos >= 0,
+        "windowNanos = %s < 0", windowNanos);
+    Preconditions.checkArgument(maxBatchSize > 0,
+        "maxBatchSize = %s <= 0", maxBatchSize);
+    this.windowNanos = windowNanos;
+    this.maxBatchSize = maxBatchSize;
+    this.stats = stats;
+    this.onFailure = onFailure;
+  }
+
+  /**
+   * Make the data previously written to the given channel durable.
+   * Blocks until the sync window the request joined has been flushed.
+   */
+  void sync(FileChannel channel) throws IOException {
+    final Batch batch;
+    final boolean leader;
+    final CompletableFuture<Void> synced;
+    synchronized (this) {
+      leader = current == null;
+      if (leader) {
+        current = new Batch();
+      }
+      batch = current;
+      synced = batch.add(channel);
+      if (batch.size() >= maxBatchSize) {
+        current = null;
+        notifyAll();
+      }
+    }
+
+    if (leader) {
+      awaitWindow(batch);
+      batch.flush();
+    }
+    await(synced);
+  }
+
+  /** Wait until the window of the given batch is closed. */
+  private synchronized void awaitWindow(Batch batch) {
+    final long deadline = System.nanoTime() + windowNanos;
+    try {
+      while (current == batch) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          break;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+    } catch (InterruptedException e) {
+      // Still flush the batch so that the other writers are not stranded.
+      Thread.currentThread().interrupt();
+    } finally {
+      if (current == batch) {
+        current = null;
+      }
+    }
+  }
+
+  private final class Batch {
+    /** The files to sync, and the result of each for its writers. */
+    private final Map<FileChannel, CompletableFuture<Void>> channels =
+        new IdentityHashMap<>();
+    private int requests;
+
+    /** Called with the syncer lock held. */
+    CompletableFuture<Void> add(FileChannel channel) {
+      requests++;
+      return channels.computeIfAbsent(channel,
+          c -> new CompletableFuture<>());
+    }
+
+    int size() {
+      return requests;
+    }
+
+    void flush() {
+      final long start = Time.monotonicNow();
+      int failed = 0;
+      for (Map.Entry<FileChannel, CompletableFuture<Void>> e
+          : channels.entrySet()) {
+        try {
+          e.getKey().force(false);
+          e.getValue().complete(null);
+        } catch (IOException | RuntimeException ex) {
+          failed++;
+          e.getValue().completeExceptionally(ex);
+          LOG.warn("Failed to sync a file of a batch of {} request(s)",
+              requests, ex);
+        }
+      }
+      final long elapsed = Time.monotonicNow() - start;
+      if (stats != null) {
+        stats.incFsyncBatch(requests, elapsed);
+      }
+      if (failed > 0 && onFailure != null) {
+        onFailure.run();
+      }
+      LOG.debug("Synced {} file(s) ({} failed) for {} request(s) in {} ms",
+          channels.size(), failed, requests, elapsed);
+    }
+  }
+
+  private static void await(CompletableFuture<Void> synced)
+      throws IOException {
+    try {
+      synced.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw (IOException) new InterruptedIOException(
+          "Interrupted while waiting for sync").initCause(e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException("Failed to sync", cause);
+    }
+  }
+}
@@ -17,109 +17,335 @@
 
 package org.apache.hadoop.ozone.container.keyvalue.impl;
 
-import com.google.common.util.concurrent.Striped;
-import java.lang.ref.WeakReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.function.Supplier;
+import java.util.function.Function;
+import org.apache.hadoop.io.nativeio.NativeIO;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.common.ChunkBufferToByteString;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.util.function.CheckedSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A Manager who manages the mapped buffers to under a predefined total count, also support reuse mapped buffers.
+ * Cache of memory mapped regions of block files, limited by the number of
+ * mappings and the total mapped bytes, evicting the least recently used
+ * regions.
+ * <p>
+ * Readers acquire a region and either release it when the data has been
+ * sent ({@code tracked}), or never ({@code untracked}).  A region is
+ * unmapped explicitly once it is evicted and no longer used; regions ever
+ * handed to an untracked reader are left to the garbage collector instead.
+ * The regions of a file are evicted when the file is deleted.
  */
 public class MappedBufferManager {
 
-  private static ConcurrentHashMap<String, WeakReference<ByteBuffer>> mappedBuffers =
-      new ConcurrentHashMap<String, WeakReference<ByteBuffer>>();
-  private static final Logger LOG = LoggerFactory.getLogger(MappedBufferManager.class);
-  private final Semaphore semaphore;
-  private final AtomicBoolean cleanupInProgress = new AtomicBoolean(false);
-  private final Striped<Lock> lock;
+  private static final Logger LOG =
+      LoggerFactory.getLogger(MappedBufferManager.class);
 
-  public MappedBufferManager(int capacity) {
-    this.semaphore = new Semaphore(capacity);
-    this.lock = Striped.lazyWeakLock(1024);
+  private final int maxCount;
+  private final long maxBytes;
+
+  /** Cached regions in access order, the eldest is the LRU victim. */
+  private final LinkedHashMap<Key, Region> regions =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Set<Key>> byFile = new HashMap<>();
+  private long mappedBytes;
+  /** Mappings being created, or evicted but still in use. */
+  private int otherMappings;
+
+  public MappedBufferManager(int maxCount) {
+    this(maxCount, Long.MAX_VALUE);
   }
 
-  public boolean getQuota(int permits) {
-    boolean ret = semaphore.tryAcquire(permits);
-    if (ret) {
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("quota is decreased by {} to total {}", permits, semaphore.availablePermits());
-      }
-    } else {
-      if (cleanupInProgress.compareAndSet(false, true)) {
-        CompletableFuture.runAsync(() -> {
-          int p = 0;
-          try {
-            // remove(key, value) only counts entries we observed cleared,
-            // so a concurrent put() that replaced the WeakReference is not
-            // miscounted as freed.
-            for (Map.Entry<String, WeakReference<ByteBuffer>> entry
-                : mappedBuffers.entrySet()) {
-              final WeakReference<ByteBuffer> ref = entry.getValue();
-              if (ref.get() == null
-                  && mappedBuffers.remove(entry.getKey(), ref)) {
-                p++;
-              }
-            }
-            if (p > 0) {
-              releaseQuota(p);
-            }
-          } finally {
-            cleanupInProgress.set(false);
-          }
-        });
-      }
-    }
-    return ret;
+  public MappedBufferManager(int maxCount, long maxBytes) {
+    Preconditions.checkArgument(maxCount > 0, "maxCount = %s <= 0", maxCount);
+    Preconditions.checkArgument(maxBytes > 0, "maxBytes = %s <= 0", maxBytes);
+    this.maxCount = maxCount;
+    this.maxBytes = maxBytes;
   }
 
-  public void releaseQuota(int permits) {
-    semaphore.release(permits);
-    if (LOG.isDebugEnabled()) {
-      LOG.debug("quota is increased by {} to total {}", permits, semaphore.availablePermits());
+  /**
+   * Look up a mapped region, without any system call.
+   *
+   * @param tracked whether the caller will {@link Region#release()} it
+   * @return the region, or null if not mapped
+   */
+  public synchronized Region get(String file, long position, int size,
+      boolean tracked) {
+    final Region region = regions.get(new Key(file, position, size));
+    if (region != null) {
+      region.acquire(tracked);
+      if (region.stats != null) {
+        region.stats.incMappedRegionHits();
+      }
     }
+    return region;
   }
 
-  public int availableQuota() {
-    return semaphore.availablePermits();
-  }
+  /**
+   * Get a mapped region, mapping it if necessary.
+   *
+   * @param tracked whether the caller will {@link Region#release()} it
+   * @param mapper maps the region of the file
+   * @return the region, or null if too many regions are mapped and in use
+   */
+  public Region map(String file, long position, int size, HddsVolume volume,
+      boolean tracked, CheckedSupplier<MappedByteBuffer, IOException> mapper)
+      throws IOException {
+    final Key key = new Key(file, position, size);
+    synchronized (this) {
+      final Region cached = get(file, position, size, tracked);
+      if (cached != null) {
+        return cached;
+      }
+      makeRoom(size);
+      if (regions.size() + otherMappings >= maxCount) {
+        return null;
+      }
+      otherMappings++;
+    }
 
-  public ByteBuffer computeIfAbsent(String file, long position, long size,
-      Supplier<ByteBuffer> supplier) {
-    String key = file + "-" + position + "-" + size;
-    Lock fileLock = lock.get(key);
-    fileLock.lock();
+    final MappedByteBuffer buffer;
+    final VolumeIOStats stats = volume != null
+        ? volume.getVolumeIOStats() : null;
     try {
-      // Hold a strong reference for the rest of this method so GC cannot
-      // clear the WeakReference between the null check and the return.
-      final WeakReference<ByteBuffer> refer = mappedBuffers.get(key);
-      final ByteBuffer cached = refer != null ? refer.get() : null;
-      if (cached != null) {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("find buffer for key {}", key);
+      buffer = mapper.get();
+      // fault in the pages now, on the I/O thread, instead of while the
+      // response is sent
+      final long start = Time.monotonicNow();
+      buffer.load();
+      if (stats != null) {
+        stats.incMappedRegionMaps();
+        stats.addMappedLoadTime(Time.monotonicNow() - start);
+      }
+    } catch (IOException | RuntimeException e) {
+      synchronized (this) {
+        otherMappings--;
+      }
+      throw e;
+    }
+
+    final Region region = new Region(key, buffer, stats);
+    synchronized (this) {
+      otherMappings--;
+      final Region existing = regions.get(key);
+      if (existing != null) {
+        // mapped concurrently, ours has not been used
+        unmap(buffer);
+        existing.acquire(tracked);
+        return existing;
+      }
+      regions.put(key, region);
+      byFile.computeIfAbsent(file, k -> new HashSet<>()).add(key);
+      mappedBytes += size;
+      if (stats != null) {
+        stats.addMappedBytes(size);
+      }
+      region.acquire(tracked);
+      LOG.debug("Mapped {}", key);
+      return region;
+    }
+  }
+
+  /** Evict the regions of a deleted file. */
+  public synchronized void unmap(String file) {
+    final Set<Key> keys = byFile.remove(file);
+    if (keys != null) {
+      for (Key key : keys) {
+        evict(regions.remove(key));
+      }
+    }
+  }
+
+  /** Evict all regions. */
+  public synchronized void clear() {
+    for (Region region : new ArrayList<>(regions.values())) {
+      evict(region);
+    }
+    regions.clear();
+    byFile.clear();
+  }
+
+  @VisibleForTesting
+  synchronized int getCachedCount() {
+    return regions.size();
+  }
+
+  @VisibleForTesting
+  synchronized long getMappedBytes() {
+    return mappedBytes;
+  }
+
+  /** Make room for a new region of the given size. */
+  private void makeRoom(int size) {
+    for (Iterator<Region> i = regions.values().iterator(); i.hasNext()
+        && (regions.size() + otherMappings >= maxCount
+        || mappedBytes + size > maxBytes);) {
+      final Region victim = i.next();
+      i.remove();
+      final Set<Key> keys = byFile.get(victim.key.file);
+      if (keys != null) {
+        keys.remove(victim.key);
+        if (keys.isEmpty()) {
+          byFile.remove(victim.key.file);
         }
-        releaseQuota(1);
-        return cached;
       }
+      evict(victim);
+    }
+  }
 
-      ByteBuffer buffer = supplier.get();
-      if (buffer != null) {
-        mappedBuffers.put(key, new WeakReference<>(buffer));
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("add buffer for key {}", key);
+  /** Remove the region from the accounting, unmapping it if not in use. */
+  private void evict(Region region) {
+    if (region == null || !region.cached) {
+      return;
+    }
+    region.cached = false;
+    mappedBytes -= region.key.size;
+    if (region.stats != null) {
+      region.stats.addMappedBytes(-region.key.size);
+    }
+    if (region.refCount > 0) {
+      otherMappings++;
+    } else if (!region.escaped) {
+      unmap(region.buffer);
+    }
+  }
+
+  private synchronized void release(Region region) {
+    Preconditions.checkState(region.refCount > 0,
+        "%s is not in use", region.key);
+    if (--region.refCount == 0 && !region.cached) {
+      otherMappings--;
+      if (!region.escaped) {
+        unmap(region.buffer);
+      }
+    }
+  }
+
+  private static void unmap(MappedByteBuffer buffer) {
+    NativeIO.POSIX.munmap(buffer);
+  }
+
+  /**
+   * Wrap regions for a tracked read, releasing them when the data has been
+   * sent.
+   */
+  public static ChunkBufferToByteString wrap(List<Region> regions) {
+    final List<ByteBuffer> buffers = new ArrayList<>(regions.size());
+    for (Region region : regions) {
+      buffers.add(region.getBuffer());
+    }
+    final ChunkBuffer data = ChunkBuffer.wrap(buffers);
+    final AtomicBoolean released = new AtomicBoolean();
+    return new ChunkBufferToByteString() {
+      @Override
+      public void release() {
+        if (released.compareAndSet(false, true)) {
+          regions.forEach(Region::release);
         }
       }
-      return buffer;
-    } finally {
-      fileLock.unlock();
+
+      @Override
+      public ByteString toByteStringImpl(
+          Function<ByteBuffer, ByteString> function) {
+        return data.toByteStringImpl(function);
+      }
+
+      @Override
+      public List<ByteString> toByteStringListImpl(
+          Function<ByteBuffer, ByteString> function) {
+        return data.toByteStringListImpl(function);
+      }
+    };
+  }
+
+  /** A mapped region of a file. */
+  public final class Region {
+    private final Key key;
+    private final MappedByteBuffer buffer;
+    private final VolumeIOStats stats;
+    // guarded by the manager
+    private int refCount;
+    private boolean cached = true;
+    /** Handed to an untracked reader, must not be unmapped explicitly. */
+    private boolean escaped;
+
+    private Region(Key key, MappedByteBuffer buffer, VolumeIOStats stats) {
+      this.key = key;
+      this.buffer = buffer;
+      this.stats = stats;
+    }
+
+    private void acquire(boolean tracked) {
+      if (tracked) {
+        refCount++;
+      } else {
+        escaped = true;
+      }
+    }
+
+    /** @return a new read-only view of the region */
+    public ByteBuffer getBuffer() {
+      return buffer.asReadOnlyBuffer();
+    }
+
+    /** Release a tracked region, it must not be used afterwards. */
+    public void release() {
+      MappedBufferManager.this.release(this);
+    }
+  }
+
+  /** Identifies a region by file, offset and length. */
+  private static final class Key {
+    private final String file;
+    private final long position;
+    private final int size;
+
+    Key(String file, long position, int size) {
+      this.file = file;
+      this.position = position;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return position == that.position && size == that.size
+          && file.equals(that.file);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(file, position, size);
+    }
+
+    @Override
+    public String toString() {
+      return file + "-" + position + "-" + size;
     }
   }
 }
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_INTERNAL_ERROR;
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.IO_EXCEPTION;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkIOEngine;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.util.function.CheckedSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ChunkIOEngine} running the I/O of each volume on a dedicated
+ * thread pool.
+ * <p>
+ * At most {@code queueDepth} operations may be outstanding per volume.
+ * Reads beyond that limit are rejected right away, while writes wait for a
+ * free slot.  Reads not completed within their timeout, including the wait
+ * for a slot, are abandoned by the caller, so that a slow disk does not hold
+ * on to the container dispatcher threads.  Writes are never abandoned: a
+ * write still queued at its timeout is cancelled, a running one is waited
+ * for, since its data would otherwise land after the failure is reported.
+ * <p>
+ * The callers wait for each operation, so the engine bounds and isolates
+ * the I/O of each volume but does not pipeline the operations of a caller.
+ */
+public class VolumeThreadPoolChunkIOEngine implements ChunkIOEngine {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(VolumeThreadPoolChunkIOEngine.class);
+
+  private final int threadsPerVolume;
+  private final int queueDepth;
+  private final long readTimeoutMs;
+  private final long writeTimeoutMs;
+  private final Map<HddsVolume, VolumeQueue> queues =
+      new ConcurrentHashMap<>();
+  private volatile boolean closed;
+
+  /**
+   * @param readTimeoutMs time a caller waits for a read, 0 for no limit
+   * @param writeTimeoutMs time a caller waits for a write, 0 for no limit
+   */
+  public VolumeThreadPoolChunkIOEngine(int threadsPerVolume, int queueDepth,
+      long readTimeoutMs, long writeTimeoutMs) {
+    Preconditions.checkArgument(threadsPerVolume > 0,
+        "threadsPerVolume = %s <= 0", threadsPerVolume);
+    Preconditions.checkArgument(queueDepth > 0,
+        "queueDepth = %s <= 0", queueDepth);
+    this.threadsPerVolume = threadsPerVolume;
+    this.queueDepth = queueDepth;
+    this.readTimeoutMs = readTimeoutMs;
+    this.writeTimeoutMs = writeTimeoutMs;
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task) {
+    if (volume == null) {
+      return DirectChunkIOEngine.INSTANCE.submit(null, op, task);
+    }
+    if (closed) {
+      return shutDown(volume);
+    }
+    final VolumeQueue queue = queues.computeIfAbsent(volume, VolumeQueue::new);
+    if (closed) {
+      // raced with shutdown, which may not have seen the new queue
+      queues.remove(volume, queue);
+      queue.shutdown();
+      return shutDown(volume);
+    }
+    return queue.submit(op, task);
+  }
+
+  private static <T> CompletableFuture<T> shutDown(HddsVolume volume) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(new StorageContainerException(
+        "Chunk I/O engine of " + volume + " is shut down",
+        CONTAINER_INTERNAL_ERROR));
+    return future;
+  }
+
+  @Override
+  public <T> T execute(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task,
+      Consumer<? super T> discard) throws StorageContainerException {
+    final long timeoutMs = timeout(op);
+    if (timeoutMs <= 0) {
+      return ChunkIOEngine.await(submit(volume, op, task));
+    }
+
+    final long deadline = Time.monotonicNow() + timeoutMs;
+    final CompletableFuture<T> future = submit(volume, op, task);
+    final String name = op == Op.WRITE ? "write" : "read";
+    try {
+      return future.get(Math.max(0, deadline - Time.monotonicNow()),
+          TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      if (!abandon(future, discard)) {
+        return awaitRunning(future);
+      }
+      final VolumeIOStats stats = volume.getVolumeIOStats();
+      if (stats != null) {
+        stats.incIOEngineTimedOut();
+      }
+      throw new StorageContainerException("Chunk " + name + " on " + volume
+          + " did not complete in " + timeoutMs + " ms", IO_EXCEPTION);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if (!abandon(future, discard)) {
+        return awaitRunning(future);
+      }
+      throw new StorageContainerException("Interrupted while waiting for"
+          + " chunk " + name + " on " + volume, new InterruptedIOException(),
+          IO_EXCEPTION);
+    } catch (ExecutionException e) {
+      throw ChunkIOEngine.unwrap(e.getCause());
+    }
+  }
+
+  /**
+   * Abandon a read, discarding its result, or cancel a write which has not
+   * started yet.
+   * @return false if the operation is a running write, which must be waited
+   * for.
+   */
+  private static <T> boolean abandon(CompletableFuture<T> future,
+      Consumer<? super T> discard) {
+    if (future instanceof WriteFuture) {
+      return ((WriteFuture<T>) future).cancelIfQueued();
+    }
+    future.thenAccept(discard);
+    return true;
+  }
+
+  private static <T> T awaitRunning(CompletableFuture<T> future)
+      throws StorageContainerException {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw ChunkIOEngine.unwrap(e.getCause());
+    }
+  }
+
+  private long timeout(Op op) {
+    return op == Op.WRITE ? writeTimeoutMs : readTimeoutMs;
+  }
+
+  @Override
+  public void shutdown() {
+    closed = true;
+    queues.values().forEach(VolumeQueue::shutdown);
+    queues.clear();
+  }
+
+  /** Outstanding operations and worker threads of one volume. */
+  private final class VolumeQueue {
+    private final HddsVolume volume;
+    private final VolumeIOStats stats;
+    private final Semaphore slots = new Semaphore(queueDepth);
+    private final ThreadPoolExecutor executor;
+
+    VolumeQueue(HddsVolume volume) {
+      this.volume = volume;
+      this.stats = volume.getVolumeIOStats();
+      this.executor = new ThreadPoolExecutor(threadsPerVolume,
+          threadsPerVolume, 60, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat("ChunkIO-" + volume.getStorageID() + "-%d")
+              .build());
+      executor.allowCoreThreadTimeOut(true);
+      LOG.info("Started chunk I/O engine for {} with {} threads and queue"
+          + " depth {}", volume, threadsPerVolume, queueDepth);
+    }
+
+    <T> CompletableFuture<T> submit(Op op,
+        CheckedSupplier<T, StorageContainerException> task) {
+      final CompletableFuture<T> future = op == Op.WRITE
+          ? new WriteFuture<>() : new CompletableFuture<>();
+      try {
+        final boolean acquired;
+        if (op != Op.WRITE) {
+          acquired = slots.tryAcquire();
+        } else if (writeTimeoutMs > 0) {
+          acquired = slots.tryAcquire(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } else {
+          slots.acquire();
+          acquired = true;
+        }
+        if (!acquired) {
+          if (stats != null) {
+            stats.incIOEngineRejected();
+          }
+          future.completeExceptionally(new StorageContainerException(
+              "Too many outstanding chunk I/O operations on " + volume,
+              IO_EXCEPTION));
+          return future;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        future.completeExceptionally(new StorageContainerException(
+            "Interrupted while waiting for chunk I/O slot on " + volume,
+            new InterruptedIOException(), IO_EXCEPTION));
+        return future;
+      }
+
+      if (stats != null) {
+        stats.incIOEngineInFlight();
+      }
+      final long queued = Time.monotonicNow();
+      try {
+        executor.execute(() -> run(task, future, queued));
+      } catch (RejectedExecutionException e) {
+        release();
+        future.completeExceptionally(new StorageContainerException(
+            "Chunk I/O engine of " + volume + " is shut down", e,
+            CONTAINER_INTERNAL_ERROR));
+      }
+      return future;
+    }
+
+    private <T> void run(CheckedSupplier<T, StorageContainerException> task,
+        CompletableFuture<T> future, long queued) {
+      if (future instanceof WriteFuture
+          && !((WriteFuture<T>) future).start()) {
+        // cancelled while queued
+        release();
+        return;
+      }
+      final long start = Time.monotonicNow();
+      try {
+        future.complete(task.get());
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+      } finally {
+        release();
+        if (stats != null) {
+          stats.addIOEngineLatency(start - queued,
+              Time.monotonicNow() - queued);
+        }
+      }
+    }
+
+    private void release() {
+      slots.release();
+      if (stats != null) {
+        stats.decIOEngineInFlight();
+      }
+    }
+
+    void shutdown() {
+      executor.shutdown();
+    }
+  }
+
+  /** The future of a write, which may be cancelled only until it starts. */
+  private static final class WriteFuture<T> extends CompletableFuture<T> {
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** @return whether the write may run, i.e. it was not cancelled. */
+    boolean start() {
+      return started.compareAndSet(false, true);
+    }
+
+    /** @return whether the write was cancelled before it started. */
+    boolean cancelIfQueued() {
+      if (!started.compareAndSet(false, true)) {
+        return false;
+      }
+      completeExceptionally(new StorageContainerException(
+          "Chunk write cancelled before it started", IO_EXCEPTION));
+      return true;
+    }
+  }
+}
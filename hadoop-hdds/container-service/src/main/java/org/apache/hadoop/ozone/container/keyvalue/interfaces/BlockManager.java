@@ -52,6 +52,18 @@ public interface BlockManager {
   long putBlock(Container container, BlockData data, boolean endOfBlock)
       throws IOException;
 
+  /**
+   * Puts or overwrites complete blocks with a single DB batch.
+   * All the blocks must belong to the given container and must have the
+   * same block commit sequence ID.
+   *
+   * @param container - Container for which blocks need to be added.
+   * @param blocks - Block Data of each block.
+   * @return total length of the Blocks.
+   */
+  long putBlocks(Container container, List<BlockData> blocks)
+      throws IOException;
+
   /**
    * Persists the block data for a closed container. The block data should have all the chunks and bcsId.
    * Overwrites the block if it already exists, The container's used bytes should be updated by the caller with
@@ -135,9 +147,15 @@ void finalizeBlock(Container container, BlockID blockId)
   /** @return the max count of memory mapped buffers to read. */
   int getReadMappedBufferMaxCount();
 
+  /** @return the max total size of memory mapped buffers to read. */
+  long getReadMappedBufferMaxSize();
+
   /** @return true iff Netty ChunkedNioFile read is enabled. */
   boolean isReadNettyChunkedNioFile();
 
+  /** @return true iff ReadBlock responses are sent from mapped file regions. */
+  boolean isReadBlockZeroCopy();
+
   /**
    * Shutdown ContainerManager.
    */
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.interfaces;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.IO_EXCEPTION;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.ratis.util.function.CheckedSupplier;
+
+/**
+ * Executes the chunk file I/O of a {@link ChunkManager} on behalf of the
+ * container dispatcher threads.
+ */
+public interface ChunkIOEngine {
+
+  /** Kind of chunk I/O operation. */
+  enum Op {
+    READ, WRITE
+  }
+
+  /**
+   * Submit the given task for execution against the given volume.
+   *
+   * @param volume the volume the task does I/O on, may be null
+   * @return a future completed with the result of the task
+   */
+  <T> CompletableFuture<T> submit(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task);
+
+  /**
+   * Execute the given task and wait for its result.
+   *
+   * @param discard applied to the result of the task if the caller stopped
+   *                waiting for it, for releasing its resources
+   */
+  default <T> T execute(HddsVolume volume, Op op,
+      CheckedSupplier<T, StorageContainerException> task,
+      Consumer<? super T> discard) throws StorageContainerException {
+    return await(submit(volume, op, task));
+  }
+
+  /** Stop accepting new tasks and release the resources of the engine. */
+  void shutdown();
+
+  /**
+   * Wait for the given future and unwrap its failure.
+   */
+  static <T> T await(CompletableFuture<T> future)
+      throws StorageContainerException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StorageContainerException("Interrupted while waiting for"
+          + " chunk I/O", new InterruptedIOException(), IO_EXCEPTION);
+    } catch (ExecutionException e) {
+      throw unwrap(e.getCause());
+    }
+  }
+
+  static StorageContainerException unwrap(Throwable t) {
+    if (t instanceof StorageContainerException) {
+      return (StorageContainerException) t;
+    }
+    return new StorageContainerException("Chunk I/O failed", t, IO_EXCEPTION);
+  }
+}
@@ -34,6 +34,7 @@
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.keyvalue.impl.MappedBufferManager;
 import org.apache.ratis.statemachine.StateMachine;
 import org.apache.ratis.util.function.CheckedConsumer;
 
@@ -93,6 +94,23 @@ default RandomAccessFile getShortCircuitFd(Container container, BlockID blockID)
         UNSUPPORTED_REQUEST);
   }
 
+  /**
+   * Map a region of the block file, for sending it without copying.
+   *
+   * @param container - Container for the chunk
+   * @param blockID - ID of the block.
+   * @param offset - offset of the region in the block file
+   * @param length - length of the region, which must be within the file
+   * @return the region, to be released once its data has been sent, or null
+   *         if the region is not mapped and should be read into a heap buffer
+   *         instead
+   * @throws StorageContainerException
+   */
+  default MappedBufferManager.Region mapBlockRegion(Container container, BlockID blockID,
+      long offset, int length) throws StorageContainerException {
+    return null;
+  }
+
   /**
    * Deletes a given chunk.
    *
@@ -30,6 +30,7 @@
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -43,8 +44,11 @@
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +71,10 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.WriteChunkRequestProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerAction;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.security.exception.SCMSecurityException;
+import org.apache.hadoop.hdds.security.token.BlockTokenException;
 import org.apache.hadoop.hdds.security.token.TokenVerifier;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.common.Checksum;
@@ -936,6 +944,85 @@ public void verify(Token<?> token,
     }
   }
 
+  @Test
+  public void testValidateBatchTokens() throws Exception {
+    try {
+      final OzoneConfiguration conf = new OzoneConfiguration();
+      conf.set(HDDS_DATANODE_DIR_KEY, testDir.getPath());
+      conf.set(OzoneConfigKeys.OZONE_METADATA_DIRS, testDir.getPath());
+
+      final DatanodeDetails dd = randomDatanodeDetails();
+      final UUID scmId = UUID.randomUUID();
+      final List<String> verified = new ArrayList<>();
+      final TokenVerifier tokenVerifier = new TokenVerifier() {
+        @Override
+        public void verify(ContainerCommandRequestProtoOrBuilder cmd,
+            String encodedToken) throws SCMSecurityException {
+          // each file is verified as a PutSmallFile of its own block
+          assertEquals(ContainerProtos.Type.PutSmallFile, cmd.getCmdType());
+          final long localID = cmd.getPutSmallFile().getBlock()
+              .getBlockData().getBlockID().getLocalID();
+          verified.add(localID + ":" + encodedToken);
+          if (!("token-" + localID).equals(encodedToken)) {
+            throw new BlockTokenException("Invalid token " + encodedToken);
+          }
+        }
+
+        @Override
+        public void verify(Token<?> token,
+            ContainerCommandRequestProtoOrBuilder cmd) {
+          fail("Unexpected decoded token");
+        }
+      };
+      final HddsDispatcher dispatcher = createDispatcher(
+          dd, scmId, conf, tokenVerifier);
+
+      dispatcher.validateContainerCommand(
+          getPutSmallFileBatchRequest(dd, "token-1", "token-2"));
+      assertEquals(Arrays.asList("1:token-1", "2:token-2"), verified);
+
+      // a bad token of any file fails the whole batch
+      verified.clear();
+      StorageContainerException e = assertThrows(
+          StorageContainerException.class,
+          () -> dispatcher.validateContainerCommand(
+              getPutSmallFileBatchRequest(dd, "token-1", "bad")));
+      assertEquals(ContainerProtos.Result.BLOCK_TOKEN_VERIFICATION_FAILED,
+          e.getResult());
+      assertEquals(Arrays.asList("1:token-1", "2:bad"), verified);
+
+      // and so does a missing token
+      verified.clear();
+      e = assertThrows(StorageContainerException.class,
+          () -> dispatcher.validateContainerCommand(
+              getPutSmallFileBatchRequest(dd, "token-1", "")));
+      assertEquals(ContainerProtos.Result.BLOCK_TOKEN_VERIFICATION_FAILED,
+          e.getResult());
+      assertEquals(Arrays.asList("1:token-1", "2:"), verified);
+    } finally {
+      ContainerMetrics.remove();
+    }
+  }
+
+  private static ContainerCommandRequestProto getPutSmallFileBatchRequest(
+      DatanodeDetails dd, String... tokens) throws Exception {
+    final Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    final ContainerProtos.PutSmallFileBatchRequestProto.Builder batch =
+        ContainerProtos.PutSmallFileBatchRequestProto.newBuilder();
+    for (int i = 0; i < tokens.length; i++) {
+      final BlockID blockID = new BlockID(1L, i + 1);
+      batch.addFiles(ContainerTestHelper.getWriteSmallFileRequest(
+          pipeline, blockID, 16).getPutSmallFile());
+      batch.addEncodedTokens(tokens[i]);
+    }
+    return ContainerCommandRequestProto.newBuilder()
+        .setCmdType(ContainerProtos.Type.PutSmallFileBatch)
+        .setContainerID(1L)
+        .setDatanodeUuid(dd.getUuidString())
+        .setPutSmallFileBatch(batch)
+        .build();
+  }
+
   /**
    * Verifies the soft/hard min-free-space split on the write path:
    *
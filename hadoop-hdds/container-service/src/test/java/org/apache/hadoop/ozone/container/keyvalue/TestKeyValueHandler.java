@@ -57,6 +57,7 @@
 import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -86,6 +87,8 @@
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.hdds.security.token.TokenVerifier;
 import org.apache.hadoop.hdds.utils.io.RandomAccessFileChannel;
@@ -1183,6 +1186,125 @@ public void testReadBlockOutOfRangeLastByteInRange() throws Exception {
     }
   }
 
+  /**
+   * Responses sent from mapped file regions must match those read through heap buffers.
+   */
+  @Test
+  public void testReadBlockZeroCopy() throws Exception {
+    ReadBlockResult copied = readBlock(BLOCK_SIZE, 0, BLOCK_SIZE);
+    conf.setBoolean(ScmConfigKeys.OZONE_CHUNK_READ_BLOCK_ZERO_COPY_KEY, true);
+    // without mapped buffers the regions fall back to heap buffers
+    assertSameResponses(copied, readBlock(BLOCK_SIZE, 0, BLOCK_SIZE));
+
+    conf.set(ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_THRESHOLD_KEY, "100B");
+    conf.setInt(ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_MAX_COUNT_KEY, 16);
+    assertSameResponses(copied, readBlock(BLOCK_SIZE, 0, BLOCK_SIZE));
+  }
+
+  @Test
+  public void testPutSmallFileBatch() throws Exception {
+    Path testDir = Files.createTempDirectory("testPutSmallFileBatch");
+    try {
+      HandlerWithVolumeSet handlerWithVolume = createKeyValueHandlerWithVolumeSet(testDir);
+      KeyValueHandler kvHandler = handlerWithVolume.getHandler();
+      KeyValueContainer container = createOpenContainer(handlerWithVolume);
+      long containerID = container.getContainerData().getContainerID();
+      BlockID first = ContainerTestHelper.getTestBlockID(containerID);
+      BlockID second = ContainerTestHelper.getTestBlockID(containerID);
+
+      ContainerCommandResponseProto response = kvHandler.handlePutSmallFileBatch(
+          getPutSmallFileBatchRequest(containerID, first, second), container, null);
+
+      assertEquals(ContainerProtos.Result.SUCCESS, response.getResult());
+      List<ContainerProtos.PutSmallFileResponseProto> files =
+          response.getPutSmallFileBatch().getFilesList();
+      assertEquals(2, files.size());
+      assertEquals(first.getLocalID(),
+          files.get(0).getCommittedBlockLength().getBlockID().getLocalID());
+      assertEquals(second.getLocalID(),
+          files.get(1).getCommittedBlockLength().getBlockID().getLocalID());
+      assertEquals(2, container.getContainerData().getBlockCount());
+      for (BlockID blockID : new BlockID[] {first, second}) {
+        BlockData blockData = kvHandler.getBlockManager().getBlock(container, blockID);
+        assertEquals(1, blockData.getChunks().size());
+      }
+    } finally {
+      FileUtils.deleteDirectory(testDir.toFile());
+      ContainerMetrics.remove();
+    }
+  }
+
+  /**
+   * A file which cannot be written fails the whole batch, and none of the blocks is committed.
+   */
+  @Test
+  public void testPutSmallFileBatchPartialFailure() throws Exception {
+    Path testDir = Files.createTempDirectory("testPutSmallFileBatch");
+    try {
+      HandlerWithVolumeSet handlerWithVolume = createKeyValueHandlerWithVolumeSet(testDir);
+      KeyValueHandler kvHandler = handlerWithVolume.getHandler();
+      KeyValueContainer container = createOpenContainer(handlerWithVolume);
+      long containerID = container.getContainerData().getContainerID();
+      BlockID valid = ContainerTestHelper.getTestBlockID(containerID);
+      BlockID otherContainer = ContainerTestHelper.getTestBlockID(containerID + 1);
+
+      ContainerCommandResponseProto response = kvHandler.handlePutSmallFileBatch(
+          getPutSmallFileBatchRequest(containerID, valid, otherContainer), container, null);
+
+      assertEquals(ContainerProtos.Result.INVALID_ARGUMENT, response.getResult());
+      assertFalse(response.hasPutSmallFileBatch());
+      assertEquals(0, container.getContainerData().getBlockCount());
+      Assertions.assertThrows(StorageContainerException.class,
+          () -> kvHandler.getBlockManager().getBlock(container, valid));
+    } finally {
+      FileUtils.deleteDirectory(testDir.toFile());
+      ContainerMetrics.remove();
+    }
+  }
+
+  private KeyValueContainer createOpenContainer(HandlerWithVolumeSet handlerWithVolume) throws IOException {
+    conf.set(OZONE_SCM_CONTAINER_LAYOUT_KEY, ContainerLayoutVersion.FILE_PER_BLOCK.name());
+    long containerID = ContainerTestHelper.getTestContainerID();
+    KeyValueContainerData containerData = new KeyValueContainerData(
+        containerID, ContainerLayoutVersion.FILE_PER_BLOCK,
+        (long) StorageUnit.GB.toBytes(1), UUID.randomUUID().toString(),
+        DATANODE_UUID);
+    KeyValueContainer container = new KeyValueContainer(containerData, conf);
+    container.create(handlerWithVolume.getVolumeSet(), new RoundRobinVolumeChoosingPolicy(), CLUSTER_ID);
+    handlerWithVolume.getContainerSet().addContainer(container);
+    return container;
+  }
+
+  private static ContainerCommandRequestProto getPutSmallFileBatchRequest(
+      long containerID, BlockID... blockIDs) throws Exception {
+    Pipeline pipeline = MockPipeline.createSingleNodePipeline();
+    ContainerProtos.PutSmallFileBatchRequestProto.Builder batch =
+        ContainerProtos.PutSmallFileBatchRequestProto.newBuilder();
+    for (BlockID blockID : blockIDs) {
+      batch.addFiles(ContainerTestHelper.getWriteSmallFileRequest(pipeline, blockID, 128)
+          .getPutSmallFile());
+    }
+    return ContainerCommandRequestProto.newBuilder()
+        .setCmdType(ContainerProtos.Type.PutSmallFileBatch)
+        .setContainerID(containerID)
+        .setDatanodeUuid(DATANODE_UUID)
+        .setPutSmallFileBatch(batch)
+        .build();
+  }
+
+  private static void assertSameResponses(ReadBlockResult copied, ReadBlockResult mapped) {
+    assertNull(mapped.getResponse(), "ReadBlock should return null on success");
+    assertThat(mapped.getErrors()).isEmpty();
+    assertEquals(copied.getDataResponses().size(), mapped.getDataResponses().size());
+    for (int i = 0; i < mapped.getDataResponses().size(); i++) {
+      ContainerProtos.ReadBlockResponseProto expected = copied.getDataResponses().get(i).getReadBlock();
+      ContainerProtos.ReadBlockResponseProto actual = mapped.getDataResponses().get(i).getReadBlock();
+      assertEquals(expected.getOffset(), actual.getOffset());
+      assertEquals(expected.getData(), actual.getData());
+      assertEquals(expected.getChecksumData(), actual.getChecksumData());
+    }
+  }
+
   private void assertOutOfRange(ReadBlockResult result, long offset) {
     assertNull(result.getResponse(),
         "ReadBlock must return null so the dispatcher does not scan the container");
@@ -1271,7 +1393,13 @@ private static final class ReadBlockResult implements StreamObserver<ContainerCo
 
     @Override
     public void onNext(ContainerCommandResponseProto dataResponse) {
-      dataResponses.add(dataResponse);
+      // Like the transport, serialize the response here: a zero-copy response wraps a mapped region which is
+      // released once onNext returns.
+      try {
+        dataResponses.add(ContainerCommandResponseProto.parseFrom(dataResponse.toByteArray()));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
 
     @Override
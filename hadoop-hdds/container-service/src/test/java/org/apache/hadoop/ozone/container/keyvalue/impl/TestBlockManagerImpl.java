@@ -173,6 +173,43 @@ public void testPutBlock(ContainerTestVersionInfo versionInfo)
 
   }
 
+  @ContainerTestVersionInfo.ContainerTest
+  public void testPutBlocks(ContainerTestVersionInfo versionInfo)
+      throws Exception {
+    initTest(versionInfo);
+    blockData.setBlockCommitSequenceId(5);
+    blockData1.setBlockCommitSequenceId(5);
+    List<BlockData> blocks = new ArrayList<>();
+    blocks.add(blockData);
+    blocks.add(blockData1);
+
+    assertEquals(blockData.getSize() + blockData1.getSize(),
+        blockManager.putBlocks(keyValueContainer, blocks));
+    assertEquals(2, keyValueContainer.getContainerData().getBlockCount());
+    assertEquals(5,
+        keyValueContainer.getContainerData().getBlockCommitSequenceId());
+    for (BlockData block : blocks) {
+      BlockData fromGetBlockData = blockManager.getBlock(keyValueContainer,
+          block.getBlockID());
+      assertEquals(5, fromGetBlockData.getBlockCommitSequenceId());
+      assertEquals(block.getChunks().size(),
+          fromGetBlockData.getChunks().size());
+    }
+
+    // reapplying the same transaction does not count the blocks again
+    blockManager.putBlocks(keyValueContainer, blocks);
+    assertEquals(2, keyValueContainer.getContainerData().getBlockCount());
+
+    // blocks committed by different transactions cannot be batched
+    BlockData other = new BlockData(new BlockID(1L, 3L));
+    other.setBlockCommitSequenceId(7);
+    blocks.add(other);
+    blockData.setBlockCommitSequenceId(6);
+    blockData1.setBlockCommitSequenceId(6);
+    assertThrows(IllegalStateException.class,
+        () -> blockManager.putBlocks(keyValueContainer, blocks));
+  }
+
   @ContainerTestVersionInfo.ContainerTest
   public void testPutAndGetBlock(ContainerTestVersionInfo versionInfo)
       throws Exception {
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ChunkReadCache}.
+ */
+public class TestChunkReadCache {
+
+  private static final int CHUNK = 1024;
+
+  private VolumeIOStats stats;
+  private HddsVolume volume;
+
+  @BeforeEach
+  public void setup() {
+    stats = new VolumeIOStats("test-" + UUID.randomUUID(), "dir",
+        new int[] {60});
+    volume = mock(HddsVolume.class);
+    when(volume.getVolumeIOStats()).thenReturn(stats);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    stats.unregister();
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    ChunkReadCache cache = new ChunkReadCache(4 * CHUNK, CHUNK);
+    BlockID block = new BlockID(1, 1);
+
+    assertNull(cache.get(volume, block, 0, CHUNK));
+    cache.put(volume, block, 0, CHUNK, data(7), cache.epoch(block));
+
+    ChunkBuffer cached = cache.get(volume, block, 0, CHUNK);
+    assertNotNull(cached);
+    assertEquals(data(7).toByteString(), cached.toByteString());
+    // a different range of the same block is a different entry
+    assertNull(cache.get(volume, block, CHUNK, CHUNK));
+
+    assertEquals(1, stats.getReadCacheHits());
+    assertEquals(2, stats.getReadCacheMisses());
+    assertEquals(CHUNK, stats.getReadCacheBytes());
+  }
+
+  @Test
+  public void testLargeChunkNotCached() {
+    ChunkReadCache cache = new ChunkReadCache(4 * CHUNK, CHUNK);
+    assertFalse(cache.isCacheable(CHUNK + 1));
+    BlockID block = new BlockID(1, 1);
+    cache.put(volume, block, 0, CHUNK + 1, data(CHUNK + 1, 1), cache.epoch(block));
+    assertNull(cache.get(volume, block, 0, CHUNK + 1));
+    assertEquals(0, stats.getReadCacheBytes());
+  }
+
+  @Test
+  public void testAdmissionByFrequency() {
+    ChunkReadCache cache = new ChunkReadCache(2 * CHUNK, CHUNK);
+    BlockID hot1 = new BlockID(1, 1);
+    BlockID hot2 = new BlockID(1, 2);
+    for (BlockID block : new BlockID[] {hot1, hot2}) {
+      for (int i = 0; i < 3; i++) {
+        cache.get(volume, block, 0, CHUNK);
+      }
+      cache.put(volume, block, 0, CHUNK, data(1), cache.epoch(block));
+    }
+
+    // a chunk read once does not evict hot chunks
+    BlockID cold = new BlockID(2, 1);
+    assertNull(cache.get(volume, cold, 0, CHUNK));
+    cache.put(volume, cold, 0, CHUNK, data(2), cache.epoch(cold));
+    assertNull(cache.get(volume, cold, 0, CHUNK));
+    assertTrue(stats.getReadCacheRejected() > 0);
+    assertNotNull(cache.get(volume, hot1, 0, CHUNK));
+    assertNotNull(cache.get(volume, hot2, 0, CHUNK));
+
+    // once more popular, it replaces the least recently used chunk
+    for (int i = 0; i < 10; i++) {
+      cache.get(volume, cold, 0, CHUNK);
+    }
+    cache.put(volume, cold, 0, CHUNK, data(2), cache.epoch(cold));
+    assertNotNull(cache.get(volume, cold, 0, CHUNK));
+    assertNull(cache.get(volume, hot1, 0, CHUNK));
+    assertEquals(1, stats.getReadCacheEvictions());
+    assertEquals(2 * CHUNK, stats.getReadCacheBytes());
+  }
+
+  @Test
+  public void testInvalidate() {
+    ChunkReadCache cache = new ChunkReadCache(8 * CHUNK, CHUNK);
+    BlockID block1 = new BlockID(1, 1);
+    BlockID block2 = new BlockID(1, 2);
+    BlockID block3 = new BlockID(2, 1);
+    for (BlockID block : new BlockID[] {block1, block2, block3}) {
+      cache.put(volume, block, 0, CHUNK, data(1), cache.epoch(block));
+    }
+
+    cache.invalidate(block1);
+    assertNull(cache.get(volume, block1, 0, CHUNK));
+    assertNotNull(cache.get(volume, block2, 0, CHUNK));
+
+    cache.invalidate(1);
+    assertNull(cache.get(volume, block2, 0, CHUNK));
+    assertNotNull(cache.get(volume, block3, 0, CHUNK));
+    assertEquals(CHUNK, stats.getReadCacheBytes());
+
+    cache.clear();
+    assertNull(cache.get(volume, block3, 0, CHUNK));
+    assertEquals(0, stats.getReadCacheBytes());
+  }
+
+  @Test
+  public void testStaleReadNotCached() {
+    ChunkReadCache cache = new ChunkReadCache(4 * CHUNK, CHUNK);
+    BlockID block = new BlockID(1, 1);
+    BlockID other = new BlockID(2, 1);
+    long epoch = cache.epoch(block);
+    long otherEpoch = cache.epoch(other);
+    // block deleted while the data was being read from disk
+    cache.invalidate(block);
+    cache.put(volume, block, 0, CHUNK, data(1), epoch);
+    assertNull(cache.get(volume, block, 0, CHUNK));
+
+    // reads of other containers are still cached
+    cache.put(volume, other, 0, CHUNK, data(2), otherEpoch);
+    assertNotNull(cache.get(volume, other, 0, CHUNK));
+  }
+
+  private static ChunkBuffer data(int value) {
+    return data(CHUNK, value);
+  }
+
+  private static ChunkBuffer data(int length, int value) {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) value);
+    }
+    buffer.flip();
+    return ChunkBuffer.wrap(buffer);
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link GroupCommitSyncer}.
+ */
+public class TestGroupCommitSyncer {
+
+  @TempDir
+  private Path dir;
+
+  private VolumeIOStats stats;
+
+  @BeforeEach
+  public void setup() {
+    stats = new VolumeIOStats("test-" + UUID.randomUUID(), dir.toString(),
+        new int[] {60});
+  }
+
+  @AfterEach
+  public void cleanup() {
+    stats.unregister();
+  }
+
+  @Test
+  @Timeout(30)
+  public void testFullBatchClosesWindow() throws Exception {
+    final int writers = 4;
+    // window is much longer than the test timeout, only batch size closes it
+    GroupCommitSyncer syncer = new GroupCommitSyncer(
+        TimeUnit.MINUTES.toNanos(5), writers, stats, null);
+
+    List<FileChannel> channels = new ArrayList<>();
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < writers; i++) {
+        FileChannel channel = open("block" + i);
+        channels.add(channel);
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+            syncer.sync(channel);
+          } catch (IOException e) {
+            throw new IllegalStateException(e);
+          }
+        }));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+          .get();
+    } finally {
+      for (FileChannel channel : channels) {
+        channel.close();
+      }
+    }
+
+    assertEquals(1, stats.getFsyncBatchCount());
+  }
+
+  @Test
+  public void testWindowExpires() throws Exception {
+    GroupCommitSyncer syncer = new GroupCommitSyncer(
+        TimeUnit.MILLISECONDS.toNanos(1), 100, stats, null);
+    try (FileChannel channel = open("block")) {
+      syncer.sync(channel);
+      syncer.sync(channel);
+    }
+    assertEquals(2, stats.getFsyncBatchCount());
+  }
+
+  @Test
+  public void testSyncFailure() throws Exception {
+    AtomicInteger failures = new AtomicInteger();
+    GroupCommitSyncer syncer = new GroupCommitSyncer(0, 1, stats,
+        failures::incrementAndGet);
+    FileChannel channel = open("block");
+    channel.close();
+    assertThrows(IOException.class, () -> syncer.sync(channel));
+    assertEquals(1, failures.get());
+  }
+
+  @Test
+  @Timeout(30)
+  public void testFailureOnlyFailsItsWriters() throws Exception {
+    final int writers = 4;
+    AtomicInteger failures = new AtomicInteger();
+    GroupCommitSyncer syncer = new GroupCommitSyncer(
+        TimeUnit.MINUTES.toNanos(5), writers, stats,
+        failures::incrementAndGet);
+
+    FileChannel closed = open("closed");
+    closed.close();
+    List<FileChannel> channels = new ArrayList<>();
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < writers; i++) {
+        FileChannel channel = i % 2 == 0 ? closed : open("block" + i);
+        if (channel != closed) {
+          channels.add(channel);
+        }
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            syncer.sync(channel);
+          } catch (IOException e) {
+            throw new IllegalStateException(e);
+          }
+        }));
+      }
+      for (int i = 0; i < writers; i++) {
+        if (i % 2 == 0) {
+          assertThrows(ExecutionException.class, futures.get(i)::get);
+        } else {
+          futures.get(i).get();
+        }
+      }
+    } finally {
+      for (FileChannel channel : channels) {
+        channel.close();
+      }
+    }
+
+    assertEquals(1, stats.getFsyncBatchCount());
+    assertEquals(1, failures.get());
+  }
+
+  private FileChannel open(String name) throws IOException {
+    return FileChannel.open(dir.resolve(name),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+  }
+}
@@ -18,28 +18,180 @@
 package org.apache.hadoop.ozone.container.keyvalue.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
-import java.nio.ByteBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.ozone.common.ChunkBufferToByteString;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Test for MappedBufferManager.
  */
 public class TestMappedBufferManager {
 
+  private static final int REGION = 4096;
+
+  @TempDir
+  private File dir;
+
+  private File file;
+  private FileChannel channel;
+  private final AtomicInteger maps = new AtomicInteger();
+  private VolumeIOStats stats;
+  private HddsVolume volume;
+
+  @BeforeEach
+  public void setup() throws IOException {
+    file = new File(dir, "113750153625600065.block");
+    byte[] data = new byte[4 * REGION];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i / REGION);
+    }
+    Files.write(file.toPath(), data);
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+    stats = new VolumeIOStats("test-" + UUID.randomUUID(), "dir",
+        new int[] {60});
+    volume = mock(HddsVolume.class);
+    when(volume.getVolumeIOStats()).thenReturn(stats);
+  }
+
+  @AfterEach
+  public void cleanup() throws IOException {
+    channel.close();
+    stats.unregister();
+  }
+
+  @Test
+  public void testRegionReused() throws IOException {
+    MappedBufferManager manager = new MappedBufferManager(100);
+    String path = file.getAbsolutePath();
+    assertNull(manager.get(path, 0, REGION, true));
+
+    MappedBufferManager.Region region = map(manager, 0, true);
+    assertEquals(0, region.getBuffer().get(0));
+    // a different range of the same file is a different region
+    MappedBufferManager.Region other = map(manager, REGION, true);
+    assertEquals(1, other.getBuffer().get(0));
+
+    MappedBufferManager.Region again = manager.get(path, 0, REGION, true);
+    assertSame(region, again);
+    assertSame(region, map(manager, 0, true));
+    assertEquals(2, maps.get());
+
+    assertEquals(2, stats.getMappedRegionMaps());
+    assertEquals(2, stats.getMappedRegionHits());
+    assertEquals(2 * REGION, stats.getMappedBytes());
+
+    region.release();
+    again.release();
+    region.release();
+    other.release();
+  }
+
+  @Test
+  public void testEvictionByCount() throws IOException {
+    MappedBufferManager manager = new MappedBufferManager(2);
+    String path = file.getAbsolutePath();
+    map(manager, 0, true).release();
+    map(manager, REGION, true).release();
+    // access the first region, the second one becomes the LRU victim
+    manager.get(path, 0, REGION, true).release();
+
+    map(manager, 2 * REGION, true).release();
+    assertEquals(2, manager.getCachedCount());
+    assertNull(manager.get(path, REGION, REGION, true));
+    MappedBufferManager.Region region = manager.get(path, 0, REGION, true);
+    assertNotNull(region);
+    region.release();
+  }
+
+  @Test
+  public void testEvictionBySize() throws IOException {
+    MappedBufferManager manager = new MappedBufferManager(100,
+        2 * REGION + 1);
+    for (int i = 0; i < 4; i++) {
+      map(manager, i * REGION, true).release();
+    }
+    assertEquals(2, manager.getCachedCount());
+    assertEquals(2 * REGION, manager.getMappedBytes());
+    assertEquals(2 * REGION, stats.getMappedBytes());
+  }
+
+  @Test
+  public void testRegionsInUseLimitMapping() throws IOException {
+    MappedBufferManager manager = new MappedBufferManager(2);
+    MappedBufferManager.Region first = map(manager, 0, true);
+    MappedBufferManager.Region second = map(manager, REGION, true);
+
+    // both are evicted to make room, but still count until released
+    assertNull(map(manager, 2 * REGION, true));
+    assertEquals(0, manager.getCachedCount());
+    assertEquals(0, first.getBuffer().get(REGION - 1));
+
+    first.release();
+    MappedBufferManager.Region third = map(manager, 2 * REGION, true);
+    assertNotNull(third);
+    assertEquals(2, third.getBuffer().get(0));
+    second.release();
+    third.release();
+  }
+
   @Test
-  public void testComputeIfAbsent() {
+  public void testUnmapFile() throws IOException {
     MappedBufferManager manager = new MappedBufferManager(100);
-    String file = "/CID-fd49f4a7-670d-43c5-a177-8ac03aafceb2/current/containerDir0/2/chunks/113750153625600065.block";
-    long position = 0;
-    int size = 1024;
-    ByteBuffer buffer1 = ByteBuffer.allocate(size);
-    ByteBuffer buffer2 = ByteBuffer.allocate(size + 1);
-    ByteBuffer byteBuffer1 = manager.computeIfAbsent(file, position, size, () -> buffer1);
-    assertEquals(buffer1, byteBuffer1);
-    // buffer should be reused
-    String file2 = "/CID-fd49f4a7-670d-43c5-a177-8ac03aafceb2/current/containerDir0/2/chunks/113750153625600065.block";
-    ByteBuffer byteBuffer2 = manager.computeIfAbsent(file2, position, size, () -> buffer2);
-    assertEquals(buffer1, byteBuffer2);
+    String path = file.getAbsolutePath();
+    map(manager, 0, true).release();
+    map(manager, REGION, false);
+    assertEquals(2, manager.getCachedCount());
+
+    manager.unmap(path);
+    assertEquals(0, manager.getCachedCount());
+    assertEquals(0, manager.getMappedBytes());
+    assertEquals(0, stats.getMappedBytes());
+    assertNull(manager.get(path, 0, REGION, true));
+
+    map(manager, 0, true).release();
+    assertEquals(3, maps.get());
+  }
+
+  @Test
+  public void testWrapReleasesOnce() throws IOException {
+    MappedBufferManager manager = new MappedBufferManager(2);
+    MappedBufferManager.Region region = map(manager, 0, true);
+    manager.unmap(file.getAbsolutePath());
+
+    ChunkBufferToByteString data =
+        MappedBufferManager.wrap(Collections.singletonList(region));
+    assertEquals(REGION, data.toByteString().size());
+    data.release();
+    data.release();
+    // the region is unmapped, a new one can be mapped in its place
+    assertNotNull(map(manager, 0, true));
+  }
+
+  private MappedBufferManager.Region map(MappedBufferManager manager,
+      long position, boolean tracked) throws IOException {
+    return manager.map(file.getAbsolutePath(), position, REGION, volume,
+        tracked, () -> {
+          maps.incrementAndGet();
+          return channel.map(FileChannel.MapMode.READ_ONLY, position, REGION);
+        });
   }
 }
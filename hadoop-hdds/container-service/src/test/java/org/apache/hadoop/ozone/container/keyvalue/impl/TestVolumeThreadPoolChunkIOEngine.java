@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.impl;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.IO_EXCEPTION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeIOStats;
+import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkIOEngine.Op;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Test for {@link VolumeThreadPoolChunkIOEngine}.
+ */
+@Timeout(30)
+public class TestVolumeThreadPoolChunkIOEngine {
+
+  private VolumeIOStats stats;
+  private HddsVolume volume;
+
+  @BeforeEach
+  public void setup() {
+    stats = new VolumeIOStats("test-" + UUID.randomUUID(), "dir",
+        new int[] {60});
+    volume = mock(HddsVolume.class);
+    when(volume.getVolumeIOStats()).thenReturn(stats);
+    when(volume.getStorageID()).thenReturn("DS-test");
+  }
+
+  @AfterEach
+  public void cleanup() {
+    stats.unregister();
+  }
+
+  @Test
+  public void testExecute() throws Exception {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(2, 4, 0, 0);
+    try {
+      assertEquals("data",
+          engine.execute(volume, Op.READ, () -> "data", s -> { }));
+      assertThrows(StorageContainerException.class,
+          () -> engine.execute(volume, Op.WRITE, () -> {
+            throw new StorageContainerException("fail", IO_EXCEPTION);
+          }, s -> { }));
+      assertEquals(0, stats.getIOEngineInFlight());
+    } finally {
+      engine.shutdown();
+    }
+  }
+
+  @Test
+  public void testReadRejectedWhenQueueFull() throws Exception {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(1, 1, 0, 0);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CompletableFuture<String> slow = engine.submit(volume, Op.READ, () -> {
+        await(release);
+        return "slow";
+      });
+      assertEquals(1, stats.getIOEngineInFlight());
+      assertThrows(StorageContainerException.class,
+          () -> engine.execute(volume, Op.READ, () -> "fast", s -> { }));
+
+      release.countDown();
+      assertEquals("slow", slow.get());
+    } finally {
+      release.countDown();
+      engine.shutdown();
+    }
+  }
+
+  @Test
+  public void testReadTimeoutDiscardsResult() throws Exception {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(1, 4, 10, 0);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch discarded = new CountDownLatch(1);
+    AtomicBoolean discardedResult = new AtomicBoolean();
+    try {
+      assertThrows(StorageContainerException.class,
+          () -> engine.execute(volume, Op.READ, () -> {
+            await(release);
+            return "late";
+          }, s -> {
+            discardedResult.set("late".equals(s));
+            discarded.countDown();
+          }));
+
+      release.countDown();
+      discarded.await();
+      assertTrue(discardedResult.get());
+    } finally {
+      release.countDown();
+      engine.shutdown();
+    }
+  }
+
+  @Test
+  public void testWriteTimeoutWaitsForRunningWrite() throws Exception {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(1, 1, 0, 10);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CompletableFuture<String> write = CompletableFuture.supplyAsync(() -> {
+        try {
+          return engine.execute(volume, Op.WRITE, () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+          }, s -> { });
+        } catch (StorageContainerException e) {
+          throw new CompletionException(e);
+        }
+      });
+      started.await();
+      // well past the timeout, the caller still waits for the running write
+      Thread.sleep(100);
+      assertFalse(write.isDone());
+
+      release.countDown();
+      assertEquals("slow", write.get());
+      assertEquals(0, stats.getIOEngineTimedOut());
+    } finally {
+      release.countDown();
+      engine.shutdown();
+    }
+  }
+
+  @Test
+  public void testWriteTimeoutCancelsQueuedWrite() throws Exception {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(1, 2, 0, 10);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicBoolean ran = new AtomicBoolean();
+    try {
+      CompletableFuture<String> slow = engine.submit(volume, Op.WRITE, () -> {
+        await(release);
+        return "slow";
+      });
+      // the write queued behind the slow one is cancelled at its timeout
+      StorageContainerException e = assertThrows(
+          StorageContainerException.class,
+          () -> engine.execute(volume, Op.WRITE, () -> {
+            ran.set(true);
+            return "queued";
+          }, s -> { }));
+      assertEquals(IO_EXCEPTION, e.getResult());
+      assertEquals(1, stats.getIOEngineTimedOut());
+
+      release.countDown();
+      assertEquals("slow", slow.get());
+      // once the executor drains, the cancelled write has not run
+      assertEquals("next",
+          engine.execute(volume, Op.WRITE, () -> "next", s -> { }));
+      assertFalse(ran.get());
+    } finally {
+      release.countDown();
+      engine.shutdown();
+    }
+  }
+
+  @Test
+  public void testSubmitAfterShutdown() {
+    VolumeThreadPoolChunkIOEngine engine =
+        new VolumeThreadPoolChunkIOEngine(1, 1, 0, 0);
+    engine.shutdown();
+    assertThrows(StorageContainerException.class,
+        () -> engine.execute(volume, Op.READ, () -> "data", s -> { }));
+    assertEquals(0, stats.getIOEngineInFlight());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -26,6 +26,7 @@
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableRate;
 
 /**
  * Metrics source for EventExecutor implementations.
@@ -57,6 +58,12 @@ public class EventExecutorMetrics implements MetricsSource {
   @Metric("Number of tasks with long wait time in queue")
   private MutableCounterLong longWaitInQueue;
 
+  @Metric("Time tasks waited in the queue before execution")
+  private MutableRate queueWaitTime;
+
+  @Metric("Time taken to execute tasks")
+  private MutableRate executionTime;
+
   public EventExecutorMetrics(String name, String description) {
     this.name = name;
     this.description = description;
@@ -113,6 +120,14 @@ public void incrementLongWaitInQueue() {
     longWaitInQueue.incr();
   }
 
+  public void addQueueWaitTime(long millis) {
+    queueWaitTime.add(millis);
+  }
+
+  public void addExecutionTime(long millis) {
+    executionTime.add(millis);
+  }
+
   public long getQueued() {
     return queued.value();
   }
@@ -140,4 +155,12 @@ public long getLongExecution() {
   public long getLongWaitInQueue() {
     return longWaitInQueue.value();
   }
+
+  public MutableRate getQueueWaitTime() {
+    return queueWaitTime;
+  }
+
+  public MutableRate getExecutionTime() {
+    return executionTime;
+  }
 }
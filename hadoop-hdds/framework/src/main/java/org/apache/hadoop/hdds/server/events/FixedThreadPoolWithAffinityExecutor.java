@@ -18,6 +18,7 @@
 package org.apache.hadoop.hdds.server.events;
 
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_EXEC_WAIT_THRESHOLD_DEFAULT;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_OFFER_TIMEOUT_DEFAULT;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_WAIT_THRESHOLD_DEFAULT;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -68,6 +69,8 @@
       = OZONE_SCM_EVENT_REPORT_QUEUE_WAIT_THRESHOLD_DEFAULT;
   private long execWaitThreshold
       = OZONE_SCM_EVENT_REPORT_EXEC_WAIT_THRESHOLD_DEFAULT;
+  private long queueOfferTimeout
+      = OZONE_SCM_EVENT_REPORT_QUEUE_OFFER_TIMEOUT_DEFAULT;
 
   /**
    * Create FixedThreadPoolExecutor with affinity.
@@ -111,6 +114,14 @@ public void setExecWaitThreshold(long execWaitThreshold) {
     this.execWaitThreshold = execWaitThreshold;
   }
 
+  /**
+   * Sets how long, in milliseconds, a publisher waits for space in a full
+   * queue before the payload is dropped.
+   */
+  public void setQueueOfferTimeout(long queueOfferTimeout) {
+    this.queueOfferTimeout = queueOfferTimeout;
+  }
+
   public static <Q> List<ThreadPoolExecutor> initializeExecutorPool(
       List<BlockingQueue<Q>> workQueues) {
     return initializeExecutorPool("", workQueues);
@@ -147,13 +158,32 @@ public void onMessage(EventHandler<P> handler, P message, EventPublisher
     // other messages that implement the native hash.
     int index = Math.floorMod(message.hashCode(), workQueues.size());
     BlockingQueue<Q> queue = workQueues.get(index);
-    queue.add((Q) message);
+    try {
+      queue.add((Q) message);
+    } catch (IllegalStateException e) {
+      // The queue is full. Hold the publisher, which is the heartbeat of the
+      // reporting datanode, to slow it down instead of dropping the payload.
+      offer(queue, (Q) message);
+    }
     if (queue instanceof IQueueMetrics) {
       metrics.incrementDropped(((IQueueMetrics) queue).getAndResetDropCount(
           message.getClass().getSimpleName()));
     }
   }
 
+  private void offer(BlockingQueue<Q> queue, Q message) {
+    try {
+      if (queue.offer(message, queueOfferTimeout, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    metrics.incrementDropped();
+    LOG.warn("Dropped {} of {} as the queue is full",
+        message.getClass().getSimpleName(), name);
+  }
+
   @Override
   public long failedEvents() {
     return metrics.getFailed();
@@ -245,6 +275,10 @@ public void run() {
           }
           
           long curTime = Time.monotonicNow();
+          final long startTime = curTime;
+          if (createTime != 0) {
+            executor.metrics.addQueueWaitTime(curTime - createTime);
+          }
           if (createTime != 0
               && ((curTime - createTime) > executor.queueWaitThreshold)) {
             executor.metrics.incrementLongWaitInQueue();
@@ -258,6 +292,7 @@ public void run() {
                 executor.eventPublisher);
             executor.metrics.incrementDone();
             curTime = Time.monotonicNow();
+            executor.metrics.addExecutionTime(curTime - startTime);
             if (createTime != 0
                 && (curTime - createTime) > executor.execWaitThreshold) {
               executor.metrics.incrementLongExecution();
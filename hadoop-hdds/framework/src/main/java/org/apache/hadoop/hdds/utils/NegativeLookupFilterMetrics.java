@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils;
+
+import org.apache.hadoop.hdds.utils.db.NegativeLookupFilter;
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsInfo;
+import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+
+/**
+ * This class emits table level negative lookup filter metrics.
+ */
+public final class NegativeLookupFilterMetrics implements MetricsSource {
+
+  public static final String SOURCE_NAME = NegativeLookupFilterMetrics.class.getSimpleName();
+
+  private final NegativeLookupFilter filter;
+
+  private NegativeLookupFilterMetrics(NegativeLookupFilter filter) {
+    this.filter = filter;
+  }
+
+  public static NegativeLookupFilterMetrics create(NegativeLookupFilter filter) {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    NegativeLookupFilterMetrics metrics = new NegativeLookupFilterMetrics(filter);
+    return ms.register(metrics.getSourceName(), "Table negative lookup filter metrics",
+        metrics);
+  }
+
+  private String getSourceName() {
+    return filter.getTableName() + "NegativeLookupFilter";
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    MetricsRecordBuilder recordBuilder = collector.addRecord(SOURCE_NAME)
+        .setContext("Table negative lookup filter metrics")
+        .tag(MetricsInfos.TableName, filter.getTableName());
+    recordBuilder
+        .addGauge(MetricsInfos.Ready, filter.isReady() ? 1 : 0)
+        .addGauge(MetricsInfos.Saturated, filter.isSaturated() ? 1 : 0)
+        .addGauge(MetricsInfos.ApproximateKeyCount, filter.getApproximateKeyCount())
+        .addGauge(MetricsInfos.ExpectedFpp, filter.getExpectedFpp())
+        .addGauge(MetricsInfos.NegativeCount, filter.getNegativeCount())
+        .addGauge(MetricsInfos.FalsePositiveCount, filter.getFalsePositiveCount())
+        .addGauge(MetricsInfos.FalsePositiveRate, filter.getFalsePositiveRate());
+  }
+
+  public void unregister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(getSourceName());
+  }
+
+  private enum MetricsInfos implements MetricsInfo {
+    TableName("Table Name."),
+    Ready("Whether the filter is loaded and used for the lookups."),
+    Saturated("Whether more keys were added than the filter is sized for."),
+    ApproximateKeyCount("Approximate number of keys added to the filter."),
+    ExpectedFpp("False positive probability expected from the number of keys."),
+    NegativeCount("Number of lookups answered by the filter without reading the DB."),
+    FalsePositiveCount("Number of lookups of non-existent keys not answered by the filter."),
+    FalsePositiveRate("Observed rate of the lookups of non-existent keys not answered by the filter.");
+
+    private final String desc;
+
+    MetricsInfos(String desc) {
+      this.desc = desc;
+    }
+
+    @Override
+    public String description() {
+      return desc;
+    }
+  }
+}
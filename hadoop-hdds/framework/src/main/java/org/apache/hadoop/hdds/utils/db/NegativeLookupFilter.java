@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory bloom filter of the keys of a table, used to answer the
+ * lookups of non-existent keys without reading the DB.
+ * <p>
+ * Every key written to the table is added to the filter, and keys are never
+ * removed, so the filter is a superset of the keys in the table.  Deleted
+ * keys only increase the false positive rate, until the filter is rebuilt
+ * when the table is reopened.
+ * <p>
+ * The filter is loaded from the table in the background.  Until it is
+ * {@link #isReady() ready}, every lookup goes to the DB.  A bloom filter
+ * cannot grow, so once more keys than it is sized for are added, it is
+ * {@link #isSaturated() saturated} and every lookup goes to the DB again,
+ * until the filter is rebuilt when the table is reopened.
+ */
+public final class NegativeLookupFilter {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(NegativeLookupFilter.class);
+
+  /** Hashes the remaining bytes of a buffer without consuming them. */
+  private static final Funnel<ByteBuffer> FUNNEL =
+      (buffer, sink) -> sink.putBytes(buffer.duplicate());
+
+  private final String tableName;
+  private final BloomFilter<ByteBuffer> filter;
+  private final long expectedKeys;
+  /** The keys added which were definitely not in the filter. */
+  private final AtomicLong insertions = new AtomicLong();
+  private volatile boolean ready;
+  private volatile boolean saturated;
+  private volatile boolean closed;
+
+  /** Lookups answered by the filter without reading the DB. */
+  private final LongAdder negativeCount = new LongAdder();
+  /** Lookups of non-existent keys which the filter failed to answer. */
+  private final LongAdder falsePositiveCount = new LongAdder();
+
+  NegativeLookupFilter(String tableName, long expectedKeys, double fpp) {
+    this.tableName = tableName;
+    this.filter = BloomFilter.create(FUNNEL, expectedKeys, fpp);
+    this.expectedKeys = expectedKeys;
+  }
+
+  void put(byte[] key) {
+    put(ByteBuffer.wrap(key));
+  }
+
+  void put(ByteBuffer key) {
+    if (filter.put(key) && insertions.incrementAndGet() > expectedKeys
+        && !saturated) {
+      saturated = true;
+      LOG.warn("The negative lookup filter of {} has more than {} keys, "
+          + "lookups go to the DB until it is rebuilt", tableName,
+          expectedKeys);
+    }
+  }
+
+  /**
+   * @return false if the key is definitely not in the table, true if it
+   * might be or the filter is not loaded yet.
+   */
+  boolean mightContain(byte[] key) {
+    if (!ready || saturated) {
+      return true;
+    }
+    if (filter.mightContain(ByteBuffer.wrap(key))) {
+      return true;
+    }
+    negativeCount.increment();
+    return false;
+  }
+
+  /** Records that a key, which the filter might contain, is not found. */
+  void falsePositive() {
+    if (isReady()) {
+      falsePositiveCount.increment();
+    }
+  }
+
+  /** Adds the existing keys of the given table and marks the filter ready. */
+  void load(RDBTable table) {
+    long count = 0;
+    try (Table.KeyValueIterator<byte[], byte[]> i =
+             table.iterator((byte[]) null, IteratorType.KEY_ONLY)) {
+      while (i.hasNext() && !closed) {
+        put(i.next().getKey());
+        count++;
+      }
+    } catch (Exception e) {
+      if (!closed) {
+        LOG.warn("Failed to load the negative lookup filter of {}", tableName, e);
+      }
+      return;
+    }
+    if (!closed) {
+      ready = true;
+      LOG.info("Loaded the negative lookup filter of {} with {} keys", tableName, count);
+    }
+  }
+
+  /** Stops loading the filter and uses the DB for every lookup. */
+  public void close() {
+    closed = true;
+    ready = false;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public boolean isReady() {
+    return ready && !saturated;
+  }
+
+  /** @return whether more keys were added than the filter is sized for. */
+  public boolean isSaturated() {
+    return saturated;
+  }
+
+  public long getExpectedKeys() {
+    return expectedKeys;
+  }
+
+  public long getApproximateKeyCount() {
+    return filter.approximateElementCount();
+  }
+
+  /** @return the false positive rate expected from the number of keys. */
+  public double getExpectedFpp() {
+    return filter.expectedFpp();
+  }
+
+  public long getNegativeCount() {
+    return negativeCount.sum();
+  }
+
+  public long getFalsePositiveCount() {
+    return falsePositiveCount.sum();
+  }
+
+  /** @return the observed rate of non-existent keys not answered. */
+  public double getFalsePositiveRate() {
+    final long falsePositives = getFalsePositiveCount();
+    final long total = falsePositives + getNegativeCount();
+    return total == 0 ? 0 : (double) falsePositives / total;
+  }
+}
@@ -21,6 +21,7 @@
 
 import com.google.common.base.Preconditions;
 import java.io.Closeable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
@@ -79,6 +80,23 @@ private static String countSize2String(int count, long size) {
     return count + " (" + byteSize2String(size) + ")";
   }
 
+  private static byte[] toArray(CodecBuffer buffer) {
+    final ByteBuffer readOnly = buffer.asReadOnlyByteBuffer();
+    final byte[] array = new byte[readOnly.remaining()];
+    readOnly.get(array);
+    return array;
+  }
+
+  /** Receives the operations of a batch, see {@link #export(Exporter)}. */
+  @FunctionalInterface
+  public interface Exporter {
+    /**
+     * @param family the column family name
+     * @param value the value to put, or null to delete the key
+     */
+    void accept(String family, byte[] key, byte[] value) throws IOException;
+  }
+
   /**
    * The key type of {@link RDBBatchOperation.OpCache.FamilyCache#ops}.
    * To implement {@link #equals(Object)} and {@link #hashCode()}
@@ -229,6 +247,10 @@ public int valLen() {
       return value.readableBytes();
     }
 
+    CodecBuffer getValue() {
+      return value;
+    }
+
     @Override
     boolean closeImpl() {
       if (super.closeImpl()) {
@@ -281,6 +303,17 @@ void prepareBatchWrite() throws RocksDatabaseException {
         debug(this::summary);
       }
 
+      /** Pass the deduplicated operations to the exporter. */
+      void export(Exporter exporter) throws IOException {
+        Preconditions.checkState(!isCommit, "%s is already committed.", this);
+        isCommit = true;
+        for (SingleKeyOp op : ops.values()) {
+          final byte[] value = op instanceof PutOp
+              ? toArray(((PutOp) op).getValue()) : null;
+          exporter.accept(family.getName(), toArray(op.getKeyBuffer()), value);
+        }
+      }
+
       private String summary() {
         return String.format("  %s %s, #put=%s, #del=%s", this,
             batchSizeDiscardedString(), putCount, delCount);
@@ -369,6 +402,12 @@ UncheckedAutoCloseable prepareBatchWrite() throws RocksDatabaseException {
       return this::clear;
     }
 
+    void export(Exporter exporter) throws IOException {
+      for (FamilyCache f : name2cache.values()) {
+        f.export(exporter);
+      }
+    }
+
     private void clear() {
       for (Map.Entry<String, FamilyCache> e : name2cache.entrySet()) {
         e.getValue().clear();
@@ -426,6 +465,17 @@ public void commit(RocksDatabase db, ManagedWriteOptions writeOptions) throws Ro
     }
   }
 
+  /**
+   * Pass the operations of this batch to the given exporter instead of
+   * committing them, e.g. to replicate them to other DBs.
+   * The batch cannot be committed afterwards.
+   */
+  public void export(Exporter exporter) throws IOException {
+    debug(() -> String.format("%s: export %s",
+        name, opCache.getCommitString()));
+    opCache.export(exporter);
+  }
+
   @Override
   public void close() {
     debug(() -> String.format("%s: close", name));
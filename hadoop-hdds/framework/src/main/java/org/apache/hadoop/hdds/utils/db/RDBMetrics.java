@@ -36,6 +36,7 @@ public class RDBMetrics {
   private @Metric MutableCounterLong numDBKeyMayExistMisses;
 
   private @Metric MutableCounterLong numDBKeyGets;
+  private @Metric MutableCounterLong numDBKeyMultiGets;
   private @Metric MutableCounterLong numDBKeyGetIfExistChecks;
   private @Metric MutableCounterLong numDBKeyGetIfExistMisses;
   private @Metric MutableCounterLong numDBKeyGetIfExistGets;
@@ -65,6 +66,14 @@ public void incNumDBKeyGets() {
     this.numDBKeyGets.incr();
   }
 
+  public long getNumDBKeyMultiGets() {
+    return numDBKeyMultiGets.value();
+  }
+
+  public void incNumDBKeyMultiGets() {
+    this.numDBKeyMultiGets.incr();
+  }
+
   public long getNumDBKeyGetIfExistGets() {
     return numDBKeyGetIfExistGets.value();
   }
@@ -126,6 +126,12 @@ Integer get(ByteBuffer key, ByteBuffer outValue) throws RocksDatabaseException {
     return db.get(family, key, outValue);
   }
 
+  @Override
+  public List<byte[]> multiGet(List<byte[]> keys) throws RocksDatabaseException {
+    rdbMetrics.incNumDBKeyMultiGets();
+    return db.multiGet(family, keys);
+  }
+
   /**
    * Skip checking cache and get the value mapped to the given key in byte
    * array or returns null if the key is not found.
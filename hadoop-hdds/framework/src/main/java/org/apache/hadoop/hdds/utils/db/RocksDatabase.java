@@ -681,6 +681,26 @@ byte[] get(ColumnFamily family, byte[] key) throws RocksDatabaseException {
     }
   }
 
+  /**
+   * Get the values mapped to the given keys with a single call.
+   *
+   * @param family the table to get from.
+   * @param keys the keys to get.
+   * @return the values in the order of the keys, null for the keys not found.
+   * @throws RocksDatabaseException if the db is closed or the db throws an exception.
+   * @see org.rocksdb.RocksDB#multiGetAsList(List, List)
+   */
+  List<byte[]> multiGet(ColumnFamily family, List<byte[]> keys) throws RocksDatabaseException {
+    try (UncheckedAutoCloseable ignored = acquire()) {
+      return db.get().multiGetAsList(
+          Collections.nCopies(keys.size(), family.getHandle()), keys);
+    } catch (RocksDBException e) {
+      closeOnError(e);
+      final String message = "multiGet " + keys.size() + " keys from " + family;
+      throw toRocksDatabaseException(this, message, e);
+    }
+  }
+
   /**
    * Get the value mapped to the given key.
    *
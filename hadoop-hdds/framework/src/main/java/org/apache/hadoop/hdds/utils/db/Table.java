@@ -18,6 +18,7 @@
 package org.apache.hadoop.hdds.utils.db;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -118,6 +119,21 @@ default VALUE getReadCopy(KEY key) throws RocksDatabaseException, CodecException
    */
   VALUE getIfExist(KEY key) throws RocksDatabaseException, CodecException;
 
+  /**
+   * Returns the values mapped to the given keys.  Implementations may read
+   * the keys from the DB with a single call, instead of a call per key.
+   *
+   * @param keys metadata keys
+   * @return the values in the order of the keys, null for the keys not found.
+   */
+  default List<VALUE> multiGet(List<KEY> keys) throws RocksDatabaseException, CodecException {
+    final List<VALUE> values = new ArrayList<>(keys.size());
+    for (KEY key : keys) {
+      values.add(get(key));
+    }
+    return values;
+  }
+
   /**
    * Deletes a key from the metadata store.
    *
@@ -285,6 +301,29 @@ default TableCacheMetrics createCacheMetrics() {
     throw new NotImplementedException("getCacheValue is not implemented");
   }
 
+  /**
+   * Enables a {@link NegativeLookupFilter} to answer the lookups of
+   * non-existent keys without reading the DB.  It must be enabled before any
+   * key is written to the table, otherwise the filter may miss the key.
+   *
+   * @param expectedKeys the number of keys the filter is sized for.
+   * @param fpp the false positive probability with the expected number of keys.
+   * @return the filter.
+   */
+  default NegativeLookupFilter enableNegativeLookupFilter(long expectedKeys, double fpp) {
+    throw new NotImplementedException("enableNegativeLookupFilter is not implemented");
+  }
+
+  /**
+   * Adds a key in its persisted format to the {@link NegativeLookupFilter}
+   * of this table, if any.  It must be called for the keys written to the
+   * table without this object, e.g. through the raw table of the store.
+   *
+   * @param key the key in its persisted format.
+   */
+  default void addToNegativeLookupFilter(byte[] key) {
+  }
+
   /**
    * Returns a certain range of key value pairs as a list based on a startKey or count.
    * To prevent race conditions while listing
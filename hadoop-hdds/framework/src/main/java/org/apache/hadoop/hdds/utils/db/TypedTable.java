@@ -66,6 +66,7 @@
   private final CodecBuffer.Capacity bufferCapacity
       = new CodecBuffer.Capacity(this, BUFFER_SIZE_DEFAULT);
   private final TableCache<KEY, VALUE> cache;
+  private volatile NegativeLookupFilter negativeLookupFilter;
 
   /**
    * Create an TypedTable from the raw table with specified cache type.
@@ -135,10 +136,13 @@ public void put(KEY key, VALUE value) throws RocksDatabaseException, CodecExcept
     if (supportCodecBuffer) {
       try (CodecBuffer k = keyCodec.toDirectCodecBuffer(key);
            CodecBuffer v = valueCodec.toDirectCodecBuffer(value)) {
+        addToNegativeLookupFilter(k);
         rawTable.put(k.asReadOnlyByteBuffer(), v.asReadOnlyByteBuffer());
       }
     } else {
-      rawTable.put(encodeKey(key), encodeValue(value));
+      final byte[] keyBytes = encodeKey(key);
+      addToNegativeLookupFilter(keyBytes);
+      rawTable.put(keyBytes, encodeValue(value));
     }
   }
 
@@ -150,6 +154,7 @@ public void putWithBatch(BatchOperation batch, KEY key, VALUE value) throws Rock
       try {
         keyBuffer = keyCodec.toDirectCodecBuffer(key);
         valueBuffer = valueCodec.toDirectCodecBuffer(value);
+        addToNegativeLookupFilter(keyBuffer);
         // The buffers will be released after commit.
         rawTable.putWithBatch(batch, keyBuffer, valueBuffer);
       } catch (Exception e) {
@@ -157,7 +162,9 @@ public void putWithBatch(BatchOperation batch, KEY key, VALUE value) throws Rock
         throw e;
       }
     } else {
-      rawTable.putWithBatch(batch, encodeKey(key), encodeValue(value));
+      final byte[] keyBytes = encodeKey(key);
+      addToNegativeLookupFilter(keyBytes);
+      rawTable.putWithBatch(batch, keyBytes, encodeValue(value));
     }
   }
 
@@ -176,17 +183,28 @@ public boolean isExist(KEY key) throws RocksDatabaseException, CodecException  {
       return true;
     } else if (cacheResult.getCacheStatus() == NOT_EXIST) {
       return false;
-    } else if (keyCodec.supportCodecBuffer()) {
+    }
+
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null && !filter.mightContain(encodeKey(key))) {
+      return false;
+    }
+    final boolean exists;
+    if (keyCodec.supportCodecBuffer()) {
       // keyCodec.supportCodecBuffer() is enough since value is not needed.
       try (CodecBuffer inKey = keyCodec.toDirectCodecBuffer(key)) {
         // Use zero capacity buffer since value is not needed.
         try (CodecBuffer outValue = CodecBuffer.getEmptyBuffer()) {
-          return getFromTableIfExist(inKey, outValue) != null;
+          exists = getFromTableIfExist(inKey, outValue) != null;
         }
       }
     } else {
-      return rawTable.isExist(encodeKey(key));
+      exists = rawTable.isExist(encodeKey(key));
+    }
+    if (!exists && filter != null) {
+      filter.falsePositive();
     }
+    return exists;
   }
 
   /**
@@ -280,6 +298,44 @@ public VALUE getIfExist(KEY key) throws RocksDatabaseException, CodecException {
     }
   }
 
+  /**
+   * Similar to {@link #get(Object)} except that the keys not found in the
+   * cache are read from the RocksDB table with a single multiGet call.
+   */
+  @Override
+  public List<VALUE> multiGet(List<KEY> keys) throws RocksDatabaseException, CodecException {
+    final List<VALUE> values = new ArrayList<>(keys.size());
+    final List<Integer> dbIndices = new ArrayList<>();
+    final List<byte[]> dbKeys = new ArrayList<>();
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    for (KEY key : keys) {
+      final CacheResult<VALUE> cacheResult = cache.lookup(new CacheKey<>(key));
+      VALUE value = null;
+      if (cacheResult.getCacheStatus() == EXISTS) {
+        value = valueCodec.copyObject(cacheResult.getValue().getCacheValue());
+      } else if (cacheResult.getCacheStatus() != NOT_EXIST) {
+        final byte[] keyBytes = encodeKey(key);
+        if (filter == null || filter.mightContain(keyBytes)) {
+          dbIndices.add(values.size());
+          dbKeys.add(keyBytes);
+        }
+      }
+      values.add(value);
+    }
+
+    if (!dbKeys.isEmpty()) {
+      final List<byte[]> dbValues = rawTable.multiGet(dbKeys);
+      for (int i = 0; i < dbValues.size(); i++) {
+        final VALUE value = decodeValue(dbValues.get(i));
+        if (value == null && filter != null) {
+          filter.falsePositive();
+        }
+        values.set(dbIndices.get(i), value);
+      }
+    }
+    return values;
+  }
+
   /**
    * Use {@link RDBTable#get(ByteBuffer, ByteBuffer)}
    * to get a value mapped to the given key.
@@ -297,13 +353,22 @@ private Integer getFromTable(CodecBuffer key, CodecBuffer outValue) throws Rocks
   }
 
   private VALUE getFromTable(KEY key) throws RocksDatabaseException, CodecException {
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null && !filter.mightContain(encodeKey(key))) {
+      return null;
+    }
+    final VALUE value;
     if (supportCodecBuffer) {
-      return getFromTable(key, this::getFromTable);
+      value = getFromTable(key, this::getFromTable);
     } else {
       final byte[] keyBytes = encodeKey(key);
       byte[] valueBytes = rawTable.get(keyBytes);
-      return decodeValue(valueBytes);
+      value = decodeValue(valueBytes);
     }
+    if (value == null && filter != null) {
+      filter.falsePositive();
+    }
+    return value;
   }
 
   /**
@@ -355,13 +420,22 @@ private VALUE getFromTable(KEY key,
   }
 
   private VALUE getFromTableIfExist(KEY key) throws RocksDatabaseException, CodecException {
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null && !filter.mightContain(encodeKey(key))) {
+      return null;
+    }
+    final VALUE value;
     if (supportCodecBuffer) {
-      return getFromTable(key, this::getFromTableIfExist);
+      value = getFromTable(key, this::getFromTableIfExist);
     } else {
       final byte[] keyBytes = encodeKey(key);
       final byte[] valueBytes = rawTable.getIfExist(keyBytes);
-      return decodeValue(valueBytes);
+      value = decodeValue(valueBytes);
     }
+    if (value == null && filter != null) {
+      filter.falsePositive();
+    }
+    return value;
   }
 
   @Override
@@ -489,9 +563,57 @@ public void dumpToFileWithPrefix(File externalFile, KEY prefix) throws RocksData
 
   @Override
   public void loadFromFile(File externalFile) throws RocksDatabaseException {
+    // The keys of the file are not added to the filter.
+    disableNegativeLookupFilter();
     rawTable.loadFromFile(externalFile);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The filter is loaded from the table in the background.
+   */
+  @Override
+  public NegativeLookupFilter enableNegativeLookupFilter(long expectedKeys, double fpp) {
+    Preconditions.assertNull(negativeLookupFilter, "negativeLookupFilter");
+    final NegativeLookupFilter filter = new NegativeLookupFilter(getName(), expectedKeys, fpp);
+    negativeLookupFilter = filter;
+    final Thread loader = new Thread(() -> filter.load(rawTable),
+        rawTable.getName() + "_NegativeLookupFilterLoader");
+    loader.setDaemon(true);
+    loader.start();
+    return filter;
+  }
+
+  /** Stops using the {@link NegativeLookupFilter}, if any. */
+  public void disableNegativeLookupFilter() {
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null) {
+      negativeLookupFilter = null;
+      filter.close();
+    }
+  }
+
+  @VisibleForTesting
+  NegativeLookupFilter getNegativeLookupFilter() {
+    return negativeLookupFilter;
+  }
+
+  private void addToNegativeLookupFilter(CodecBuffer key) {
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null) {
+      filter.put(key.asReadOnlyByteBuffer());
+    }
+  }
+
+  @Override
+  public void addToNegativeLookupFilter(byte[] key) {
+    final NegativeLookupFilter filter = negativeLookupFilter;
+    if (filter != null) {
+      filter.put(key);
+    }
+  }
+
   @Override
   public void cleanupCache(List<Long> epochs) {
     cache.cleanup(epochs);
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The cache keys put in each epoch, in an open addressing hash table of
+ * primitive epochs.
+ * <p>
+ * Most epochs have a single key, which is stored as is instead of in a
+ * set, so an epoch takes a slot of the two arrays rather than a map entry,
+ * a boxed epoch and a set.
+ *
+ * @param <KEY> the key type of the cache.
+ */
+final class EpochEntries<KEY> {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private long[] epochs = new long[INITIAL_CAPACITY];
+  /**
+   * A {@link CacheKey}, or a set of them for an epoch with multiple keys.
+   * Null for an empty slot.
+   */
+  private Object[] keys = new Object[INITIAL_CAPACITY];
+  private int size;
+
+  /** Adds a key put in the given epoch. */
+  synchronized void add(long epoch, CacheKey<KEY> key) {
+    final int i = find(epoch);
+    final Object existing = keys[i];
+    if (existing == null) {
+      epochs[i] = epoch;
+      keys[i] = key;
+      if (++size > keys.length / 2) {
+        resize(keys.length * 2);
+      }
+    } else if (existing instanceof CacheKey) {
+      if (!existing.equals(key)) {
+        final Set<CacheKey<KEY>> set = new LinkedHashSet<>();
+        set.add(cast(existing));
+        set.add(key);
+        keys[i] = set;
+      }
+    } else {
+      castSet(existing).add(key);
+    }
+  }
+
+  /** Removes the given epoch, if any, and returns its keys. */
+  synchronized Collection<CacheKey<KEY>> remove(long epoch) {
+    final int i = find(epoch);
+    final Object existing = keys[i];
+    if (existing == null) {
+      return Collections.emptySet();
+    }
+    removeAt(i);
+    if (--size < keys.length / 8 && keys.length > INITIAL_CAPACITY) {
+      resize(keys.length / 2);
+    }
+    return existing instanceof CacheKey
+        ? Collections.singleton(cast(existing)) : castSet(existing);
+  }
+
+  /** @return the number of epochs. */
+  synchronized int size() {
+    return size;
+  }
+
+  /** @return a copy of the entries, for tests. */
+  synchronized NavigableMap<Long, Set<CacheKey<KEY>>> toNavigableMap() {
+    final NavigableMap<Long, Set<CacheKey<KEY>>> map = new TreeMap<>();
+    for (int i = 0; i < keys.length; i++) {
+      final Object k = keys[i];
+      if (k != null) {
+        map.put(epochs[i], k instanceof CacheKey
+            ? Collections.singleton(cast(k)) : new HashSet<>(castSet(k)));
+      }
+    }
+    return map;
+  }
+
+  /** @return the slot of the epoch, or the empty slot to put it. */
+  private int find(long epoch) {
+    final int mask = keys.length - 1;
+    int i = hash(epoch) & mask;
+    while (keys[i] != null && epochs[i] != epoch) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /** Removes the slot and shifts back the following entries of the run. */
+  private void removeAt(int i) {
+    final int mask = keys.length - 1;
+    int gap = i;
+    for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+      final int home = hash(epochs[j]) & mask;
+      // the entry cannot move to the gap if its home is in (gap, j]
+      final boolean stays = gap <= j ? gap < home && home <= j
+          : gap < home || home <= j;
+      if (!stays) {
+        epochs[gap] = epochs[j];
+        keys[gap] = keys[j];
+        gap = j;
+      }
+    }
+    keys[gap] = null;
+  }
+
+  private void resize(int capacity) {
+    final long[] oldEpochs = epochs;
+    final Object[] oldKeys = keys;
+    epochs = new long[capacity];
+    keys = new Object[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        final int j = find(oldEpochs[i]);
+        epochs[j] = oldEpochs[i];
+        keys[j] = oldKeys[i];
+      }
+    }
+  }
+
+  private static int hash(long epoch) {
+    final int h = (int) (epoch ^ (epoch >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> CacheKey<K> cast(Object key) {
+    return (CacheKey<K>) key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> Set<CacheKey<K>> castSet(Object keys) {
+    return (Set<CacheKey<K>>) keys;
+  }
+}
@@ -19,14 +19,12 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -50,7 +48,7 @@
       LoggerFactory.getLogger(PartialTableCache.class);
 
   private final Map<CacheKey<KEY>, CacheValue<VALUE>> cache;
-  private final NavigableMap<Long, Set<CacheKey<KEY>>> epochEntries;
+  private final EpochEntries<KEY> epochEntries = new EpochEntries<>();
   private final ExecutorService executorService;
   private final CacheStatsRecorder statsRecorder;
 
@@ -70,7 +68,6 @@ public PartialTableCache(String threadNamePrefix) {
     // that should be guarded by concurrentHashMap guaranty.
     cache = new ConcurrentHashMap<>();
 
-    epochEntries = new ConcurrentSkipListMap<>();
     // Created a singleThreadExecutor, so one cleanup will be running at a
     // time.
     ThreadFactory threadFactory = new ThreadFactoryBuilder()
@@ -97,8 +94,7 @@ public void loadInitial(CacheKey<KEY> key, CacheValue<VALUE> value) {
   @Override
   public void put(CacheKey<KEY> cacheKey, CacheValue<VALUE> value) {
     cache.put(cacheKey, value);
-    epochEntries.computeIfAbsent(value.getEpoch(), v -> new HashSet<>())
-            .add(cacheKey);
+    epochEntries.add(value.getEpoch(), cacheKey);
   }
 
   @Override
@@ -120,36 +116,24 @@ public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> iterator() {
   @VisibleForTesting
   @Override
   public void evictCache(List<Long> epochs) {
-    Set<CacheKey<KEY>> currentCacheKeys;
-
-    long lastEpoch = epochs.get(epochs.size() - 1);
-    for (long currentEpoch : epochEntries.keySet()) {
-      currentCacheKeys = epochEntries.get(currentEpoch);
-
-      // If currentEntry epoch is greater than last epoch provided, we have
-      // deleted all entries less than specified epoch. So, we can break.
-      if (currentEpoch > lastEpoch) {
-        break;
-      }
+    // Only the given epochs are evicted, the other epochs are kept even if
+    // they are less than the last given epoch.
+    for (long currentEpoch : epochs) {
       // As ConcurrentHashMap computeIfPresent is atomic, there is no race
       // condition between cache cleanup and requests updating same cache entry.
-      if (epochs.contains(currentEpoch)) {
-        for (CacheKey<KEY> currentCacheKey : currentCacheKeys) {
-          cache.computeIfPresent(currentCacheKey, ((k, v) -> {
-            // If cache epoch entry matches with current Epoch, remove entry
-            // from cache.
-            if (v.getEpoch() == currentEpoch) {
-              if (LOG.isDebugEnabled()) {
-                LOG.debug("CacheKey {} with epoch {} is removed from cache",
-                        k.getCacheKey(), currentEpoch);
-              }
-              return null;
+      for (CacheKey<KEY> currentCacheKey : epochEntries.remove(currentEpoch)) {
+        cache.computeIfPresent(currentCacheKey, ((k, v) -> {
+          // If cache epoch entry matches with current Epoch, remove entry
+          // from cache.
+          if (v.getEpoch() == currentEpoch) {
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("CacheKey {} with epoch {} is removed from cache",
+                      k.getCacheKey(), currentEpoch);
             }
-            return v;
-          }));
-        }
-        // Remove epoch entry, as the entry is there in epoch list.
-        epochEntries.remove(currentEpoch);
+            return null;
+          }
+          return v;
+        }));
       }
     }
   }
@@ -174,7 +158,7 @@ public CacheResult<VALUE> lookup(CacheKey<KEY> cachekey) {
   @VisibleForTesting
   @Override
   public NavigableMap<Long, Set<CacheKey<KEY>>> getEpochEntries() {
-    return epochEntries;
+    return epochEntries.toNavigableMap();
   }
 
   @Override
@@ -18,7 +18,10 @@
 package org.apache.hadoop.hdds.utils.db;
 
 import static org.apache.hadoop.hdds.StringUtils.string2Bytes;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
@@ -31,8 +34,10 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -126,6 +131,31 @@ public void testBatchOperation() throws RocksDatabaseException, CodecException,
     }
   }
 
+  @Test
+  public void testExport() throws IOException {
+    try (RDBBatchOperation batchOperation = RDBBatchOperation.newAtomicOperation()) {
+      RocksDatabase.ColumnFamily columnFamily = Mockito.mock(RocksDatabase.ColumnFamily.class);
+      when(columnFamily.getName()).thenReturn("test");
+      Codec<String> codec = StringCodec.get();
+      batchOperation.put(columnFamily, codec.toDirectCodecBuffer("key01"), codec.toDirectCodecBuffer("value01"));
+      batchOperation.put(columnFamily, codec.toPersistedFormat("key02"), codec.toPersistedFormat("value02"));
+      batchOperation.delete(columnFamily, codec.toPersistedFormat("key02"));
+      batchOperation.put(columnFamily, codec.toPersistedFormat("key01"), codec.toPersistedFormat("value011"));
+
+      Map<String, byte[]> exported = new HashMap<>();
+      batchOperation.export((family, key, value) -> {
+        assertEquals("test", family);
+        exported.put(codec.fromPersistedFormat(key), value);
+      });
+      assertEquals(2, exported.size());
+      assertArrayEquals(codec.toPersistedFormat("value011"), exported.get("key01"));
+      assertNull(exported.get("key02"));
+
+      RocksDatabase db = Mockito.mock(RocksDatabase.class);
+      assertThrows(IllegalStateException.class, () -> batchOperation.commit(db));
+    }
+  }
+
   private DBStore getDBStore(OzoneConfiguration conf, String name, String tableName) throws RocksDatabaseException {
     return DBStoreBuilder.newBuilder(conf)
         .setName(name).setPath(tempDir).addTable(tableName).build();
@@ -32,6 +32,7 @@
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,9 +45,12 @@
 import org.apache.hadoop.hdds.StringUtils;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedColumnFamilyOptions;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedDBOptions;
+import org.apache.ozone.test.GenericTestUtils;
 import org.apache.ratis.util.UncheckedAutoCloseable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -369,6 +373,78 @@ void runTestIteratorWithPrefix(int tableIndex, Codec<String> keyCodec) throws Ex
     }
   }
 
+  @Test
+  public void testNegativeLookupFilter() throws Exception {
+    final TypedTable<String, String> table = newTypedTable(6, StringCodec.get(), StringCodec.get());
+    table.put("existing", "value1");
+
+    final NegativeLookupFilter filter = table.enableNegativeLookupFilter(1000, 0.01);
+    GenericTestUtils.waitFor(filter::isReady, 10, 10_000);
+
+    // keys written after enabling the filter are added to it
+    table.put("put", "value2");
+    try (BatchOperation batch = rdb.initBatchOperation()) {
+      table.putWithBatch(batch, "batch", "value3");
+      rdb.commitBatchOperation(batch);
+    }
+    assertEquals("value1", table.get("existing"));
+    assertEquals("value2", table.getIfExist("put"));
+    assertTrue(table.isExist("batch"));
+    assertEquals(0, filter.getNegativeCount());
+
+    final int missing = 100;
+    for (int i = 0; i < missing; i++) {
+      assertNull(table.get("missing" + i));
+      assertFalse(table.isExist("missing" + i));
+    }
+    assertEquals(2 * missing, filter.getNegativeCount() + filter.getFalsePositiveCount());
+    assertTrue(filter.getNegativeCount() > 0);
+    assertTrue(filter.getApproximateKeyCount() > 0);
+
+    table.disableNegativeLookupFilter();
+    assertFalse(filter.isReady());
+    assertNull(table.getNegativeLookupFilter());
+    assertEquals("value1", table.get("existing"));
+  }
+
+  @Test
+  public void testNegativeLookupFilterSaturated() throws Exception {
+    final TypedTable<String, String> table = newTypedTable(8, StringCodec.get(), StringCodec.get());
+    final int expectedKeys = 10;
+    final NegativeLookupFilter filter = table.enableNegativeLookupFilter(expectedKeys, 0.01);
+    GenericTestUtils.waitFor(filter::isReady, 10, 10_000);
+
+    for (int i = 0; filter.isReady(); i++) {
+      assertTrue(i < 10 * expectedKeys);
+      table.put("key" + i, "value" + i);
+    }
+    assertTrue(filter.isSaturated());
+
+    // lookups go to the DB
+    assertNull(table.get("missing"));
+    assertFalse(table.isExist("missing"));
+    assertEquals(0, filter.getNegativeCount());
+    assertEquals(0, filter.getFalsePositiveCount());
+    assertEquals("value0", table.get("key0"));
+  }
+
+  @Test
+  public void testMultiGet() throws Exception {
+    final TypedTable<String, String> table = newTypedTable(7, StringCodec.get(), StringCodec.get());
+    table.put("db1", "value1");
+    table.put("db2", "value2");
+    table.put("deleted", "value3");
+    table.addCacheEntry(new CacheKey<>("cached"), CacheValue.get(1, "value4"));
+    table.addCacheEntry(new CacheKey<>("deleted"), CacheValue.get(1));
+
+    final List<String> keys = Arrays.asList("db1", "missing", "cached", "deleted", "db2");
+    assertEquals(Arrays.asList("value1", null, "value4", null, "value2"), table.multiGet(keys));
+    for (String key : keys) {
+      assertEquals(table.get(key), table.multiGet(Collections.singletonList(key)).get(0));
+    }
+    assertTrue(table.multiGet(Collections.emptyList()).isEmpty());
+  }
+
   static void runTestIteratorWithPrefix(int prefixLength, Map<Long, ContainerID> keys,
       TypedTable<String, ContainerID> table) throws Exception {
     final Map<String, Map<String, ContainerID>> prefixMap = new TreeMap<>();
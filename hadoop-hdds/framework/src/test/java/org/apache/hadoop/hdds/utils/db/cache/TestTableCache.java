@@ -601,6 +601,39 @@ public void testNoCache() {
     verifyStats(tableCache, 0, 0, 0);
   }
 
+  @Test
+  public void testPartialTableCacheEvictsOnlyGivenEpochs() {
+    createTableCache(TableCache.CacheType.PARTIAL_CACHE);
+    final int count = 1000;
+    // two keys in each epoch
+    for (int i = 0; i < count; i++) {
+      tableCache.put(new CacheKey<>(i + "A"), CacheValue.get(i, "A"));
+      tableCache.put(new CacheKey<>(i + "B"), CacheValue.get(i, "B"));
+    }
+    assertEquals(count, tableCache.getEpochEntries().size());
+    assertEquals(2, tableCache.getEpochEntries().get(0L).size());
+
+    List<Long> evenEpochs = new ArrayList<>();
+    for (long i = 0; i < count; i += 2) {
+      evenEpochs.add(i);
+    }
+    tableCache.evictCache(evenEpochs);
+    assertEquals(count / 2, tableCache.getEpochEntries().size());
+    assertEquals(count, tableCache.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i % 2 == 0,
+          tableCache.get(new CacheKey<>(i + "A")) == null);
+    }
+
+    List<Long> oddEpochs = new ArrayList<>();
+    for (long i = 1; i < count; i += 2) {
+      oddEpochs.add(i);
+    }
+    tableCache.evictCache(oddEpochs);
+    assertEquals(0, tableCache.getEpochEntries().size());
+    assertEquals(0, tableCache.size());
+  }
+
   private int writeToCache(int count, int startVal, long sleep)
       throws InterruptedException {
     int counter = 1;
@@ -41,9 +41,10 @@
 public interface DeletedBlockLog extends Closeable {
 
   /**
-   * Scan entire log once and returns TXs to DatanodeDeletedBlockTransactions.
-   * Once DatanodeDeletedBlockTransactions is full, the scan behavior will
-   * stop.
+   * Scan the pending transactions once and returns TXs to
+   * DatanodeDeletedBlockTransactions, reading only the new transactions from
+   * the log. Once DatanodeDeletedBlockTransactions is full, the scan behavior
+   * will stop.
    *
    * @param blockDeletionLimit Maximum number of blocks to fetch
    * @param dnList healthy dn list
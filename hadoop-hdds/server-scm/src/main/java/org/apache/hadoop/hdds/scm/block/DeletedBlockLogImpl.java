@@ -26,6 +26,8 @@
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,17 +63,19 @@
 import org.apache.hadoop.ozone.common.DeletedBlock;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
+import org.apache.hadoop.util.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * An implement class of {@link DeletedBlockLog}, and it uses
  * K/V db to maintain block deletion transactions between scm and datanode.
- * This is a very basic implementation, it simply scans the log and
- * memorize the position that scanned by last time, and uses this to
- * determine where the next scan starts. It has no notion about weight
- * of each transaction so as long as transaction is still valid, they get
- * equally same chance to be retrieved which only depends on the nature
+ * The transactions are loaded from the log into
+ * {@link PendingDeletedBlockTransactions}, which memorizes the position read
+ * by last time, so each run only reads the new transactions from the db and
+ * the transactions in flight are not read again. It has no notion about
+ * weight of each transaction so as long as transaction is still valid, they
+ * get equally same chance to be retrieved which only depends on the nature
  * order of the transaction ID.
  */
 public class DeletedBlockLogImpl
@@ -91,7 +95,6 @@
   private SCMDeletedBlockTransactionStatusManager transactionStatusManager;
   private long scmCommandTimeoutMs = Duration.ofSeconds(300).toMillis();
 
-  private long lastProcessedTransactionId = -1;
   private final int logAppenderQueueByteLimit;
   private int deletionFactorPerDatanode;
 
@@ -267,7 +270,11 @@ public void addTransactions(Map<Long, List<DeletedBlock>> containerBlocksMap)
   public void close() {
   }
 
-  private void getTransaction(DeletedBlocksTransaction tx,
+  /**
+   * @return whether the transaction is sent to any datanode, false if it is
+   * in flight to all of them or any of them has reached its block limit.
+   */
+  private boolean getTransaction(DeletedBlocksTransaction tx,
       DatanodeDeletedBlockTransactions transactions,
       Set<ContainerReplica> replicas,
       Map<DatanodeID, Map<Long, CmdStatus>> commandStatus,
@@ -277,7 +284,7 @@ private void getTransaction(DeletedBlocksTransaction tx,
       final DatanodeID datanodeID = replica.getDatanodeDetails().getID();
       return transactions.getNumberOfBlocksForDatanode(datanodeID) < maxDeleteBlocksPerDatanode;
     })) {
-      return;
+      return false;
     }
 
     boolean flag = false;
@@ -293,13 +300,11 @@ private void getTransaction(DeletedBlocksTransaction tx,
       addTxToTxSizeMap(tx);
       metrics.incrProcessedTransaction();
     }
+    return flag;
   }
 
   private Boolean checkInadequateReplica(Set<ContainerReplica> replicas,
-      DeletedBlocksTransaction txn,
-      Set<DatanodeDetails> dnList) throws ContainerNotFoundException {
-    ContainerInfo containerInfo = containerManager
-        .getContainer(ContainerID.valueOf(txn.getContainerID()));
+      ContainerInfo containerInfo, Set<DatanodeDetails> dnList) {
     ReplicationManager replicationManager =
         scmContext.getScm().getReplicationManager();
     ContainerHealthResult result = replicationManager
@@ -313,7 +318,7 @@ private Boolean checkInadequateReplica(Set<ContainerReplica> replicas,
     // feedback to SCM at roughly the same time.
     // This avoids the issue of deletion blocking,
     // where some replicas of a Container are deleted while others do not receive the delete command.
-    long containerId = txn.getContainerID();
+    long containerId = containerInfo.getContainerID();
     for (ContainerReplica replica : replicas) {
       DatanodeDetails datanodeDetails = replica.getDatanodeDetails();
       if (!dnList.contains(datanodeDetails)) {
@@ -347,116 +352,117 @@ public DatanodeDeletedBlockTransactions getTransactions(
           scmCommandTimeoutMs);
       DatanodeDeletedBlockTransactions transactions =
           new DatanodeDeletedBlockTransactions();
-      try (Table.KeyValueIterator<Long, DeletedBlocksTransaction> iter =
-               deletedBlockLogStateManager.getReadOnlyIterator()) {
-        if (lastProcessedTransactionId != -1) {
-          iter.seek(lastProcessedTransactionId);
-          /*
-           * We should start from (lastProcessedTransactionId + 1) transaction.
-           * Now the iterator (iter.next call) is pointing at
-           * lastProcessedTransactionId, read the current value to move
-           * the cursor.
-           */
-          if (iter.hasNext()) {
-            /*
-             * There is a possibility that the lastProcessedTransactionId got
-             * deleted from the table, in that case we have to set
-             * lastProcessedTransactionId to next available transaction in the table.
-             *
-             * By doing this there is a chance that we will skip processing the new
-             * lastProcessedTransactionId, that should be ok. We can get to it in the
-             * next run.
-             */
-            lastProcessedTransactionId = iter.next().getKey();
-          }
-
-          // If we have reached the end, go to beginning.
-          if (!iter.hasNext()) {
-            iter.seekToFirst();
-            lastProcessedTransactionId = -1;
-          }
+      final PendingDeletedBlockTransactions pending =
+          getSCMDeletedBlockTransactionStatusManager().getPendingTransactions();
+      // The window counts each block once, while the limit of a run counts
+      // it once per replica, so with three replicas the window holds the
+      // blocks of about six runs.  The transactions in flight then do not
+      // hold back the transactions after them.
+      final long capacity = 2L * blockDeletionLimit;
+      pending.load(deletedBlockLogStateManager, capacity, Time.monotonicNow());
+
+      // Get the CmdStatus status of the aggregation, so that the current
+      // status of the specified transaction can be found faster
+      final Map<DatanodeID, Map<Long, CmdStatus>> commandStatus =
+          getSCMDeletedBlockTransactionStatusManager()
+              .getCommandStatusByTxId(dnList.stream().
+              map(DatanodeDetails::getID).collect(Collectors.toSet()));
+      ArrayList<Long> txIDs = new ArrayList<>();
+      List<Long> skippedTxIDs = new ArrayList<>();
+      List<Long> blockedTxIDs = new ArrayList<>();
+      metrics.setNumBlockDeletionTransactionDataNodes(dnList.size());
+
+      int factor = dnList.size() / deletionFactorPerDatanode;
+      int maxDeleteBlocksPerDatanode = (factor > 0)
+          ? Math.min(blockDeletionLimit, blockDeletionLimit / factor)
+          : blockDeletionLimit;
+
+      // Each container is checked once per run, so all its transactions are
+      // sent in the same command to a datanode.  A null value means that the
+      // transactions of the container are skipped in this run.
+      final Map<ContainerID, Set<ContainerReplica>> containerReplicas =
+          new HashMap<>();
+      final Set<ContainerID> removedContainers = new HashSet<>();
+
+      // Here takes block replica count as the threshold to avoid the case
+      // that part of replicas committed the TXN and recorded in the
+      // SCMDeletedBlockTransactionStatusManager, while they are counted
+      // in the threshold.
+      for (DeletedBlocksTransaction txn : pending.getTransactions()) {
+        if (transactions.getBlocksDeleted() >= blockDeletionLimit) {
+          break;
         }
-
-        // Get the CmdStatus status of the aggregation, so that the current
-        // status of the specified transaction can be found faster
-        final Map<DatanodeID, Map<Long, CmdStatus>> commandStatus =
-            getSCMDeletedBlockTransactionStatusManager()
-                .getCommandStatusByTxId(dnList.stream().
-                map(DatanodeDetails::getID).collect(Collectors.toSet()));
-        ArrayList<Long> txIDs = new ArrayList<>();
-        metrics.setNumBlockDeletionTransactionDataNodes(dnList.size());
-        Table.KeyValue<Long, DeletedBlocksTransaction> keyValue = null;
-
-        int factor = dnList.size() / deletionFactorPerDatanode;
-        int maxDeleteBlocksPerDatanode = (factor > 0)
-            ? Math.min(blockDeletionLimit, blockDeletionLimit / factor)
-            : blockDeletionLimit;
-
-        // Here takes block replica count as the threshold to avoid the case
-        // that part of replicas committed the TXN and recorded in the
-        // SCMDeletedBlockTransactionStatusManager, while they are counted
-        // in the threshold.
-        while (iter.hasNext() &&
-            transactions.getBlocksDeleted() < blockDeletionLimit) {
-          keyValue = iter.next();
-          DeletedBlocksTransaction txn = keyValue.getValue();
-          final ContainerID id = ContainerID.valueOf(txn.getContainerID());
-          try {
-            final ContainerInfo container = containerManager.getContainer(id);
-            // HDDS-7126. When container is under replicated, it is possible
-            // that container is deleted, but transactions are not deleted.
-            if (container.isDeleted()) {
-              LOG.warn("Container: {} was deleted for the transaction: {}.", id, txn);
-              txIDs.add(txn.getTxID());
-              addTxToTxSizeMap(txn);
-            } else if (!container.isOpen()) {
-              Set<ContainerReplica> replicas = containerManager
-                  .getContainerReplicas(
-                      ContainerID.valueOf(txn.getContainerID()));
-              if (!checkInadequateReplica(replicas, txn, dnList)) {
-                getTransaction(txn, transactions, replicas, commandStatus, maxDeleteBlocksPerDatanode);
-              } else {
-                metrics.incrSkippedTransaction();
-              }
-            } else if (containerManager.getContainer(id).isOpen()) {
-              metrics.incrSkippedTransaction();
-            }
-          } catch (ContainerNotFoundException ex) {
-            LOG.warn("Container: {} was not found for the transaction: {}.", id, txn);
-            txIDs.add(txn.getTxID());
-            addTxToTxSizeMap(txn);
-          }
-
-          if (lastProcessedTransactionId == keyValue.getKey()) {
-            // We have circled back to the last transaction.
-            break;
-          }
-
-          if (!iter.hasNext() && lastProcessedTransactionId != -1) {
-            /*
-             * We started from in-between and reached end of the table,
-             * now we should go to the start of the table and process
-             * the transactions.
-             */
-            iter.seekToFirst();
-          }
+        final ContainerID id = ContainerID.valueOf(txn.getContainerID());
+        if (!containerReplicas.containsKey(id)
+            && !removedContainers.contains(id)) {
+          containerReplicas.put(id, checkContainer(id, dnList,
+              removedContainers));
         }
+        final Set<ContainerReplica> replicas = containerReplicas.get(id);
+        if (removedContainers.contains(id)) {
+          txIDs.add(txn.getTxID());
+          addTxToTxSizeMap(txn);
+        } else if (replicas == null) {
+          skippedTxIDs.add(txn.getTxID());
+          metrics.incrSkippedTransaction();
+        } else if (!getTransaction(txn, transactions, replicas,
+            commandStatus, maxDeleteBlocksPerDatanode)) {
+          blockedTxIDs.add(txn.getTxID());
+        }
+      }
 
-        lastProcessedTransactionId = keyValue != null ? keyValue.getKey() : -1;
-
-        if (!txIDs.isEmpty()) {
-          transactionStatusManager.removeTransactions(txIDs);
-          getSCMDeletedBlockTransactionStatusManager().removeTransactionFromDNsCommitMap(txIDs);
-          getSCMDeletedBlockTransactionStatusManager().removeTransactionFromDNsRetryCountMap(txIDs);
-          metrics.incrBlockDeletionTransactionCompleted(txIDs.size());
+      if (pending.getBlockCount() >= capacity) {
+        // Make room for the transactions of the other containers, the
+        // evicted ones are loaded again once the cursor wraps around.
+        pending.evict(skippedTxIDs);
+        if (transactions.getBlocksDeleted() < blockDeletionLimit) {
+          // The window is full of transactions in flight or held back by
+          // the datanode limit, which keep this run below its limit.
+          pending.evict(blockedTxIDs);
         }
       }
+
+      if (!txIDs.isEmpty()) {
+        transactionStatusManager.removeTransactions(txIDs);
+        getSCMDeletedBlockTransactionStatusManager().removeTransactionFromDNsCommitMap(txIDs);
+        getSCMDeletedBlockTransactionStatusManager().removeTransactionFromDNsRetryCountMap(txIDs);
+        metrics.incrBlockDeletionTransactionCompleted(txIDs.size());
+      }
+      metrics.setBlockDeletionBacklogAge(pending.getOldestAge());
       return transactions;
     } finally {
       lock.unlock();
     }
   }
 
+  /**
+   * @return the replicas of the given container to send its transactions to,
+   * or null if they are skipped in this run.
+   */
+  private Set<ContainerReplica> checkContainer(ContainerID id,
+      Set<DatanodeDetails> dnList, Set<ContainerID> removedContainers) {
+    try {
+      final ContainerInfo container = containerManager.getContainer(id);
+      // HDDS-7126. When container is under replicated, it is possible
+      // that container is deleted, but transactions are not deleted.
+      if (container.isDeleted()) {
+        LOG.warn("Container: {} was deleted, removing its transactions.", id);
+        removedContainers.add(id);
+        return null;
+      } else if (container.isOpen()) {
+        return null;
+      }
+      final Set<ContainerReplica> replicas =
+          containerManager.getContainerReplicas(id);
+      return checkInadequateReplica(replicas, container, dnList)
+          ? null : replicas;
+    } catch (ContainerNotFoundException ex) {
+      LOG.warn("Container: {} was not found, removing its transactions.", id);
+      removedContainers.add(id);
+      return null;
+    }
+  }
+
   public void setScmCommandTimeoutMs(long scmCommandTimeoutMs) {
     this.scmCommandTimeoutMs = scmCommandTimeoutMs;
   }
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.block;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.DeletedBlocksTransaction;
+import org.apache.hadoop.hdds.utils.db.Table;
+
+/**
+ * The deleted block transactions which SCM is working on, kept in memory so
+ * that the transactions in flight are not read from the DB again on each run
+ * of {@link SCMBlockDeletingService}.
+ * <p>
+ * The transactions are loaded in the order of their IDs, with a cursor which
+ * only moves forward over the new transactions, until the total number of
+ * blocks reaches the capacity.  A transaction leaves when it is removed from
+ * the log, or when it is evicted to make room for the others, in which case
+ * the cursor wraps around the table to load it again later.
+ * <p>
+ * The capacity and the block count are in blocks of the transactions, each
+ * block counted once regardless of its replicas.
+ */
+class PendingDeletedBlockTransactions {
+  private final NavigableMap<Long, DeletedBlocksTransaction> transactions =
+      new TreeMap<>();
+  private long blockCount;
+  /** The ID of the last transaction read from the DB, or -1 if none. */
+  private long cursor = -1;
+  /** Whether there may be transactions not loaded before the cursor. */
+  private boolean wrapAround;
+  /** The ID of the last transaction loaded for the first time, or -1. */
+  private long lastNewTxID = -1;
+  /**
+   * The ID of the first transaction loaded for the first time by each call
+   * of {@link #load}, with the time of the call.  The transactions up to the
+   * next key were first loaded at that time.
+   */
+  private final NavigableMap<Long, Long> firstLoadTimes = new TreeMap<>();
+  /** The time since the oldest transaction in the log was first loaded. */
+  private long oldestAge;
+
+  /**
+   * Loads the transactions after the cursor, and the evicted ones if the
+   * cursor reaches the end, until the number of blocks reaches the capacity.
+   *
+   * @return the number of transactions loaded.
+   */
+  synchronized int load(DeletedBlockLogStateManager stateManager,
+      long capacity, long now) throws IOException {
+    int loaded = 0;
+    try (Table.KeyValueIterator<Long, DeletedBlocksTransaction> iter =
+             stateManager.getReadOnlyIterator()) {
+      updateOldestAge(iter, now);
+      if (blockCount >= capacity) {
+        return loaded;
+      }
+      boolean fromFirst = cursor == -1;
+      if (fromFirst) {
+        iter.seekToFirst();
+      } else {
+        iter.seek(cursor + 1);
+      }
+      while (blockCount < capacity) {
+        if (!iter.hasNext()) {
+          if (fromFirst || !(wrapAround || transactions.isEmpty())) {
+            break;
+          }
+          iter.seekToFirst();
+          fromFirst = true;
+          wrapAround = false;
+          continue;
+        }
+        final DeletedBlocksTransaction tx = iter.next().getValue();
+        cursor = tx.getTxID();
+        if (!transactions.containsKey(cursor)) {
+          transactions.put(cursor, tx);
+          blockCount += tx.getLocalIDCount();
+          loaded++;
+        }
+        if (cursor > lastNewTxID) {
+          if (firstLoadTimes.isEmpty()
+              || firstLoadTimes.lastEntry().getValue() != now) {
+            firstLoadTimes.put(cursor, now);
+          }
+          lastNewTxID = cursor;
+        }
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Updates the age of the oldest transaction in the log, which is the one
+   * with the smallest ID, since it was first loaded.
+   */
+  private void updateOldestAge(
+      Table.KeyValueIterator<Long, DeletedBlocksTransaction> iter, long now)
+      throws IOException {
+    iter.seekToFirst();
+    final long oldestTxID = iter.hasNext() ? iter.next().getKey() : -1;
+    final Long from = oldestTxID == -1 || oldestTxID > lastNewTxID ? null
+        : firstLoadTimes.floorKey(oldestTxID);
+    if (from == null) {
+      // none of the transactions in the log has been loaded yet
+      firstLoadTimes.clear();
+      oldestAge = 0;
+      return;
+    }
+    firstLoadTimes.headMap(from, false).clear();
+    oldestAge = now - firstLoadTimes.get(from);
+  }
+
+  /** @return the loaded transactions in the order of their IDs. */
+  synchronized List<DeletedBlocksTransaction> getTransactions() {
+    return new ArrayList<>(transactions.values());
+  }
+
+  /** Removes the transactions removed from the log. */
+  synchronized void remove(Collection<Long> txIDs) {
+    for (Long txID : txIDs) {
+      final DeletedBlocksTransaction removed = transactions.remove(txID);
+      if (removed != null) {
+        blockCount -= removed.getLocalIDCount();
+      }
+    }
+  }
+
+  /** Removes the transactions to be loaded again later. */
+  synchronized void evict(Collection<Long> txIDs) {
+    if (txIDs.isEmpty()) {
+      return;
+    }
+    remove(txIDs);
+    wrapAround = true;
+  }
+
+  synchronized void clear() {
+    transactions.clear();
+    blockCount = 0;
+    cursor = -1;
+    wrapAround = false;
+    lastNewTxID = -1;
+    firstLoadTimes.clear();
+    oldestAge = 0;
+  }
+
+  synchronized int size() {
+    return transactions.size();
+  }
+
+  synchronized long getBlockCount() {
+    return blockCount;
+  }
+
+  /**
+   * @return the time, as of the last {@link #load}, since the oldest
+   * transaction in the log was first loaded, whether or not it is still in
+   * memory, or 0 if it has not been loaded yet.
+   */
+  synchronized long getOldestAge() {
+    return oldestAge;
+  }
+}
@@ -74,6 +74,9 @@ public class SCMDeletedBlockTransactionStatusManager {
   private final Map<Long, Integer> transactionToRetryCountMap;
   // an in memory map to cache the size of each transaction sending to DN.
   private Map<Long, TxBlockInfo> txSizeMap;
+  // the transactions loaded from the log to be sent to DNs.
+  private final PendingDeletedBlockTransactions pendingTransactions =
+      new PendingDeletedBlockTransactions();
 
   // The access to DeletedBlocksTXTable is protected by
   // DeletedBlockLogStateManager.
@@ -425,6 +428,7 @@ public void onBecomeLeader() {
     scmDeleteBlocksCommandStatusManager.clear();
     transactionToDNsCommitMap.clear();
     txSizeMap.clear();
+    pendingTransactions.clear();
     try {
       initDataDistributionData();
     } catch (IOException e) {
@@ -546,10 +550,19 @@ public void removeTransactions(ArrayList<Long> txIDs) throws IOException {
         }
         throw e;
       }
+      pendingTransactions.remove(txIDs);
+      long deletedBytes = 0;
+      for (TxBlockInfo txBlockInfo : removedTxBlockInfos) {
+        deletedBytes += txBlockInfo.getTotalBlockSize();
+      }
+      metrics.incrBlockDeletionBytesCompleted(deletedBytes);
       return;
     }
 
+    // Without the feature the txs carry no block sizes, so no bytes are
+    // counted as completed.
     deletedBlockLogStateManager.removeTransactionsFromDB(txIDs);
+    pendingTransactions.remove(txIDs);
   }
 
   /**
@@ -711,9 +724,14 @@ public void removeTransactionFromDNsRetryCountMap(List<Long> txIds) {
   public void reinitialize(Table<String, ByteString> configTable) throws IOException {
     // DB onFlush() will be called before reinitialization.
     this.statefulConfigTable = configTable;
+    pendingTransactions.clear();
     this.initDataDistributionData();
   }
 
+  PendingDeletedBlockTransactions getPendingTransactions() {
+    return pendingTransactions;
+  }
+
   @VisibleForTesting
   public Map<Long, TxBlockInfo> getTxSizeMap() {
     return txSizeMap;
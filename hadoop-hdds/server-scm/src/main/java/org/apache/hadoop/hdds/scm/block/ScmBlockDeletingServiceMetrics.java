@@ -100,6 +100,16 @@ public final class ScmBlockDeletingServiceMetrics implements MetricsSource {
   @Metric(about = "Total blocks sent to DN for deletion.")
   private MutableGaugeLong numBlockAddedForDeletionToDN;
 
+  @Metric(about = "The total size of the blocks of the completed txs, whose " +
+      "rate is the rate of deleting data. Only counted once the " +
+      "STORAGE_SPACE_DISTRIBUTION feature is finalized, before which txs " +
+      "do not carry the size of their blocks.")
+  private MutableCounterLong numBlockDeletionBytesCompleted;
+
+  @Metric(about = "The time in milliseconds since the oldest tx in the log " +
+      "was first loaded for sending to DN by this SCM.")
+  private MutableGaugeLong blockDeletionBacklogAge;
+
   private final Map<DatanodeID, DatanodeCommandDetails> numCommandsDatanode = new ConcurrentHashMap<>();
 
   private static final MetricsInfo NUM_BLOCK_DELETION_TRANSACTIONS = Interns.info(
@@ -215,6 +225,14 @@ public void incrTotalBlockSentToDNForDeletion(long count) {
     this.numBlockAddedForDeletionToDN.incr(count);
   }
 
+  public void incrBlockDeletionBytesCompleted(long bytes) {
+    this.numBlockDeletionBytesCompleted.incr(bytes);
+  }
+
+  public void setBlockDeletionBacklogAge(long ageMillis) {
+    this.blockDeletionBacklogAge.set(ageMillis);
+  }
+
   public long getNumBlockDeletionCommandSent() {
     return numBlockDeletionCommandSent.value();
   }
@@ -259,6 +277,14 @@ public long getNumBlockDeletionTransactionDataNodes() {
     return numBlockDeletionTransactionDataNodes.value();
   }
 
+  public long getNumBlockDeletionBytesCompleted() {
+    return numBlockDeletionBytesCompleted.value();
+  }
+
+  public long getBlockDeletionBacklogAge() {
+    return blockDeletionBacklogAge.value();
+  }
+
   @Override
   public void getMetrics(MetricsCollector metricsCollector, boolean all) {
     MetricsRecordBuilder builder = metricsCollector.addRecord(SOURCE_NAME);
@@ -274,6 +300,8 @@ public void getMetrics(MetricsCollector metricsCollector, boolean all) {
     numProcessedTransactions.snapshot(builder, all);
     numBlockDeletionTransactionDataNodes.snapshot(builder, all);
     numBlockAddedForDeletionToDN.snapshot(builder, all);
+    numBlockDeletionBytesCompleted.snapshot(builder, all);
+    blockDeletionBacklogAge.snapshot(builder, all);
 
     // add metrics for deleted block transaction summary
     HddsProtos.DeletedBlocksTransactionSummary summary = blockManager.getDeletedBlockLog().getTransactionSummary();
@@ -22,6 +22,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ContainerInfoProto;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleEvent;
@@ -204,6 +205,16 @@ void updateContainerReplica(ContainerID containerID, ContainerReplica replica)
   void removeContainerReplica(ContainerID containerID, ContainerReplica replica)
       throws ContainerNotFoundException, ContainerReplicaNotFoundException;
 
+  /**
+   * Registers a listener which is notified of the containers whose replicas
+   * are added, removed, or changed state, index or emptiness.
+   * Reports of unchanged replicas are not notified.
+   *
+   * @param listener the listener of the changed containers
+   */
+  default void registerReplicaChangeListener(Consumer<ContainerID> listener) {
+  }
+
   default ContainerInfo getMatchingContainer(long size, String owner,
                                      Pipeline pipeline) {
     return getMatchingContainer(size, owner, pipeline, Collections.emptySet());
@@ -25,8 +25,10 @@
 import java.util.NavigableSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hdds.client.ECReplicationConfig;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
@@ -74,6 +76,9 @@ public class ContainerManagerImpl implements ContainerManager {
   @SuppressWarnings("java:S2245") // no need for secure random
   private final Random random = new Random();
 
+  private final List<Consumer<ContainerID>> replicaChangeListeners =
+      new CopyOnWriteArrayList<>();
+
   /**
    *
    */
@@ -337,7 +342,12 @@ public void updateContainerReplica(final ContainerID cid,
                                      final ContainerReplica replica)
       throws ContainerNotFoundException {
     if (containerExist(cid)) {
+      final boolean changed = !replicaChangeListeners.isEmpty()
+          && isReplicaChanged(cid, replica);
       containerStateManager.updateContainerReplica(replica);
+      if (changed) {
+        notifyReplicaChangeListeners(cid);
+      }
     } else {
       throw new ContainerNotFoundException(cid);
     }
@@ -349,11 +359,44 @@ public void removeContainerReplica(final ContainerID cid,
       throws ContainerNotFoundException, ContainerReplicaNotFoundException {
     if (containerExist(cid)) {
       containerStateManager.removeContainerReplica(replica);
+      notifyReplicaChangeListeners(cid);
     } else {
       throw new ContainerNotFoundException(cid);
     }
   }
 
+  @Override
+  public void registerReplicaChangeListener(Consumer<ContainerID> listener) {
+    replicaChangeListeners.add(listener);
+  }
+
+  /**
+   * @return true if the given replica is new, or differs from the existing
+   * replica on the same datanode in any of the properties the replication
+   * decisions depend on.
+   */
+  private boolean isReplicaChanged(ContainerID cid, ContainerReplica replica) {
+    final Set<ContainerReplica> replicas =
+        containerStateManager.getContainerReplicas(cid);
+    if (replicas == null) {
+      return true;
+    }
+    for (ContainerReplica existing : replicas) {
+      if (existing.getDatanodeDetails().equals(replica.getDatanodeDetails())) {
+        return existing.getState() != replica.getState()
+            || existing.getReplicaIndex() != replica.getReplicaIndex()
+            || existing.isEmpty() != replica.isEmpty();
+      }
+    }
+    return true;
+  }
+
+  private void notifyReplicaChangeListeners(ContainerID cid) {
+    for (Consumer<ContainerID> listener : replicaChangeListeners) {
+      listener.accept(cid);
+    }
+  }
+
   @Override
   public ContainerInfo getMatchingContainer(final long size, final String owner,
       final Pipeline pipeline, final Set<ContainerID> excludedContainerIDs) {
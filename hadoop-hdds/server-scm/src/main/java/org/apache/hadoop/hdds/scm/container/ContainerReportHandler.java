@@ -19,9 +19,11 @@
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.LifeCycleState;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.scm.ScmConfig;
@@ -48,6 +50,7 @@ public class ContainerReportHandler extends AbstractContainerReportHandler
       LoggerFactory.getLogger(ContainerReportHandler.class);
 
   private final UnknownContainerAction unknownContainerHandleAction;
+  private final boolean skipUnchangedReplicas;
 
   /**
    * Constructs ContainerReportHandler instance with the
@@ -66,8 +69,10 @@ public ContainerReportHandler(final NodeManager nodeManager,
     if (conf != null) {
       ScmConfig scmConfig = conf.getObject(ScmConfig.class);
       unknownContainerHandleAction = UnknownContainerAction.parse(scmConfig.getUnknownContainerAction());
+      skipUnchangedReplicas = scmConfig.isSkipUnchangedReplicas();
     } else {
       unknownContainerHandleAction = UnknownContainerAction.WARN;
+      skipUnchangedReplicas = true;
     }
   }
 
@@ -122,6 +127,12 @@ public ContainerReportHandler(final NodeManager nodeManager,
    *  changed to have a command sent to the datanode to delete the replica via
    *  the hdds.scm.unknown-container.action setting.
    *
+   *  Most replicas of a periodic report are the same as in the previous report
+   *  from the datanode, which are the replicas SCM has for the datanode. The
+   *  CLOSED replicas of CLOSED containers which did not change are skipped,
+   *  unless hdds.scm.container.report.skip.unchanged.replicas is false, as
+   *  processing them again would not change anything.
+   *
    *  Note that the datanode also sends smaller Incremental Container Reports
    *  more frequently, but the logic is synchronized on the datanode to prevent
    *  full and incremental reports processing in parallel for the same datanode
@@ -154,6 +165,7 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
             containerReport.getReportsList();
         final Set<ContainerID> expectedContainersInDatanode =
             getNodeManager().getContainers(datanodeDetails);
+        int unchanged = 0;
 
         for (ContainerReplicaProto replica : replicas) {
           ContainerID cid = ContainerID.valueOf(replica.getContainerID());
@@ -180,6 +192,11 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
             // This container was just confirmed for the first time on this DN
             getNodeManager().removePendingAllocationForDatanode(datanodeInfo, cid);
           }
+          if (alreadyInDn && skipUnchangedReplicas && container != null
+              && isUnchanged(datanodeDetails, container, replica)) {
+            unchanged++;
+            continue;
+          }
           if (container == null || ContainerReportValidator
                   .validate(container, datanodeDetails, replica)) {
             processSingleReplica(datanodeDetails, container,
@@ -190,6 +207,9 @@ public void onMessage(final ContainerReportFromDatanode reportFromDatanode,
         // report, so it is now missing on the DN. We need to remove it from the
         // list
         processMissingReplicas(datanodeDetails, expectedContainersInDatanode);
+        getLogger().debug("Processed {} replicas from {}: {} unchanged, {} missing",
+            replicas.size(), datanodeDetails, unchanged,
+            expectedContainersInDatanode.size());
         getContainerManager().notifyContainerReportProcessing(true, true);
         if (reportFromDatanode.isRegister()) {
           publisher.fireEvent(SCMEvents.CONTAINER_REGISTRATION_REPORT,
@@ -236,6 +256,40 @@ private void processSingleReplica(final DatanodeDetails datanodeDetails,
     }
   }
 
+  /**
+   * @return true if the given replica is a CLOSED replica of a CLOSED
+   * container, and SCM has the same replica from the datanode.
+   */
+  private boolean isUnchanged(final DatanodeDetails datanodeDetails,
+      final ContainerInfo container, final ContainerReplicaProto replicaProto) {
+    if (container.getState() != LifeCycleState.CLOSED
+        || replicaProto.getState() != ContainerReplicaProto.State.CLOSED) {
+      return false;
+    }
+    final Set<ContainerReplica> replicas;
+    try {
+      replicas = getContainerManager().getContainerReplicas(
+          container.containerID());
+    } catch (ContainerNotFoundException e) {
+      return false;
+    }
+    for (ContainerReplica replica : replicas) {
+      if (replica.getDatanodeDetails().equals(datanodeDetails)) {
+        return replica.getState() == replicaProto.getState()
+            && replica.getReplicaIndex() == replicaProto.getReplicaIndex()
+            && Objects.equals(replica.getSequenceId(),
+                replicaProto.getBlockCommitSequenceId())
+            && replica.getKeyCount() == replicaProto.getKeyCount()
+            && replica.getBytesUsed() == replicaProto.getUsed()
+            && replica.isEmpty() == replicaProto.getIsEmpty()
+            && replica.getDataChecksum() == replicaProto.getDataChecksum()
+            && replica.getOriginDatanodeId().toString()
+                .equals(replicaProto.getOriginNodeId());
+      }
+    }
+    return false;
+  }
+
   /**
    * Process the missing replica on the given datanode.
    *
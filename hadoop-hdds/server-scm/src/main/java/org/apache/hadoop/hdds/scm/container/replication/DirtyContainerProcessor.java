@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.replication;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.hadoop.hdds.scm.container.ContainerID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Processes the containers whose replicas, pending operations or datanodes
+ * changed, so that ReplicationManager notices them without waiting for its
+ * next full scan of all the containers.
+ * <p>
+ * A container is marked dirty at most once until it is processed, keeping
+ * the time it was first marked.  The dirty containers are sharded over the
+ * workers by container ID, so the shards are processed in parallel while a
+ * container is never processed by two workers at once.
+ */
+public class DirtyContainerProcessor {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DirtyContainerProcessor.class);
+
+  private final ReplicationManager replicationManager;
+  private final Clock clock;
+  private final Shard[] shards;
+  /**
+   * Container -> when it was marked dirty, for the containers queued for
+   * replication or deletion which did not get a command yet.
+   */
+  private final Map<ContainerID, Long> awaitingCommand =
+      new ConcurrentHashMap<>();
+
+  DirtyContainerProcessor(ReplicationManager replicationManager, int workers,
+      Clock clock) {
+    this.replicationManager = replicationManager;
+    this.clock = clock;
+    this.shards = new Shard[workers];
+    for (int i = 0; i < workers; i++) {
+      shards[i] = new Shard();
+    }
+  }
+
+  void markDirty(ContainerID containerID) {
+    final Shard shard = shards[
+        (int) Math.floorMod(containerID.getId(), (long) shards.length)];
+    shard.add(containerID, clock.millis());
+  }
+
+  /** @return the number of dirty containers not processed yet. */
+  int getDirtyCount() {
+    int count = 0;
+    for (Shard shard : shards) {
+      count += shard.dirty.size();
+    }
+    return count;
+  }
+
+  void start(String threadNamePrefix) {
+    for (int i = 0; i < shards.length; i++) {
+      final Thread thread = new Thread(shards[i]);
+      thread.setName(threadNamePrefix + "DirtyContainerProcessor-" + i);
+      thread.setDaemon(true);
+      shards[i].thread = thread;
+      thread.start();
+    }
+  }
+
+  void stop() {
+    for (Shard shard : shards) {
+      if (shard.thread != null) {
+        shard.thread.interrupt();
+        shard.thread = null;
+      }
+    }
+  }
+
+  /** Processes the dirty containers in the calling thread. */
+  @VisibleForTesting
+  void processAll() {
+    for (Shard shard : shards) {
+      ContainerID containerID;
+      while ((containerID = shard.queue.poll()) != null) {
+        shard.process(containerID);
+      }
+    }
+  }
+
+  /**
+   * Records the time from the container being marked dirty to the first
+   * command sent for it.
+   */
+  void commandsSent(ContainerID containerID) {
+    final Long dirtyTime = awaitingCommand.remove(containerID);
+    if (dirtyTime != null) {
+      replicationManager.getMetrics().addDirtyContainerCommandLatency(
+          clock.millis() - dirtyTime);
+    }
+  }
+
+  /**
+   * Marks dirty again the containers awaiting a command which were marked
+   * dirty after the given time, since the replication queue they were put in
+   * has been replaced.
+   */
+  void requeueAwaitingCommand(long since) {
+    awaitingCommand.forEach((containerID, dirtyTime) -> {
+      if (dirtyTime >= since) {
+        markDirty(containerID);
+      }
+    });
+  }
+
+  /**
+   * Forgets the containers marked dirty before the given time, which were
+   * either fixed without a command or are still waiting behind the limits.
+   */
+  void expireAwaitingCommand(long before) {
+    awaitingCommand.values().removeIf(dirtyTime -> dirtyTime < before);
+  }
+
+  /** The dirty containers of a worker. */
+  private final class Shard implements Runnable {
+    /** Container -> when it was marked dirty. */
+    private final Map<ContainerID, Long> dirty = new ConcurrentHashMap<>();
+    private final BlockingQueue<ContainerID> queue =
+        new LinkedBlockingQueue<>();
+    private volatile Thread thread;
+
+    void add(ContainerID containerID, long now) {
+      if (dirty.putIfAbsent(containerID, now) == null) {
+        queue.add(containerID);
+      }
+    }
+
+    void process(ContainerID containerID) {
+      // Removed before processing, so a change reported meanwhile marks the
+      // container dirty again.
+      final Long dirtyTime = dirty.remove(containerID);
+      if (dirtyTime == null) {
+        return;
+      }
+      try {
+        if (replicationManager.processDirtyContainer(containerID)) {
+          awaitingCommand.putIfAbsent(containerID, dirtyTime);
+        }
+      } catch (Exception e) {
+        LOG.error("Failed to process dirty container {}", containerID, e);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          process(queue.take());
+        }
+      } catch (InterruptedException e) {
+        LOG.info("{} interrupted. Exiting...",
+            Thread.currentThread().getName());
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -190,6 +190,11 @@ public class ReplicationManager implements SCMService, ContainerReplicaPendingOp
   private final HealthCheck containerCheckChain;
   private final ReplicationQueue noOpsReplicationQueue =
       new MonitoringReplicationQueue();
+  /**
+   * Processes the containers which changed between the full scans, null if
+   * incremental processing is disabled.
+   */
+  private final DirtyContainerProcessor dirtyContainerProcessor;
 
   /**
    * Constructs ReplicationManager instance with the given configuration.
@@ -275,6 +280,13 @@ public ReplicationManager(final ReplicationManagerConfiguration rmConf,
         .addNext(ecMisReplicationCheckHandler)
         .addNext(new RatisUnhealthyReplicationCheckHandler())
         .addNext(new VulnerableUnhealthyReplicasHandler(this));
+    if (rmConf.isIncrementalEnabled()) {
+      dirtyContainerProcessor = new DirtyContainerProcessor(this,
+          rmConf.getIncrementalWorkers(), clock);
+      containerManager.registerReplicaChangeListener(this::markDirty);
+    } else {
+      dirtyContainerProcessor = null;
+    }
     start();
   }
 
@@ -318,6 +330,9 @@ public synchronized void stop() {
       LOG.info("Stopping Replication Monitor Thread.");
       underReplicatedProcessorThread.interrupt();
       overReplicatedProcessorThread.interrupt();
+      if (dirtyContainerProcessor != null) {
+        dirtyContainerProcessor.stop();
+      }
       running = false;
       metrics.unRegister();
       replicationMonitor.interrupt();
@@ -347,6 +362,10 @@ protected void startSubServices() {
     overReplicatedProcessorThread.setName(prefix + "OverReplicatedProcessor");
     overReplicatedProcessorThread.setDaemon(true);
     overReplicatedProcessorThread.start();
+
+    if (dirtyContainerProcessor != null) {
+      dirtyContainerProcessor.start(prefix);
+    }
   }
 
   /**
@@ -382,6 +401,14 @@ public synchronized void processAll() {
     report.setComplete();
     replicationQueue.set(newRepQueue);
     this.containerReport = report;
+    if (dirtyContainerProcessor != null) {
+      // The containers queued by the dirty container processor during the
+      // scan may have been processed before the scan reached them, and were
+      // dropped with the old queue.
+      dirtyContainerProcessor.requeueAwaitingCommand(start);
+      dirtyContainerProcessor.expireAwaitingCommand(
+          start - rmConf.getInterval().toMillis());
+    }
     LOG.info("Replication Monitor Thread took {} milliseconds for" +
             " processing {} containers.", clock.millis() - start,
         containers.size());
@@ -924,6 +951,97 @@ public ReplicationManagerReport getContainerReport() {
     return containerReport;
   }
 
+  /**
+   * Marks the container to be processed by the dirty container processor
+   * before the next full scan.  A no-op if incremental processing is
+   * disabled.
+   *
+   * @param containerID the container whose replicas, pending ops or
+   *                    datanodes changed
+   */
+  public void markDirty(ContainerID containerID) {
+    if (dirtyContainerProcessor != null) {
+      dirtyContainerProcessor.markDirty(containerID);
+    }
+  }
+
+  /**
+   * Marks the containers of the given datanode dirty, after the state of the
+   * datanode changed.
+   */
+  public void markDirty(DatanodeDetails datanode) {
+    if (dirtyContainerProcessor == null) {
+      return;
+    }
+    try {
+      nodeManager.getContainers(datanode)
+          .forEach(dirtyContainerProcessor::markDirty);
+    } catch (NodeNotFoundException e) {
+      LOG.warn("Failed to mark the containers of {} dirty", datanode, e);
+    }
+  }
+
+  /** @return the number of dirty containers waiting to be processed. */
+  public int getDirtyContainerCount() {
+    return dirtyContainerProcessor == null
+        ? 0 : dirtyContainerProcessor.getDirtyCount();
+  }
+
+  @VisibleForTesting
+  DirtyContainerProcessor getDirtyContainerProcessor() {
+    return dirtyContainerProcessor;
+  }
+
+  /**
+   * Processes a dirty container against the current replication queue, and
+   * wakes up the under or over replicated processor if it was queued.
+   *
+   * @return true if the container was queued for replication or deletion.
+   */
+  boolean processDirtyContainer(ContainerID containerID) {
+    if (!shouldRun()) {
+      // the next full scan after RM starts running covers it
+      return false;
+    }
+    final ContainerInfo containerInfo;
+    try {
+      containerInfo = containerManager.getContainer(containerID);
+    } catch (ContainerNotFoundException e) {
+      LOG.debug("Dirty container {} not found", containerID);
+      return false;
+    }
+    final ReplicationQueue queue = replicationQueue.get();
+    final int under = queue.underReplicatedQueueSize();
+    final int over = queue.overReplicatedQueueSize();
+    try {
+      processContainer(containerInfo, queue, new ReplicationManagerReport(
+          rmConf.getContainerSampleLimit()));
+    } catch (ContainerNotFoundException e) {
+      LOG.debug("Dirty container {} not found", containerID);
+      return false;
+    }
+    boolean queued = false;
+    if (queue.underReplicatedQueueSize() > under) {
+      underReplicatedProcessor.runImmediately();
+      queued = true;
+    }
+    if (queue.overReplicatedQueueSize() > over) {
+      overReplicatedProcessor.runImmediately();
+      queued = true;
+    }
+    return queued;
+  }
+
+  /**
+   * Called after the under or over replicated processor sent commands for
+   * the given container.
+   */
+  void commandsSent(ContainerID containerID) {
+    if (dirtyContainerProcessor != null) {
+      dirtyContainerProcessor.commandsSent(containerID);
+    }
+  }
+
   public boolean isThreadWaiting() {
     return replicationMonitor.getState() == Thread.State.TIMED_WAITING;
   }
@@ -1059,6 +1177,7 @@ ReplicationQueue getQueue() {
 
   @Override
   public void opCompleted(ContainerReplicaOp op, ContainerID containerID, boolean timedOut) {
+    markDirty(containerID);
     if (!(timedOut && op.getOpType() == ContainerReplicaOp.PendingOpType.DELETE)) {
       // We only care about expired delete ops. All others should be ignored.
       return;
@@ -1290,6 +1409,29 @@ public void opCompleted(ContainerReplicaOp op, ContainerID containerID, boolean
     )
     private int quasiClosedStuckOtherOriginCopies = 2;
 
+    @Config(key = "hdds.scm.replication.incremental.enabled",
+        type = ConfigType.BOOLEAN,
+        defaultValue = "false",
+        tags = { SCM, OZONE },
+        description = "Whether to process the containers whose replicas, " +
+            "pending operations or datanodes changed as soon as the change " +
+            "is reported, instead of waiting for the next full scan of all " +
+            "the containers. The full scan still runs every " +
+            "hdds.scm.replication.thread.interval, which can be increased " +
+            "when this is enabled."
+    )
+    private boolean incrementalEnabled = false;
+
+    @Config(key = "hdds.scm.replication.incremental.workers",
+        type = ConfigType.INT,
+        defaultValue = "4",
+        tags = { SCM },
+        description = "The number of threads processing the changed " +
+            "containers when hdds.scm.replication.incremental.enabled is " +
+            "true. The containers are sharded over the threads by ID."
+    )
+    private int incrementalWorkers = 4;
+
     public long getDatanodeTimeoutOffset() {
       return datanodeTimeoutOffset;
     }
@@ -1394,6 +1536,22 @@ public void setQuasiClosedStuckOtherOriginCopies(int copies) {
       this.quasiClosedStuckOtherOriginCopies = copies;
     }
 
+    public boolean isIncrementalEnabled() {
+      return incrementalEnabled;
+    }
+
+    public void setIncrementalEnabled(boolean enabled) {
+      this.incrementalEnabled = enabled;
+    }
+
+    public int getIncrementalWorkers() {
+      return incrementalWorkers;
+    }
+
+    public void setIncrementalWorkers(int workers) {
+      this.incrementalWorkers = workers;
+    }
+
     @PostConstruct
     public void validate() {
       if (datanodeTimeoutOffset < 0) {
@@ -1425,6 +1583,10 @@ public void validate() {
             "inflight.limit.factor is set to " + inflightReplicationLimitFactor
                 + " and must be <= 1");
       }
+      if (incrementalWorkers <= 0) {
+        throw new IllegalArgumentException("incremental.workers is set to "
+            + incrementalWorkers + " and must be > 0");
+      }
     }
   }
 
@@ -87,6 +87,11 @@ public final class ReplicationManagerMetrics implements MetricsSource {
       "OverReplicatedQueueSize",
       "Number of containers currently in the over replicated queue");
 
+  private static final MetricsInfo DIRTY_CONTAINERS = Interns.info(
+      "DirtyContainers",
+      "Number of changed containers waiting to be processed before the next "
+          + "full scan");
+
   // Setup metric names and descriptions for Container Lifecycle states
   private static final Map<LifeCycleState, MetricsInfo> LIFECYCLE_STATE_METRICS
       = Collections.unmodifiableMap(
@@ -146,6 +151,10 @@ public final class ReplicationManagerMetrics implements MetricsSource {
   @Metric("Time elapsed for deletion")
   private MutableRate deletionTime;
 
+  @Metric("Time from a container being marked dirty to the first command " +
+      "sent for it")
+  private MutableRate dirtyContainerCommandLatency;
+
   @Metric("Number of inflight replication skipped" +
       " due to the configured limit.")
   private MutableCounterLong inflightReplicationSkippedTotal;
@@ -252,7 +261,9 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     builder.addGauge(UNDER_REPLICATED_QUEUE,
                     replicationManager.getQueue().underReplicatedQueueSize())
           .addGauge(OVER_REPLICATED_QUEUE,
-              replicationManager.getQueue().overReplicatedQueueSize());
+              replicationManager.getQueue().overReplicatedQueueSize())
+          .addGauge(DIRTY_CONTAINERS,
+              replicationManager.getDirtyContainerCount());
 
     ReplicationManagerReport report = replicationManager.getContainerReport();
     for (Map.Entry<HddsProtos.LifeCycleState, MetricsInfo> e :
@@ -289,6 +300,7 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     partialReplicationTotal.snapshot(builder, all);
     ecPartialReplicationForMisReplicationTotal.snapshot(builder, all);
     partialReplicationForMisReplicationTotal.snapshot(builder, all);
+    dirtyContainerCommandLatency.snapshot(builder, all);
   }
 
   public void unRegister() {
@@ -343,6 +355,14 @@ public void addDeletionTime(long millis) {
     this.deletionTime.add(millis);
   }
 
+  public void addDirtyContainerCommandLatency(long millis) {
+    this.dirtyContainerCommandLatency.add(millis);
+  }
+
+  public MutableRate getDirtyContainerCommandLatency() {
+    return dirtyContainerCommandLatency;
+  }
+
   public void incrInflightSkipped(InflightType type) {
     switch (type) {
     case REPLICATION:
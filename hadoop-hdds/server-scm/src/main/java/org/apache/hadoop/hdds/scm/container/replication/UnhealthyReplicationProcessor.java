@@ -151,7 +151,9 @@ public void processAll(ReplicationQueue queue) {
   private void processContainer(HealthResult healthResult) throws IOException {
     ContainerInfo containerInfo = healthResult.getContainerInfo();
     synchronized (containerInfo) {
-      sendDatanodeCommands(replicationManager, healthResult);
+      if (sendDatanodeCommands(replicationManager, healthResult) > 0) {
+        replicationManager.commandsSent(containerInfo.containerID());
+      }
     }
   }
 
@@ -21,13 +21,10 @@
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.NavigableMap;
 import java.util.Objects;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.container.ContainerInfo;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
@@ -48,6 +45,8 @@
  * pinned down in the SCM. This is deemed acceptable since we can tune the
  * container size --say we make it 10GB average size, then we can deal with a
  * cluster size of 1.5 exa bytes with the same metadata in SCMs memory.
+ * The containers of each key are kept in a {@link ContainerInfoIndex} keyed
+ * by the primitive container IDs, to keep this overhead low.
  * <p>
  * Please note: **This class is not thread safe**. This used to be thread safe,
  * while bench marking we found that ContainerStateMap would be taking 5
@@ -62,7 +61,7 @@
  */
 public class ContainerAttribute<T extends Enum<T>> {
   private final Class<T> attributeClass;
-  private final ImmutableMap<T, NavigableMap<ContainerID, ContainerInfo>> attributeMap;
+  private final ImmutableMap<T, ContainerInfoIndex> attributeMap;
 
   /**
    * Create an empty Container Attribute map.
@@ -70,9 +69,9 @@
   public ContainerAttribute(Class<T> attributeClass) {
     this.attributeClass = attributeClass;
 
-    final EnumMap<T, NavigableMap<ContainerID, ContainerInfo>> map = new EnumMap<>(attributeClass);
+    final EnumMap<T, ContainerInfoIndex> map = new EnumMap<>(attributeClass);
     for (T t : attributeClass.getEnumConstants()) {
-      map.put(t, new TreeMap<>());
+      map.put(t, new ContainerInfoIndex());
     }
     this.attributeMap = Maps.immutableEnumMap(map);
   }
@@ -83,7 +82,7 @@ public ContainerAttribute(Class<T> attributeClass) {
    */
   public void addNonExisting(T key, ContainerInfo info) {
     Objects.requireNonNull(info, "value == null");
-    final ContainerInfo previous = get(key).put(info.containerID(), info);
+    final ContainerInfo previous = get(key).put(info.getContainerID(), info);
     Preconditions.assertNull(previous, "previous");
   }
 
@@ -102,7 +101,7 @@ public void clearSet(T key) {
    */
   public ContainerInfo remove(T key, ContainerID id) {
     Objects.requireNonNull(id, "id == null");
-    return get(key).remove(id);
+    return get(key).remove(id.getId());
   }
 
   /** Remove an existing {@link ContainerInfo}. */
@@ -112,10 +111,10 @@ public void removeExisting(T key, ContainerInfo existing) {
     Preconditions.assertSame(existing, removed, "removed");
   }
 
-  NavigableMap<ContainerID, ContainerInfo> get(T attribute) {
+  ContainerInfoIndex get(T attribute) {
     Objects.requireNonNull(attribute, "attribute == null");
 
-    final NavigableMap<ContainerID, ContainerInfo> map = attributeMap.get(attribute);
+    final ContainerInfoIndex map = attributeMap.get(attribute);
     if (map == null) {
       throw new IllegalStateException("Attribute not found: " + attribute
           + " (" + attributeClass.getSimpleName() + ")");
@@ -130,12 +129,22 @@ NavigableMap<ContainerID, ContainerInfo> get(T attribute) {
    * @return Underlying Set in immutable form.
    */
   public List<ContainerInfo> getCollection(T key) {
-    return new ArrayList<>(get(key).values());
+    return get(key).values();
   }
 
-  public SortedMap<ContainerID, ContainerInfo> tailMap(T key, ContainerID start) {
+  /** @return true iff the given id is mapped to the given key. */
+  public boolean contains(T key, ContainerID id) {
+    Objects.requireNonNull(id, "id == null");
+    return get(key).get(id.getId()) != null;
+  }
+
+  /**
+   * @return the {@link ContainerInfo}s of the given key in ascending
+   * {@link ContainerID} order, starting from the given id (inclusive).
+   */
+  public Iterator<ContainerInfo> tail(T key, ContainerID start) {
     Objects.requireNonNull(start, "start == null");
-    return get(key).tailMap(start);
+    return get(key).tail(start.getId());
   }
 
   public int count(T key) {
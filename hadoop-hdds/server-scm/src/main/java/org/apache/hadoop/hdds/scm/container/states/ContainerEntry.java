@@ -17,12 +17,10 @@
 
 package org.apache.hadoop.hdds.scm.container.states;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.function.Function;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.scm.container.ContainerInfo;
 import org.apache.hadoop.hdds.scm.container.ContainerReplica;
@@ -30,11 +28,17 @@
 /**
  * The entry ({@link ContainerInfo} and {@link ContainerReplica}s)
  * for a container in {@link ContainerStateMap}.
+ * <p>
+ * A container has a few replicas, at most one per datanode, so they are kept
+ * in an array searched linearly rather than in a map and a set.  The array is
+ * replaced on each update, so a set returned by {@link #getReplicas()} is an
+ * immutable snapshot.
  */
 public class ContainerEntry {
+  private static final ContainerReplica[] EMPTY = new ContainerReplica[0];
+
   private final ContainerInfo info;
-  private final Map<DatanodeID, ContainerReplica> replicasMap = new TreeMap<>();
-  private Set<ContainerReplica> replicas = Collections.emptySet();
+  private ReplicaSet replicas = new ReplicaSet(EMPTY);
 
   ContainerEntry(ContainerInfo info) {
     this.info = info;
@@ -49,20 +53,59 @@ public Set<ContainerReplica> getReplicas() {
   }
 
   public ContainerReplica put(ContainerReplica r) {
-    return copyAndUpdate(map -> map.put(r.getDatanodeDetails().getID(), r));
+    final ContainerReplica[] array = replicas.array;
+    final int i = indexOf(array, r.getDatanodeDetails().getID());
+    final ContainerReplica[] updated;
+    if (i >= 0) {
+      updated = array.clone();
+      updated[i] = r;
+    } else {
+      updated = Arrays.copyOf(array, array.length + 1);
+      updated[array.length] = r;
+    }
+    replicas = new ReplicaSet(updated);
+    return i >= 0 ? array[i] : null;
   }
 
   public ContainerReplica removeReplica(DatanodeID datanodeID) {
-    return copyAndUpdate(map -> map.remove(datanodeID));
+    final ContainerReplica[] array = replicas.array;
+    final int i = indexOf(array, datanodeID);
+    if (i < 0) {
+      return null;
+    }
+    final ContainerReplica[] updated = new ContainerReplica[array.length - 1];
+    System.arraycopy(array, 0, updated, 0, i);
+    System.arraycopy(array, i + 1, updated, i, updated.length - i);
+    replicas = new ReplicaSet(updated);
+    return array[i];
+  }
+
+  private static int indexOf(ContainerReplica[] array, DatanodeID datanodeID) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i].getDatanodeDetails().getID().equals(datanodeID)) {
+        return i;
+      }
+    }
+    return -1;
   }
 
-  private <T> T copyAndUpdate(Function<Map<DatanodeID, ContainerReplica>, T> update) {
-    T result = update.apply(replicasMap);
+  /** An immutable set of the replicas in an array. */
+  private static final class ReplicaSet extends AbstractSet<ContainerReplica> {
+    private final ContainerReplica[] array;
+
+    private ReplicaSet(ContainerReplica[] array) {
+      this.array = array;
+    }
 
-    Set<ContainerReplica> set = new HashSet<>(replicasMap.size(), 1);
-    set.addAll(replicasMap.values());
-    replicas = Collections.unmodifiableSet(set);
+    @Override
+    public Iterator<ContainerReplica> iterator() {
+      // the iterator of Arrays.asList does not support remove
+      return Arrays.asList(array).iterator();
+    }
 
-    return result;
+    @Override
+    public int size() {
+      return array.length;
+    }
   }
 }
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.states;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+
+/**
+ * A map from primitive container IDs to {@link ContainerInfo}s, sorted by
+ * the IDs.
+ * <p>
+ * The entries are kept in chunks of parallel arrays, which are sorted within
+ * and across the chunks.  Compared to a {@link java.util.TreeMap}, an entry
+ * takes a slot of the two arrays instead of a tree node and a boxed key, and
+ * a scan reads the arrays sequentially instead of following the tree.
+ * Since container IDs are allocated in increasing order, adding a container
+ * usually appends to the last chunk, which is never split for an append.
+ * <p>
+ * This class is NOT thread-safe, and must not be modified while iterating.
+ */
+final class ContainerInfoIndex {
+  static final int CHUNK_SIZE = 512;
+
+  private final List<Chunk> chunks = new ArrayList<>();
+  private int size;
+
+  /** @return the number of entries. */
+  int size() {
+    return size;
+  }
+
+  /** @return the info of the given id, or null if not found. */
+  ContainerInfo get(long id) {
+    if (chunks.isEmpty()) {
+      return null;
+    }
+    final Chunk chunk = chunks.get(chunkIndex(id));
+    final int i = chunk.search(id);
+    return i >= 0 ? chunk.infos[i] : null;
+  }
+
+  /** @return the previous info of the given id, or null if there was none. */
+  ContainerInfo put(long id, ContainerInfo info) {
+    if (chunks.isEmpty()) {
+      chunks.add(new Chunk());
+    }
+    final int c = chunkIndex(id);
+    Chunk chunk = chunks.get(c);
+    int i = chunk.search(id);
+    if (i >= 0) {
+      final ContainerInfo previous = chunk.infos[i];
+      chunk.infos[i] = info;
+      return previous;
+    }
+
+    i = -i - 1;
+    if (chunk.size == CHUNK_SIZE) {
+      if (i == CHUNK_SIZE && c == chunks.size() - 1) {
+        // appending: start a new chunk instead of leaving two half-full ones
+        chunk = new Chunk();
+        chunks.add(chunk);
+        i = 0;
+      } else {
+        final Chunk right = chunk.split();
+        chunks.add(c + 1, right);
+        if (i > chunk.size) {
+          i -= chunk.size;
+          chunk = right;
+        }
+      }
+    }
+    chunk.insert(i, id, info);
+    size++;
+    return null;
+  }
+
+  /** @return the removed info of the given id, or null if not found. */
+  ContainerInfo remove(long id) {
+    if (chunks.isEmpty()) {
+      return null;
+    }
+    final int c = chunkIndex(id);
+    final Chunk chunk = chunks.get(c);
+    final int i = chunk.search(id);
+    if (i < 0) {
+      return null;
+    }
+    final ContainerInfo removed = chunk.infos[i];
+    chunk.remove(i);
+    size--;
+
+    if (chunk.size == 0) {
+      chunks.remove(c);
+    } else if (chunk.size < CHUNK_SIZE / 4) {
+      // merge sparse chunks, which are left by removing most of a range
+      if (c + 1 < chunks.size() && chunk.merge(chunks.get(c + 1))) {
+        chunks.remove(c + 1);
+      } else if (c > 0 && chunks.get(c - 1).merge(chunk)) {
+        chunks.remove(c);
+      }
+    }
+    return removed;
+  }
+
+  void clear() {
+    chunks.clear();
+    size = 0;
+  }
+
+  /** @return the infos in ascending id order. */
+  List<ContainerInfo> values() {
+    final List<ContainerInfo> values = new ArrayList<>(size);
+    for (Chunk chunk : chunks) {
+      values.addAll(Arrays.asList(chunk.infos).subList(0, chunk.size));
+    }
+    return values;
+  }
+
+  /**
+   * @return an iterator of the infos in ascending id order, starting from the
+   * given id (inclusive).
+   */
+  Iterator<ContainerInfo> tail(long start) {
+    int c = 0;
+    int i = 0;
+    if (!chunks.isEmpty()) {
+      c = chunkIndex(start);
+      i = chunks.get(c).search(start);
+      if (i < 0) {
+        i = -i - 1;
+      }
+    }
+    return new TailIterator(c, i);
+  }
+
+  /** @return the index of the last chunk starting at or before the id. */
+  private int chunkIndex(long id) {
+    int low = 0;
+    int high = chunks.size() - 1;
+    while (low < high) {
+      final int mid = (low + high + 1) >>> 1;
+      if (chunks.get(mid).ids[0] <= id) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  private final class TailIterator implements Iterator<ContainerInfo> {
+    private int chunk;
+    private int index;
+
+    private TailIterator(int chunk, int index) {
+      this.chunk = chunk;
+      this.index = index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      for (; chunk < chunks.size(); chunk++, index = 0) {
+        if (index < chunks.get(chunk).size) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public ContainerInfo next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return chunks.get(chunk).infos[index++];
+    }
+  }
+
+  /** The sorted ids and their infos in a range. */
+  private static final class Chunk {
+    private final long[] ids = new long[CHUNK_SIZE];
+    private final ContainerInfo[] infos = new ContainerInfo[CHUNK_SIZE];
+    private int size;
+
+    int search(long id) {
+      return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    void insert(int i, long id, ContainerInfo info) {
+      System.arraycopy(ids, i, ids, i + 1, size - i);
+      System.arraycopy(infos, i, infos, i + 1, size - i);
+      ids[i] = id;
+      infos[i] = info;
+      size++;
+    }
+
+    void remove(int i) {
+      System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+      System.arraycopy(infos, i + 1, infos, i, size - i - 1);
+      infos[--size] = null;
+    }
+
+    /** Moves the upper half of this chunk to a new chunk. */
+    Chunk split() {
+      final Chunk right = new Chunk();
+      final int half = size / 2;
+      right.size = size - half;
+      System.arraycopy(ids, half, right.ids, 0, right.size);
+      System.arraycopy(infos, half, right.infos, 0, right.size);
+      Arrays.fill(infos, half, size, null);
+      size = half;
+      return right;
+    }
+
+    /**
+     * Moves the entries of the following chunk to this chunk, if they fit.
+     * @return true iff merged.
+     */
+    boolean merge(Chunk next) {
+      if (size + next.size > CHUNK_SIZE) {
+        return false;
+      }
+      System.arraycopy(next.ids, 0, ids, size, next.size);
+      System.arraycopy(next.infos, 0, infos, size, next.size);
+      size += next.size;
+      return true;
+    }
+  }
+}
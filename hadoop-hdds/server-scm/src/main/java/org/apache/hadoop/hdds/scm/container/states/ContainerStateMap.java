@@ -19,6 +19,7 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Objects;
@@ -300,7 +301,8 @@ public List<ContainerID> getContainerIDs(LifeCycleState lifeCycleState,
     }
 
     final List<ContainerID> result = new ArrayList<>(Math.min(count, 1024));
-    for (ContainerInfo info : lifeCycleStateMap.tailMap(lifeCycleState, start).values()) {
+    for (Iterator<ContainerInfo> i = lifeCycleStateMap.tail(lifeCycleState, start); i.hasNext();) {
+      final ContainerInfo info = i.next();
       if (healthState == null || info.getHealthState() == healthState) {
         result.add(info.containerID());
         if (result.size() >= count) {
@@ -324,9 +326,11 @@ public List<ContainerInfo> getContainerInfos(ContainerID start, int count) {
    */
   public List<ContainerInfo> getContainerInfos(LifeCycleState state, ContainerID start, int count) {
     Preconditions.assertTrue(count >= 0, "count < 0");
-    return lifeCycleStateMap.tailMap(state, start).values().stream()
-        .limit(count)
-        .collect(Collectors.toList());
+    final List<ContainerInfo> result = new ArrayList<>(Math.min(count, 1024));
+    for (Iterator<ContainerInfo> i = lifeCycleStateMap.tail(state, start); i.hasNext() && result.size() < count;) {
+      result.add(i.next());
+    }
+    return result;
   }
 
   public List<ContainerInfo> getContainerInfos(LifeCycleState state) {
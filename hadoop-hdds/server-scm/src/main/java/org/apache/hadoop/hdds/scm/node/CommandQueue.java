@@ -24,6 +24,8 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.SCMCommandProto;
 import org.apache.hadoop.ozone.protocol.commands.SCMCommand;
@@ -35,26 +37,28 @@
  * datanodes into this queue. These commands will be sent in the order in which
  * they were queued.
  *
- * Note this class is not thread safe, and accesses must be protected by a lock.
+ * This class is thread-safe.  The commands of each datanode are guarded by
+ * their own monitor, so the queues of different datanodes are accessed
+ * concurrently, and taking the commands of a datanode never waits for the
+ * others.
  */
 public class CommandQueue {
   private final Map<DatanodeID, Commands> commandMap;
-  private long commandsInQueue;
+  private final AtomicLong commandsInQueue = new AtomicLong();
 
   /**
    * Returns number of commands in queue.
    * @return Command Count.
    */
   public long getCommandsInQueue() {
-    return commandsInQueue;
+    return commandsInQueue.get();
   }
 
   /**
    * Constructs a Command Queue.
    */
   public CommandQueue() {
-    commandMap = new HashMap<>();
-    commandsInQueue = 0;
+    commandMap = new ConcurrentHashMap<>();
   }
 
   /**
@@ -63,7 +67,7 @@ public CommandQueue() {
   @VisibleForTesting
   public void clear() {
     commandMap.clear();
-    commandsInQueue = 0;
+    commandsInQueue.set(0);
   }
 
   /**
@@ -79,9 +83,9 @@ List<SCMCommand<?>> getCommand(final DatanodeID datanodeID) {
     List<SCMCommand<?>> cmdList = null;
     if (cmds != null) {
       cmdList = cmds.getCommands();
-      commandsInQueue -= !cmdList.isEmpty() ? cmdList.size() : 0;
+      final long remaining = commandsInQueue.addAndGet(-cmdList.size());
       // A post condition really.
-      Preconditions.checkState(commandsInQueue >= 0);
+      Preconditions.checkState(remaining >= 0);
     }
     return cmds == null ? Collections.emptyList() : cmdList;
   }
@@ -125,8 +129,16 @@ public Map<SCMCommandProto.Type, Integer> getDatanodeCommandSummary(
 
   /** Adds a Command to the SCM Queue to send the command to container. */
   public void addCommand(final DatanodeID datanodeID, final SCMCommand<?> command) {
-    commandMap.computeIfAbsent(datanodeID, s -> new Commands()).add(command);
-    commandsInQueue++;
+    // Counted before being added, so that getCommand never sees the count
+    // below the commands it takes.
+    commandsInQueue.incrementAndGet();
+    // Added within compute, so that it cannot go to the commands being
+    // removed by getCommand at the same time.
+    commandMap.compute(datanodeID, (id, cmds) -> {
+      final Commands commands = cmds != null ? cmds : new Commands();
+      commands.add(command);
+      return commands;
+    });
   }
 
   /**
@@ -141,7 +153,7 @@ private static class Commands {
      *
      * @param command SCMCommand
      */
-    public void add(SCMCommand<?> command) {
+    public synchronized void add(SCMCommand<?> command) {
       this.commands.add(command);
       if (command.contributesToQueueSize()) {
         summary.put(command.getType(),
@@ -149,11 +161,11 @@ public void add(SCMCommand<?> command) {
       }
     }
 
-    public int getCommandSummary(SCMCommandProto.Type commandType) {
+    public synchronized int getCommandSummary(SCMCommandProto.Type commandType) {
       return summary.getOrDefault(commandType, 0);
     }
 
-    public Map<SCMCommandProto.Type, Integer> getAllCommandsSummary() {
+    public synchronized Map<SCMCommandProto.Type, Integer> getAllCommandsSummary() {
       return new HashMap<>(summary);
     }
 
@@ -161,7 +173,7 @@ public Map<SCMCommandProto.Type, Integer> getAllCommandsSummary() {
      * Returns the commands for this datanode.
      * @return command list.
      */
-    public List<SCMCommand<?>> getCommands() {
+    public synchronized List<SCMCommand<?>> getCommands() {
       List<SCMCommand<?>> temp = this.commands;
       this.commands = new ArrayList<>();
       summary.clear();
@@ -99,12 +99,8 @@ public void updateLastHeartbeatTime() {
    */
   @VisibleForTesting
   public void updateLastHeartbeatTime(long milliSecondsSinceEpoch) {
-    try {
-      lock.writeLock().lock();
-      lastHeartbeatTime = milliSecondsSinceEpoch;
-    } finally {
-      lock.writeLock().unlock();
-    }
+    // volatile, not locked, since it is updated on every heartbeat
+    lastHeartbeatTime = milliSecondsSinceEpoch;
   }
 
   /**
@@ -130,12 +126,7 @@ public void updateLastKnownLayoutVersion(LayoutVersionProto version) {
    * @return last heartbeat time.
    */
   public long getLastHeartbeatTime() {
-    try {
-      lock.readLock().lock();
-      return lastHeartbeatTime;
-    } finally {
-      lock.readLock().unlock();
-    }
+    return lastHeartbeatTime;
   }
 
   /**
@@ -26,6 +26,7 @@
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Striped;
 import java.io.IOException;
 import java.math.RoundingMode;
 import java.net.InetAddress;
@@ -43,7 +44,8 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -146,10 +148,12 @@ public class SCMNodeManager implements NodeManager, ContainerReplicaPendingOpsSu
   private final int numContainerPerVolume;
 
   /**
-   * Lock used to synchronize some operation in Node manager to ensure a
-   * consistent view of the node state.
+   * Locks striped by datanode, used to synchronize some operation in Node
+   * manager to ensure a consistent view of the commands queued for a datanode
+   * in SCM and on the datanode.  Heartbeats of different datanodes do not
+   * wait for each other.
    */
-  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Striped<ReadWriteLock> stripedLock = Striped.readWriteLock(64);
   private static final String OPESTATE = "OPSTATE";
   private static final String COMSTATE = "COMSTATE";
   private static final String LASTHEARTBEAT = "LASTHEARTBEAT";
@@ -563,6 +567,7 @@ public List<SCMCommand<?>> processHeartbeat(DatanodeDetails datanodeDetails,
                                            CommandQueueReportProto queueReport) {
     Objects.requireNonNull(datanodeDetails, "Heartbeat is missing " +
         "DatanodeDetails.");
+    final long startNanos = Time.monotonicNowNanos();
     try {
       nodeStateManager.updateLastHeartbeatTime(datanodeDetails);
       metrics.incNumHBProcessed();
@@ -572,12 +577,12 @@ public List<SCMCommand<?>> processHeartbeat(DatanodeDetails datanodeDetails,
       LOG.error("SCM trying to process heartbeat from an " +
           "unregistered node {}. Ignoring the heartbeat.", datanodeDetails);
     }
-    writeLock().lock();
+    final DatanodeID dnID = datanodeDetails.getID();
+    writeLock(dnID).lock();
     try {
       Map<SCMCommandProto.Type, Integer> summary =
-          commandQueue.getDatanodeCommandSummary(datanodeDetails.getID());
-      List<SCMCommand<?>> commands =
-          commandQueue.getCommand(datanodeDetails.getID());
+          commandQueue.getDatanodeCommandSummary(dnID);
+      List<SCMCommand<?>> commands = commandQueue.getCommand(dnID);
 
       // Update the SCMCommand of deleteBlocksCommand Status
       for (SCMCommand<?> command : commands) {
@@ -592,7 +597,9 @@ public List<SCMCommand<?>> processHeartbeat(DatanodeDetails datanodeDetails,
       }
       return commands;
     } finally {
-      writeLock().unlock();
+      writeLock(dnID).unlock();
+      metrics.setCommandsInQueue(commandQueue.getCommandsInQueue());
+      metrics.addHBProcessingLatency(Time.monotonicNowNanos() - startNanos);
     }
   }
 
@@ -864,12 +871,12 @@ private void processNodeCommandQueueReport(DatanodeDetails datanodeDetails,
   @Override
   public int getNodeQueuedCommandCount(DatanodeDetails datanodeDetails,
       SCMCommandProto.Type cmdType) throws NodeNotFoundException {
-    readLock().lock();
+    readLock(datanodeDetails.getID()).lock();
     try {
       DatanodeInfo datanodeInfo = nodeStateManager.getNode(datanodeDetails);
       return datanodeInfo.getCommandCount(cmdType);
     } finally {
-      readLock().unlock();
+      readLock(datanodeDetails.getID()).unlock();
     }
   }
 
@@ -882,11 +889,11 @@ public int getNodeQueuedCommandCount(DatanodeDetails datanodeDetails,
    */
   @Override
   public int getCommandQueueCount(DatanodeID dnID, SCMCommandProto.Type cmdType) {
-    readLock().lock();
+    readLock(dnID).lock();
     try {
       return commandQueue.getDatanodeCommandCount(dnID, cmdType);
     } finally {
-      readLock().unlock();
+      readLock(dnID).unlock();
     }
   }
 
@@ -905,7 +912,7 @@ public int getCommandQueueCount(DatanodeID dnID, SCMCommandProto.Type cmdType) {
   @Override
   public int getTotalDatanodeCommandCount(DatanodeDetails datanodeDetails,
       SCMCommandProto.Type cmdType) throws NodeNotFoundException {
-    readLock().lock();
+    readLock(datanodeDetails.getID()).lock();
     try {
       int dnCount = getNodeQueuedCommandCount(datanodeDetails, cmdType);
       if (dnCount == -1) {
@@ -915,7 +922,7 @@ public int getTotalDatanodeCommandCount(DatanodeDetails datanodeDetails,
       }
       return getCommandQueueCount(datanodeDetails.getID(), cmdType) + dnCount;
     } finally {
-      readLock().unlock();
+      readLock(datanodeDetails.getID()).unlock();
     }
   }
 
@@ -939,14 +946,14 @@ public Map<SCMCommandProto.Type, Integer> getTotalDatanodeCommandCounts(
       DatanodeDetails datanodeDetails, SCMCommandProto.Type... cmdType)
       throws NodeNotFoundException {
     Map<SCMCommandProto.Type, Integer> counts = new HashMap<>();
-    readLock().lock();
+    readLock(datanodeDetails.getID()).lock();
     try {
       for (SCMCommandProto.Type type : cmdType) {
         counts.put(type, getTotalDatanodeCommandCount(datanodeDetails, type));
       }
       return counts;
     } finally {
-      readLock().unlock();
+      readLock(datanodeDetails.getID()).unlock();
     }
   }
 
@@ -1864,12 +1871,13 @@ public SpaceUsageSource.Fixed getTotalFilesystemUsage(DatanodeDetails datanodeDe
 
   @Override
   public void addDatanodeCommand(DatanodeID datanodeID, SCMCommand<?> command) {
-    writeLock().lock();
+    writeLock(datanodeID).lock();
     try {
       this.commandQueue.addCommand(datanodeID, command);
     } finally {
-      writeLock().unlock();
+      writeLock(datanodeID).unlock();
     }
+    metrics.setCommandsInQueue(commandQueue.getCommandsInQueue());
   }
 
   /**
@@ -1909,11 +1917,12 @@ public void onMessage(CommandForDatanode commandForDatanode,
   public List<SCMCommand<?>> getCommandQueue(DatanodeID dnID) {
     // Getting the queue actually clears it and returns the commands, so this
     // is a write operation and not a read as the method name suggests.
-    writeLock().lock();
+    writeLock(dnID).lock();
     try {
       return commandQueue.getCommand(dnID);
     } finally {
-      writeLock().unlock();
+      writeLock(dnID).unlock();
+      metrics.setCommandsInQueue(commandQueue.getCommandsInQueue());
     }
   }
 
@@ -2022,12 +2031,12 @@ public void forceNodesToHealthyReadOnly() {
     nodeStateManager.forceNodesToHealthyReadOnly();
   }
 
-  private ReentrantReadWriteLock.WriteLock writeLock() {
-    return lock.writeLock();
+  private Lock writeLock(DatanodeID datanodeID) {
+    return stripedLock.get(datanodeID).writeLock();
   }
 
-  private ReentrantReadWriteLock.ReadLock readLock() {
-    return lock.readLock();
+  private Lock readLock(DatanodeID datanodeID) {
+    return stripedLock.get(datanodeID).readLock();
   }
 
   /**
@@ -2043,7 +2052,7 @@ private ReentrantReadWriteLock.ReadLock readLock() {
    */
   @Override
   public void removeNode(DatanodeDetails datanodeDetails) throws NodeNotFoundException, IOException {
-    writeLock().lock();
+    writeLock(datanodeDetails.getID()).lock();
     try {
       NodeStatus nodeStatus = this.getNodeStatus(datanodeDetails);
       if (datanodeDetails.isDecommissioned() || nodeStatus.isDead()) {
@@ -2058,7 +2067,7 @@ public void removeNode(DatanodeDetails datanodeDetails) throws NodeNotFoundExcep
         LOG.warn("Node not decommissioned or dead, cannot remove: {}", datanodeDetails);
       }
     } finally {
-      writeLock().unlock();
+      writeLock(datanodeDetails.getID()).unlock();
     }
   }
 }
@@ -31,6 +31,8 @@
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
+import org.apache.hadoop.metrics2.lib.MutableQuantiles;
+import org.apache.hadoop.metrics2.lib.MutableRate;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.util.StringUtils;
 
@@ -56,6 +58,9 @@ public final class SCMNodeMetrics implements MetricsSource {
   private @Metric MutableCounterLong numPendingContainersRemoved;
   private @Metric MutableCounterLong numSkippedFullNodeContainerAllocation;
   private @Metric MutableGaugeLong totalPendingContainerSlots;
+  private @Metric MutableRate hbProcessingLatencyNs;
+  private @Metric MutableGaugeLong commandsInQueue;
+  private final MutableQuantiles hbProcessingLatencyQuantiles;
 
   private final MetricsRegistry registry;
   private final NodeManagerMXBean managerMXBean;
@@ -67,6 +72,9 @@ private SCMNodeMetrics(NodeManagerMXBean managerMXBean) {
     this.managerMXBean = managerMXBean;
     this.registry = new MetricsRegistry(recordInfo);
     this.textMetric = "my_test_metric";
+    this.hbProcessingLatencyQuantiles = registry.newQuantiles(
+        "hbProcessingLatencyNs60s", "Heartbeat processing latency",
+        "ops", "latencyNs", 60);
   }
 
   /**
@@ -130,6 +138,29 @@ void incNumNodeCommandQueueReportProcessingFailed() {
     numNodeCommandQueueReportProcessingFailed.incr();
   }
 
+  /**
+   * Adds the time taken to process a heartbeat.
+   */
+  void addHBProcessingLatency(long nanos) {
+    hbProcessingLatencyNs.add(nanos);
+    hbProcessingLatencyQuantiles.add(nanos);
+  }
+
+  /**
+   * Sets the number of commands queued in SCM for all the datanodes.
+   */
+  void setCommandsInQueue(long value) {
+    commandsInQueue.set(value);
+  }
+
+  public MutableRate getHBProcessingLatencyNs() {
+    return hbProcessingLatencyNs;
+  }
+
+  public long getCommandsInQueue() {
+    return commandsInQueue.value();
+  }
+
   void incNumPendingContainersAdded() {
     numPendingContainersAdded.incr();
   }
@@ -19,12 +19,16 @@
 
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.UnaryOperator;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.node.DatanodeInfo;
+import org.apache.hadoop.hdds.scm.node.NodeStatus;
 
 /**
  * The entry ({@link DatanodeInfo} and {@link ContainerID}s)
  * for a datanode in {@link NodeStateMap}.
+ * <p>
+ * This class is thread-safe.
  */
 public class DatanodeEntry {
   private final DatanodeInfo info;
@@ -38,23 +42,30 @@ public DatanodeInfo getInfo() {
     return info;
   }
 
-  public int getContainerCount() {
+  /** Updates the {@link NodeStatus} of the datanode atomically. */
+  public synchronized NodeStatus updateNodeStatus(UnaryOperator<NodeStatus> update) {
+    final NodeStatus newStatus = update.apply(info.getNodeStatus());
+    info.setNodeStatus(newStatus);
+    return newStatus;
+  }
+
+  public synchronized int getContainerCount() {
     return containers.size();
   }
 
-  public Set<ContainerID> copyContainers() {
+  public synchronized Set<ContainerID> copyContainers() {
     return new TreeSet<>(containers);
   }
 
-  public void add(ContainerID containerId) {
+  public synchronized void add(ContainerID containerId) {
     containers.add(containerId);
   }
 
-  public void remove(ContainerID containerID) {
+  public synchronized void remove(ContainerID containerID) {
     containers.remove(containerID);
   }
 
-  public void setContainersForTesting(Set<ContainerID> newContainers) {
+  public synchronized void setContainersForTesting(Set<ContainerID> newContainers) {
     containers.clear();
     containers.addAll(newContainers);
   }
@@ -20,9 +20,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -37,13 +35,15 @@
 /**
  * Map: {@link DatanodeID} to {@link DatanodeEntry}.
  * <p>
- * This class is thread-safe.
+ * This class is thread-safe.  The nodes are read without locking, since they
+ * are looked up on every heartbeat; a node is added, replaced or removed
+ * atomically in the map, and the state of each node is updated under its
+ * {@link DatanodeEntry}, so updates of different nodes do not block each other.
  */
 public class NodeStateMap {
   /** Map: {@link DatanodeID} -> ({@link DatanodeInfo}, {@link ContainerID}s). */
-  private final Map<DatanodeID, DatanodeEntry> nodeMap = new TreeMap<>();
-
-  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<DatanodeID, DatanodeEntry> nodeMap =
+      new ConcurrentSkipListMap<>();
 
   /**
    * Creates a new instance of NodeStateMap with no nodes.
@@ -57,14 +57,8 @@ public NodeStateMap() { }
    */
   public void addNode(DatanodeInfo datanode) throws NodeAlreadyExistsException {
     final DatanodeID id = datanode.getID();
-    lock.writeLock().lock();
-    try {
-      if (nodeMap.containsKey(id)) {
-        throw new NodeAlreadyExistsException(id);
-      }
-      nodeMap.put(id, new DatanodeEntry(datanode));
-    } finally {
-      lock.writeLock().unlock();
+    if (nodeMap.putIfAbsent(id, new DatanodeEntry(datanode)) != null) {
+      throw new NodeAlreadyExistsException(id);
     }
   }
 
@@ -72,12 +66,7 @@ public void addNode(DatanodeInfo datanode) throws NodeAlreadyExistsException {
    * Removes a node from NodeStateMap.
    */
   public void removeNode(DatanodeID datanodeID) {
-    lock.writeLock().lock();
-    try {
-      nodeMap.remove(datanodeID);
-    } finally {
-      lock.writeLock().unlock();
-    }
+    nodeMap.remove(datanodeID);
   }
 
   /**
@@ -87,18 +76,11 @@ public void removeNode(DatanodeID datanodeID) {
    */
   public DatanodeInfo updateNode(DatanodeInfo datanode) throws NodeNotFoundException {
     final DatanodeID id = datanode.getID();
-    final DatanodeInfo oldInfo;
-    lock.writeLock().lock();
-    try {
-      oldInfo = getNodeInfo(id);
-      if (oldInfo == null) {
-        throw new NodeNotFoundException(id);
-      }
-      nodeMap.put(id, new DatanodeEntry(datanode));
-    } finally {
-      lock.writeLock().unlock();
+    final DatanodeEntry old = nodeMap.replace(id, new DatanodeEntry(datanode));
+    if (old == null) {
+      throw new NodeNotFoundException(id);
     }
-    return oldInfo;
+    return old.getInfo();
   }
 
   /**
@@ -111,15 +93,8 @@ public DatanodeInfo updateNode(DatanodeInfo datanode) throws NodeNotFoundExcepti
    */
   public NodeStatus updateNodeHealthState(DatanodeID nodeId, NodeState newHealth)
       throws NodeNotFoundException {
-    lock.writeLock().lock();
-    try {
-      final DatanodeInfo dn = getExisting(nodeId).getInfo();
-      final NodeStatus newStatus = dn.getNodeStatus().newNodeState(newHealth);
-      dn.setNodeStatus(newStatus);
-      return newStatus;
-    } finally {
-      lock.writeLock().unlock();
-    }
+    return getExisting(nodeId).updateNodeStatus(
+        status -> status.newNodeState(newHealth));
   }
 
   /**
@@ -133,15 +108,8 @@ public NodeStatus updateNodeHealthState(DatanodeID nodeId, NodeState newHealth)
   public NodeStatus updateNodeOperationalState(DatanodeID nodeId,
       NodeOperationalState newOpState, long opStateExpiryEpochSeconds)
       throws NodeNotFoundException {
-    lock.writeLock().lock();
-    try {
-      final DatanodeInfo dn = getExisting(nodeId).getInfo();
-      final NodeStatus newStatus = dn.getNodeStatus().newOperationalState(newOpState, opStateExpiryEpochSeconds);
-      dn.setNodeStatus(newStatus);
-      return newStatus;
-    } finally {
-      lock.writeLock().unlock();
-    }
+    return getExisting(nodeId).updateNodeStatus(
+        status -> status.newOperationalState(newOpState, opStateExpiryEpochSeconds));
   }
 
   /**
@@ -149,33 +117,18 @@ public NodeStatus updateNodeOperationalState(DatanodeID nodeId,
    * @throws NodeNotFoundException if the node is not present
    */
   public DatanodeInfo getNodeInfo(DatanodeID datanodeID) throws NodeNotFoundException {
-    lock.readLock().lock();
-    try {
-      return getExisting(datanodeID).getInfo();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return getExisting(datanodeID).getInfo();
   }
 
   public int getNodeCount() {
-    lock.readLock().lock();
-    try {
-      return nodeMap.size();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return nodeMap.size();
   }
 
   /** @return a shadow copied list of all datanodes, sorted by {@link DatanodeID}. */
   public List<DatanodeInfo> getAllDatanodeInfos() {
-    lock.readLock().lock();
-    try {
-      return nodeMap.values().stream()
-          .map(DatanodeEntry::getInfo)
-          .collect(Collectors.toList());
-    } finally {
-      lock.readLock().unlock();
-    }
+    return nodeMap.values().stream()
+        .map(DatanodeEntry::getInfo)
+        .collect(Collectors.toList());
   }
 
   /** @return a list of datanodes for the matching nodes matching the given status. */
@@ -227,12 +180,7 @@ public int getNodeCount(NodeOperationalState opState, NodeState health) {
    * @return node count
    */
   public int getTotalNodeCount() {
-    lock.readLock().lock();
-    try {
-      return nodeMap.size();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return nodeMap.size();
   }
 
   /**
@@ -245,12 +193,7 @@ public int getTotalNodeCount() {
    * @throws NodeNotFoundException if the node is not found
    */
   public NodeStatus getNodeStatus(DatanodeID datanodeID) throws NodeNotFoundException {
-    lock.readLock().lock();
-    try {
-      return getExisting(datanodeID).getInfo().getNodeStatus();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return getExisting(datanodeID).getInfo().getNodeStatus();
   }
 
   /**
@@ -261,12 +204,7 @@ public NodeStatus getNodeStatus(DatanodeID datanodeID) throws NodeNotFoundExcept
   public void addContainer(final DatanodeID datanodeID,
                            final ContainerID containerId)
       throws NodeNotFoundException {
-    lock.writeLock().lock();
-    try {
-      getExisting(datanodeID).add(containerId);
-    } finally {
-      lock.writeLock().unlock();
-    }
+    getExisting(datanodeID).add(containerId);
   }
 
   /**
@@ -275,40 +213,20 @@ public void addContainer(final DatanodeID datanodeID,
    */
   public void setContainersForTesting(DatanodeID id, Set<ContainerID> containers)
       throws NodeNotFoundException {
-    lock.writeLock().lock();
-    try {
-      getExisting(id).setContainersForTesting(containers);
-    } finally {
-      lock.writeLock().unlock();
-    }
+    getExisting(id).setContainersForTesting(containers);
   }
 
   public Set<ContainerID> getContainers(DatanodeID id)
       throws NodeNotFoundException {
-    lock.readLock().lock();
-    try {
-      return getExisting(id).copyContainers();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return getExisting(id).copyContainers();
   }
 
   public int getContainerCount(DatanodeID datanodeID) throws NodeNotFoundException {
-    lock.readLock().lock();
-    try {
-      return getExisting(datanodeID).getContainerCount();
-    } finally {
-      lock.readLock().unlock();
-    }
+    return getExisting(datanodeID).getContainerCount();
   }
 
   public void removeContainer(DatanodeID datanodeID, ContainerID containerID) throws NodeNotFoundException {
-    lock.writeLock().lock();
-    try {
-      getExisting(datanodeID).remove(containerID);
-    } finally {
-      lock.writeLock().unlock();
-    }
+    getExisting(datanodeID).remove(containerID);
   }
 
   /**
@@ -345,16 +263,10 @@ private DatanodeEntry getExisting(DatanodeID id) throws NodeNotFoundException {
   }
 
   private int countNodes(Predicate<DatanodeInfo> filter) {
-    final long count;
-    lock.readLock().lock();
-    try {
-      count = nodeMap.values().stream()
-          .map(DatanodeEntry::getInfo)
-          .filter(filter)
-          .count();
-    } finally {
-      lock.readLock().unlock();
-    }
+    final long count = nodeMap.values().stream()
+        .map(DatanodeEntry::getInfo)
+        .filter(filter)
+        .count();
     return Math.toIntExact(count);
   }
 
@@ -366,16 +278,11 @@ private List<DatanodeInfo> filterNodes(Predicate<DatanodeInfo> filter) {
   }
 
   private <T> List<T> filterNodes(Predicate<DatanodeInfo> filter, Function<DatanodeInfo, T> converter) {
-    lock.readLock().lock();
-    try {
-      return nodeMap.values().stream()
-          .map(DatanodeEntry::getInfo)
-          .filter(filter)
-          .map(converter)
-          .collect(Collectors.toList());
-    } finally {
-      lock.readLock().unlock();
-    }
+    return nodeMap.values().stream()
+        .map(DatanodeEntry::getInfo)
+        .filter(filter)
+        .map(converter)
+        .collect(Collectors.toList());
   }
 
   private static Predicate<DatanodeInfo> matching(NodeStatus status) {
@@ -18,6 +18,7 @@
 package org.apache.hadoop.hdds.scm.server;
 
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_EXEC_WAIT_THRESHOLD_DEFAULT;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_OFFER_TIMEOUT_DEFAULT;
 import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_SCM_EVENT_REPORT_QUEUE_WAIT_THRESHOLD_DEFAULT;
 import static org.apache.hadoop.hdds.scm.ScmUtils.checkIfCertSignRequestAllowed;
 import static org.apache.hadoop.hdds.scm.security.SecretKeyManagerService.isSecretKeyEnable;
@@ -558,6 +559,11 @@ private void initializeEventHandlers() {
     long execWaitThreshold = configuration.getInt(
         ScmUtils.getContainerReportConfPrefix() + ".execute.wait.threshold",
         OZONE_SCM_EVENT_REPORT_EXEC_WAIT_THRESHOLD_DEFAULT);
+    // conf: ozone.scm.event.CONTAINER_REPORT_OR_INCREMENTAL_CONTAINER_REPORT
+    // .queue.offer.timeout
+    long queueOfferTimeout = configuration.getInt(
+        ScmUtils.getContainerReportConfPrefix() + ".queue.offer.timeout",
+        OZONE_SCM_EVENT_REPORT_QUEUE_OFFER_TIMEOUT_DEFAULT);
     List<BlockingQueue<ContainerReport>> queues
         = ScmUtils.initContainerReportQueue(configuration);
     List<ThreadPoolExecutor> executors
@@ -575,6 +581,7 @@ private void initializeEventHandlers() {
             reportExecutorMap);
     containerReportExecutors.setQueueWaitThreshold(waitQueueThreshold);
     containerReportExecutors.setExecWaitThreshold(execWaitThreshold);
+    containerReportExecutors.setQueueOfferTimeout(queueOfferTimeout);
     FixedThreadPoolWithAffinityExecutor<IncrementalContainerReportFromDatanode,
         ContainerReport> incrementalReportExecutors =
         new FixedThreadPoolWithAffinityExecutor<>(
@@ -586,6 +593,7 @@ private void initializeEventHandlers() {
             reportExecutorMap);
     incrementalReportExecutors.setQueueWaitThreshold(waitQueueThreshold);
     incrementalReportExecutors.setExecWaitThreshold(execWaitThreshold);
+    incrementalReportExecutors.setQueueOfferTimeout(queueOfferTimeout);
 
     eventQueue.addHandler(SCMEvents.CONTAINER_REPORT, containerReportExecutors,
         containerReportHandler);
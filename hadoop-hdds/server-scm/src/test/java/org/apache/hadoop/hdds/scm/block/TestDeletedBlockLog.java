@@ -378,6 +378,68 @@ public void testSCMDelIteratorProgress() throws Exception {
     assertTrue(blocks.isEmpty());
   }
 
+  @Test
+  public void testPendingTransactions() throws Exception {
+    deletedBlockLog.setScmCommandTimeoutMs(Long.MAX_VALUE);
+    addTransactions(generateData(10), true);
+    mockContainerHealthResult(true);
+    PendingDeletedBlockTransactions pending = deletedBlockLog
+        .getSCMDeletedBlockTransactionStatusManager().getPendingTransactions();
+    int blockLimit = BLOCKS_PER_TXN * THREE;
+
+    // The blocks of two runs are loaded from the DB.
+    List<DeletedBlocksTransaction> blocks = getTransactions(blockLimit);
+    assertEquals(THREE, blocks.size());
+    assertEquals(1, blocks.get(0).getTxID());
+    assertEquals(6, pending.size());
+    assertEquals(2 * blockLimit, pending.getBlockCount());
+
+    // Committed transactions leave, and the next ones are loaded.
+    commitTransactions(blocks);
+    assertEquals(5, pending.size());
+    blocks = getTransactions(blockLimit);
+    assertEquals(2, blocks.get(0).getTxID());
+    assertEquals(6, pending.size());
+
+    // Skipped transactions are evicted when there is no room,
+    mockContainerHealthResult(false);
+    assertEquals(0, getTransactions(blockLimit).size());
+    assertEquals(0, pending.size());
+
+    // and loaded again after the ones never loaded.
+    mockContainerHealthResult(true);
+    blocks = getTransactions(blockLimit);
+    assertEquals(THREE, blocks.size());
+    assertEquals(3, blocks.get(0).getTxID());
+    assertEquals(6, pending.size());
+  }
+
+  @Test
+  public void testPendingTransactionsInFlightEvicted() throws Exception {
+    deletedBlockLog.setScmCommandTimeoutMs(Long.MAX_VALUE);
+    addTransactions(generateData(10), true);
+    mockContainerHealthResult(true);
+    PendingDeletedBlockTransactions pending = deletedBlockLog
+        .getSCMDeletedBlockTransactionStatusManager().getPendingTransactions();
+    int blockLimit = BLOCKS_PER_TXN * THREE;
+
+    // Each run sends the next transaction of the full window.
+    for (int i = 1; i <= 6; i++) {
+      List<DeletedBlocksTransaction> blocks = getTransactions(blockLimit);
+      assertEquals(i, blocks.get(0).getTxID());
+      assertEquals(6, pending.size());
+    }
+
+    // Once all of them are in flight, they are evicted,
+    assertEquals(0, getTransactions(blockLimit).size());
+    assertEquals(0, pending.size());
+
+    // so that the transactions after them are sent.
+    List<DeletedBlocksTransaction> blocks = getTransactions(blockLimit);
+    assertEquals(7, blocks.get(0).getTxID());
+    assertEquals(6, pending.size());
+  }
+
   @Test
   public void testCommitTransactions() throws Exception {
     deletedBlockLog.setScmCommandTimeoutMs(Long.MAX_VALUE);
@@ -19,6 +19,7 @@
 
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
+import static org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto.State.CLOSED;
 import static org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto.State.OPEN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -390,4 +391,39 @@ void testRemoveContainerReplicaInvokesPendingOp()
     verify(pendingOpsMock, times(1)).completeDeleteReplica(container.containerID(), dn, 0);
   }
 
+  @Test
+  void testReplicaChangeListener() throws Exception {
+    final ContainerInfo container = containerManager.allocateContainer(
+        RatisReplicationConfig.getInstance(
+            ReplicationFactor.THREE), "admin");
+    final ContainerID id = container.containerID();
+    final List<ContainerID> changed = new ArrayList<>();
+    containerManager.registerReplicaChangeListener(changed::add);
+
+    ContainerReplica.ContainerReplicaBuilder replica =
+        ContainerReplica.newBuilder()
+            .setContainerState(OPEN)
+            .setReplicaIndex(0)
+            .setContainerID(id)
+            .setDatanodeDetails(MockDatanodeDetails.randomDatanodeDetails())
+            .setSequenceId(1)
+            .setBytesUsed(1234)
+            .setKeyCount(123);
+    containerManager.updateContainerReplica(id, replica.build());
+    assertEquals(1, changed.size());
+
+    // the usage of a replica is reported all the time, but is not a change
+    containerManager.updateContainerReplica(id,
+        replica.setKeyCount(124).setBytesUsed(2345).build());
+    assertEquals(1, changed.size());
+
+    containerManager.updateContainerReplica(id,
+        replica.setContainerState(CLOSED).build());
+    assertEquals(2, changed.size());
+
+    containerManager.removeContainerReplica(id, replica.build());
+    assertEquals(3, changed.size());
+    assertEquals(Collections.nCopies(3, id), changed);
+  }
+
 }
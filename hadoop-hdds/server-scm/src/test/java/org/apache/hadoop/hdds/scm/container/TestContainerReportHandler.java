@@ -1003,6 +1003,37 @@ public void notOpenContainerKeyAndBytesUsedUpdatedToMaximumOfAllReplicas()
         .getNumberOfKeys());
   }
 
+  @Test
+  public void unchangedClosedReplicasAreSkipped()
+      throws IOException, TimeoutException {
+    final ContainerReportHandler reportHandler = new ContainerReportHandler(
+        nodeManager, containerManager);
+    final DatanodeDetails datanode = nodeManager.getNodes(
+        NodeStatus.inServiceHealthy()).iterator().next();
+    final ContainerInfo container = getContainer(LifeCycleState.CLOSED);
+    containerStateManager.addContainer(container.getProtobuf());
+
+    final ContainerReportFromDatanode report = getContainerReportFromDatanode(
+        container.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanode, 50L, 60L);
+    reportHandler.onMessage(report, publisher);
+    verify(containerManager, times(1)).updateContainerReplica(
+        any(ContainerID.class), any(ContainerReplica.class));
+
+    // SCM has the same replica from the datanode
+    reportHandler.onMessage(report, publisher);
+    verify(containerManager, times(1)).updateContainerReplica(
+        any(ContainerID.class), any(ContainerReplica.class));
+
+    reportHandler.onMessage(getContainerReportFromDatanode(
+        container.containerID(), ContainerReplicaProto.State.CLOSED,
+        datanode, 40L, 50L), publisher);
+    verify(containerManager, times(2)).updateContainerReplica(
+        any(ContainerID.class), any(ContainerReplica.class));
+    assertEquals(40L, containerManager.getContainer(container.containerID())
+        .getUsedBytes());
+  }
+
   @Test
   public void openECContainerKeyAndBytesUsedUpdatedToMinimumOfAllReplicas()
       throws IOException, TimeoutException {
@@ -1585,6 +1585,46 @@ public void testPendingOpExpiry() throws ContainerNotFoundException {
     assertNotEquals(commandDeadline, sentCommand.getRight().getDeadline());
   }
 
+  @Test
+  public void testDirtyContainerProcessing() throws IOException {
+    replicationManager.getMetrics().unRegister();
+    rmConf.setIncrementalEnabled(true);
+    replicationManager = createReplicationManager();
+    verify(containerManager).registerReplicaChangeListener(any());
+    DirtyContainerProcessor processor =
+        replicationManager.getDirtyContainerProcessor();
+
+    ContainerInfo container = createContainerInfo(repConfig, 1,
+        HddsProtos.LifeCycleState.CLOSED);
+    addReplicas(container, ContainerReplicaProto.State.CLOSED, 1, 2, 3, 4);
+    when(containerManager.getContainer(container.containerID()))
+        .thenReturn(container);
+
+    // not processed until RM runs
+    replicationManager.markDirty(container.containerID());
+    assertEquals(1, replicationManager.getDirtyContainerCount());
+    processor.processAll();
+    assertEquals(0, replicationManager.getDirtyContainerCount());
+    assertEquals(0, replicationManager.getQueue().underReplicatedQueueSize());
+
+    enableProcessAll();
+    replicationManager.markDirty(container.containerID());
+    replicationManager.markDirty(container.containerID());
+    assertEquals(1, replicationManager.getDirtyContainerCount());
+    processor.processAll();
+    assertEquals(0, replicationManager.getDirtyContainerCount());
+    assertEquals(1, replicationManager.getQueue().underReplicatedQueueSize());
+
+    clock.fastForward(1000);
+    replicationManager.commandsSent(container.containerID());
+    // only the first command is measured
+    replicationManager.commandsSent(container.containerID());
+    assertEquals(1, replicationManager.getMetrics()
+        .getDirtyContainerCommandLatency().lastStat().numSamples());
+    assertEquals(1000, replicationManager.getMetrics()
+        .getDirtyContainerCommandLatency().lastStat().mean());
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   public void testNotifyNodeStateChangeWakesUpThread(boolean queueIsEmpty) 
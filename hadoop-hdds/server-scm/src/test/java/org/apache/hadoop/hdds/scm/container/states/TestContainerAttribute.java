@@ -17,13 +17,11 @@
 
 package org.apache.hadoop.hdds.scm.container.states;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.util.NavigableMap;
 import org.apache.hadoop.hdds.scm.container.ContainerID;
 import org.apache.hadoop.hdds.scm.container.ContainerInfo;
 import org.apache.hadoop.hdds.scm.exceptions.SCMException;
@@ -43,8 +41,7 @@ static <T extends Enum<T>> boolean hasContainerID(ContainerAttribute<T> attribut
   }
 
   static <T extends Enum<T>> boolean hasContainerID(ContainerAttribute<T> attribute, T key, ContainerID id) {
-    final NavigableMap<ContainerID, ContainerInfo> map = attribute.get(key);
-    return map != null && map.containsKey(id);
+    return attribute.contains(key, id);
   }
 
   @Test
@@ -54,7 +51,7 @@ public void testAddNonExisting() {
     ContainerID id = info.containerID();
     containerAttribute.addNonExisting(key1, info);
     assertEquals(1, containerAttribute.getCollection(key1).size());
-    assertThat(containerAttribute.get(key1)).containsKey(id);
+    assertTrue(hasContainerID(containerAttribute, key1, id));
 
     // Adding it again should fail.
     assertThrows(IllegalStateException.class, () -> containerAttribute.addNonExisting(key1, info));
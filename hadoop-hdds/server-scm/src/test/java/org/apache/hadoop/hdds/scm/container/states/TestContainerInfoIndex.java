@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.container.states;
+
+import static org.apache.hadoop.hdds.scm.container.states.ContainerInfoIndex.CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.hadoop.hdds.scm.container.ContainerInfo;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link ContainerInfoIndex}.
+ */
+public class TestContainerInfoIndex {
+
+  private static ContainerInfo newInfo(long id) {
+    return new ContainerInfo.Builder().setContainerID(id).build();
+  }
+
+  @Test
+  public void testAppend() {
+    final ContainerInfoIndex index = new ContainerInfoIndex();
+    final int n = 10 * CHUNK_SIZE + 1;
+    for (long id = 1; id <= n; id++) {
+      assertNull(index.put(id, newInfo(id)));
+    }
+    assertEquals(n, index.size());
+
+    final Iterator<ContainerInfo> i = index.tail(n - 2);
+    assertEquals(n - 2, i.next().getContainerID());
+    assertEquals(n - 1, i.next().getContainerID());
+    assertEquals(n, i.next().getContainerID());
+    assertFalse(i.hasNext());
+    assertFalse(index.tail(n + 1).hasNext());
+  }
+
+  @Test
+  public void testRandomOperations() {
+    final Random random = new Random(1);
+    final ContainerInfoIndex index = new ContainerInfoIndex();
+    final NavigableMap<Long, ContainerInfo> expected = new TreeMap<>();
+
+    for (int round = 0; round < 20_000; round++) {
+      final long id = random.nextInt(8 * CHUNK_SIZE);
+      if (random.nextInt(3) == 0) {
+        assertSame(expected.remove(id), index.remove(id));
+      } else {
+        final ContainerInfo info = newInfo(id);
+        assertSame(expected.put(id, info), index.put(id, info));
+      }
+      assertSame(expected.get(id), index.get(id));
+      assertEquals(expected.size(), index.size());
+    }
+    assertEquals(new ArrayList<>(expected.values()), index.values());
+
+    for (long start = 0; start < 8 * CHUNK_SIZE; start += 97) {
+      final List<ContainerInfo> tail = new ArrayList<>();
+      index.tail(start).forEachRemaining(tail::add);
+      assertEquals(new ArrayList<>(expected.tailMap(start).values()), tail);
+    }
+
+    for (Long id : new ArrayList<>(expected.keySet())) {
+      assertSame(expected.remove(id), index.remove(id));
+    }
+    assertEquals(0, index.size());
+    assertFalse(index.tail(0).hasNext());
+  }
+}
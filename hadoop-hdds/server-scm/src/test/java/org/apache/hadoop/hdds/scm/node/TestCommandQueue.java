@@ -19,9 +19,13 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.hadoop.hdds.protocol.DatanodeID;
 import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
@@ -126,4 +130,40 @@ public void testSummaryUpdated() {
         datanode2ID, SCMCommandProto.Type.createPipelineCommand));
   }
 
+  @Test
+  public void testConcurrentAddAndGet() throws Exception {
+    final CommandQueue commandQueue = new CommandQueue();
+    final DatanodeID datanodeID = DatanodeID.randomID();
+    final SCMCommand<?> command =
+        new CloseContainerCommand(1, PipelineID.randomId());
+    final int adders = 4;
+    final int commandsPerAdder = 10_000;
+
+    final ExecutorService executor = Executors.newFixedThreadPool(adders);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < adders; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < commandsPerAdder; j++) {
+            commandQueue.addCommand(datanodeID, command);
+          }
+        }));
+      }
+
+      // take the commands while they are being added, as heartbeats do
+      long taken = 0;
+      for (Future<?> future : futures) {
+        while (!future.isDone()) {
+          taken += commandQueue.getCommand(datanodeID).size();
+        }
+        future.get();
+      }
+      taken += commandQueue.getCommand(datanodeID).size();
+
+      assertEquals((long) adders * commandsPerAdder, taken);
+      assertEquals(0, commandQueue.getCommandsInQueue());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -38,10 +38,12 @@
 import org.apache.hadoop.hdds.scm.HddsTestUtils;
 import org.apache.hadoop.hdds.scm.ha.SCMContext;
 import org.apache.hadoop.hdds.scm.net.NetworkTopologyImpl;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.hdds.scm.server.SCMStorageConfig;
 import org.apache.hadoop.hdds.server.events.EventQueue;
 import org.apache.hadoop.hdds.upgrade.HDDSLayoutVersionManager;
 import org.apache.hadoop.metrics2.MetricsRecordBuilder;
+import org.apache.hadoop.ozone.protocol.commands.CloseContainerCommand;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -99,6 +101,24 @@ public void testHBProcessing() throws InterruptedException {
         "NumHBProcessed");
   }
 
+  /**
+   * Verifies heartbeat processing latency and the commands queued in SCM.
+   */
+  @Test
+  public void testHBProcessingLatencyAndCommandsInQueue() {
+    long hbLatencyOps = getCounter("HbProcessingLatencyNsNumOps");
+    nodeManager.addDatanodeCommand(registeredDatanode.getID(),
+        new CloseContainerCommand(1, PipelineID.randomId()));
+    assertGauge("CommandsInQueue", 1L,
+        getMetrics(SCMNodeMetrics.SOURCE_NAME));
+
+    assertEquals(1, nodeManager.processHeartbeat(registeredDatanode).size());
+    assertGauge("CommandsInQueue", 0L,
+        getMetrics(SCMNodeMetrics.SOURCE_NAME));
+    assertEquals(hbLatencyOps + 1, getCounter("HbProcessingLatencyNsNumOps"),
+        "HbProcessingLatencyNsNumOps");
+  }
+
   /**
    * Verifies heartbeat processing failure count.
    */
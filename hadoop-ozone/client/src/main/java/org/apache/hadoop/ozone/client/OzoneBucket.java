@@ -18,6 +18,7 @@
 package org.apache.hadoop.ozone.client;
 
 import static org.apache.hadoop.ozone.OzoneConsts.ETAG;
+import static org.apache.hadoop.ozone.OzoneConsts.OM_SNAPSHOT_INDICATOR;
 import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
 import static org.apache.hadoop.ozone.OzoneConsts.QUOTA_RESET;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.FILE_NOT_FOUND;
@@ -47,6 +48,7 @@
 import org.apache.hadoop.hdds.scm.client.HddsClientUtils;
 import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneAcl;
+import org.apache.hadoop.ozone.OzoneManagerVersion;
 import org.apache.hadoop.ozone.client.io.OzoneDataStreamOutput;
 import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
@@ -1832,6 +1834,10 @@ List<OzoneKey> getNextListOfKeys(String prevKey) throws IOException {
         return getNextShallowListOfKeys(prevKey);
       }
 
+      if (useRecursiveListStatus()) {
+        return getNextRecursiveListOfKeys(prevKey);
+      }
+
       // normalize paths
       if (!addedKeyPrefix()) {
         if (!prepareStack(prevKey)) {
@@ -1862,6 +1868,67 @@ List<OzoneKey> getNextListOfKeys(String prevKey) throws IOException {
       return keysResultList;
     }
 
+    /**
+     * The OM lists all the descendants of a directory in the same order as
+     * {@link #getChildrenKeys} does, resuming from any of them, so the keys
+     * under a directory can be listed with one listStatus call per batch.
+     * Partial key prefixes are still listed one directory at a time.
+     */
+    private boolean useRecursiveListStatus() {
+      final String keyPrefix = getKeyPrefix();
+      if (StringUtils.isNotBlank(keyPrefix)
+          && (!keyPrefix.endsWith(OZONE_URI_DELIMITER)
+          || keyPrefix.startsWith(OM_SNAPSHOT_INDICATOR + OZONE_URI_DELIMITER))) {
+        return false;
+      }
+      return proxy.getOzoneManagerVersion().compareTo(
+          OzoneManagerVersion.FSO_RECURSIVE_LIST_STATUS) >= 0;
+    }
+
+    private List<OzoneKey> getNextRecursiveListOfKeys(String prevKey)
+        throws IOException {
+      List<OzoneKey> keysResultList = new ArrayList<>();
+      String startKey = StringUtils.isBlank(prevKey) ? ""
+          : OmUtils.normalizeKey(prevKey, true);
+      if (!addedKeyPrefix()) {
+        if (StringUtils.isNotBlank(getKeyPrefix())) {
+          setKeyPrefix(OmUtils.normalizeKey(getKeyPrefix(), true));
+        } else {
+          setKeyPrefix("");
+        }
+        if (!startKey.isEmpty() && !startKey.startsWith(getKeyPrefix())) {
+          if (startKey.compareTo(getKeyPrefix()) > 0) {
+            // all the keys with the prefix are before startKey
+            return keysResultList;
+          }
+          startKey = "";
+        }
+        // adds the keyPrefix directory itself if startKey is blank
+        addKeyPrefixInfoToResultList(getKeyPrefix(), startKey,
+            keysResultList);
+      }
+
+      List<OzoneFileStatusLight> statuses;
+      try {
+        // one more entry, as startKey itself is listed
+        statuses = proxy.listStatusLight(volumeName, name, getKeyPrefix(),
+            true, startKey, startKey.isEmpty() ? listCacheSize
+                : listCacheSize + 1, false);
+      } catch (OMException ome) {
+        if (ome.getResult() == FILE_NOT_FOUND) {
+          return keysResultList;
+        }
+        throw ome;
+      }
+      if (!statuses.isEmpty() && StringUtils.equals(
+          statuses.get(0).getKeyInfo().getKeyName(),
+          OzoneFSUtils.removeTrailingSlashIfNeeded(startKey))) {
+        statuses.remove(0);
+      }
+      keysResultList.addAll(buildKeysWithKeyPrefix(statuses));
+      return keysResultList;
+    }
+
     @Override
     List<OzoneKey> getNextShallowListOfKeys(String prevKey)
         throws IOException {
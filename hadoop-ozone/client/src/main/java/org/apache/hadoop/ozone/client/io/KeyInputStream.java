@@ -49,9 +49,32 @@ public class KeyInputStream extends MultipartInputStream {
   private static final Logger LOG =
       LoggerFactory.getLogger(KeyInputStream.class);
 
+  /**
+   * Reads blocks ahead of the current position, if multiple blocks are
+   * configured to be read in parallel.
+   */
+  private final ParallelBlockReader parallelReader;
+
   public KeyInputStream(String keyName,
                         List<? extends BlockExtendedInputStream> inputStreams) {
     super(keyName, inputStreams);
+    this.parallelReader = null;
+  }
+
+  public KeyInputStream(String keyName,
+      List<? extends BlockExtendedInputStream> inputStreams,
+      OzoneClientConfig config) {
+    super(keyName, inputStreams);
+    // StreamBlockInputStream reads whole blocks over a single stream
+    // and has its own positioned read, not supported in parallel mode
+    if (config.getReadParallelBlocks() > 1 && inputStreams.size() > 1
+        && !isStreamBlockInputStream()) {
+      this.parallelReader = new ParallelBlockReader(keyName, inputStreams,
+          config.getReadParallelBlocks(),
+          config.getReadParallelBufferSize());
+    } else {
+      this.parallelReader = null;
+    }
   }
 
   private static List<BlockExtendedInputStream> createStreams(
@@ -131,8 +154,11 @@ private static LengthInputStream getFromOmKeyInfo(
     List<BlockExtendedInputStream> streams = createStreams(keyInfo,
         locationInfos, xceiverClientFactory, retryFunction,
         blockStreamFactory, config);
+    // the length of a file being written is not final, read it as usual
     KeyInputStream keyInputStream =
-        new KeyInputStream(keyInfo.getKeyName(), streams);
+        keyInfo.getMetadata().containsKey(OzoneConsts.HSYNC_CLIENT_ID)
+            ? new KeyInputStream(keyInfo.getKeyName(), streams)
+            : new KeyInputStream(keyInfo.getKeyName(), streams, config);
     return new LengthInputStream(keyInputStream, keyInputStream.getLength());
   }
 
@@ -177,6 +203,53 @@ public static List<LengthInputStream> getStreamsFromKeyInfo(OmKeyInfo keyInfo,
     return lengthInputStreams;
   }
 
+  @Override
+  protected synchronized int readWithStrategy(ByteReaderStrategy strategy)
+      throws IOException {
+    if (parallelReader == null) {
+      return super.readWithStrategy(strategy);
+    }
+    return parallelReader.read(strategy);
+  }
+
+  @Override
+  public synchronized void seek(long pos) throws IOException {
+    if (parallelReader == null) {
+      super.seek(pos);
+    } else {
+      parallelReader.seek(pos);
+    }
+  }
+
+  @Override
+  public synchronized long getPos() throws IOException {
+    if (parallelReader == null) {
+      return super.getPos();
+    }
+    return parallelReader.getPos();
+  }
+
+  @Override
+  public synchronized void unbuffer() {
+    if (parallelReader != null) {
+      parallelReader.reset();
+    }
+    super.unbuffer();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (parallelReader != null) {
+      parallelReader.close();
+    }
+    super.close();
+  }
+
+  @VisibleForTesting
+  ParallelBlockReader getParallelReader() {
+    return parallelReader;
+  }
+
   @Override
   protected int getNumBytesToRead(ByteReaderStrategy strategy,
                                   PartInputStream current) throws IOException {
@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.client.io;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.fs.ByteBufferReadable;
+import org.apache.hadoop.fs.FSExceptionMessages;
+import org.apache.hadoop.hdds.scm.storage.BlockExtendedInputStream;
+import org.apache.hadoop.hdds.scm.storage.ByteReaderStrategy;
+
+/**
+ * Reads the blocks of a key ahead of a sequential reader, keeping up to
+ * {@code parallelism} blocks in flight.
+ * <p>
+ * Each block in flight is read by its own task into a queue of segments,
+ * bounded by an equal share of the memory budget, so that a slow block
+ * cannot starve the others.  The reader consumes the segments in key order,
+ * and when a block is exhausted the next block of the key is started.
+ * <p>
+ * The fetch threads are shared by all readers of the JVM and bounded; if
+ * none is available, the block is read by the reader itself, one segment at
+ * a time, when it is consumed.
+ * <p>
+ * While in use, the position of the block streams is owned by the fetch
+ * tasks.  {@link #reset()} and {@link #close()} wait for the tasks to stop,
+ * so that the streams can be closed afterwards.  Not thread-safe, callers
+ * synchronize on the key stream.
+ */
+final class ParallelBlockReader {
+
+  private static final int MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final int FETCH_MAX_THREADS = 256;
+  /** How often a task waiting for budget checks whether it is cancelled. */
+  private static final long BUDGET_WAIT_MILLIS = 100;
+  private static final Object END_OF_BLOCK = new Object();
+
+  private final String key;
+  private final List<? extends BlockExtendedInputStream> blocks;
+  private final long[] blockOffsets;
+  private final long length;
+  private final int parallelism;
+  private final int bytesPerBlock;
+  private final int segmentSize;
+  private final Executor fetchExecutor;
+
+  /** Blocks being read, in key order.  The first one is being consumed. */
+  private final Deque<BlockFetch> inFlight = new ArrayDeque<>();
+  private final SegmentInputStream current = new SegmentInputStream();
+  private long position;
+  /** Index of the next block to be fetched. */
+  private int nextBlock;
+  /** Position within the next block to start fetching from. */
+  private long nextBlockPosition;
+  private boolean closed;
+
+  ParallelBlockReader(String key,
+      List<? extends BlockExtendedInputStream> blocks, int parallelism,
+      long bufferSize) {
+    this(key, blocks, parallelism, bufferSize, FetchExecutor.INSTANCE);
+  }
+
+  @VisibleForTesting
+  ParallelBlockReader(String key,
+      List<? extends BlockExtendedInputStream> blocks, int parallelism,
+      long bufferSize, Executor fetchExecutor) {
+    Preconditions.checkArgument(parallelism > 1,
+        "parallelism = %s <= 1", parallelism);
+    Preconditions.checkArgument(bufferSize >= parallelism,
+        "bufferSize = %s < parallelism = %s", bufferSize, parallelism);
+    this.key = key;
+    this.blocks = blocks;
+    this.parallelism = parallelism;
+    this.fetchExecutor = fetchExecutor;
+    this.bytesPerBlock =
+        (int) Math.min(Integer.MAX_VALUE, bufferSize / parallelism);
+    // at least two segments per block, so one can be read while the other
+    // is consumed
+    this.segmentSize = Math.max(1, Math.min(MAX_SEGMENT_SIZE,
+        bytesPerBlock / 2));
+
+    this.blockOffsets = new long[blocks.size()];
+    long offset = 0;
+    for (int i = 0; i < blocks.size(); i++) {
+      blockOffsets[i] = offset;
+      offset += blocks.get(i).getLength();
+    }
+    this.length = offset;
+  }
+
+  long getPos() {
+    return position;
+  }
+
+  /**
+   * Read from the current position, waiting for the blocks to be fetched.
+   *
+   * @return number of bytes read, or -1 at the end of the key
+   */
+  int read(ByteReaderStrategy strategy) throws IOException {
+    checkOpen();
+    int total = 0;
+    while (strategy.getTargetLength() > 0 && position < length) {
+      final ByteBuffer segment = nextSegment();
+      final int toRead = Math.min(strategy.getTargetLength(),
+          segment.remaining());
+      final int read = strategy.readFromBlock(current, toRead);
+      position += read;
+      total += read;
+    }
+    return total == 0 && strategy.getTargetLength() > 0 ? -1 : total;
+  }
+
+  /** Move to the given position, discarding the data read ahead. */
+  void seek(long pos) throws IOException {
+    checkOpen();
+    if (pos < 0 || pos > length) {
+      throw new EOFException("EOF encountered at pos: " + pos
+          + " for key: " + key);
+    }
+    if (pos == position) {
+      return;
+    }
+    final ByteBuffer segment = current.buffer;
+    if (segment != null) {
+      final long segmentStart = position - segment.position();
+      if (pos >= segmentStart && pos < segmentStart + segment.limit()) {
+        segment.position((int) (pos - segmentStart));
+        position = pos;
+        return;
+      }
+    }
+    reset();
+    position = pos;
+  }
+
+  /** Stop fetching and release the data read ahead. */
+  void reset() {
+    for (BlockFetch fetch : inFlight) {
+      fetch.cancel();
+    }
+    // a task may be in the middle of reading a segment
+    for (BlockFetch fetch : inFlight) {
+      fetch.awaitDone();
+    }
+    inFlight.clear();
+    current.buffer = null;
+    nextBlock = -1;
+  }
+
+  void close() {
+    reset();
+    closed = true;
+  }
+
+  @VisibleForTesting
+  int getBlocksInFlight() {
+    return inFlight.size();
+  }
+
+  /** @return the segment containing the current position */
+  private ByteBuffer nextSegment() throws IOException {
+    if (current.buffer != null && current.buffer.hasRemaining()) {
+      return current.buffer;
+    }
+    if (current.buffer != null) {
+      inFlight.getFirst().release(current.buffer.capacity());
+      current.buffer = null;
+    }
+    if (inFlight.isEmpty()) {
+      startAt(position);
+    }
+
+    while (true) {
+      fill();
+      if (inFlight.isEmpty()) {
+        throw new EOFException("EOF encountered at pos: " + position
+            + " for key: " + key + " of length " + length);
+      }
+      final BlockFetch head = inFlight.getFirst();
+      final ByteBuffer segment;
+      try {
+        segment = head.take();
+      } catch (IOException e) {
+        // start over from the current position on the next read
+        reset();
+        throw e;
+      }
+      if (segment != null) {
+        current.buffer = segment;
+        return segment;
+      }
+      inFlight.removeFirst();
+    }
+  }
+
+  private void startAt(long pos) {
+    int index = Arrays.binarySearch(blockOffsets, pos);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    // skip empty blocks sharing the same offset
+    while (index < blocks.size() - 1
+        && pos - blockOffsets[index] >= blocks.get(index).getLength()) {
+      index++;
+    }
+    nextBlock = index;
+    nextBlockPosition = pos - blockOffsets[index];
+  }
+
+  private void fill() {
+    while (inFlight.size() < parallelism && nextBlock >= 0
+        && nextBlock < blocks.size()) {
+      final BlockFetch fetch = new BlockFetch(blocks.get(nextBlock),
+          nextBlockPosition);
+      inFlight.addLast(fetch);
+      nextBlock++;
+      nextBlockPosition = 0;
+      try {
+        fetchExecutor.execute(fetch);
+      } catch (RejectedExecutionException e) {
+        // all fetch threads are busy, read the block when it is consumed
+        fetch.readOnDemand();
+        return;
+      }
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new IOException(": " + FSExceptionMessages.STREAM_IS_CLOSED
+          + " Key: " + key);
+    }
+  }
+
+  /** Reads one block sequentially into a queue of segments. */
+  private final class BlockFetch implements Runnable {
+    private final BlockExtendedInputStream block;
+    private final long start;
+    private final Semaphore budget = new Semaphore(bytesPerBlock);
+    /** Segments, then {@link #END_OF_BLOCK} or the failure. */
+    private final BlockingQueue<Object> segments = new LinkedBlockingQueue<>();
+    private volatile boolean cancelled;
+    /** Counted down when the task has stopped using the block stream. */
+    private final CountDownLatch done = new CountDownLatch(1);
+    /** Whether the segments are read by the reader in {@link #take()}. */
+    private boolean onDemand;
+    /** Position of the next segment read on demand. */
+    private long onDemandPosition;
+
+    BlockFetch(BlockExtendedInputStream block, long start) {
+      this.block = block;
+      this.start = start;
+    }
+
+    /** Read the segments in {@link #take()} instead of a fetch thread. */
+    void readOnDemand() {
+      onDemand = true;
+      onDemandPosition = start;
+    }
+
+    @Override
+    public void run() {
+      try {
+        long pos = start;
+        final long end = block.getLength();
+        while (pos < end) {
+          final int size = (int) Math.min(segmentSize, end - pos);
+          if (!acquireBudget(size)) {
+            return;
+          }
+          segments.add(readSegment(pos, size));
+          pos += size;
+        }
+        segments.add(END_OF_BLOCK);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        segments.add(new InterruptedIOException(
+            "Interrupted while reading " + block.getBlockID()));
+      } catch (Exception e) {
+        segments.add(e);
+      } finally {
+        done.countDown();
+      }
+    }
+
+    /** @return false if the fetch is cancelled while waiting */
+    private boolean acquireBudget(int size) throws InterruptedException {
+      while (!cancelled) {
+        if (budget.tryAcquire(size, BUDGET_WAIT_MILLIS,
+            TimeUnit.MILLISECONDS)) {
+          return !cancelled;
+        }
+      }
+      return false;
+    }
+
+    private ByteBuffer readSegment(long pos, int size) throws IOException {
+      final ByteBuffer buffer = ByteBuffer.allocate(size);
+      synchronized (block) {
+        if (block.getPos() != pos) {
+          block.seek(pos);
+        }
+        while (buffer.hasRemaining()) {
+          if (block.read(buffer) < 0) {
+            throw new EOFException("EOF encountered at pos: "
+                + (pos + buffer.position()) + " for block: "
+                + block.getBlockID());
+          }
+        }
+      }
+      buffer.flip();
+      return buffer;
+    }
+
+    /** @return the next segment, or null at the end of the block */
+    ByteBuffer take() throws IOException {
+      if (onDemand) {
+        final long end = block.getLength();
+        if (onDemandPosition >= end) {
+          return null;
+        }
+        final int size = (int) Math.min(segmentSize, end - onDemandPosition);
+        final ByteBuffer segment = readSegment(onDemandPosition, size);
+        onDemandPosition += size;
+        return segment;
+      }
+      final Object next;
+      try {
+        next = segments.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for "
+            + block.getBlockID() + " of key: " + key);
+      }
+      if (next == END_OF_BLOCK) {
+        return null;
+      } else if (next instanceof IOException) {
+        throw (IOException) next;
+      } else if (next instanceof Exception) {
+        throw new IOException("Failed to read " + block.getBlockID()
+            + " of key: " + key, (Exception) next);
+      }
+      return (ByteBuffer) next;
+    }
+
+    void release(int size) {
+      if (!onDemand) {
+        budget.release(size);
+      }
+    }
+
+    void cancel() {
+      cancelled = true;
+      segments.clear();
+      // wake up the task if it is waiting for budget
+      budget.release(bytesPerBlock);
+    }
+
+    /** Wait for the fetch task, if any, to stop using the block stream. */
+    void awaitDone() {
+      if (!onDemand) {
+        Uninterruptibles.awaitUninterruptibly(done);
+      }
+    }
+  }
+
+  /** Exposes the segment being consumed to {@link ByteReaderStrategy}. */
+  private static final class SegmentInputStream extends InputStream
+      implements ByteBufferReadable {
+    private ByteBuffer buffer;
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      final int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+      final int n = Math.min(target.remaining(), buffer.remaining());
+      final ByteBuffer slice = buffer.duplicate();
+      slice.limit(slice.position() + n);
+      target.put(slice);
+      buffer.position(buffer.position() + n);
+      return n;
+    }
+  }
+
+  /**
+   * Fetch tasks wait for the reader to consume their data, so they must not
+   * be queued behind each other or run by the caller: the pool grows with
+   * the number of blocks in flight, up to {@link #FETCH_MAX_THREADS}, and
+   * further tasks are rejected.
+   */
+  private static final class FetchExecutor {
+    private static final ThreadPoolExecutor INSTANCE = new ThreadPoolExecutor(
+        0, FETCH_MAX_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("BlockFetch-%d")
+            .build());
+  }
+}
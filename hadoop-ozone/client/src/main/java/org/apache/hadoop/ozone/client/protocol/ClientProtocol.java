@@ -31,6 +31,7 @@
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneFsServerDefaults;
+import org.apache.hadoop.ozone.OzoneManagerVersion;
 import org.apache.hadoop.ozone.client.BucketArgs;
 import org.apache.hadoop.ozone.client.OzoneBucket;
 import org.apache.hadoop.ozone.client.OzoneKey;
@@ -1244,6 +1245,13 @@ List<OzoneFileStatusLight> listStatusLight(String volumeName,
       String bucketName, String keyName, boolean recursive, String startKey,
       long numEntries, boolean allowPartialPrefixes) throws IOException;
 
+  /**
+   * @return the version of the OzoneManager the client is connected to.
+   */
+  default OzoneManagerVersion getOzoneManagerVersion() {
+    return OzoneManagerVersion.DEFAULT_VERSION;
+  }
+
   /**
    * Add acl for Ozone object. Return true if acl is added successfully else
    * false.
@@ -2553,6 +2553,11 @@ public List<OzoneFileStatusLight> listStatusLight(String volumeName,
     }
   }
 
+  @Override
+  public OzoneManagerVersion getOzoneManagerVersion() {
+    return omVersion;
+  }
+
   /**
    * Add acl for Ozone object. Return true if acl is added successfully else
    * false.
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.client.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.scm.OzoneClientConfig;
+import org.apache.hadoop.hdds.scm.storage.ByteArrayReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Test KeyInputStream reading multiple blocks in parallel.
+ */
+@Timeout(60)
+public class TestKeyInputStreamParallel {
+
+  private static final int BLOCK_SIZE = 1000;
+  private static final int BLOCKS = 5;
+
+  private byte[] keyData;
+  private List<ECStreamTestUtil.TestBlockInputStream> blocks;
+  private OzoneClientConfig config;
+
+  @BeforeEach
+  public void setup() {
+    keyData = new byte[BLOCK_SIZE * BLOCKS];
+    for (int i = 0; i < keyData.length; i++) {
+      keyData[i] = (byte) (i * 31 + i / BLOCK_SIZE);
+    }
+    blocks = new ArrayList<>();
+    for (int i = 0; i < BLOCKS; i++) {
+      blocks.add(new ECStreamTestUtil.TestBlockInputStream(
+          new BlockID(1, i + 1), BLOCK_SIZE,
+          ByteBuffer.wrap(keyData, i * BLOCK_SIZE, BLOCK_SIZE).slice()));
+    }
+    config = new OzoneConfiguration().getObject(OzoneClientConfig.class);
+    config.setReadParallelBlocks(3);
+    // 200 bytes per block in flight, read in segments of 100 bytes
+    config.setReadParallelBufferSize(600);
+  }
+
+  @Test
+  public void testSequentialRead() throws IOException {
+    try (KeyInputStream in = new KeyInputStream("key", blocks, config)) {
+      ParallelBlockReader reader = in.getParallelReader();
+      assertNotNull(reader);
+
+      byte[] read = new byte[keyData.length];
+      int off = 0;
+      while (off < read.length) {
+        int n = in.read(read, off, Math.min(70, read.length - off));
+        assertTrue(n > 0);
+        off += n;
+        assertEquals(off, in.getPos());
+        assertTrue(reader.getBlocksInFlight() <= 3);
+      }
+      assertArrayEquals(keyData, read);
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  public void testReadIntoByteBuffer() throws IOException {
+    try (KeyInputStream in = new KeyInputStream("key", blocks, config)) {
+      ByteBuffer buffer = ByteBuffer.allocate(keyData.length);
+      while (buffer.hasRemaining()) {
+        assertTrue(in.read(buffer) > 0);
+      }
+      assertArrayEquals(keyData, buffer.array());
+    }
+  }
+
+  @Test
+  public void testSeek() throws IOException {
+    try (KeyInputStream in = new KeyInputStream("key", blocks, config)) {
+      assertRead(in, 2500, 120);
+      // within the current segment
+      assertRead(in, 2650, 30);
+      // backwards, into another block
+      assertRead(in, 990, 40);
+      assertRead(in, 4950, 50);
+      assertEquals(-1, in.read());
+
+      in.seek(100);
+      assertEquals(100, in.skip(100));
+      assertRead(in, 200, 10);
+    }
+  }
+
+  @Test
+  public void testReadFailure() throws IOException {
+    blocks.get(2).setShouldError(true);
+    try (KeyInputStream in = new KeyInputStream("key", blocks, config)) {
+      byte[] read = new byte[2 * BLOCK_SIZE];
+      readFully(in, read);
+      assertArrayEquals(Arrays.copyOf(keyData, read.length), read);
+      assertThrows(IOException.class, () -> in.read(new byte[100]));
+
+      // the next read starts over from the same position
+      blocks.get(2).setShouldError(false);
+      assertRead(in, 2 * BLOCK_SIZE, 100);
+    }
+  }
+
+  @Test
+  public void testFetchRejected() throws IOException {
+    // only the first block gets a fetch thread
+    AtomicInteger started = new AtomicInteger();
+    ExecutorService executor = Executors.newCachedThreadPool();
+    Executor limited = task -> {
+      if (started.getAndIncrement() > 0) {
+        throw new RejectedExecutionException();
+      }
+      executor.execute(task);
+    };
+    try {
+      ParallelBlockReader reader = new ParallelBlockReader("key", blocks, 3,
+          600, limited);
+      byte[] read = new byte[keyData.length];
+      int off = 0;
+      while (off < read.length) {
+        int n = reader.read(new ByteArrayReader(read, off,
+            Math.min(70, read.length - off)));
+        assertTrue(n > 0);
+        off += n;
+      }
+      assertArrayEquals(keyData, read);
+      assertEquals(keyData.length, reader.getPos());
+      reader.close();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Fetches waiting for budget are woken up by close, which returns only
+   * once they no longer use the block streams.
+   */
+  @Test
+  public void testCloseWaitsForFetches() throws Exception {
+    ExecutorService executor = Executors.newCachedThreadPool();
+    try {
+      ParallelBlockReader reader = new ParallelBlockReader("key", blocks, 3,
+          600, executor);
+      byte[] read = new byte[10];
+      assertEquals(read.length,
+          reader.read(new ByteArrayReader(read, 0, read.length)));
+      assertEquals(3, reader.getBlocksInFlight());
+      reader.close();
+
+      long[] positions = new long[BLOCKS];
+      for (int i = 0; i < BLOCKS; i++) {
+        positions[i] = blocks.get(i).getPos();
+      }
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      for (int i = 0; i < BLOCKS; i++) {
+        assertEquals(positions[i], blocks.get(i).getPos());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDisabled() throws IOException {
+    config.setReadParallelBlocks(1);
+    try (KeyInputStream in = new KeyInputStream("key", blocks, config)) {
+      assertNull(in.getParallelReader());
+    }
+  }
+
+  private void assertRead(KeyInputStream in, int pos, int len)
+      throws IOException {
+    in.seek(pos);
+    byte[] read = new byte[len];
+    readFully(in, read);
+    assertArrayEquals(Arrays.copyOfRange(keyData, pos, pos + len), read);
+    assertEquals(pos + len, in.getPos());
+  }
+
+  private static void readFully(KeyInputStream in, byte[] buffer)
+      throws IOException {
+    int off = 0;
+    while (off < buffer.length) {
+      int n = in.read(buffer, off, buffer.length - off);
+      assertTrue(n > 0);
+      off += n;
+    }
+  }
+}
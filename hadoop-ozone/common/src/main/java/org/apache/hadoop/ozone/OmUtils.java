@@ -62,6 +62,7 @@
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.fs.Path;
@@ -77,10 +78,13 @@
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OMNodeDetails;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.ReadConsistency;
 import org.apache.hadoop.ozone.om.helpers.RepeatedOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ServiceInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistencyHint;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistencyHint.LocalLeaseContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -333,6 +337,7 @@ public static boolean isReadOnly(OMRequest omRequest) {
     case DeleteLifecycleConfiguration:
     case SetLifecycleServiceStatus:
     case SaveLifecycleScanState:
+    case PersistDb:
       return false;
     case UnknownCommand:
       return false;
@@ -474,6 +479,7 @@ public static boolean shouldSendToFollower(OMRequest omRequest) {
     case DeleteLifecycleConfiguration:
     case SetLifecycleServiceStatus:
     case SaveLifecycleScanState:
+    case PersistDb:
     case UnknownCommand:
       return false;
     case EchoRPC:
@@ -1169,4 +1175,36 @@ public static boolean specifiedReadConsistency(OMRequest request) {
         && request.getReadConsistencyHint().hasReadConsistency()
         && request.getReadConsistencyHint().getReadConsistency() != READ_CONSISTENCY_UNSPECIFIED;
   }
+
+  /**
+   * Returns the hint sent by the client with the follower reads.  For
+   * {@link ReadConsistency#LOCAL_LEASE}, the staleness bounds configured on
+   * the client are added to the hint, overriding the ones of the OM.
+   */
+  public static ReadConsistencyHint getFollowerReadConsistencyHint(
+      ConfigurationSource conf, ReadConsistency readConsistency) {
+    if (readConsistency != ReadConsistency.LOCAL_LEASE) {
+      return readConsistency.getHint();
+    }
+    final String logLimit = conf.getTrimmed(
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_LOG_LIMIT_KEY);
+    final String leaseTime = conf.getTrimmed(
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_TIME_KEY);
+    if (StringUtils.isEmpty(logLimit) && StringUtils.isEmpty(leaseTime)) {
+      return readConsistency.getHint();
+    }
+
+    final LocalLeaseContext.Builder context = LocalLeaseContext.newBuilder();
+    if (!StringUtils.isEmpty(logLimit)) {
+      context.setLogLimit(Long.parseLong(logLimit));
+    }
+    if (!StringUtils.isEmpty(leaseTime)) {
+      context.setLeaseTimeMs(conf.getTimeDuration(
+          OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_TIME_KEY,
+          -1, TimeUnit.MILLISECONDS));
+    }
+    return readConsistency.getHint().toBuilder()
+        .setLocalLeaseContext(context)
+        .build();
+  }
 }
@@ -50,6 +50,11 @@ public final class OMConfigKeys {
       "ozone.om.read.threadpool";
   public static final int OZONE_OM_READ_THREADPOOL_DEFAULT = 10;
 
+  public static final String OZONE_OM_LEADER_EXECUTION_ENABLED =
+      "ozone.om.leader.execution.enabled";
+  public static final boolean OZONE_OM_LEADER_EXECUTION_ENABLED_DEFAULT =
+      false;
+
   public static final String OZONE_OM_DB_MAX_OPEN_FILES
       = "ozone.om.db.max.open.files";
   public static final int OZONE_OM_DB_MAX_OPEN_FILES_DEFAULT
@@ -549,6 +554,13 @@ public final class OMConfigKeys {
       "ozone.om.unflushed.transaction.max.count";
   public static final int OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT
       = 10000;
+  public static final String OZONE_OM_APPLY_TRANSACTION_THREADS =
+      "ozone.om.apply.transaction.threads";
+  public static final int OZONE_OM_APPLY_TRANSACTION_THREADS_DEFAULT = 1;
+  public static final String OZONE_OM_DOUBLE_BUFFER_PIPELINE_ENABLED =
+      "ozone.om.double.buffer.pipeline.enabled";
+  public static final boolean OZONE_OM_DOUBLE_BUFFER_PIPELINE_ENABLED_DEFAULT =
+      false;
 
   /**
    * This configuration shall be enabled to utilize the functionality of the
@@ -558,6 +570,22 @@ public final class OMConfigKeys {
       "ozone.om.key.path.lock.enabled";
   public static final boolean OZONE_OM_KEY_PATH_LOCK_ENABLED_DEFAULT = false;
 
+  /**
+   * Configuration of the in-memory filters answering the lookups of
+   * non-existent keys without reading the DB.
+   */
+  public static final String OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED =
+      "ozone.om.negative.lookup.filter.enabled";
+  public static final boolean OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED_DEFAULT =
+      false;
+  public static final String OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP =
+      "ozone.om.negative.lookup.filter.fpp";
+  public static final double OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP_DEFAULT = 0.01;
+
+  public static final String OZONE_OM_DIRECTORY_ID_CACHE_SIZE =
+      "ozone.om.directory.id.cache.size";
+  public static final long OZONE_OM_DIRECTORY_ID_CACHE_SIZE_DEFAULT = 0;
+
   public static final String OZONE_OM_MULTITENANCY_ENABLED =
       "ozone.om.multitenancy.enabled";
   public static final boolean OZONE_OM_MULTITENANCY_ENABLED_DEFAULT = false;
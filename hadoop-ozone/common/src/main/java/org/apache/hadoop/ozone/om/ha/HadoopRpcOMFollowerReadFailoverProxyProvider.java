@@ -107,6 +107,26 @@ public HadoopRpcOMFollowerReadFailoverProxyProvider(
       ReadConsistency followerReadConsistencyType,
       ReadConsistency leaderReadConsistencyType,
       boolean useFollowerRead) {
+    this(leaderProxy, followerReadConsistencyType.getHint(),
+        leaderReadConsistencyType.getHint(), useFollowerRead);
+  }
+
+  /**
+   * @param followerReadConsistency the hint sent with the read requests when
+   *                                follower read is enabled, which may carry
+   *                                the staleness bounds of local lease reads
+   * @param leaderReadConsistency the hint sent with the read requests sent to
+   *                              the leader
+   */
+  public HadoopRpcOMFollowerReadFailoverProxyProvider(
+      HadoopRpcOMFailoverProxyProvider<OzoneManagerProtocolPB> leaderProxy,
+      ReadConsistencyHint followerReadConsistency,
+      ReadConsistencyHint leaderReadConsistency,
+      boolean useFollowerRead) {
+    final ReadConsistency followerReadConsistencyType =
+        ReadConsistency.fromProto(followerReadConsistency.getReadConsistency());
+    final ReadConsistency leaderReadConsistencyType =
+        ReadConsistency.fromProto(leaderReadConsistency.getReadConsistency());
     Preconditions.assertTrue(followerReadConsistencyType.allowFollowerRead(),
         "Invalid follower read consistency " + followerReadConsistencyType);
     Preconditions.assertTrue(!leaderReadConsistencyType.allowFollowerRead(),
@@ -122,8 +142,8 @@ public HadoopRpcOMFollowerReadFailoverProxyProvider(
         new Class<?>[] {OzoneManagerProtocolPB.class}, new FollowerReadInvocationHandler());
     combinedProxy = new ProxyInfo<>(wrappedProxy, combinedInfo);
     this.useFollowerRead = useFollowerRead;
-    this.followerReadConsistency = followerReadConsistencyType.getHint();
-    this.leaderReadConsistency = leaderReadConsistencyType.getHint();
+    this.followerReadConsistency = followerReadConsistency;
+    this.leaderReadConsistency = leaderReadConsistency;
   }
 
   @Override
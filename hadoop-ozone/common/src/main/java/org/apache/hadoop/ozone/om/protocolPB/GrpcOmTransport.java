@@ -146,7 +146,8 @@ public GrpcOmTransport(ConfigurationSource conf,
         "Invalid follower read consistency " + defaultFollowerReadConsistency);
     Preconditions.assertTrue(!defaultLeaderReadConsistency.allowFollowerRead(),
         "Invalid leader read consistency " + defaultLeaderReadConsistency);
-    this.followerReadConsistency = defaultFollowerReadConsistency.getHint();
+    this.followerReadConsistency =
+        OmUtils.getFollowerReadConsistencyHint(conf, defaultFollowerReadConsistency);
     this.leaderReadConsistency = defaultLeaderReadConsistency.getHint();
 
     start();
@@ -30,6 +30,7 @@
 import org.apache.hadoop.ipc_.ProtobufHelper;
 import org.apache.hadoop.ipc_.ProtobufRpcEngine;
 import org.apache.hadoop.ipc_.RPC;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.ha.HadoopRpcOMFailoverProxyProvider;
@@ -88,8 +89,8 @@ public Hadoop3OmTransport(ConfigurationSource conf,
         ReadConsistency.valueOf(defaultFollowerReadConsistencyStr);
     this.followerReadFailoverProxyProvider =
         new HadoopRpcOMFollowerReadFailoverProxyProvider(omFailoverProxyProvider,
-            defaultFollowerReadConsistency,
-            defaultLeaderReadConsistency,
+            OmUtils.getFollowerReadConsistencyHint(conf, defaultFollowerReadConsistency),
+            defaultLeaderReadConsistency.getHint(),
             followerReadEnabled);
     this.rpcProxy = OzoneManagerProtocolPB.newProxy(followerReadFailoverProxyProvider, maxFailovers);
   }
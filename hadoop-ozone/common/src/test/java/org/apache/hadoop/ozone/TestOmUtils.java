@@ -44,8 +44,11 @@
 import java.util.UUID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.helpers.ReadConsistency;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistencyHint;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ReadConsistencyProto;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -385,6 +388,37 @@ public void testShouldSendToFollowerImpliesIsReadOnly() {
     }
   }
 
+  @Test
+  public void testFollowerReadConsistencyHint() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    assertEquals(ReadConsistency.LINEARIZABLE_ALLOW_FOLLOWER.getHint(),
+        OmUtils.getFollowerReadConsistencyHint(conf,
+            ReadConsistency.LINEARIZABLE_ALLOW_FOLLOWER));
+    // without bounds on the client, the OM configuration applies
+    assertFalse(OmUtils.getFollowerReadConsistencyHint(conf,
+        ReadConsistency.LOCAL_LEASE).hasLocalLeaseContext());
+
+    conf.set(OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_LOG_LIMIT_KEY,
+        "100");
+    ReadConsistencyHint hint = OmUtils.getFollowerReadConsistencyHint(conf,
+        ReadConsistency.LOCAL_LEASE);
+    assertEquals(ReadConsistencyProto.LOCAL_LEASE, hint.getReadConsistency());
+    assertEquals(100, hint.getLocalLeaseContext().getLogLimit());
+    assertFalse(hint.getLocalLeaseContext().hasLeaseTimeMs());
+
+    conf.set(OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_LOCAL_LEASE_TIME_KEY,
+        "2s");
+    hint = OmUtils.getFollowerReadConsistencyHint(conf,
+        ReadConsistency.LOCAL_LEASE);
+    assertEquals(100, hint.getLocalLeaseContext().getLogLimit());
+    assertEquals(2000, hint.getLocalLeaseContext().getLeaseTimeMs());
+
+    // bounds only apply to local lease reads
+    assertEquals(ReadConsistency.LINEARIZABLE_ALLOW_FOLLOWER.getHint(),
+        OmUtils.getFollowerReadConsistencyHint(conf,
+            ReadConsistency.LINEARIZABLE_ALLOW_FOLLOWER));
+  }
+
   @Test
   public void testResolveOmHostAcceptsIpv6Literal() {
     // A bracketed or bare IPv6 literal must parse into a host:port authority.
@@ -31,11 +31,13 @@
 import org.apache.hadoop.hdds.cli.HddsVersionProvider;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.BlockData;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumData;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DatanodeBlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutBlockRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Type;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.WriteChunkRequestProto;
 import org.apache.hadoop.hdds.scm.XceiverClientCreator;
@@ -93,6 +95,21 @@ public class DatanodeChunkGenerator extends BaseFreonGenerator implements
       defaultValue = "")
   private String datanodes;
 
+  @Option(names = {"-b", "--blocks"},
+      description = "Number of blocks the chunks are spread over. "
+          + "Concurrent writes to different blocks of the same volume can "
+          + "share one fsync if hdds.container.chunk.write.sync.group-commit"
+          + ".enabled is set on the datanodes.",
+      defaultValue = "20")
+  private int blockCount;
+
+  @Option(names = {"--put-block"},
+      description = "Commit the blocks with putBlock once all the chunks are "
+          + "written, so that they can also be read with ReadBlock.  "
+          + "Supported with a single pipeline only.",
+      defaultValue = "false")
+  private boolean putBlock;
+
   private List<XceiverClientSpi> xceiverClients;
 
   private Timer timer;
@@ -182,6 +199,16 @@ private boolean arePipelinesOrDatanodesProvided() {
   private void runTest()
       throws IOException {
 
+    if (blockCount <= 0) {
+      throw new IllegalArgumentException(
+          "Number of blocks should be positive: " + blockCount);
+    }
+    if (putBlock && xceiverClients.size() != 1) {
+      throw new IllegalArgumentException(
+          "putBlock is supported with a single pipeline only, not "
+              + xceiverClients.size());
+    }
+
     timer = getMetrics().timer("chunk-write");
 
     byte[] data = RandomStringUtils.secure().nextAscii(chunkSize)
@@ -193,6 +220,47 @@ private void runTest()
     checksumProtobuf = checksum.computeChecksum(data).getProtoBufMessage();
 
     runTests(this::writeChunk);
+
+    if (putBlock) {
+      putBlocks();
+    }
+  }
+
+  /**
+   * Commit each block with the chunks written to it by
+   * {@link #writeChunk(long)}.
+   */
+  private void putBlocks() throws IOException {
+    XceiverClientSpi xceiverClientSpi = xceiverClients.get(0);
+    String id = xceiverClientSpi.getPipeline().getFirstNode().getUuidString();
+    for (long localID = 0; localID < Math.min(blockCount, getTestNo());
+         localID++) {
+      DatanodeBlockID blockId = DatanodeBlockID.newBuilder()
+          .setContainerID(1L)
+          .setLocalID(localID)
+          .build();
+
+      BlockData.Builder blockData = BlockData.newBuilder()
+          .setBlockID(blockId);
+      for (long stepNo = localID; stepNo < getTestNo(); stepNo += blockCount) {
+        blockData.addChunks(ChunkInfo.newBuilder()
+            .setChunkName(getPrefix() + "_testdata_chunk_" + stepNo)
+            .setOffset((stepNo / blockCount) * chunkSize)
+            .setLen(chunkSize)
+            .setChecksumData(checksumProtobuf));
+      }
+
+      ContainerCommandRequestProto request =
+          ContainerCommandRequestProto
+              .newBuilder()
+              .setCmdType(Type.PutBlock)
+              .setContainerID(blockId.getContainerID())
+              .setDatanodeUuid(id)
+              .setPutBlock(PutBlockRequestProto.newBuilder()
+                  .setBlockData(blockData))
+              .build();
+      xceiverClientSpi.sendCommand(request);
+    }
   }
 
   private void writeChunk(long stepNo)
@@ -201,12 +269,12 @@ private void writeChunk(long stepNo)
     //Always use this fake blockid.
     DatanodeBlockID blockId = DatanodeBlockID.newBuilder()
         .setContainerID(1L)
-        .setLocalID(stepNo % 20)
+        .setLocalID(stepNo % blockCount)
         .build();
 
     ChunkInfo chunkInfo = ChunkInfo.newBuilder()
         .setChunkName(getPrefix() + "_testdata_chunk_" + stepNo)
-        .setOffset((stepNo / 20) * chunkSize)
+        .setOffset((stepNo / blockCount) * chunkSize)
         .setLen(chunkSize)
         .setChecksumData(checksumProtobuf)
         .build();
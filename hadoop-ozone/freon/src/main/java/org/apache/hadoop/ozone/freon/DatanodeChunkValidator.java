@@ -17,23 +17,33 @@
 
 package org.apache.hadoop.ozone.freon;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.apache.hadoop.hdds.cli.HddsVersionProvider;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.scm.StreamingReadResponse;
+import org.apache.hadoop.hdds.scm.StreamingReaderSpi;
 import org.apache.hadoop.hdds.scm.XceiverClientCreator;
 import org.apache.hadoop.hdds.scm.XceiverClientFactory;
 import org.apache.hadoop.hdds.scm.XceiverClientSpi;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
+import org.apache.hadoop.hdds.scm.storage.ContainerProtocolCalls;
 import org.apache.hadoop.ozone.OzoneSecurityUtil;
 import org.apache.hadoop.ozone.common.Checksum;
 import org.apache.hadoop.ozone.common.ChecksumData;
 import org.apache.hadoop.ozone.common.OzoneChecksumException;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.kohsuke.MetaInfServices;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,10 +77,32 @@ public class DatanodeChunkValidator extends BaseFreonGenerator
           defaultValue = "1024")
   private int chunkSize;
 
+  @Option(names = {"-b", "--blocks"},
+          description = "Number of blocks the chunks are spread over, "
+                  + "the same as for the generator.",
+          defaultValue = "20")
+  private int blockCount;
+
+  @Option(names = {"--read-block"},
+          description = "Read the chunks with the streaming ReadBlock API "
+                  + "instead of ReadChunk, e.g. to compare "
+                  + "ozone.chunk.read.block.zero.copy settings.  The blocks "
+                  + "must have been committed, see the --put-block option "
+                  + "of the generator.",
+          defaultValue = "false")
+  private boolean useReadBlock;
+
   private XceiverClientSpi xceiverClient;
 
   private Timer timer;
 
+  /**
+   * Bytes read by ReadChunk or ReadBlock, for comparing the throughput of the
+   * datanode read settings (e.g. ozone.chunk.read.mapped.buffer.*) between
+   * runs.
+   */
+  private Meter readBytes;
+
   private ChecksumData checksumReference;
 
   private Checksum checksum;
@@ -88,6 +120,11 @@ public Void call() throws Exception {
       );
     }
 
+    if (blockCount <= 0) {
+      throw new IllegalArgumentException(
+          "Number of blocks should be positive: " + blockCount);
+    }
+
     try (StorageContainerLocationProtocol scmClient =
                  createStorageContainerLocationClient(ozoneConf)) {
       Pipeline pipeline = findPipelineForTest(pipelineId, scmClient, LOG);
@@ -104,8 +141,13 @@ public Void call() throws Exception {
         readReference();
 
         timer = getMetrics().timer("chunk-validate");
+        readBytes = getMetrics().meter("chunk-read-bytes");
 
-        runTests(this::validateChunk);
+        if (useReadBlock) {
+          runTests(this::validateBlockRead);
+        } else {
+          runTests(this::validateChunk);
+        }
 
         xceiverClientManager.releaseClientForReadData(xceiverClient, true);
       }
@@ -123,11 +165,16 @@ public Void call() throws Exception {
    * {@link org.apache.hadoop.ozone.freon.DatanodeChunkGenerator}.
    */
   private void readReference() throws IOException {
+    checksum = new Checksum(ContainerProtos.ChecksumType.CRC32, chunkSize);
+    if (useReadBlock) {
+      checksumReference = checksum.computeChecksum(
+          readBlock(createReadBlockRequest(0)).asReadOnlyByteBuffer());
+      return;
+    }
     ContainerCommandRequestProto request = createReadChunkRequest(0);
     ContainerCommandResponseProto response =
         xceiverClient.sendCommand(request);
 
-    checksum = new Checksum(ContainerProtos.ChecksumType.CRC32, chunkSize);
     checksumReference = computeChecksum(response);
   }
 
@@ -139,6 +186,7 @@ private void validateChunk(long stepNo) throws Exception {
         ContainerCommandResponseProto response =
             xceiverClient.sendCommand(request);
 
+        readBytes.mark(getDataLength(response));
         ChecksumData checksumOfChunk = computeChecksum(response);
 
         if (!checksumReference.equals(checksumOfChunk)) {
@@ -155,18 +203,63 @@ private void validateChunk(long stepNo) throws Exception {
 
   }
 
+  private void validateBlockRead(long stepNo) throws Exception {
+    ContainerCommandRequestProto request = createReadBlockRequest(stepNo);
+
+    timer.time(() -> {
+      try {
+        ByteString data = readBlock(request);
+
+        readBytes.mark(data.size());
+        ChecksumData checksumOfChunk =
+            checksum.computeChecksum(data.asReadOnlyByteBuffer());
+
+        if (!checksumReference.equals(checksumOfChunk)) {
+          throw new IllegalStateException(
+              "Reference (=first) message checksum doesn't match " +
+                  "with checksum of block " + BlockID.getFromProtobuf(
+                      request.getReadBlock().getBlockID()) +
+                  " at offset " + request.getReadBlock().getOffset());
+        }
+      } catch (IOException e) {
+        LOG.warn("Could not read block due to IOException: ", e);
+      }
+    });
+  }
+
+  /**
+   * Read a range of a block through a new stream, as a client does for a
+   * positional read.
+   */
+  private ByteString readBlock(ContainerCommandRequestProto request)
+      throws IOException {
+    ContainerProtos.ReadBlockRequestProto readBlockRequest =
+        request.getReadBlock();
+    BlockDataReader reader =
+        new BlockDataReader(readBlockRequest.getLength());
+    xceiverClient.initStreamRead(
+        BlockID.getFromProtobuf(readBlockRequest.getBlockID()), reader);
+    try {
+      xceiverClient.streamRead(request, reader.getResponse());
+      return reader.getData();
+    } finally {
+      reader.getResponse().getRequestObserver().onCompleted();
+      xceiverClient.completeStreamRead();
+    }
+  }
+
   private ContainerCommandRequestProto createReadChunkRequest(long stepNo)
       throws IOException {
     ContainerProtos.DatanodeBlockID blockId =
         ContainerProtos.DatanodeBlockID.newBuilder()
             .setContainerID(1L)
-            .setLocalID(stepNo % 20)
+            .setLocalID(stepNo % blockCount)
             .build();
 
     ContainerProtos.ChunkInfo chunkInfo = ContainerProtos.ChunkInfo.newBuilder()
             .setChunkName(getPrefix() + "_testdata_chunk_" + stepNo)
             .setChecksumData(checksumProtobuf)
-            .setOffset((stepNo / 20) * chunkSize)
+            .setOffset((stepNo / blockCount) * chunkSize)
             .setLen(chunkSize)
             .build();
 
@@ -189,6 +282,44 @@ private ContainerCommandRequestProto createReadChunkRequest(long stepNo)
     return builder.build();
   }
 
+  private ContainerCommandRequestProto createReadBlockRequest(long stepNo) {
+    ContainerProtos.DatanodeBlockID blockId =
+        ContainerProtos.DatanodeBlockID.newBuilder()
+            .setContainerID(1L)
+            .setLocalID(stepNo % blockCount)
+            .build();
+
+    ContainerProtos.ReadBlockRequestProto.Builder readBlockRequest =
+        ContainerProtos.ReadBlockRequestProto
+            .newBuilder()
+            .setBlockID(blockId)
+            .setOffset((stepNo / blockCount) * chunkSize)
+            .setLength(chunkSize)
+            .setResponseDataSize(chunkSize);
+
+    String id = xceiverClient.getPipeline().getFirstNode().getUuidString();
+
+    return ContainerCommandRequestProto
+        .newBuilder()
+        .setCmdType(ContainerProtos.Type.ReadBlock)
+        .setContainerID(blockId.getContainerID())
+        .setDatanodeUuid(id)
+        .setReadBlock(readBlockRequest)
+        .build();
+  }
+
+  private static long getDataLength(ContainerCommandResponseProto response) {
+    ContainerProtos.ReadChunkResponseProto readChunk = response.getReadChunk();
+    if (readChunk.hasData()) {
+      return readChunk.getData().size();
+    }
+    long length = 0;
+    for (ByteString buffer : readChunk.getDataBuffers().getBuffersList()) {
+      length += buffer.size();
+    }
+    return length;
+  }
+
   private ChecksumData computeChecksum(ContainerCommandResponseProto response)
       throws OzoneChecksumException {
     ContainerProtos.ReadChunkResponseProto readChunk = response.getReadChunk();
@@ -199,4 +330,66 @@ private ChecksumData computeChecksum(ContainerCommandResponseProto response)
           readChunk.getDataBuffers().getBuffersList());
     }
   }
+
+  /**
+   * Collects the data streamed back for a single ReadBlock request.
+   */
+  private static final class BlockDataReader implements StreamingReaderSpi {
+
+    private final long length;
+    private final CompletableFuture<ByteString> future =
+        new CompletableFuture<>();
+    private ByteString data = ByteString.EMPTY;
+    private volatile StreamingReadResponse response;
+
+    BlockDataReader(long length) {
+      this.length = length;
+    }
+
+    @Override
+    public void setStreamingReadResponse(
+        StreamingReadResponse streamingReadResponse) {
+      response = streamingReadResponse;
+    }
+
+    StreamingReadResponse getResponse() {
+      return response;
+    }
+
+    @Override
+    public synchronized void onNext(ContainerCommandResponseProto proto) {
+      try {
+        ContainerProtocolCalls.validateContainerResponse(proto);
+      } catch (StorageContainerException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      data = data.concat(proto.getReadBlock().getData());
+      if (data.size() >= length) {
+        future.complete(data);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      future.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onCompleted() {
+      future.completeExceptionally(new IOException(
+          "Stream completed before " + length + " bytes were read"));
+    }
+
+    ByteString getData() throws IOException {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted reading block");
+      } catch (ExecutionException e) {
+        throw new IOException("Failed to read block", e.getCause());
+      }
+    }
+  }
 }
@@ -24,6 +24,7 @@
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -238,6 +239,63 @@ public XceiverClientReply sendCommandAsync(
     }
   }
 
+  @Test
+  public void testHedgedReadChunk() throws IOException {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setHedgedReadEnabled(true);
+    clientConfig.setHedgedReadThreshold(Duration.ofMillis(10));
+    conf.setFromObject(clientConfig);
+    XceiverClientMetrics metrics =
+        XceiverClientManager.getXceiverClientMetrics();
+    long hedged = metrics.getHedgedReadOps();
+    long wins = metrics.getHedgedReadWins();
+
+    final List<DatanodeDetails> seenDNs = new ArrayList<>();
+    try (XceiverClientGrpc client = new XceiverClientGrpc(pipeline, conf) {
+      @Override
+      public XceiverClientReply sendCommandAsync(
+          ContainerProtos.ContainerCommandRequestProto request,
+          DatanodeDetails dn) {
+        seenDNs.add(dn);
+        // the first datanode never responds
+        return seenDNs.size() == 1
+            ? new XceiverClientReply(new CompletableFuture<>())
+            : buildValidResponse();
+      }
+    }) {
+      invokeXceiverClientReadChunk(client);
+    }
+    assertEquals(2, seenDNs.size());
+    assertEquals(1, metrics.getHedgedReadOps() - hedged);
+    assertEquals(1, metrics.getHedgedReadWins() - wins);
+  }
+
+  @Test
+  public void testHedgedReadChunkFailover() throws IOException {
+    OzoneClientConfig clientConfig = conf.getObject(OzoneClientConfig.class);
+    clientConfig.setHedgedReadEnabled(true);
+    clientConfig.setHedgedReadThreshold(Duration.ofMinutes(1));
+    conf.setFromObject(clientConfig);
+
+    final List<DatanodeDetails> seenDNs = new ArrayList<>();
+    try (XceiverClientGrpc client = new XceiverClientGrpc(pipeline, conf) {
+      @Override
+      public XceiverClientReply sendCommandAsync(
+          ContainerProtos.ContainerCommandRequestProto request,
+          DatanodeDetails dn) throws IOException {
+        seenDNs.add(dn);
+        if (seenDNs.size() < 3) {
+          throw new IOException("Failed " + dn);
+        }
+        return buildValidResponse();
+      }
+    }) {
+      // failed reads move on to the next datanode without waiting
+      invokeXceiverClientReadChunk(client);
+    }
+    assertEquals(3, seenDNs.size());
+  }
+
   @Test
   public void testConnectionReusedAfterGetBlock() throws IOException {
     // With a new Client, make 100 calls. On each call, ensure that only one
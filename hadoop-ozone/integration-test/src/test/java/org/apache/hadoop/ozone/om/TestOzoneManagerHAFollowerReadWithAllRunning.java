@@ -143,11 +143,14 @@ void testFollowerReadTargetsFollower(Class<? extends OmTransportFactory> omTrans
       ObjectStore objectStore = ozoneClient.getObjectStore();
       changeFollowerReadInitialProxy(objectStore, omTransportClass, leaderOMNodeId, followerOM.getOMNodeId());
       long previousLocalLeaseSuccess = followerOM.getMetrics().getNumFollowerReadLocalLeaseSuccess();
+      long previousFollowerReads = followerOM.getMetrics().getNumFollowerReads();
 
       objectStore.listVolumes("");
 
       long currentLocalLeaseSuccess = followerOM.getMetrics().getNumFollowerReadLocalLeaseSuccess();
       assertThat(currentLocalLeaseSuccess).isGreaterThan(previousLocalLeaseSuccess);
+      assertThat(followerOM.getMetrics().getNumFollowerReads()).isGreaterThan(previousFollowerReads);
+      assertThat(followerOM.getMetrics().getFollowerReadLagIndex()).isGreaterThanOrEqualTo(0);
     } finally {
       IOUtils.closeQuietly(ozoneClient);
     }
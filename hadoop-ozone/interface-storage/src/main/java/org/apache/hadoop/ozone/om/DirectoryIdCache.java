@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the object IDs of the directories of FSO buckets,
+ * keyed by the bucket ID and the path of the directory in the bucket.
+ * <p>
+ * A path is only valid as long as none of its directories is renamed or
+ * deleted.  Since the paths under a directory are not known, renaming or
+ * deleting any directory of a bucket invalidates all the paths of the bucket,
+ * after the table cache has been updated by the same transaction.
+ * <p>
+ * The paths are cached under a generation of the bucket, which is replaced
+ * when the bucket is invalidated.  A lookup uses the generation of the bucket
+ * when it started, see {@link #getBucket(long)}, so the paths it resolved
+ * before an invalidation are never visible after it.
+ */
+public final class DirectoryIdCache {
+
+  private final Cache<Key, Long> cache;
+  /** Bucket ID -> the current generation of the bucket. */
+  private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+  private final AtomicLong nextGeneration = new AtomicLong();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder invalidationCount = new LongAdder();
+
+  public DirectoryIdCache(long maxSize) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .build();
+  }
+
+  /**
+   * @return the paths of the given bucket, valid until the bucket is
+   * invalidated.
+   */
+  public BucketDirectories getBucket(long bucketId) {
+    final long generation = generations.computeIfAbsent(bucketId,
+        k -> nextGeneration.incrementAndGet());
+    return new BucketDirectories(bucketId, generation);
+  }
+
+  /** Invalidates the paths of the given bucket. */
+  public void invalidate(long bucketId) {
+    generations.put(bucketId, nextGeneration.incrementAndGet());
+    invalidationCount.increment();
+  }
+
+  /** Invalidates the paths of all buckets. */
+  public void invalidateAll() {
+    generations.replaceAll((bucketId, generation) ->
+        nextGeneration.incrementAndGet());
+    cache.invalidateAll();
+    invalidationCount.increment();
+  }
+
+  public long getSize() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /** @return the ratio of the lookups found in the cache. */
+  public double getHitRatio() {
+    final long hits = getHitCount();
+    final long total = hits + getMissCount();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  public long getInvalidationCount() {
+    return invalidationCount.sum();
+  }
+
+  /** The paths of a bucket in a generation. */
+  public final class BucketDirectories {
+    private final long bucketId;
+    private final long generation;
+
+    private BucketDirectories(long bucketId, long generation) {
+      this.bucketId = bucketId;
+      this.generation = generation;
+    }
+
+    /**
+     * @param path the path of a directory in the bucket, without leading or
+     *             trailing slashes.
+     * @return the object ID of the directory, or null if not cached.
+     */
+    public Long get(String path) {
+      final Long objectId = cache.getIfPresent(
+          new Key(bucketId, generation, path));
+      if (objectId != null) {
+        hitCount.increment();
+      } else {
+        missCount.increment();
+      }
+      return objectId;
+    }
+
+    public void put(String path, long objectId) {
+      cache.put(new Key(bucketId, generation, path), objectId);
+    }
+  }
+
+  private static final class Key {
+    private final long bucketId;
+    private final long generation;
+    private final String path;
+
+    private Key(long bucketId, long generation, String path) {
+      this.bucketId = bucketId;
+      this.generation = generation;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      } else if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) obj;
+      return bucketId == that.bucketId && generation == that.generation
+          && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(bucketId, generation, path);
+    }
+  }
+}
@@ -105,6 +105,13 @@ public interface OMMetadataManager extends DBStoreHAManager, AutoCloseable {
    */
   IOzoneManagerLock getLock();
 
+  /**
+   * Returns the cache of the directory object IDs of FSO buckets.
+   *
+   * @return DirectoryIdCache, or null if the cache is disabled.
+   */
+  DirectoryIdCache getDirectoryIdCache();
+
   /**
    * Returns the Hierarchical ResourceLock used on Metadata DB.
    */
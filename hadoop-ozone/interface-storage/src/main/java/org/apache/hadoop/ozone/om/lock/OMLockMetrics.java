@@ -17,6 +17,8 @@
 
 package org.apache.hadoop.ozone.om.lock;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.metrics2.MetricsCollector;
 import org.apache.hadoop.metrics2.MetricsRecordBuilder;
@@ -24,7 +26,9 @@
 import org.apache.hadoop.metrics2.MetricsSystem;
 import org.apache.hadoop.metrics2.annotation.Metrics;
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.Interns;
 import org.apache.hadoop.metrics2.lib.MetricsRegistry;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableStat;
 import org.apache.hadoop.ozone.OzoneConsts;
 
@@ -42,6 +46,14 @@ public final class OMLockMetrics implements MetricsSource {
   private final MutableStat readLockHeldTimeMsStat;
   private final MutableStat writeLockWaitingTimeMsStat;
   private final MutableStat writeLockHeldTimeMsStat;
+  private final MutableCounterLong keyPathLockContended;
+
+  /** Number of contended acquisitions of each key path lock stripe. */
+  private volatile AtomicLongArray keyPathLockStripeContended =
+      new AtomicLongArray(0);
+  /** Total time (ns) each key path lock stripe was held. */
+  private volatile AtomicLongArray keyPathLockStripeHeldTimeNanos =
+      new AtomicLongArray(0);
 
   private OMLockMetrics() {
     registry = new MetricsRegistry(SOURCE_NAME);
@@ -57,6 +69,9 @@ private OMLockMetrics() {
     writeLockHeldTimeMsStat = registry.newStat("WriteLockHeldTime",
         "Time (in milliseconds) spent holding the write lock",
         "Ops", "Time", true);
+    keyPathLockContended = registry.newCounter("KeyPathLockContended",
+        "Number of key path lock acquisitions which had to wait for another "
+            + "thread", 0L);
   }
 
   /**
@@ -198,6 +213,85 @@ public long getLongestWriteLockHeldTimeMs() {
     return (long) writeLockHeldTimeMsStat.lastStat().max();
   }
 
+  /**
+   * Sets the number of key path lock stripes to keep per-stripe metrics for.
+   *
+   * @param stripes number of stripes
+   */
+  public void initKeyPathLockStripes(int stripes) {
+    keyPathLockStripeContended = new AtomicLongArray(stripes);
+    keyPathLockStripeHeldTimeNanos = new AtomicLongArray(stripes);
+  }
+
+  /**
+   * Records a key path lock acquisition which had to wait for another thread.
+   *
+   * @param stripe index of the stripe
+   */
+  public void incKeyPathLockContended(int stripe) {
+    keyPathLockContended.incr();
+    keyPathLockStripeContended.incrementAndGet(stripe);
+  }
+
+  /**
+   * Adds the time a key path lock stripe was held.
+   *
+   * @param stripe index of the stripe
+   * @param heldTimeNanos held time (ns)
+   */
+  public void addKeyPathLockHeldTime(int stripe, long heldTimeNanos) {
+    keyPathLockStripeHeldTimeNanos.addAndGet(stripe, heldTimeNanos);
+  }
+
+  /**
+   * Returns the number of contended key path lock acquisitions.
+   *
+   * @return contended acquisitions of all stripes
+   */
+  public long getKeyPathLockContended() {
+    return keyPathLockContended.value();
+  }
+
+  /**
+   * Returns the number of contended acquisitions of a key path lock stripe.
+   *
+   * @param stripe index of the stripe
+   * @return contended acquisitions of the stripe
+   */
+  public long getKeyPathLockContended(int stripe) {
+    return keyPathLockStripeContended.get(stripe);
+  }
+
+  /**
+   * Returns the total time a key path lock stripe was held.
+   *
+   * @param stripe index of the stripe
+   * @return held time (ns) of the stripe
+   */
+  public long getKeyPathLockHeldTimeNanos(int stripe) {
+    return keyPathLockStripeHeldTimeNanos.get(stripe);
+  }
+
+  /**
+   * Returns the key path lock stripe with the most contended acquisitions,
+   * which points to the hottest keys.
+   *
+   * @return index of the most contended stripe, -1 if there is no contention
+   */
+  public int getMostContendedKeyPathLockStripe() {
+    final AtomicLongArray contended = keyPathLockStripeContended;
+    int stripe = -1;
+    long max = 0;
+    for (int i = 0; i < contended.length(); i++) {
+      final long value = contended.get(i);
+      if (value > max) {
+        max = value;
+        stripe = i;
+      }
+    }
+    return stripe;
+  }
+
   @Override
   public void getMetrics(MetricsCollector collector, boolean all) {
     MetricsRecordBuilder builder = collector.addRecord(SOURCE_NAME);
@@ -205,5 +299,22 @@ public void getMetrics(MetricsCollector collector, boolean all) {
     readLockWaitingTimeMsStat.snapshot(builder, all);
     writeLockHeldTimeMsStat.snapshot(builder, all);
     writeLockWaitingTimeMsStat.snapshot(builder, all);
+    keyPathLockContended.snapshot(builder, all);
+
+    final int stripe = getMostContendedKeyPathLockStripe();
+    long maxHeldTimeNanos = 0;
+    for (int i = 0; i < keyPathLockStripeHeldTimeNanos.length(); i++) {
+      maxHeldTimeNanos = Math.max(maxHeldTimeNanos,
+          keyPathLockStripeHeldTimeNanos.get(i));
+    }
+    builder.addGauge(Interns.info("KeyPathLockMostContendedStripe",
+            "Key path lock stripe with the most contended acquisitions"),
+            stripe)
+        .addGauge(Interns.info("KeyPathLockMostContendedStripeCount",
+            "Contended acquisitions of the most contended key path lock "
+                + "stripe"), stripe < 0 ? 0 : getKeyPathLockContended(stripe))
+        .addGauge(Interns.info("KeyPathLockMaxStripeHeldTime",
+            "Longest total time (in milliseconds) a key path lock stripe was "
+                + "held"), TimeUnit.NANOSECONDS.toMillis(maxHeldTimeNanos));
   }
 }
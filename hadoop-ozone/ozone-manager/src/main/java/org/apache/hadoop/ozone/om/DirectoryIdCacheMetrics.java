@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import org.apache.hadoop.metrics2.MetricsCollector;
+import org.apache.hadoop.metrics2.MetricsInfo;
+import org.apache.hadoop.metrics2.MetricsSource;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+
+/**
+ * This class emits the metrics of {@link DirectoryIdCache}.
+ */
+public final class DirectoryIdCacheMetrics implements MetricsSource {
+
+  public static final String SOURCE_NAME = DirectoryIdCacheMetrics.class.getSimpleName();
+
+  private final DirectoryIdCache cache;
+
+  private DirectoryIdCacheMetrics(DirectoryIdCache cache) {
+    this.cache = cache;
+  }
+
+  public static DirectoryIdCacheMetrics create(DirectoryIdCache cache) {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "FSO directory ID cache metrics",
+        new DirectoryIdCacheMetrics(cache));
+  }
+
+  @Override
+  public void getMetrics(MetricsCollector collector, boolean all) {
+    collector.addRecord(SOURCE_NAME)
+        .setContext("FSO directory ID cache metrics")
+        .addGauge(MetricsInfos.Size, cache.getSize())
+        .addGauge(MetricsInfos.HitCount, cache.getHitCount())
+        .addGauge(MetricsInfos.MissCount, cache.getMissCount())
+        .addGauge(MetricsInfos.HitRatio, cache.getHitRatio())
+        .addGauge(MetricsInfos.InvalidationCount, cache.getInvalidationCount());
+  }
+
+  public void unregister() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    ms.unregisterSource(SOURCE_NAME);
+  }
+
+  private enum MetricsInfos implements MetricsInfo {
+    Size("Number of cached directory paths, including invalidated ones not evicted yet."),
+    HitCount("Number of parent paths found in the cache."),
+    MissCount("Number of parent paths not found in the cache."),
+    HitRatio("Ratio of the parent paths found in the cache."),
+    InvalidationCount("Number of times the paths of a bucket were invalidated.");
+
+    private final String desc;
+
+    MetricsInfos(String desc) {
+      this.desc = desc;
+    }
+
+    @Override
+    public String description() {
+      return desc;
+    }
+  }
+}
@@ -1999,14 +1999,15 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     }
 
     if (isBucketFSOptimized(volumeName, bucketName)) {
-      Preconditions.checkArgument(!recursive);
       OzoneListStatusHelper statusHelper =
           new OzoneListStatusHelper(metadataManager, scmBlockSize,
               this::getOzoneFileStatusFSO,
               ozoneManager.getDefaultReplicationConfig());
-      Collection<OzoneFileStatus> statuses =
-          statusHelper.listStatusFSO(args, startKey, numEntries,
-          clientAddress, allowPartialPrefixes);
+      Collection<OzoneFileStatus> statuses = recursive
+          ? statusHelper.listStatusFSORecursive(args, startKey, numEntries,
+              clientAddress)
+          : statusHelper.listStatusFSO(args, startKey, numEntries,
+              clientAddress, allowPartialPrefixes);
       return buildFinalStatusList(statuses, args, clientAddress,
           refreshPipelineInfo);
     }
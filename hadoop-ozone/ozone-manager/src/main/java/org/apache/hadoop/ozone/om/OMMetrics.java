@@ -29,6 +29,7 @@
 import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
 import org.apache.hadoop.metrics2.lib.MutableCounterLong;
 import org.apache.hadoop.metrics2.lib.MutableGaugeInt;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
 import org.apache.hadoop.ozone.om.snapshot.OMSnapshotDirectoryMetrics;
 import org.apache.hadoop.util.Time;
 
@@ -124,6 +125,12 @@ public class OMMetrics implements OmMetadataReaderMetrics {
   private @Metric MutableCounterLong numFollowerReadLocalLeaseFailLog;
   private @Metric MutableCounterLong numFollowerReadLocalLeaseFailTime;
 
+  // Reads served by this OM, by role, and the staleness of follower reads
+  private @Metric MutableCounterLong numLeaderReads;
+  private @Metric MutableCounterLong numFollowerReads;
+  private @Metric MutableGaugeLong followerReadLagIndex;
+  private @Metric MutableGaugeLong followerReadLeaderElapsedTimeMs;
+
   // Failure Metrics
   private @Metric MutableCounterLong numVolumeCreateFails;
   private @Metric MutableCounterLong numVolumeUpdateFails;
@@ -1086,6 +1093,46 @@ public long getNumFollowerReadLocalLeaseFailTime() {
     return numFollowerReadLocalLeaseFailTime.value();
   }
 
+  public void incNumReads(boolean leader) {
+    if (leader) {
+      numLeaderReads.incr();
+    } else {
+      numFollowerReads.incr();
+    }
+  }
+
+  public long getNumLeaderReads() {
+    return numLeaderReads.value();
+  }
+
+  public long getNumFollowerReads() {
+    return numFollowerReads.value();
+  }
+
+  /**
+   * Sets the number of log entries committed by the leader and not yet
+   * applied by this OM, as last checked for a local lease read.
+   */
+  public void setFollowerReadLagIndex(long lagIndex) {
+    followerReadLagIndex.set(lagIndex);
+  }
+
+  /**
+   * Sets the time since the last RPC from the leader, as last checked for a
+   * local lease read.
+   */
+  public void setFollowerReadLeaderElapsedTimeMs(long elapsedTimeMs) {
+    followerReadLeaderElapsedTimeMs.set(elapsedTimeMs);
+  }
+
+  public long getFollowerReadLagIndex() {
+    return followerReadLagIndex.value();
+  }
+
+  public long getFollowerReadLeaderElapsedTimeMs() {
+    return followerReadLeaderElapsedTimeMs.value();
+  }
+
   @VisibleForTesting
   public long getNumVolumeCreates() {
     return numVolumeCreates.value();
@@ -24,6 +24,12 @@
 import static org.apache.hadoop.ozone.OzoneConsts.OM_SNAPSHOT_CHECKPOINT_DIR;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_MAX_OPEN_FILES;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_MAX_OPEN_FILES_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DIRECTORY_ID_CACHE_SIZE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DIRECTORY_ID_CACHE_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_DB_MAX_OPEN_FILES;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_DB_MAX_OPEN_FILES_DEFAULT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SNAPSHOT_ROCKSDB_METRICS_ENABLED;
@@ -60,6 +66,7 @@
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -76,6 +83,7 @@
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.NegativeLookupFilterMetrics;
 import org.apache.hadoop.hdds.utils.TableCacheMetrics;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
@@ -83,6 +91,7 @@
 import org.apache.hadoop.hdds.utils.db.DBColumnFamilyDefinition;
 import org.apache.hadoop.hdds.utils.db.DBStore;
 import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
+import org.apache.hadoop.hdds.utils.db.NegativeLookupFilter;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
 import org.apache.hadoop.hdds.utils.db.TableIterator;
@@ -152,6 +161,7 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
     S3SecretStore, Closeable {
   private static final Logger LOG =
       LoggerFactory.getLogger(OmMetadataManagerImpl.class);
+  private static final long NEGATIVE_LOOKUP_FILTER_MIN_KEYS = 1_000_000;
 
   private DBStore store;
 
@@ -204,6 +214,12 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   private Map<String, Table> tableMap = new HashMap<>();
   private final Map<String, TableCacheMetrics> tableCacheMetricsMap =
       new HashMap<>();
+  private final Map<String, NegativeLookupFilter> negativeLookupFilterMap =
+      new HashMap<>();
+  private final Map<String, NegativeLookupFilterMetrics>
+      negativeLookupFilterMetricsMap = new HashMap<>();
+  private volatile DirectoryIdCache directoryIdCache;
+  private DirectoryIdCacheMetrics directoryIdCacheMetrics;
   private SnapshotChainManager snapshotChainManager;
   private final OMPerformanceMetrics perfMetrics;
   private final S3Batcher s3Batcher = new S3SecretBatcher();
@@ -463,11 +479,56 @@ public void start(OzoneConfiguration configuration) throws IOException {
       this.store = loadDB(configuration, metaDir, maxOpenFiles, lock);
 
       initializeOmTables(CacheType.FULL_CACHE, true);
+      enableNegativeLookupFilters(configuration);
+      enableDirectoryIdCache(configuration);
     }
 
     snapshotChainManager = new SnapshotChainManager(this);
   }
 
+  /**
+   * Enables the negative lookup filters of the key tables, before any key is
+   * written.  The filters have room for as many new keys as the tables
+   * currently have, since they are only rebuilt when the DB is reloaded.
+   * Beyond that, a filter is saturated and no longer used.
+   */
+  private void enableNegativeLookupFilters(OzoneConfiguration configuration)
+      throws IOException {
+    if (!configuration.getBoolean(OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED,
+        OZONE_OM_NEGATIVE_LOOKUP_FILTER_ENABLED_DEFAULT)) {
+      return;
+    }
+    final double fpp = configuration.getDouble(
+        OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP,
+        OZONE_OM_NEGATIVE_LOOKUP_FILTER_FPP_DEFAULT);
+    final List<Table<String, ?>> tables =
+        Arrays.asList(keyTable, fileTable, dirTable);
+    for (Table<String, ?> table : tables) {
+      final long expectedKeys = Math.max(NEGATIVE_LOOKUP_FILTER_MIN_KEYS,
+          2 * table.getEstimatedKeyCount());
+      final NegativeLookupFilter filter =
+          table.enableNegativeLookupFilter(expectedKeys, fpp);
+      negativeLookupFilterMap.put(table.getName(), filter);
+      negativeLookupFilterMetricsMap.put(table.getName(),
+          NegativeLookupFilterMetrics.create(filter));
+    }
+  }
+
+  @VisibleForTesting
+  NegativeLookupFilter getNegativeLookupFilter(String tableName) {
+    return negativeLookupFilterMap.get(tableName);
+  }
+
+  private void enableDirectoryIdCache(OzoneConfiguration configuration) {
+    final long size = configuration.getLong(OZONE_OM_DIRECTORY_ID_CACHE_SIZE,
+        OZONE_OM_DIRECTORY_ID_CACHE_SIZE_DEFAULT);
+    if (size <= 0) {
+      return;
+    }
+    directoryIdCache = new DirectoryIdCache(size);
+    directoryIdCacheMetrics = DirectoryIdCacheMetrics.create(directoryIdCache);
+  }
+
   public static DBStore loadDB(OzoneConfiguration configuration, File metaDir, int maxOpenFiles,
       IOzoneManagerLock ozoneManagerLock) throws IOException {
     return newDBStoreBuilder(configuration, null, metaDir)
@@ -547,6 +608,16 @@ protected void initializeOmTables(CacheType cacheType,
    */
   @Override
   public void stop() throws IOException {
+    negativeLookupFilterMap.values().forEach(NegativeLookupFilter::close);
+    negativeLookupFilterMap.clear();
+    negativeLookupFilterMetricsMap.values()
+        .forEach(NegativeLookupFilterMetrics::unregister);
+    negativeLookupFilterMetricsMap.clear();
+    directoryIdCache = null;
+    if (directoryIdCacheMetrics != null) {
+      directoryIdCacheMetrics.unregister();
+      directoryIdCacheMetrics = null;
+    }
     if (store != null) {
       store.close();
       store = null;
@@ -729,6 +800,11 @@ public IOzoneManagerLock getLock() {
     return lock;
   }
 
+  @Override
+  public DirectoryIdCache getDirectoryIdCache() {
+    return directoryIdCache;
+  }
+
   @Override
   public HierarchicalResourceLockManager getHierarchicalLockManager() {
     return hierarchicalLockManager;
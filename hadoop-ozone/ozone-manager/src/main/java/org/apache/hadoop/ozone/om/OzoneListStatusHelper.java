@@ -17,16 +17,22 @@
 
 package org.apache.hadoop.ozone.om;
 
+import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
 import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.DIRECTORY_TABLE;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.FILE_NOT_FOUND;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -35,6 +41,7 @@
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.hdds.client.DefaultReplicationConfig;
 import org.apache.hadoop.hdds.client.ReplicationConfig;
+import org.apache.hadoop.hdds.utils.IOUtils;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
@@ -182,6 +189,176 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
         Collectors.toList());
   }
 
+  /**
+   * List all the descendants of a directory of an FSO bucket.
+   * <p>
+   * The tree is traversed depth first: the children of a directory are
+   * listed in the order of their names, each directory followed by its own
+   * descendants.  The children of each directory on the current path are read
+   * by one iterator, which is kept open while the subtree of the current
+   * child is listed, instead of seeking again for each directory.
+   * <p>
+   * The listing resumes from startKey, which is normally the last key
+   * returned by the previous call: the iterators are opened at the
+   * components of startKey, so it can be any descendant of the directory.
+   * As for {@link #listStatusFSO}, the status of startKey is included in the
+   * result if it exists.
+   */
+  public Collection<OzoneFileStatus> listStatusFSORecursive(OmKeyArgs args,
+      String startKey, long numEntries, String clientAddress)
+      throws IOException {
+    Objects.requireNonNull(args, "Key args can not be null");
+    final String volumeName = args.getVolumeName();
+    final String bucketName = args.getBucketName();
+    final String keyName =
+        OzoneFSUtils.removeTrailingSlashIfNeeded(args.getKeyName());
+    final OmVolumeArgs volumeInfo = metadataManager.getVolumeTable()
+        .get(metadataManager.getVolumeKey(volumeName));
+    final OmBucketInfo omBucketInfo = metadataManager.getBucketTable()
+        .get(metadataManager.getBucketKey(volumeName, bucketName));
+    if (volumeInfo == null || omBucketInfo == null) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(String.format("%s does not exist.", (volumeInfo == null) ?
+            "Volume : " + volumeName :
+            "Bucket: " + volumeName + "/" + bucketName));
+      }
+      return new ArrayList<>();
+    }
+
+    OzoneFileStatus fileStatus =
+        getStatusHelper.apply(args, clientAddress, false);
+    if (fileStatus.isFile()) {
+      return Collections.singletonList(fileStatus);
+    }
+
+    // the names between keyName and startKey
+    List<String> startPath = Collections.emptyList();
+    if (StringUtils.isNotBlank(startKey)) {
+      String start = OzoneFSUtils.removeTrailingSlashIfNeeded(startKey);
+      String dirPrefix = keyName.isEmpty() ? keyName
+          : OzoneFSUtils.addTrailingSlashIfNeeded(keyName);
+      if (!start.equals(keyName)) {
+        if (!start.startsWith(dirPrefix)) {
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("StartKey {} is not a descendant of keyName {}."
+                + " Returns empty list", startKey, keyName);
+          }
+          return new ArrayList<>();
+        }
+        startPath = Arrays.asList(
+            start.substring(dirPrefix.length()).split(OZONE_URI_DELIMITER));
+      }
+    }
+
+    final ReplicationConfig replication =
+        Optional.ofNullable(omBucketInfo.getDefaultReplicationConfig())
+            .map(DefaultReplicationConfig::getReplicationConfig)
+            .orElse(omDefaultReplication);
+    final long volumeId = volumeInfo.getObjectID();
+    final List<OzoneFileStatus> result = new ArrayList<>();
+    final Deque<ListLevel> levels = new ArrayDeque<>();
+    try {
+      // open the iterators at the components of startKey
+      long parentId = getId(fileStatus, omBucketInfo);
+      String parentPath = keyName;
+      for (int i = 0; i < startPath.size(); i++) {
+        final String seekKey = metadataManager.getOzonePathKey(volumeId,
+            omBucketInfo.getObjectID(), parentId, startPath.get(i));
+        final ListLevel level = new ListLevel(volumeId, parentId, parentPath,
+            seekKey, omBucketInfo);
+        levels.push(level);
+        if (i == startPath.size() - 1) {
+          break;
+        }
+        // the ancestors of startKey were listed before its descendants
+        ListIterator.HeapEntry entry = level.next();
+        if (entry == null || !entry.getKey().equals(seekKey)
+            || !DIRECTORY_TABLE.equals(entry.getTableName())) {
+          // the ancestor is gone, continue with the entries after it
+          level.pushBack(entry);
+          break;
+        }
+        final OmDirectoryInfo dirInfo = (OmDirectoryInfo) entry.getValue();
+        parentId = dirInfo.getObjectID();
+        parentPath = OMFileRequest.getAbsolutePath(parentPath,
+            dirInfo.getName());
+      }
+      if (levels.isEmpty()) {
+        levels.push(new ListLevel(volumeId, parentId, parentPath, "",
+            omBucketInfo));
+      }
+
+      while (result.size() < numEntries && !levels.isEmpty()) {
+        final ListLevel level = levels.peek();
+        final ListIterator.HeapEntry entry = level.next();
+        if (entry == null) {
+          levels.pop().close();
+          continue;
+        }
+        final OzoneFileStatus status = getStatus(level.getPath(),
+            scmBlockSize, volumeName, bucketName, replication, entry);
+        if (status == null) {
+          continue;
+        }
+        result.add(status);
+        if (status.isDirectory() && result.size() < numEntries) {
+          levels.push(new ListLevel(volumeId,
+              ((OmDirectoryInfo) entry.getValue()).getObjectID(),
+              status.getKeyInfo().getKeyName(), "", omBucketInfo));
+        }
+      }
+      return result;
+    } catch (NoSuchElementException e) {
+      throw new IOException(e);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      IOUtils.closeQuietly(levels);
+    }
+  }
+
+  /**
+   * The children of a directory being listed recursively.
+   */
+  private final class ListLevel implements Closeable {
+    private final String path;
+    private final ListIterator.MinHeapIterator iterator;
+    private ListIterator.HeapEntry pushedBack;
+
+    private ListLevel(long volumeId, long parentId, String path,
+        String seekKey, OmBucketInfo bucketInfo) throws IOException {
+      this.path = path;
+      final String dbPrefixKey = metadataManager.getOzonePathKey(volumeId,
+          bucketInfo.getObjectID(), parentId, "");
+      this.iterator = new ListIterator.MinHeapIterator(metadataManager,
+          dbPrefixKey, bucketInfo.getBucketLayout(), seekKey,
+          bucketInfo.getVolumeName(), bucketInfo.getBucketName());
+    }
+
+    String getPath() {
+      return path;
+    }
+
+    /** @return the next child, null if there is none. */
+    ListIterator.HeapEntry next() {
+      if (pushedBack != null) {
+        final ListIterator.HeapEntry entry = pushedBack;
+        pushedBack = null;
+        return entry;
+      }
+      return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    void pushBack(ListIterator.HeapEntry entry) {
+      pushedBack = entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+      iterator.close();
+    }
+  }
+
   /**
    * Determine if the prefixKey is determined from the startKey
    * if the keyName is null.
@@ -0,0 +1,448 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.execution;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.ServiceException;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.apache.hadoop.hdds.utils.db.RDBBatchOperation;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMLeaderNotReadyException;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
+import org.apache.hadoop.ozone.om.request.util.OMPersistDbRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.apache.ratis.util.ExitUtils;
+import org.apache.ratis.util.function.CheckedRunnable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes key write requests on the OM leader and replicates the resulting
+ * DB changes as a {@link Type#PersistDb} request, instead of executing the
+ * requests in the state machine of every OM one at a time.
+ * <p>
+ * Requests of the same bucket are executed one at a time, requests of
+ * different buckets concurrently.  The changes are appended to the log while
+ * the bucket is locked, so they are in the log in the order of their
+ * execution index, and the lock is released before they are applied.
+ * Replies are returned in the same order.  Other requests are stamped with
+ * the next execution index and appended while no request is being executed
+ * on the leader, and requests are executed on the leader only after the
+ * other requests appended before them are applied.
+ * Until {@link OMLayoutFeature#LEADER_EXECUTION} is finalized, all requests
+ * are submitted as is, since the other OMs may not support PersistDb.
+ * <p>
+ * The table cache of the leader is updated during execution.  If the changes
+ * fail to be replicated, e.g. when the leader steps down, the cache entries
+ * they changed are restored from the DB and the request fails with a
+ * retriable error.  The OM terminates only if the cache cannot be restored.
+ */
+public class LeaderRequestExecutor {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(LeaderRequestExecutor.class);
+
+  private static final Set<Type> SUPPORTED_TYPES = EnumSet.of(
+      Type.CreateKey, Type.AllocateBlock, Type.CommitKey, Type.DeleteKey,
+      Type.CreateDirectory, Type.CreateFile);
+
+  private static final int BUCKET_STRIPES = 1024;
+
+  private final OzoneManager ozoneManager;
+  /** The highest execution index applied by the state machine. */
+  private final LongSupplier lastAppliedExecutionIndex;
+  private final AtomicLong lastExecutionIndex = new AtomicLong(-1);
+  /** Held shared by leader execution, exclusively by other requests. */
+  private final ReadWriteLock gate = new ReentrantReadWriteLock(true);
+  private final Stripe[] stripes = new Stripe[BUCKET_STRIPES];
+  /** The last request submitted exclusively. */
+  private volatile CompletableFuture<OMResponse> lastExclusive =
+      CompletableFuture.completedFuture(null);
+  /**
+   * The changes of the requests executed here, not yet applied, by execution
+   * index.  Its monitor orders applying changes in the state machine with
+   * restoring the cache after changes failed to replicate.
+   */
+  private final Map<Long, PersistDbRequest> inFlight =
+      new ConcurrentHashMap<>();
+  private final Map<ClientInvocationId, CompletableFuture<OMResponse>>
+      invocations = new ConcurrentHashMap<>();
+
+  public LeaderRequestExecutor(OzoneManager ozoneManager) {
+    this(ozoneManager, () -> ozoneManager.getOmRatisServer()
+        .getOmStateMachine().getLastExecutionIndex());
+  }
+
+  @VisibleForTesting
+  LeaderRequestExecutor(OzoneManager ozoneManager,
+      LongSupplier lastAppliedExecutionIndex) {
+    this.ozoneManager = ozoneManager;
+    this.lastAppliedExecutionIndex = lastAppliedExecutionIndex;
+    for (int i = 0; i < BUCKET_STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  public static boolean isSupported(Type type) {
+    return SUPPORTED_TYPES.contains(type);
+  }
+
+  /** @return whether the request with the given index was executed here. */
+  @VisibleForTesting
+  boolean isExecutedLocally(long executionIndex) {
+    return inFlight.containsKey(executionIndex);
+  }
+
+  /**
+   * Apply the changes replicated with the given execution index to the cache
+   * with the given function, unless they were executed here.
+   */
+  public void applyToCache(long executionIndex, PersistDbRequest changes,
+      CheckedRunnable<IOException> addToCache) throws IOException {
+    synchronized (inFlight) {
+      // The same index may be used by another leader if ours was not
+      // replicated, so the changes are compared too.
+      if (!inFlight.remove(executionIndex, changes)) {
+        addToCache.run();
+      }
+    }
+  }
+
+  /**
+   * Execute the request, or submit it to Ratis with the given function if
+   * it cannot be executed on the leader.
+   */
+  public OMResponse submit(OMRequest request, ClientInvocationId invocationId,
+      Function<OMRequest, CompletableFuture<OMResponse>> ratisSubmitter)
+      throws ServiceException {
+    if (!ozoneManager.getPrepareState().requestAllowed(request.getCmdType())) {
+      return OMResponse.newBuilder()
+          .setMessage("Cannot apply write request "
+              + request.getCmdType().name() + " when OM is in prepare mode.")
+          .setStatus(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED)
+          .setCmdType(request.getCmdType())
+          .setTraceID(request.getTraceID())
+          .setSuccess(false)
+          .build();
+    }
+    if (!ozoneManager.getVersionManager()
+        .isAllowed(OMLayoutFeature.LEADER_EXECUTION)) {
+      return join(ratisSubmitter.apply(request));
+    }
+    if (!isSupported(request.getCmdType())) {
+      return submitExclusively(request, ratisSubmitter);
+    }
+
+    final CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    final CompletableFuture<OMResponse> previous =
+        invocations.putIfAbsent(invocationId, future);
+    if (previous != null) {
+      // retry of a request still being executed
+      return join(previous);
+    }
+    try {
+      final OMResponse response = execute(request, invocationId);
+      future.complete(response);
+      return response;
+    } catch (ServiceException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      invocations.remove(invocationId, future);
+    }
+  }
+
+  private OMResponse submitExclusively(OMRequest request,
+      Function<OMRequest, CompletableFuture<OMResponse>> ratisSubmitter)
+      throws ServiceException {
+    final CompletableFuture<OMResponse> future;
+    gate.writeLock().lock();
+    try {
+      future = ratisSubmitter.apply(request.toBuilder()
+          .setExecutionIndex(nextExecutionIndex())
+          .build());
+      lastExclusive = future;
+    } finally {
+      gate.writeLock().unlock();
+    }
+    return join(future);
+  }
+
+  /**
+   * Wait for the requests submitted exclusively to be applied, since leader
+   * execution depends on their changes, and take the gate shared.
+   */
+  private void acquireGate() {
+    CompletableFuture<OMResponse> exclusive = lastExclusive;
+    while (true) {
+      awaitQuietly(exclusive);
+      gate.readLock().lock();
+      exclusive = lastExclusive;
+      if (exclusive.isDone()) {
+        return;
+      }
+      gate.readLock().unlock();
+    }
+  }
+
+  private OMResponse execute(OMRequest request,
+      ClientInvocationId invocationId) throws ServiceException {
+    final Stripe stripe = stripes[Math.floorMod(
+        OzoneManagerRatisUtils.getBucketKey(request).hashCode(),
+        BUCKET_STRIPES)];
+    final long index;
+    final OMRequest persistRequest;
+    final CompletableFuture<OMResponse> replicated;
+    final CompletableFuture<Void> previous;
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+    acquireGate();
+    try {
+      stripe.lock.lock();
+      try {
+        index = nextExecutionIndex();
+        final OMClientResponse clientResponse;
+        final OMResponse response;
+        try {
+          clientResponse = ozoneManager.getOmRatisServer().getOmStateMachine()
+              .getHandler().handleWriteRequestImpl(request,
+                  ExecutionContext.of(index, null));
+        } catch (IOException e) {
+          throw new ServiceException(e.getMessage(), e);
+        }
+        response = getResponse(clientResponse);
+        if (response.getStatus() != Status.OK) {
+          // nothing changed
+          return response;
+        }
+        try {
+          persistRequest = createPersistDbRequest(request, clientResponse,
+              response, index);
+        } catch (IOException e) {
+          // The cache has changes which cannot be replicated nor restored.
+          ExitUtils.terminate(1, "Failed to export the changes of "
+              + request.getCmdType() + " executed with index " + index, e, LOG);
+          throw new ServiceException(e);
+        }
+
+        inFlight.put(index, persistRequest.getPersistDbRequest());
+        replicated = ozoneManager.getOmRatisServer().submitRequestAsync(
+            persistRequest, invocationId.getClientId(),
+            invocationId.getLongId());
+        previous = stripe.last;
+        if (replicated.isCompletedExceptionally()) {
+          // Rejected before it was appended to the log, e.g. not the leader:
+          // restore the cache before the next request of the bucket reads it.
+          final ServiceException failure = getFailure(replicated);
+          awaitQuietly(previous);
+          restoreCache(index);
+          throw retriable(index, failure);
+        }
+        stripe.last = done;
+      } finally {
+        stripe.lock.unlock();
+      }
+    } finally {
+      gate.readLock().unlock();
+    }
+
+    try {
+      // Reply in the order of execution.  If the previous request of the
+      // bucket failed, this one was restored after it.
+      awaitQuietly(previous);
+      final OMResponse reply = join(replicated);
+      if (!reply.getSuccess()) {
+        throw new ServiceException("Failed to replicate execution index "
+            + index + ": " + reply.getStatus() + " " + reply.getMessage());
+      }
+      return persistRequest.getPersistDbRequest().getResponse().toBuilder()
+          .setLeaderOMNodeId(ozoneManager.getOMNodeId())
+          .build();
+    } catch (ServiceException e) {
+      // The changes may still be applied later, e.g. by a new leader, then
+      // the state machine adds them to the cache again.
+      restoreCache(index);
+      throw retriable(index, e);
+    } finally {
+      done.complete(null);
+    }
+  }
+
+  /**
+   * Restore the cache entries changed by the request with the given index
+   * from the DB, unless the state machine has applied its changes.
+   */
+  private void restoreCache(long index) {
+    synchronized (inFlight) {
+      final PersistDbRequest changes = inFlight.remove(index);
+      if (changes == null) {
+        return;
+      }
+      try {
+        // The changed entries may hide changes of earlier requests which are
+        // applied but not in the DB yet.
+        ozoneManager.getOmRatisServer().getOmStateMachine()
+            .awaitDoubleBufferFlush();
+        // The failed index is never flushed, so the restored entries are put
+        // in the epoch of the next execution index, which evicts them once
+        // it is flushed.
+        final long epoch = Math.max(lastExecutionIndex.get(),
+            lastAppliedExecutionIndex.getAsLong()) + 1;
+        OMPersistDbRequest.restoreCache(ozoneManager.getMetadataManager(),
+            changes, index, epoch);
+        LOG.info("Restored the cache after execution index {} failed to "
+            + "replicate", index);
+      } catch (IOException e) {
+        ExitUtils.terminate(1, "Failed to restore the cache changed by "
+            + "execution index " + index, e, LOG);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        ExitUtils.terminate(1, "Interrupted restoring the cache changed by "
+            + "execution index " + index, e, LOG);
+      }
+    }
+  }
+
+  /** Clients retry on another OM, or this one once it is the leader. */
+  private ServiceException retriable(long index, ServiceException e) {
+    if (e.getCause() instanceof OMNotLeaderException
+        || e.getCause() instanceof OMLeaderNotReadyException) {
+      return e;
+    }
+    LOG.warn("Failed to replicate execution index {}", index, e);
+    return new ServiceException(new OMLeaderNotReadyException(
+        ozoneManager.getOMNodeId() + " failed to replicate execution index "
+            + index + ": " + e.getMessage()));
+  }
+
+  private OMResponse getResponse(OMClientResponse clientResponse) {
+    final OMResponse response = clientResponse.getOMResponse();
+    if (clientResponse.getOmLockDetails() == null) {
+      return response;
+    }
+    return response.toBuilder().setOmLockDetails(
+        clientResponse.getOmLockDetails().toProtobufBuilder()).build();
+  }
+
+  private OMRequest createPersistDbRequest(OMRequest request,
+      OMClientResponse clientResponse, OMResponse response, long index)
+      throws IOException {
+    final Map<String, DBTableUpdate.Builder> updates = new LinkedHashMap<>();
+    try (RDBBatchOperation batch = RDBBatchOperation.newAtomicOperation()) {
+      clientResponse.checkAndUpdateDB(ozoneManager.getMetadataManager(),
+          batch);
+      batch.export((table, key, value) -> {
+        final DBTableRecord.Builder record = DBTableRecord.newBuilder()
+            .setKey(ByteString.copyFrom(key));
+        if (value != null) {
+          record.setValue(ByteString.copyFrom(value));
+        }
+        updates.computeIfAbsent(table,
+            name -> DBTableUpdate.newBuilder().setTableName(name))
+            .addRecords(record);
+      });
+    }
+
+    final PersistDbRequest.Builder persistDb = PersistDbRequest.newBuilder()
+        .setResponse(response);
+    updates.values().forEach(persistDb::addTableUpdates);
+    LOG.debug("Replicating {} with execution index {}: {} tables",
+        request.getCmdType(), index, updates.size());
+    return OMRequest.newBuilder()
+        .setCmdType(Type.PersistDb)
+        .setClientId(request.getClientId())
+        .setTraceID(request.getTraceID())
+        .setLayoutVersion(request.getLayoutVersion())
+        .setExecutionIndex(index)
+        .setPersistDbRequest(persistDb)
+        .build();
+  }
+
+  /**
+   * The next index is above any index used by this leader or applied by the
+   * state machine, which covers the indexes of the previous leaders.
+   */
+  @VisibleForTesting
+  long nextExecutionIndex() {
+    final long applied = lastAppliedExecutionIndex.getAsLong();
+    return lastExecutionIndex.updateAndGet(i -> Math.max(i, applied) + 1);
+  }
+
+  private static OMResponse join(CompletableFuture<OMResponse> future)
+      throws ServiceException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ServiceException) {
+        throw (ServiceException) e.getCause();
+      }
+      throw new ServiceException(e.getCause());
+    }
+  }
+
+  private static ServiceException getFailure(
+      CompletableFuture<OMResponse> future) {
+    try {
+      join(future);
+      throw new IllegalStateException("Not failed: " + future);
+    } catch (ServiceException e) {
+      return e;
+    }
+  }
+
+  /** Wait for the future, ignoring how it completes. */
+  private static void awaitQuietly(CompletableFuture<?> future) {
+    future.handle((r, e) -> null).join();
+  }
+
+  /** Orders the requests of the buckets hashed to it. */
+  private static final class Stripe {
+    private final Lock lock = new ReentrantLock();
+    /** Completed when the last request executed is done, guarded by lock. */
+    private CompletableFuture<Void> last =
+        CompletableFuture.completedFuture(null);
+  }
+}
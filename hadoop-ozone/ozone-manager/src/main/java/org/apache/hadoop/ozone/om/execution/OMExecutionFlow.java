@@ -17,17 +17,25 @@
 
 package org.apache.hadoop.ozone.om.execution;
 
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LEADER_EXECUTION_ENABLED;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LEADER_EXECUTION_ENABLED_DEFAULT;
 import static org.apache.hadoop.ozone.util.MetricUtil.captureLatencyNs;
 
 import com.google.protobuf.ServiceException;
 import java.io.IOException;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.helpers.OMAuditLogger;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
 import org.apache.hadoop.ozone.om.request.OMClientRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.ratis.protocol.ClientId;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.apache.ratis.util.function.CheckedRunnable;
 
 /**
  * entry for execution flow for write request.
@@ -36,10 +44,17 @@ public class OMExecutionFlow {
 
   private final OzoneManager ozoneManager;
   private final OMPerformanceMetrics perfMetrics;
+  /** Null unless key write requests are executed on the leader. */
+  private final LeaderRequestExecutor leaderExecutor;
 
   public OMExecutionFlow(OzoneManager om) {
     this.ozoneManager = om;
     this.perfMetrics = ozoneManager.getPerfMetrics();
+    final OzoneConfiguration conf = ozoneManager.getConfiguration();
+    this.leaderExecutor = conf != null && conf.getBoolean(
+        OZONE_OM_LEADER_EXECUTION_ENABLED,
+        OZONE_OM_LEADER_EXECUTION_ENABLED_DEFAULT)
+        ? new LeaderRequestExecutor(om) : null;
   }
 
   /**
@@ -76,11 +91,51 @@ private OMResponse submitExecutionToRatis(OMRequest request, boolean isWrite) th
       requestToSubmit = request;
     }
 
-    // 2. submit request to ratis
-    OMResponse response = ozoneManager.getOmRatisServer().submitRequest(requestToSubmit, isWrite);
+    // 2. submit request to ratis, or execute it on the leader
+    final OzoneManagerRatisServer ratisServer = ozoneManager.getOmRatisServer();
+    final OMResponse response;
+    if (isWrite && leaderExecutor != null) {
+      final ClientInvocationId invocationId = ratisServer.getInvocationId();
+      response = leaderExecutor.submit(requestToSubmit, invocationId,
+          r -> ratisServer.submitRequestAsync(r, invocationId.getClientId(), invocationId.getLongId()));
+    } else {
+      response = ratisServer.submitRequest(requestToSubmit, isWrite);
+    }
     if (!response.getSuccess() && omClientRequest != null) {
       omClientRequest.handleRequestFailure(ozoneManager);
     }
     return response;
   }
+
+  /**
+   * Internal request handling, for requests created by the OM itself.
+   *
+   * @param omRequest the request
+   * @param clientId the client id of the request in Ratis
+   * @param callId the call id of the request in Ratis
+   * @return OMResponse the response of execution
+   * @throws ServiceException the exception on execution
+   */
+  public OMResponse submitInternal(OMRequest omRequest, ClientId clientId, long callId) throws ServiceException {
+    final OzoneManagerRatisServer ratisServer = ozoneManager.getOmRatisServer();
+    if (leaderExecutor != null) {
+      return leaderExecutor.submit(omRequest, ClientInvocationId.valueOf(clientId, callId),
+          r -> ratisServer.submitRequestAsync(r, clientId, callId));
+    }
+    return ratisServer.submitRequest(omRequest, clientId, callId);
+  }
+
+  /**
+   * Apply the changes replicated with the given execution index to the cache
+   * with the given function, unless this OM executed the request as the
+   * leader and its changes are already in the cache.
+   */
+  public void applyToCache(long executionIndex, PersistDbRequest changes,
+      CheckedRunnable<IOException> addToCache) throws IOException {
+    if (leaderExecutor != null) {
+      leaderExecutor.applyToCache(executionIndex, changes, addToCache);
+    } else {
+      addToCache.run();
+    }
+  }
 }
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.BUCKET_LOCK;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.KEY_PATH_LOCK;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.Paths;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+
+/**
+ * Implementation of OzoneLockStrategy interface. Concrete strategy for FSO
+ * KEY_PATH_LOCK.
+ * <p>
+ * The key is locked by its parent directory object ID and file name, which
+ * is its path in the file table, under the BUCKET_LOCK read lock.  The
+ * parent directories cannot change while the BUCKET_LOCK read lock is held,
+ * since creating or deleting a directory needs the write lock.  If a parent
+ * directory is missing, the request is going to create it, so the
+ * BUCKET_LOCK write lock is acquired instead.
+ * <p>
+ * Only key and file creation use this strategy.  Key commit and block
+ * allocation still take the BUCKET_LOCK write lock, since they update the
+ * bucket quota counters, so writes to the same bucket remain serialized.
+ * <p>
+ * An instance remembers which lock it has acquired, so it must be used for
+ * a single request.
+ */
+public class FSOKeyPathLockStrategy implements OzoneLockStrategy {
+
+  /** The KEY_PATH_LOCK key, null if the bucket is locked exclusively. */
+  private String lockedPath;
+  private boolean bucketWriteLocked;
+
+  @Override
+  public OMLockDetails acquireWriteLock(OMMetadataManager omMetadataManager,
+                                  String volumeName, String bucketName,
+                                  String keyName) throws IOException {
+    OMFileRequest.validateBucket(omMetadataManager, volumeName, bucketName);
+
+    OMLockDetails omLockDetails = omMetadataManager.getLock().acquireReadLock(
+        BUCKET_LOCK, volumeName, bucketName);
+
+    Preconditions.checkArgument(omLockDetails.isLockAcquired(),
+        "BUCKET_LOCK should be acquired!");
+
+    final String path;
+    try {
+      path = getPathInParent(omMetadataManager, volumeName, bucketName,
+          keyName);
+    } catch (IOException | RuntimeException e) {
+      omMetadataManager.getLock()
+          .releaseReadLock(BUCKET_LOCK, volumeName, bucketName);
+      throw e;
+    }
+
+    if (path == null) {
+      omMetadataManager.getLock()
+          .releaseReadLock(BUCKET_LOCK, volumeName, bucketName);
+      bucketWriteLocked = true;
+      return omMetadataManager.getLock()
+          .acquireWriteLock(BUCKET_LOCK, volumeName, bucketName);
+    }
+
+    lockedPath = path;
+    omLockDetails.merge(omMetadataManager.getLock()
+        .acquireWriteLock(KEY_PATH_LOCK, volumeName, bucketName, lockedPath));
+    return omLockDetails;
+  }
+
+  @Override
+  public OMLockDetails releaseWriteLock(OMMetadataManager omMetadataManager,
+                               String volumeName, String bucketName,
+                               String keyName) {
+    if (bucketWriteLocked) {
+      bucketWriteLocked = false;
+      return omMetadataManager.getLock()
+          .releaseWriteLock(BUCKET_LOCK, volumeName, bucketName);
+    }
+    OMLockDetails omLockDetails = omMetadataManager.getLock()
+        .releaseWriteLock(KEY_PATH_LOCK, volumeName, bucketName, lockedPath);
+    lockedPath = null;
+    omLockDetails.merge(omMetadataManager.getLock()
+        .releaseReadLock(BUCKET_LOCK, volumeName, bucketName));
+    return omLockDetails;
+  }
+
+  @Override
+  public OMLockDetails acquireReadLock(OMMetadataManager omMetadataManager,
+                                 String volumeName, String bucketName,
+                                 String keyName) throws IOException {
+    OMFileRequest.validateBucket(omMetadataManager, volumeName, bucketName);
+
+    OMLockDetails omLockDetails = omMetadataManager.getLock().acquireReadLock(
+        BUCKET_LOCK, volumeName, bucketName);
+
+    Preconditions.checkArgument(omLockDetails.isLockAcquired(),
+        "BUCKET_LOCK should be acquired!");
+
+    try {
+      lockedPath = getPathInParent(omMetadataManager, volumeName, bucketName,
+          keyName);
+    } catch (IOException | RuntimeException e) {
+      omMetadataManager.getLock()
+          .releaseReadLock(BUCKET_LOCK, volumeName, bucketName);
+      throw e;
+    }
+
+    // Without the parent directories, the key does not exist and
+    // the BUCKET_LOCK read lock is enough.
+    if (lockedPath != null) {
+      omLockDetails.merge(omMetadataManager.getLock()
+          .acquireReadLock(KEY_PATH_LOCK, volumeName, bucketName, lockedPath));
+    }
+    return omLockDetails;
+  }
+
+  @Override
+  public OMLockDetails releaseReadLock(OMMetadataManager omMetadataManager,
+                              String volumeName, String bucketName,
+                              String keyName) {
+    if (lockedPath == null) {
+      return omMetadataManager.getLock()
+          .releaseReadLock(BUCKET_LOCK, volumeName, bucketName);
+    }
+    OMLockDetails omLockDetails = omMetadataManager.getLock()
+        .releaseReadLock(KEY_PATH_LOCK, volumeName, bucketName, lockedPath);
+    lockedPath = null;
+    omLockDetails.merge(omMetadataManager.getLock()
+        .releaseReadLock(BUCKET_LOCK, volumeName, bucketName));
+    return omLockDetails;
+  }
+
+  /** @return whether the bucket is locked exclusively. */
+  @VisibleForTesting
+  boolean isBucketWriteLocked() {
+    return bucketWriteLocked;
+  }
+
+  /** @return the KEY_PATH_LOCK key of the locked key, if any. */
+  @VisibleForTesting
+  String getLockedPath() {
+    return lockedPath;
+  }
+
+  /**
+   * @return the parent object ID and the file name of the key, or null if
+   * any of its parent directories is missing.
+   */
+  private static String getPathInParent(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String keyName)
+      throws IOException {
+    final OMFileRequest.OMPathInfoWithFSO pathInfo =
+        OMFileRequest.verifyDirectoryKeysInPath(omMetadataManager, volumeName,
+            bucketName, keyName, Paths.get(keyName));
+    if (!pathInfo.getMissingParents().isEmpty()) {
+      return null;
+    }
+    return pathInfo.getLastKnownParentId() + OM_KEY_PREFIX
+        + pathInfo.getLeafNodeName();
+  }
+}
@@ -22,6 +22,8 @@
 
 import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
 
@@ -90,4 +92,46 @@ public OMLockDetails releaseReadLock(OMMetadataManager omMetadataManager,
         .releaseReadLock(BUCKET_LOCK, volumeName, bucketName));
     return omLockDetails;
   }
+
+  /**
+   * Both key paths are locked together, in the order of their stripes, so
+   * that concurrent renames cannot deadlock.
+   */
+  @Override
+  public OMLockDetails acquireRenameLock(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String fromKeyName,
+      String toKeyName) throws IOException {
+    OMFileRequest.validateBucket(omMetadataManager, volumeName, bucketName);
+
+    OMLockDetails omLockDetails = omMetadataManager.getLock().acquireReadLock(
+        BUCKET_LOCK, volumeName, bucketName);
+
+    Preconditions.checkArgument(omLockDetails.isLockAcquired(),
+        "BUCKET_LOCK should be acquired!");
+
+    omLockDetails.merge(omMetadataManager.getLock().acquireWriteLocks(
+        KEY_PATH_LOCK, renameKeys(volumeName, bucketName, fromKeyName,
+            toKeyName)));
+
+    return omLockDetails;
+  }
+
+  @Override
+  public OMLockDetails releaseRenameLock(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String fromKeyName,
+      String toKeyName) {
+    OMLockDetails omLockDetails = omMetadataManager.getLock()
+        .releaseWriteLocks(KEY_PATH_LOCK, renameKeys(volumeName, bucketName,
+            fromKeyName, toKeyName));
+    omLockDetails.merge(omMetadataManager.getLock()
+        .releaseReadLock(BUCKET_LOCK, volumeName, bucketName));
+    return omLockDetails;
+  }
+
+  private static List<String[]> renameKeys(String volumeName,
+      String bucketName, String fromKeyName, String toKeyName) {
+    return Arrays.asList(
+        new String[] {volumeName, bucketName, fromKeyName},
+        new String[] {volumeName, bucketName, toKeyName});
+  }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.hadoop.ozone.om.lock;
 
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.BUCKET_LOCK;
+
 import java.io.IOException;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 
@@ -42,4 +44,22 @@ OMLockDetails acquireReadLock(OMMetadataManager omMetadataManager,
 
   OMLockDetails releaseReadLock(OMMetadataManager omMetadataManager,
       String volumeName, String bucketName, String keyName);
+
+  /**
+   * Acquire the locks to rename fromKeyName to toKeyName.  By default, the
+   * bucket is locked exclusively.
+   */
+  default OMLockDetails acquireRenameLock(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String fromKeyName,
+      String toKeyName) throws IOException {
+    return omMetadataManager.getLock()
+        .acquireWriteLock(BUCKET_LOCK, volumeName, bucketName);
+  }
+
+  default OMLockDetails releaseRenameLock(OMMetadataManager omMetadataManager,
+      String volumeName, String bucketName, String fromKeyName,
+      String toKeyName) {
+    return omMetadataManager.getLock()
+        .releaseWriteLock(BUCKET_LOCK, volumeName, bucketName);
+  }
 }
@@ -28,6 +28,7 @@
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -99,6 +100,8 @@ public class OzoneManagerLock implements IOzoneManagerLock {
   private final ResourceLocks<DAGLeveledResource> dagLeveledResourceLocks;
 
   private final OMLockMetrics omLockMetrics = OMLockMetrics.create();
+  /** The index of each {@link LeveledResource#KEY_PATH_LOCK} stripe. */
+  private final Map<ReentrantReadWriteLock, Integer> keyPathLockStripes;
 
   class ResourceLocks<R extends Resource> {
     private final Map<R, Striped<ReentrantReadWriteLock>> lockMap;
@@ -132,6 +135,7 @@ private ReentrantReadWriteLock getLockWithCombinedKey(R r, Object combinedKey) {
     }
 
     private void acquireLock(R resource, boolean isRead, ReentrantReadWriteLock lock, long startWaitingTimeNanos) {
+      updateKeyPathLockContention(resource, isRead, lock);
       if (isRead) {
         lock.readLock().lock();
         updateReadLockMetrics(resource, tracker, lock, startWaitingTimeNanos);
@@ -229,6 +233,15 @@ List<String> getCurrentLocks() {
   public OzoneManagerLock(ConfigurationSource conf) {
     this.leveledResourceLocks = newResourceLocks(LeveledResourceLockTracker.get(), conf);
     this.dagLeveledResourceLocks = newResourceLocks(DAGResourceLockTracker.get(), conf);
+
+    final Striped<ReentrantReadWriteLock> keyPathLocks =
+        leveledResourceLocks.lockMap.get(LeveledResource.KEY_PATH_LOCK);
+    final Map<ReentrantReadWriteLock, Integer> stripes = new IdentityHashMap<>(keyPathLocks.size());
+    for (int i = 0; i < keyPathLocks.size(); i++) {
+      stripes.put(keyPathLocks.getAt(i), i);
+    }
+    this.keyPathLockStripes = Collections.unmodifiableMap(stripes);
+    omLockMetrics.initKeyPathLockStripes(keyPathLocks.size());
   }
 
   private <T extends Enum<T> & Resource> ResourceLocks<T> newResourceLocks(
@@ -423,6 +436,55 @@ private void updateWriteLockMetrics(Resource resource, ResourceLockTracker<? ext
     }
   }
 
+  /**
+   * Counts the acquisitions of a key path lock stripe which have to wait for
+   * another thread.  The lock is only inspected, not tried, since a tryLock
+   * would barge ahead of the queued threads of a fair lock.  The check races
+   * with the other threads, which is good enough to find the hot stripes.
+   */
+  private void updateKeyPathLockContention(Resource resource, boolean isRead,
+      ReentrantReadWriteLock lock) {
+    final Integer stripe = getKeyPathLockStripe(resource, lock);
+    if (stripe == null || lock.isWriteLockedByCurrentThread()) {
+      return;
+    }
+    final boolean contended;
+    if (isRead) {
+      contended = lock.getReadHoldCount() == 0
+          && (lock.isWriteLocked() || lock.hasQueuedThreads());
+    } else {
+      contended = lock.isWriteLocked() || lock.getReadLockCount() > 0
+          || lock.hasQueuedThreads();
+    }
+    if (contended) {
+      omLockMetrics.incKeyPathLockContended(stripe);
+    }
+  }
+
+  private void updateKeyPathLockHeldTime(Resource resource,
+      ReentrantReadWriteLock lock, long heldTimeNanos) {
+    final Integer stripe = getKeyPathLockStripe(resource, lock);
+    if (stripe != null) {
+      omLockMetrics.addKeyPathLockHeldTime(stripe, heldTimeNanos);
+    }
+  }
+
+  private Integer getKeyPathLockStripe(Resource resource,
+      ReentrantReadWriteLock lock) {
+    return resource == LeveledResource.KEY_PATH_LOCK
+        ? keyPathLockStripes.get(lock) : null;
+  }
+
+  /**
+   * Returns the index of the {@link LeveledResource#KEY_PATH_LOCK} stripe
+   * for the given keys.
+   */
+  @VisibleForTesting
+  int getKeyPathLockStripe(String... keys) {
+    return keyPathLockStripes.get(leveledResourceLocks.getLockForTesting(
+        LeveledResource.KEY_PATH_LOCK, keys));
+  }
+
   @VisibleForTesting
   int getCurrentLockSizeForTesting() {
     return leveledResourceLocks.getCurrentLocks().size() + dagLeveledResourceLocks.getCurrentLocks().size();
@@ -537,6 +599,7 @@ private void updateReadUnlockMetrics(Resource resource, ResourceLockTracker<? ex
       omLockMetrics.setReadLockHeldTimeMsStat(
           TimeUnit.NANOSECONDS.toMillis(readLockHeldTimeNanos));
       updateProcessingDetails(tracker, Timing.LOCKSHARED, readLockHeldTimeNanos);
+      updateKeyPathLockHeldTime(resource, lock, readLockHeldTimeNanos);
     }
   }
 
@@ -555,6 +618,7 @@ private void updateWriteUnlockMetrics(Resource resource, ResourceLockTracker<? e
       omLockMetrics.setWriteLockHeldTimeMsStat(
           TimeUnit.NANOSECONDS.toMillis(writeLockHeldTimeNanos));
       updateProcessingDetails(tracker, Timing.LOCKEXCLUSIVE, writeLockHeldTimeNanos);
+      updateKeyPathLockHeldTime(resource, lock, writeLockHeldTimeNanos);
     }
   }
 
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the transactions applied by {@link OzoneManagerStateMachine}
+ * to a pool of threads.
+ * <p>
+ * A transaction limited to a bucket is executed after the previous
+ * transaction of the same bucket, concurrently with the transactions of
+ * other buckets.  Any other transaction is a barrier: it is executed after
+ * all previous transactions are completed, and the following transactions
+ * are executed after it is completed.
+ * <p>
+ * Regardless of the order of execution, transactions are completed in the
+ * order they are submitted, so that the responses are added to the double
+ * buffer in log order.
+ * <p>
+ * {@link #submit} must be called by one thread at a time, as Ratis does with
+ * applyTransaction.
+ */
+public class ApplyTransactionScheduler {
+
+  private static final CompletableFuture<Void> COMPLETED =
+      CompletableFuture.completedFuture(null);
+
+  private final ExecutorService executor;
+  /** The last execution of each bucket since the last barrier. */
+  private final Map<String, CompletableFuture<?>> lastOfBucket =
+      new ConcurrentHashMap<>();
+  /** The completion of the last barrier. */
+  private CompletableFuture<?> lastBarrier = COMPLETED;
+  /** The completion of the last transaction. */
+  private CompletableFuture<?> lastCompleted = COMPLETED;
+
+  public ApplyTransactionScheduler(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Schedule a transaction.
+   *
+   * @param bucketKey the bucket the transaction is limited to,
+   *                  null for a barrier
+   * @param execute executes the transaction in the thread pool
+   * @param complete completes the executed transaction, in submission order
+   * @return the result of complete
+   */
+  public <T, R> CompletableFuture<R> submit(String bucketKey,
+      Supplier<T> execute, Function<T, R> complete) {
+    final CompletableFuture<?> dependency = bucketKey == null ? lastCompleted
+        : lastOfBucket.getOrDefault(bucketKey, lastBarrier);
+    final CompletableFuture<T> executed = ignoreFailure(dependency)
+        .thenApplyAsync(v -> execute.get(), executor);
+    final CompletableFuture<R> completed = ignoreFailure(lastCompleted)
+        .thenCombine(executed, (v, result) -> complete.apply(result));
+    lastCompleted = completed;
+
+    if (bucketKey == null) {
+      lastBarrier = completed;
+      lastOfBucket.clear();
+    } else {
+      lastOfBucket.put(bucketKey, executed);
+      // the following transactions of the bucket depend on the last barrier
+      executed.whenComplete((r, e) -> lastOfBucket.remove(bucketKey, executed));
+    }
+    return completed;
+  }
+
+  /** @return the number of buckets with transactions being executed. */
+  int getActiveBuckets() {
+    return lastOfBucket.size();
+  }
+
+  private static CompletableFuture<?> ignoreFailure(
+      CompletableFuture<?> future) {
+    return future.handle((r, e) -> null);
+  }
+}
@@ -17,23 +17,29 @@
 
 package org.apache.hadoop.ozone.om.ratis;
 
+import static org.apache.hadoop.ozone.OzoneConsts.OM_EXECUTION_INDEX_KEY;
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -50,6 +56,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.util.Daemon;
 import org.apache.hadoop.util.Time;
+import org.apache.hadoop.util.concurrent.HadoopExecutors;
 import org.apache.ratis.server.protocol.TermIndex;
 import org.apache.ratis.util.ExitUtils;
 import org.apache.ratis.util.Preconditions;
@@ -65,7 +72,10 @@
  * any entries, it swaps the buffer and creates a batch and commit to DB.
  * Adding OM request to doubleBuffer and swap of buffer are synchronized
  * methods.
- *
+ * <p>
+ * When pipelined, the flush thread only prepares the batches: the next batch
+ * is built while the previous one is committed to DB by another thread, and
+ * the table caches are cleaned up by a third thread after the commit.
  */
 public final class OzoneManagerDoubleBuffer {
 
@@ -95,6 +105,29 @@ public final class OzoneManagerDoubleBuffer {
 
   private final boolean isTracingEnabled;
 
+  /**
+   * The batches containing these responses are not prepared while the
+   * previous batch is being committed, since they read the DB or snapshot
+   * checkpoints when added to the batch.
+   */
+  private static final Set<OzoneManagerProtocolProtos.Type> PIPELINE_BARRIER_TYPES = EnumSet.of(
+      OzoneManagerProtocolProtos.Type.CreateSnapshot,
+      OzoneManagerProtocolProtos.Type.DeleteSnapshot,
+      OzoneManagerProtocolProtos.Type.RenameSnapshot,
+      OzoneManagerProtocolProtos.Type.SetSnapshotProperty,
+      OzoneManagerProtocolProtos.Type.SnapshotPurge,
+      OzoneManagerProtocolProtos.Type.SnapshotMoveDeletedKeys,
+      OzoneManagerProtocolProtos.Type.SnapshotMoveTableKeys,
+      OzoneManagerProtocolProtos.Type.PurgeKeys,
+      OzoneManagerProtocolProtos.Type.PurgeDirectories);
+
+  /** Commits the batches prepared by the {@link #daemon}, null if not pipelined. */
+  private final ExecutorService commitExecutor;
+  /** Cleans up the table caches after commit, null if not pipelined. */
+  private final ExecutorService cleanupExecutor;
+  /** The commit of the last batch prepared by the {@link #daemon}. */
+  private volatile CompletableFuture<Void> pendingCommit = CompletableFuture.completedFuture(null);
+
   private final OzoneManagerDoubleBufferMetrics metrics = OzoneManagerDoubleBufferMetrics.create();
 
   /** Accumulative count (for testing and debug only). */
@@ -105,10 +138,13 @@ public final class OzoneManagerDoubleBuffer {
   /** Entry for {@link #currentBuffer} and {@link #readyBuffer}. */
   private static class Entry {
     private final TermIndex termIndex;
+    /** The index the request was executed with, the epoch of its cache entries. */
+    private final long executionIndex;
     private final OMClientResponse response;
 
-    Entry(TermIndex termIndex, OMClientResponse response) {
+    Entry(TermIndex termIndex, long executionIndex, OMClientResponse response) {
       this.termIndex = termIndex;
+      this.executionIndex = executionIndex;
       this.response = response;
     }
 
@@ -116,11 +152,33 @@ TermIndex getTermIndex() {
       return termIndex;
     }
 
+    long getExecutionIndex() {
+      return executionIndex;
+    }
+
     OMClientResponse getResponse() {
       return response;
     }
   }
 
+  /** A batch prepared from a buffer, to be committed to DB. */
+  private static final class PreparedBatch {
+    private final BatchOperation batchOperation;
+    private final String lastTraceId;
+    private final int size;
+    private final TermIndex lastTransaction;
+    private final Map<String, List<Long>> cleanupEpochs;
+
+    PreparedBatch(BatchOperation batchOperation, String lastTraceId, int size,
+        TermIndex lastTransaction, Map<String, List<Long>> cleanupEpochs) {
+      this.batchOperation = batchOperation;
+      this.lastTraceId = lastTraceId;
+      this.size = size;
+      this.lastTransaction = lastTransaction;
+      this.cleanupEpochs = cleanupEpochs;
+    }
+  }
+
   /**
    *  Builder for creating OzoneManagerDoubleBuffer.
    */
@@ -128,6 +186,7 @@ public static final class Builder {
     private OMMetadataManager omMetadataManager;
     private Consumer<TermIndex> updateLastAppliedIndex = termIndex -> { };
     private boolean isTracingEnabled = false;
+    private boolean isPipelineEnabled = false;
     private int maxUnFlushedTransactionCount = 0;
     private FlushNotifier flushNotifier;
     private S3SecretManager s3SecretManager;
@@ -150,6 +209,11 @@ public Builder enableTracing(boolean enableTracing) {
       return this;
     }
 
+    public Builder enablePipeline(boolean enablePipeline) {
+      this.isPipelineEnabled = enablePipeline;
+      return this;
+    }
+
     public Builder setMaxUnFlushedTransactionCount(int maxUnFlushedTransactionCount) {
       this.maxUnFlushedTransactionCount = maxUnFlushedTransactionCount;
       return this;
@@ -200,6 +264,19 @@ private OzoneManagerDoubleBuffer(Builder b) {
     this.unFlushedTransactions = newSemaphore(b.maxUnFlushedTransactionCount);
 
     this.isTracingEnabled = b.isTracingEnabled;
+    if (b.isPipelineEnabled) {
+      this.commitExecutor = HadoopExecutors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat(b.threadPrefix + "OMDoubleBufferCommitThread")
+              .build());
+      this.cleanupExecutor = HadoopExecutors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat(b.threadPrefix + "OMDoubleBufferCleanupThread")
+              .build());
+    } else {
+      this.commitExecutor = null;
+      this.cleanupExecutor = null;
+    }
 
     // Daemon thread which runs in background and flushes transactions to DB.
     daemon = new Daemon(this::flushTransactions);
@@ -293,7 +370,7 @@ private void addToBatchTransactionInfoWithTrace(String parentName,
    */
   @VisibleForTesting
   public void flushTransactions() {
-    while (isRunning.get() && canFlush()) {
+    while (isRunning.get() && awaitPendingCommitIfIdle() && canFlush()) {
       // Check if paused
       synchronized (this) {
         while (isPaused.get() && isRunning.get()) {
@@ -338,8 +415,27 @@ void flushCurrentBuffer() {
       // Flush #4: [snapshotRequest2]
       // Flush #5: [request4]
       final List<Queue<Entry>> bufferQueues = splitReadyBufferAtCreateSnapshot();
+      if (commitExecutor != null) {
+        for (Queue<Entry> buffer : bufferQueues) {
+          if (isPipelineBarrier(buffer)) {
+            awaitPendingCommit();
+          }
+          final PreparedBatch batch = prepareBatch(buffer);
+          // Wait for the previous batch, which was committed while this batch
+          // was prepared.
+          final long startTime = Time.monotonicNow();
+          awaitPendingCommit();
+          metrics.updatePipelineWaitTime(Time.monotonicNow() - startTime);
+          pendingCommit = CompletableFuture.runAsync(
+              () -> commitPreparedBatch(batch), commitExecutor);
+        }
+        clearReadyBuffer();
+        pendingCommit = pendingCommit.thenRun(flushNotifier::notifyFlush);
+        return;
+      }
+
       for (Queue<Entry> buffer : bufferQueues) {
-        flushBatch(buffer);
+        commitBatch(prepareBatch(buffer));
       }
 
       clearReadyBuffer();
@@ -351,7 +447,8 @@ void flushCurrentBuffer() {
     }
   }
 
-  private void flushBatch(Queue<Entry> buffer) throws IOException {
+  private PreparedBatch prepareBatch(Queue<Entry> buffer) throws IOException {
+    final long startTime = Time.monotonicNow();
     Map<String, List<Long>> cleanupEpochs = new HashMap<>();
     // Commit transaction info to DB.
     final List<TermIndex> flushedTransactions = buffer.stream()
@@ -360,11 +457,15 @@ private void flushBatch(Queue<Entry> buffer) throws IOException {
         .collect(Collectors.toList());
     final int flushedTransactionsSize = flushedTransactions.size();
     final TermIndex lastTransaction = flushedTransactions.get(flushedTransactionsSize - 1);
+    final long lastExecutionIndex = buffer.stream()
+        .mapToLong(Entry::getExecutionIndex)
+        .max().orElse(lastTransaction.getIndex());
 
-    try (BatchOperation batchOperation = omMetadataManager.getStore()
-        .initBatchOperation()) {
-
-      String lastTraceId = addToBatch(buffer, batchOperation);
+    final BatchOperation batchOperation = omMetadataManager.getStore()
+        .initBatchOperation();
+    final String lastTraceId;
+    try {
+      lastTraceId = addToBatch(buffer, batchOperation);
 
       buffer.iterator().forEachRemaining(
           entry -> addCleanupEntry(entry, cleanupEpochs));
@@ -374,29 +475,96 @@ private void flushBatch(Queue<Entry> buffer) throws IOException {
           lastTransaction.getIndex(),
           () -> omMetadataManager.getTransactionInfoTable().putWithBatch(
               batchOperation, TRANSACTION_INFO_KEY, TransactionInfo.valueOf(lastTransaction)));
+      if (lastExecutionIndex > lastTransaction.getIndex()) {
+        omMetadataManager.getMetaTable().putWithBatch(batchOperation,
+            OM_EXECUTION_INDEX_KEY, String.valueOf(lastExecutionIndex));
+      }
+    } catch (IOException | RuntimeException e) {
+      batchOperation.close();
+      throw e;
+    }
+
+    metrics.updatePrepareTime(Time.monotonicNow() - startTime);
+    return new PreparedBatch(batchOperation, lastTraceId,
+        flushedTransactionsSize, lastTransaction, cleanupEpochs);
+  }
 
+  private void commitBatch(PreparedBatch batch) throws IOException {
+    try (BatchOperation batchOperation = batch.batchOperation) {
       long startTime = Time.monotonicNow();
-      flushBatchWithTrace(lastTraceId, buffer.size(),
+      flushBatchWithTrace(batch.lastTraceId, batch.size,
           () -> omMetadataManager.getStore()
               .commitBatchOperation(batchOperation));
 
       metrics.updateFlushTime(Time.monotonicNow() - startTime);
     }
 
-    final long accumulativeCount = flushedTransactionCount.addAndGet(flushedTransactionsSize);
+    final long accumulativeCount = flushedTransactionCount.addAndGet(batch.size);
     final long flushedIterations = flushIterations.incrementAndGet();
     LOG.debug("Sync iteration: {}, size in this iteration: {}, accumulative count: {}",
-        flushedIterations, flushedTransactionsSize, accumulativeCount);
+        flushedIterations, batch.size, accumulativeCount);
 
     // Clean up committed transactions.
-    cleanupCache(cleanupEpochs);
+    if (cleanupExecutor == null) {
+      cleanupCache(batch.cleanupEpochs);
+    }
 
-    releaseUnFlushedTransactions(flushedTransactionsSize);
+    releaseUnFlushedTransactions(batch.size);
     // update the last updated index in OzoneManagerStateMachine.
-    updateLastAppliedIndex.accept(lastTransaction);
+    updateLastAppliedIndex.accept(batch.lastTransaction);
 
     // set metrics.
-    metrics.updateFlush(flushedTransactionsSize);
+    metrics.updateFlush(batch.size);
+
+    if (cleanupExecutor != null) {
+      // The cache entries are in DB now, removing them is not urgent.
+      cleanupExecutor.execute(() -> {
+        try {
+          cleanupCache(batch.cleanupEpochs);
+        } catch (Throwable t) {
+          terminate(t, 2);
+        }
+      });
+    }
+  }
+
+  /** Commit a batch prepared by the {@link #daemon} in {@link #commitExecutor}. */
+  private void commitPreparedBatch(PreparedBatch batch) {
+    try {
+      commitBatch(batch);
+    } catch (IOException ex) {
+      terminate(ex, 1);
+    } catch (Throwable t) {
+      terminate(t, 2);
+    }
+  }
+
+  /** Wait for the commit of the last batch prepared by the {@link #daemon}. */
+  @VisibleForTesting
+  void awaitPendingCommit() {
+    pendingCommit.join();
+  }
+
+  /**
+   * Before {@link #canFlush()} notifies the flush of empty buffers, the
+   * batches prepared earlier must be committed.
+   * @return true
+   */
+  private boolean awaitPendingCommitIfIdle() {
+    if (currentBuffer.isEmpty()) {
+      awaitPendingCommit();
+    }
+    return true;
+  }
+
+  private static boolean isPipelineBarrier(Queue<Entry> buffer) {
+    for (Entry entry : buffer) {
+      if (PIPELINE_BARRIER_TYPES.contains(
+          entry.getResponse().getOMResponse().getCmdType())) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private String addToBatch(Queue<Entry> buffer, BatchOperation batchOperation) {
@@ -486,7 +654,7 @@ private void addCleanupEntry(Entry entry, Map<String, List<Long>> cleanupEpochs)
       }
       for (String table : cleanupTables) {
         cleanupEpochs.computeIfAbsent(table, list -> new ArrayList<>())
-            .add(entry.getTermIndex().getIndex());
+            .add(entry.getExecutionIndex());
       }
     } else {
       // This is to catch early errors, when a new response class missed to
@@ -497,6 +665,7 @@ private void addCleanupEntry(Entry entry, Map<String, List<Long>> cleanupEpochs)
   }
 
   private void cleanupCache(Map<String, List<Long>> cleanupEpochs) {
+    final long startTime = Time.monotonicNow();
     cleanupEpochs.forEach((tableName, epochs) -> {
       Collections.sort(epochs);
       omMetadataManager.getTable(tableName).cleanupCache(epochs);
@@ -505,6 +674,7 @@ private void cleanupCache(Map<String, List<Long>> cleanupEpochs) {
         s3SecretManager.clearS3Cache(epochs);
       }
     });
+    metrics.updateCleanupTime(Time.monotonicNow() - startTime);
   }
 
   private synchronized void clearReadyBuffer() {
@@ -519,6 +689,10 @@ private synchronized void clearReadyBuffer() {
   @SuppressWarnings("squid:S2142")
   public void stop() {
     stopDaemon();
+    if (commitExecutor != null) {
+      HadoopExecutors.shutdown(commitExecutor, LOG, 5, TimeUnit.SECONDS);
+      HadoopExecutors.shutdown(cleanupExecutor, LOG, 5, TimeUnit.SECONDS);
+    }
     metrics.unRegister();
   }
 
@@ -554,8 +728,18 @@ private void terminate(Throwable t, int status, OMResponse omResponse) {
   /**
    * Add OmResponseBufferEntry to buffer.
    */
-  public synchronized void add(OMClientResponse response, TermIndex termIndex) {
-    currentBuffer.add(new Entry(termIndex, response));
+  public void add(OMClientResponse response, TermIndex termIndex) {
+    add(response, termIndex, termIndex.getIndex());
+  }
+
+  /**
+   * Add to the buffer the response of a request executed with the given
+   * index, which may differ from the index of its log entry when requests
+   * are executed on the leader.
+   */
+  public synchronized void add(OMClientResponse response, TermIndex termIndex,
+      long executionIndex) {
+    currentBuffer.add(new Entry(termIndex, executionIndex, response));
     notify();
   }
 
@@ -52,6 +52,19 @@ public class OzoneManagerDoubleBufferMetrics {
       " rocksdb batch commit time.")
   private MutableRate flushTime;
 
+  @Metric(about = "DoubleBuffer prepareTime. This metrics captures the time " +
+      "to add the responses of an iteration to a rocksdb batch.")
+  private MutableRate prepareTime;
+
+  @Metric(about = "DoubleBuffer cleanupTime. This metrics captures the time " +
+      "to clean up the table caches after a batch commit.")
+  private MutableRate cleanupTime;
+
+  @Metric(about = "DoubleBuffer pipelineWaitTime. When the flush is " +
+      "pipelined, this metrics captures the time a prepared batch waits " +
+      "for the commit of the previous batch.")
+  private MutableRate pipelineWaitTime;
+
   @Metric(about = "Average number of transactions flushed in a single " +
       "iteration")
   private MutableGaugeFloat avgFlushTransactionsInOneIteration;
@@ -115,6 +128,30 @@ MutableRate getFlushTime() {
     return flushTime;
   }
 
+  public void updatePrepareTime(long time) {
+    prepareTime.add(time);
+  }
+
+  MutableRate getPrepareTime() {
+    return prepareTime;
+  }
+
+  public void updateCleanupTime(long time) {
+    cleanupTime.add(time);
+  }
+
+  MutableRate getCleanupTime() {
+    return cleanupTime;
+  }
+
+  public void updatePipelineWaitTime(long time) {
+    pipelineWaitTime.add(time);
+  }
+
+  MutableRate getPipelineWaitTime() {
+    return pipelineWaitTime;
+  }
+
   public float getAvgFlushTransactionsInOneIteration() {
     return avgFlushTransactionsInOneIteration.value();
   }
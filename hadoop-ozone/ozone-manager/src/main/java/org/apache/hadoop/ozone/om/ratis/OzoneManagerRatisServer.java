@@ -42,6 +42,8 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -101,6 +103,7 @@
 import org.apache.ratis.server.RetryCache;
 import org.apache.ratis.server.protocol.TermIndex;
 import org.apache.ratis.server.storage.RaftStorage;
+import org.apache.ratis.util.JavaUtils;
 import org.apache.ratis.util.LifeCycle;
 import org.apache.ratis.util.MemoizedSupplier;
 import org.apache.ratis.util.SizeInBytes;
@@ -299,7 +302,48 @@ private RaftClientRequest createRaftRequest(OMRequest omRequest, boolean isWrite
    * @throws ServiceException
    */
   public OMResponse submitRequest(OMRequest omRequest, ClientId cliId, long callId) throws ServiceException {
-    RaftClientRequest raftClientRequest = RaftClientRequest.newBuilder()
+    RaftClientRequest raftClientRequest =
+        createWriteRequest(omRequest, cliId, callId);
+    RaftClientReply raftClientReply =
+        submitRequestToRatis(raftClientRequest);
+    return createOmResponse(omRequest, raftClientReply);
+  }
+
+  /**
+   * Same as {@link #submitRequest(OMRequest, ClientId, long)}, without
+   * waiting for the request to be applied.  The request is appended to the
+   * log, or rejected, before this returns, so requests submitted one after
+   * the other are in the log in the same order.
+   * @return the future of the response, completed exceptionally with a
+   * {@link ServiceException} if the request fails.
+   */
+  public CompletableFuture<OMResponse> submitRequestAsync(OMRequest omRequest,
+      ClientId cliId, long callId) {
+    final RaftClientRequest raftClientRequest =
+        createWriteRequest(omRequest, cliId, callId);
+    final CompletableFuture<RaftClientReply> replyFuture;
+    try {
+      replyFuture = server.submitClientRequestAsync(raftClientRequest);
+    } catch (IOException ex) {
+      return JavaUtils.completeExceptionally(
+          new ServiceException(ex.getMessage(), ex));
+    }
+    return replyFuture.handle((reply, ex) -> {
+      try {
+        if (ex != null) {
+          final Throwable cause = JavaUtils.unwrapCompletionException(ex);
+          throw new ServiceException(cause.getMessage(), cause);
+        }
+        return createOmResponse(omRequest, reply);
+      } catch (ServiceException e) {
+        throw new CompletionException(e);
+      }
+    });
+  }
+
+  private RaftClientRequest createWriteRequest(OMRequest omRequest,
+      ClientId cliId, long callId) {
+    return RaftClientRequest.newBuilder()
         .setClientId(cliId)
         .setServerId(getRaftPeerId())
         .setGroupId(getRaftGroupId())
@@ -308,9 +352,6 @@ public OMResponse submitRequest(OMRequest omRequest, ClientId cliId, long callId
             OMRatisHelper.convertRequestToByteString(omRequest)))
         .setType(RaftClientRequest.writeRequestType())
         .build();
-    RaftClientReply raftClientReply =
-        submitRequestToRatis(raftClientRequest);
-    return createOmResponse(omRequest, raftClientReply);
   }
 
   private RaftClientReply submitRequestToRatisImpl(
@@ -543,8 +584,13 @@ private long getCallId() {
     return callId;
   }
 
+  /** @return the client and call id of the request being handled by the RPC server. */
+  public ClientInvocationId getInvocationId() {
+    return ClientInvocationId.valueOf(getClientId(), getCallId());
+  }
+
   public OMResponse checkRetryCache() throws ServiceException {
-    final ClientInvocationId invocationId = ClientInvocationId.valueOf(getClientId(), getCallId());
+    final ClientInvocationId invocationId = getInvocationId();
     final RetryCache.Entry cacheEntry = getServerDivision().getRetryCache().getIfPresent(invocationId);
     if (cacheEntry == null) {
       return null;  //cache miss
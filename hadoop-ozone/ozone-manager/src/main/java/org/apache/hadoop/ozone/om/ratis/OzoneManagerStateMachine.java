@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.om.ratis;
 
+import static org.apache.hadoop.ozone.OzoneConsts.OM_EXECUTION_INDEX_KEY;
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 import static org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status.INTERNAL_ERROR;
 import static org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status.METADATA_ERROR;
@@ -100,6 +101,8 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   private RequestHandler handler;
   private volatile OzoneManagerDoubleBuffer ozoneManagerDoubleBuffer;
   private final ExecutorService executorService;
+  /** Applies transactions concurrently, null if applied one at a time. */
+  private final ApplyTransactionScheduler applyScheduler;
   private final ExecutorService installSnapshotExecutor;
   private final boolean isTracingEnabled;
   private final AtomicInteger statePausedCount = new AtomicInteger(0);
@@ -109,6 +112,12 @@ public class OzoneManagerStateMachine extends BaseStateMachine {
   private volatile TermIndex lastNotifiedTermIndex = TermIndex.valueOf(0, RaftLog.INVALID_LOG_INDEX);
   /** The last index skipped by {@link #notifyTermIndexUpdated(long, long)}. */
   private volatile long lastSkippedIndex = RaftLog.INVALID_LOG_INDEX;
+  /**
+   * The highest index a request has been executed with.  It is ahead of the
+   * log index when the leader executes requests itself, see
+   * {@link #getExecutionIndex(OMRequest, TermIndex)}.
+   */
+  private volatile long lastExecutionIndex = RaftLog.INVALID_LOG_INDEX;
 
   private final NettyMetrics nettyMetrics;
 
@@ -126,7 +135,18 @@ public OzoneManagerStateMachine(OzoneManagerRatisServer ratisServer,
     ThreadFactory build = new ThreadFactoryBuilder().setDaemon(true)
         .setNameFormat(threadPrefix +
             "OMStateMachineApplyTransactionThread - %d").build();
-    this.executorService = HadoopExecutors.newSingleThreadExecutor(build);
+    final int applyThreads = ozoneManager.getConfiguration().getInt(
+        OMConfigKeys.OZONE_OM_APPLY_TRANSACTION_THREADS,
+        OMConfigKeys.OZONE_OM_APPLY_TRANSACTION_THREADS_DEFAULT);
+    if (applyThreads > 1) {
+      this.executorService = HadoopExecutors.newFixedThreadPool(applyThreads,
+          build);
+      this.applyScheduler = new ApplyTransactionScheduler(executorService);
+      LOG.info("Applying transactions with {} threads", applyThreads);
+    } else {
+      this.executorService = HadoopExecutors.newSingleThreadExecutor(build);
+      this.applyScheduler = null;
+    }
 
     ThreadFactory installSnapshotThreadFactory = new ThreadFactoryBuilder()
         .setNameFormat(threadPrefix + "InstallSnapshotThread").build();
@@ -141,12 +161,24 @@ public OzoneManagerStateMachine(OzoneManagerRatisServer ratisServer,
       RequestHandler handler,
       ExecutorService executorService,
       NettyMetrics nettyMetrics) {
+    this(ozoneManager, doubleBuffer, handler, executorService, nettyMetrics,
+        null);
+  }
+
+  @VisibleForTesting
+  OzoneManagerStateMachine(OzoneManager ozoneManager,
+      OzoneManagerDoubleBuffer doubleBuffer,
+      RequestHandler handler,
+      ExecutorService executorService,
+      NettyMetrics nettyMetrics,
+      ApplyTransactionScheduler applyScheduler) {
     this.isTracingEnabled = false;
     this.ozoneManager = ozoneManager;
     this.threadPrefix = "";
     this.ozoneManagerDoubleBuffer = doubleBuffer;
     this.handler = handler;
     this.executorService = executorService;
+    this.applyScheduler = applyScheduler;
     ThreadFactory installSnapshotThreadFactory = new ThreadFactoryBuilder()
         .setNameFormat("TestInstallSnapshotThread").build();
     this.installSnapshotExecutor =
@@ -453,31 +485,56 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
           : OMRatisHelper.convertByteStringToOMRequest(
           trx.getStateMachineLogEntry().getLogData());
       final TermIndex termIndex = TermIndex.valueOf(trx.getLogEntry());
-      LOG.debug("{}: applyTransaction {}", getId(), termIndex);
-      // In the current approach we have one single global thread executor.
-      // with single thread. Right now this is being done for correctness, as
-      // applyTransaction will be run on multiple OM's we want to execute the
-      // transactions in the same order on all OM's, otherwise there is a
-      // chance that OM replica's can be out of sync.
-      // TODO: In this way we are making all applyTransactions in
-      // OM serial order. Revisit this in future to use multiple executors for
-      // volume/bucket.
-
-      // Reason for not immediately implementing executor per volume is, if
-      // one executor operations are slow, we cannot update the
-      // lastAppliedIndex in OzoneManager StateMachine, even if other
-      // executor has completed the transactions with id more.
+      final long executionIndex = getExecutionIndex(request, termIndex);
+      LOG.debug("{}: applyTransaction {}, executionIndex {}", getId(), termIndex, executionIndex);
+      // By default, transactions are applied by a single thread.  This is
+      // done for correctness, as applyTransaction will be run on multiple
+      // OM's we want to execute the transactions in the same order on all
+      // OM's, otherwise there is a chance that OM replica's can be out of
+      // sync.
+      // With the apply scheduler, only the transactions of the same bucket
+      // are executed in order, and any other transaction is a barrier.  The
+      // responses are still added to the double buffer in log order, so that
+      // the lastAppliedIndex is not updated beyond a transaction being
+      // executed.
 
       //if there are too many pending requests, wait for doubleBuffer flushing
       ozoneManagerDoubleBuffer.acquireUnFlushedTransactions(1);
 
-      return CompletableFuture.supplyAsync(() -> runCommand(request, termIndex), executorService)
+      if (applyScheduler != null) {
+        return applyScheduler.submit(
+            OzoneManagerRatisUtils.getBucketKey(request),
+            () -> executeCommand(request, termIndex, executionIndex),
+            response -> addToDoubleBuffer(request, response, termIndex,
+                executionIndex))
+            .thenApply(this::processResponse);
+      }
+      return CompletableFuture.supplyAsync(() -> runCommand(request, termIndex, executionIndex), executorService)
           .thenApply(this::processResponse);
     } catch (Exception e) {
       return completeExceptionally(e);
     }
   }
 
+  /**
+   * The index to execute a request with.  The requests executed by the
+   * leader carry their index, the other requests are executed with the next
+   * index, which is their log index unless the leader executed requests.
+   * Called in log order.
+   */
+  @VisibleForTesting
+  long getExecutionIndex(OMRequest request, TermIndex termIndex) {
+    final long index = request.hasExecutionIndex() ? request.getExecutionIndex()
+        : Math.max(termIndex.getIndex(), lastExecutionIndex + 1);
+    lastExecutionIndex = Math.max(lastExecutionIndex, index);
+    return index;
+  }
+
+  /** @return the highest index a request has been executed with. */
+  public long getLastExecutionIndex() {
+    return lastExecutionIndex;
+  }
+
   @VisibleForTesting
   Message processResponse(OMResponse omResponse) {
     if (!omResponse.getSuccess()) {
@@ -561,6 +618,9 @@ public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
         .setOmMetadataManager(ozoneManager.getMetadataManager())
         .setUpdateLastAppliedIndex(this::updateLastAppliedTermIndex)
         .setMaxUnFlushedTransactionCount(maxUnFlushedTransactionCount)
+        .enablePipeline(ozoneManager.getConfiguration().getBoolean(
+            OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINE_ENABLED,
+            OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINE_ENABLED_DEFAULT))
         .setThreadPrefix(threadPrefix)
         .setS3SecretManager(ozoneManager.getS3SecretManager())
         .enableTracing(isTracingEnabled)
@@ -666,21 +726,19 @@ public void close() {
    */
   @VisibleForTesting
   OMResponse runCommand(OMRequest request, TermIndex termIndex) {
+    return runCommand(request, termIndex, termIndex.getIndex());
+  }
+
+  private OMResponse runCommand(OMRequest request, TermIndex termIndex,
+      long executionIndex) {
     try {
-      ExecutionContext context = ExecutionContext.of(termIndex.getIndex(), termIndex);
+      ExecutionContext context = ExecutionContext.of(executionIndex, termIndex);
       final OMClientResponse omClientResponse = handler.handleWriteRequest(
           request, context, ozoneManagerDoubleBuffer);
-      OMLockDetails omLockDetails = omClientResponse.getOmLockDetails();
-      OMResponse omResponse = omClientResponse.getOMResponse();
-      if (omLockDetails != null) {
-        return omResponse.toBuilder()
-            .setOmLockDetails(omLockDetails.toProtobufBuilder()).build();
-      } else {
-        return omResponse;
-      }
+      return getOMResponse(omClientResponse);
     } catch (IOException e) {
       LOG.warn("Failed to write, Exception occurred ", e);
-      return createErrorResponse(request, e, termIndex);
+      return createErrorResponse(request, e, termIndex, executionIndex);
     } catch (Throwable e) {
       // For any Runtime exceptions, terminate OM.
       String errorMessage = "Request " + request + " failed with exception";
@@ -689,9 +747,65 @@ OMResponse runCommand(OMRequest request, TermIndex termIndex) {
     return null;
   }
 
+  /**
+   * Executes the request without adding the response to the double buffer,
+   * see {@link #addToDoubleBuffer}.
+   */
+  private OMClientResponse executeCommand(OMRequest request,
+      TermIndex termIndex, long executionIndex) {
+    try {
+      return handler.handleWriteRequestImpl(request,
+          ExecutionContext.of(executionIndex, termIndex));
+    } catch (IOException e) {
+      LOG.warn("Failed to write, Exception occurred ", e);
+      return new DummyOMClientResponse(createErrorOMResponse(request, e));
+    } catch (Throwable e) {
+      // For any Runtime exceptions, terminate OM.
+      String errorMessage = "Request " + request + " failed with exception";
+      ExitUtils.terminate(1, errorMessage, e, LOG);
+    }
+    return null;
+  }
+
+  /** Called in log order for the responses of {@link #executeCommand}. */
+  private OMResponse addToDoubleBuffer(OMRequest request,
+      OMClientResponse omClientResponse, TermIndex termIndex,
+      long executionIndex) {
+    if (request.getCmdType() != OzoneManagerProtocolProtos.Type.Prepare) {
+      ozoneManagerDoubleBuffer.add(omClientResponse, termIndex,
+          executionIndex);
+    }
+    return getOMResponse(omClientResponse);
+  }
+
+  private static OMResponse getOMResponse(OMClientResponse omClientResponse) {
+    OMLockDetails omLockDetails = omClientResponse.getOmLockDetails();
+    OMResponse omResponse = omClientResponse.getOMResponse();
+    if (omLockDetails != null) {
+      return omResponse.toBuilder()
+          .setOmLockDetails(omLockDetails.toProtobufBuilder()).build();
+    } else {
+      return omResponse;
+    }
+  }
+
   @VisibleForTesting
   OMResponse createErrorResponse(
       OMRequest omRequest, IOException exception, TermIndex termIndex) {
+    return createErrorResponse(omRequest, exception, termIndex,
+        termIndex.getIndex());
+  }
+
+  private OMResponse createErrorResponse(OMRequest omRequest,
+      IOException exception, TermIndex termIndex, long executionIndex) {
+    OMResponse omResponse = createErrorOMResponse(omRequest, exception);
+    OMClientResponse omClientResponse = new DummyOMClientResponse(omResponse);
+    ozoneManagerDoubleBuffer.add(omClientResponse, termIndex, executionIndex);
+    return omResponse;
+  }
+
+  private static OMResponse createErrorOMResponse(OMRequest omRequest,
+      IOException exception) {
     OMResponse.Builder omResponseBuilder = OMResponse.newBuilder()
         .setStatus(OzoneManagerRatisUtils.exceptionToResponseStatus(exception))
         .setCmdType(omRequest.getCmdType())
@@ -700,10 +814,7 @@ OMResponse createErrorResponse(
     if (exception.getMessage() != null) {
       omResponseBuilder.setMessage(exception.getMessage());
     }
-    OMResponse omResponse = omResponseBuilder.build();
-    OMClientResponse omClientResponse = new DummyOMClientResponse(omResponse);
-    ozoneManagerDoubleBuffer.add(omClientResponse, termIndex);
-    return omResponse;
+    return omResponseBuilder.build();
   }
 
   public void loadSnapshotInfoFromDB() throws IOException {
@@ -718,6 +829,10 @@ public void loadSnapshotInfoFromDB() throws IOException {
       setLastAppliedTermIndex(ti);
       ozoneManager.setTransactionInfo(transactionInfo);
       LOG.info("LastAppliedIndex is set from TransactionInfo from OM DB as {}", ti);
+      final String executionIndex = ozoneManager.getMetadataManager()
+          .getMetaTable().get(OM_EXECUTION_INDEX_KEY);
+      lastExecutionIndex = executionIndex == null ? ti.getIndex()
+          : Math.max(ti.getIndex(), Long.parseLong(executionIndex));
     } else {
       LOG.info("TransactionInfo not found in OM DB.");
     }
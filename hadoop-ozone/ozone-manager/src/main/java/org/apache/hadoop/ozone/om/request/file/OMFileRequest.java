@@ -44,6 +44,7 @@
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.OzoneConsts;
+import org.apache.hadoop.ozone.om.DirectoryIdCache;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
@@ -192,6 +193,9 @@ public static OMPathInfoWithFSO verifyDirectoryKeysInPath(
     List<OzoneAcl> acls = omBucketInfo.getAcls();
 
     long lastKnownParentId = omBucketInfo.getObjectID();
+    final DirectoryIdCache.BucketDirectories cachedDirs =
+        getCachedDirectories(omMetadataManager, bucketId);
+    StringBuilder dirPath = new StringBuilder(); // path in the bucket
     StringBuilder dbDirName = new StringBuilder(); // absolute path for trace logs
     // for better logging
     StringBuilder fullKeyPath = new StringBuilder(bucketKey);
@@ -224,6 +228,13 @@ public static OMPathInfoWithFSO verifyDirectoryKeysInPath(
           result = OMDirectoryResult.DIRECTORY_EXISTS_IN_GIVENPATH;
           lastKnownParentId = omDirInfo.getObjectID();
           acls = omDirInfo.getAcls();
+          if (cachedDirs != null) {
+            if (dirPath.length() > 0) {
+              dirPath.append(OzoneConsts.OM_KEY_PREFIX);
+            }
+            cachedDirs.put(dirPath.append(fileName).toString(),
+                lastKnownParentId);
+          }
           continue;
         } else {
           // Checked all the sub-dirs till the leaf node.
@@ -1007,19 +1018,38 @@ public static long getParentID(long volumeId, long bucketId, String keyName,
       throws IOException {
 
     long lastKnownParentId = bucketId;
-    Iterator<Path> pathComponents = Paths.get(keyName).iterator();
+    List<String> nodeNames = new ArrayList<>();
+    for (Path pathComponent : Paths.get(keyName)) {
+      nodeNames.add(pathComponent.toString());
+    }
 
     // If no sub-dirs then bucketID is the root/parent.
-    if (!pathComponents.hasNext()) {
+    if (nodeNames.isEmpty()) {
       return bucketId;
     }
     if (StringUtils.isBlank(errMsg)) {
       errMsg = "Failed to find parent directory of " + keyName;
     }
+
+    // Start from the cached parent directory, if any.
+    final int last = nodeNames.size() - 1;
+    final DirectoryIdCache.BucketDirectories cachedDirs =
+        getCachedDirectories(omMetadataManager, bucketId);
+    int start = 0;
+    if (cachedDirs != null && last > 0) {
+      final Long parentId = cachedDirs.get(
+          String.join(OzoneConsts.OM_KEY_PREFIX, nodeNames.subList(0, last)));
+      if (parentId != null) {
+        lastKnownParentId = parentId;
+        start = last;
+      }
+    }
+
+    StringBuilder dirPath = new StringBuilder();
     OmDirectoryInfo omDirectoryInfo;
-    while (pathComponents.hasNext()) {
-      String nodeName = pathComponents.next().toString();
-      boolean reachedLastPathComponent = !pathComponents.hasNext();
+    for (int i = start; i <= last; i++) {
+      String nodeName = nodeNames.get(i);
+      boolean reachedLastPathComponent = i == last;
       String dbNodeName =
               omMetadataManager.getOzonePathKey(volumeId, bucketId,
                       lastKnownParentId, nodeName);
@@ -1034,6 +1064,13 @@ public static long getParentID(long volumeId, long bucketId, String keyName,
                   NOT_A_FILE);
         }
         lastKnownParentId = omDirectoryInfo.getObjectID();
+        if (cachedDirs != null) {
+          if (dirPath.length() > 0) {
+            dirPath.append(OzoneConsts.OM_KEY_PREFIX);
+          }
+          cachedDirs.put(dirPath.append(nodeName).toString(),
+              lastKnownParentId);
+        }
       } else {
         // One of the sub-dir doesn't exists in DB. Immediate parent should
         // exists for committing the key, otherwise will fail the operation.
@@ -1048,6 +1085,28 @@ public static long getParentID(long volumeId, long bucketId, String keyName,
     return lastKnownParentId;
   }
 
+  /**
+   * @return the cached directory IDs of the bucket, or null if the cache is
+   * disabled.
+   */
+  private static DirectoryIdCache.BucketDirectories getCachedDirectories(
+      OMMetadataManager omMetadataManager, long bucketId) {
+    final DirectoryIdCache cache = omMetadataManager.getDirectoryIdCache();
+    return cache != null ? cache.getBucket(bucketId) : null;
+  }
+
+  /**
+   * Invalidates the cached directory IDs of the bucket.  It must be called
+   * after a directory of the bucket is renamed or deleted in the table cache.
+   */
+  public static void invalidateDirectoryIds(
+      OMMetadataManager omMetadataManager, long bucketId) {
+    final DirectoryIdCache cache = omMetadataManager.getDirectoryIdCache();
+    if (cache != null) {
+      cache.invalidate(bucketId);
+    }
+  }
+
   /**
    * Get parent ID for the user given keyName.
    *
@@ -150,6 +150,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager, Execut
         omMetadataManager.getDirectoryTable().addCacheEntry(
                 new CacheKey<>(ozonePathKey),
                 CacheValue.get(trxnLogIndex));
+        OMFileRequest.invalidateDirectoryIds(omMetadataManager, bucketId);
       } else {
         // Update table cache.
         omMetadataManager.getKeyTable(getBucketLayout()).addCacheEntry(
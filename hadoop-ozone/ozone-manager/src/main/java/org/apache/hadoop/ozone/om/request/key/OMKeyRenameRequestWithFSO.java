@@ -336,6 +336,7 @@ private OMClientResponse renameKey(OmKeyInfo toKeyParent, String toKeyName,
       dirTable.addCacheEntry(new CacheKey<>(dbToKey),
           CacheValue.get(trxnLogIndex,
               OMFileRequest.getDirectoryInfo(fromKeyValue)));
+      OMFileRequest.invalidateDirectoryIds(metadataMgr, bucketId);
     } else {
       Table<String, OmKeyInfo> keyTable =
           metadataMgr.getKeyTable(getBucketLayout());
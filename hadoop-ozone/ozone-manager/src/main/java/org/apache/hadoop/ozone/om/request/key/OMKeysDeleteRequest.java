@@ -183,13 +183,15 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager, Execut
       // Validate bucket and volume exists or not.
       validateBucketAndVolume(omMetadataManager, volumeName, bucketName);
       String volumeOwner = getVolumeOwner(omMetadataManager, volumeName);
+      List<OmKeyInfo> omKeyInfos = getOmKeyInfos(ozoneManager,
+          omMetadataManager, volumeName, bucketName,
+          deleteKeyArgs.getKeysList());
 
       for (indexFailed = 0; indexFailed < length; indexFailed++) {
         String keyName = deleteKeyArgs.getKeys(indexFailed);
         String objectKey =
             omMetadataManager.getOzoneKey(volumeName, bucketName, keyName);
-        OmKeyInfo omKeyInfo = getOmKeyInfo(ozoneManager, omMetadataManager,
-            volumeName, bucketName, keyName);
+        OmKeyInfo omKeyInfo = omKeyInfos.get(indexFailed);
 
         if (omKeyInfo == null) {
           deleteStatus = false;
@@ -436,6 +438,21 @@ protected OmKeyInfo getOmKeyInfo(
     return omMetadataManager.getKeyTable(getBucketLayout()).get(objectKey);
   }
 
+  /**
+   * Get the key infos of the given keys, null for the keys not found.
+   * The keys are read from the key table with a single multiGet call.
+   */
+  protected List<OmKeyInfo> getOmKeyInfos(
+      OzoneManager ozoneManager, OMMetadataManager omMetadataManager,
+      String volume, String bucket, List<String> keys) throws IOException {
+    List<String> objectKeys = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      objectKeys.add(omMetadataManager.getOzoneKey(volume, bucket, key));
+    }
+    return omMetadataManager.getKeyTable(getBucketLayout())
+        .multiGet(objectKeys);
+  }
+
   /**
    * Add key info to audit map for DeleteKeys request.
    */
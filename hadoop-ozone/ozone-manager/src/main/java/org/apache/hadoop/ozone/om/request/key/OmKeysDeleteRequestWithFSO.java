@@ -69,6 +69,22 @@ protected OmKeyInfo getOmKeyInfo(
     return keyStatus != null ? keyStatus.getKeyInfo() : null;
   }
 
+  /**
+   * The path of each key is resolved one directory at a time, so the keys
+   * are looked up one by one instead of using a single multiGet.
+   */
+  @Override
+  protected List<OmKeyInfo> getOmKeyInfos(
+      OzoneManager ozoneManager, OMMetadataManager omMetadataManager,
+      String volume, String bucket, List<String> keys) throws IOException {
+    List<OmKeyInfo> omKeyInfos = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      omKeyInfos.add(getOmKeyInfo(ozoneManager, omMetadataManager,
+          volume, bucket, key));
+    }
+    return omKeyInfos;
+  }
+
   @Override
   protected void addKeyToAppropriateList(List<OmKeyInfo> omKeyInfoList,
       OmKeyInfo omKeyInfo, List<OmKeyInfo> dirList, OzoneFileStatus keyStatus) {
@@ -150,6 +166,7 @@ protected Pair<Long, Integer> markKeysAsDeletedInCache(
       omMetadataManager.getDirectoryTable()
           .addCacheEntry(new CacheKey<>(dbDirKey),
             CacheValue.get(trxnLogIndex));
+      OMFileRequest.invalidateDirectoryIds(omMetadataManager, bucketId);
 
       final OmKeyInfo updatedDirInfo = dirInfo.toBuilder()
           .setUpdateID(trxnLogIndex)
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.util;
+
+import java.io.IOException;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.apache.hadoop.hdds.utils.db.DBColumnFamilyDefinition;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.DirectoryIdCache;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.OMExecutionFlow;
+import org.apache.hadoop.ozone.om.execution.flowcontrol.ExecutionContext;
+import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.util.OMPersistDbResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles PersistDb request, which carries the DB changes of a request
+ * executed by the OM leader.
+ * <p>
+ * The leader has already updated its table cache while executing the
+ * request, the other OMs update their cache from the changes here.
+ */
+public class OMPersistDbRequest extends OMClientRequest {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(OMPersistDbRequest.class);
+
+  public OMPersistDbRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  @Override
+  public OMRequest preExecute(OzoneManager ozoneManager) throws IOException {
+    // Only created by the leader from the changes of a request it executed.
+    throw new OMException("PersistDb request cannot be submitted by clients",
+        OMException.ResultCodes.INVALID_REQUEST);
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      ExecutionContext context) {
+    final PersistDbRequest request = getOmRequest().getPersistDbRequest();
+    if (!ozoneManager.getVersionManager()
+        .isAllowed(OMLayoutFeature.LEADER_EXECUTION)) {
+      // The leader does not create PersistDb requests before finalization.
+      return new OMPersistDbResponse(createErrorOMResponse(
+          OmResponseUtil.getOMResponseBuilder(getOmRequest()),
+          new OMException("PersistDb request is not supported before "
+              + OMLayoutFeature.LEADER_EXECUTION + " is finalized",
+              OMException.ResultCodes
+                  .NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION)));
+    }
+    final OMExecutionFlow executionFlow = ozoneManager.getOmExecutionFlow();
+    final OMMetadataManager omMetadataManager =
+        ozoneManager.getMetadataManager();
+    final long index = context.getIndex();
+    try {
+      if (executionFlow == null) {
+        addToCache(omMetadataManager, request, index);
+      } else {
+        executionFlow.applyToCache(index, request,
+            () -> addToCache(omMetadataManager, request, index));
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to apply the changes of execution index {}",
+          index, e);
+      // INTERNAL_ERROR terminates the OM, the cache is partially updated
+      return new OMPersistDbResponse(createErrorOMResponse(
+          OmResponseUtil.getOMResponseBuilder(getOmRequest()),
+          new OMException(e.getMessage(), e,
+              OMException.ResultCodes.INTERNAL_ERROR)));
+    }
+
+    final OMResponse response = request.hasResponse() ? request.getResponse()
+        : OmResponseUtil.getOMResponseBuilder(getOmRequest()).build();
+    return new OMPersistDbResponse(response, request.getTableUpdatesList());
+  }
+
+  private static void addToCache(OMMetadataManager omMetadataManager,
+      PersistDbRequest request, long index) throws IOException {
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      addToCache(omMetadataManager, getColumnFamily(update), update, index);
+    }
+    if (deletesDirectories(request)) {
+      // The paths of the deleted directories are not known.
+      invalidateDirectoryIds(omMetadataManager);
+    }
+  }
+
+  /**
+   * Restore the cache entries changed by the given request, which was
+   * executed on the leader but failed to replicate, to the values in the DB.
+   * The entries changed again by a later request are kept.
+   * <p>
+   * The restored entries are put in the given epoch rather than the failed
+   * index, which is never flushed, so that the cache cleanup of the epoch
+   * evicts them.
+   */
+  public static void restoreCache(OMMetadataManager omMetadataManager,
+      PersistDbRequest request, long index, long epoch) throws IOException {
+    boolean directories = false;
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      restoreCache(omMetadataManager, getColumnFamily(update), update, index,
+          epoch);
+      directories |= OMDBDefinition.DIRECTORY_TABLE.equals(
+          update.getTableName());
+    }
+    if (directories) {
+      invalidateDirectoryIds(omMetadataManager);
+    }
+  }
+
+  private static DBColumnFamilyDefinition<?, ?> getColumnFamily(
+      DBTableUpdate update) throws OMException {
+    final DBColumnFamilyDefinition<?, ?> definition =
+        OMDBDefinition.get().getColumnFamily(update.getTableName());
+    if (definition == null) {
+      throw new OMException("Unknown table " + update.getTableName(),
+          OMException.ResultCodes.INTERNAL_ERROR);
+    }
+    return definition;
+  }
+
+  private static void invalidateDirectoryIds(
+      OMMetadataManager omMetadataManager) {
+    final DirectoryIdCache cache = omMetadataManager.getDirectoryIdCache();
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  private static boolean deletesDirectories(PersistDbRequest request) {
+    for (DBTableUpdate update : request.getTableUpdatesList()) {
+      if (OMDBDefinition.DIRECTORY_TABLE.equals(update.getTableName())) {
+        for (DBTableRecord record : update.getRecordsList()) {
+          if (!record.hasValue()) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static <K, V> void addToCache(OMMetadataManager omMetadataManager,
+      DBColumnFamilyDefinition<K, V> definition, DBTableUpdate update,
+      long index) throws IOException {
+    @SuppressWarnings("unchecked")
+    final Table<K, V> table = omMetadataManager.getTable(definition.getName());
+    final Codec<K> keyCodec = definition.getKeyCodec();
+    final Codec<V> valueCodec = definition.getValueCodec();
+    for (DBTableRecord record : update.getRecordsList()) {
+      final K key = keyCodec.fromPersistedFormat(
+          record.getKey().toByteArray());
+      if (record.hasValue()) {
+        final V value = valueCodec.fromPersistedFormat(
+            record.getValue().toByteArray());
+        table.addCacheEntry(new CacheKey<>(key), CacheValue.get(index, value));
+      } else {
+        table.addCacheEntry(new CacheKey<>(key), CacheValue.get(index));
+      }
+    }
+  }
+
+  private static <K, V> void restoreCache(OMMetadataManager omMetadataManager,
+      DBColumnFamilyDefinition<K, V> definition, DBTableUpdate update,
+      long index, long epoch) throws IOException {
+    @SuppressWarnings("unchecked")
+    final Table<K, V> table = omMetadataManager.getTable(definition.getName());
+    final Codec<K> keyCodec = definition.getKeyCodec();
+    for (DBTableRecord record : update.getRecordsList()) {
+      final K key = keyCodec.fromPersistedFormat(
+          record.getKey().toByteArray());
+      final CacheKey<K> cacheKey = new CacheKey<>(key);
+      final CacheValue<V> cached = table.getCacheValue(cacheKey);
+      if (cached == null || cached.getEpoch() != index) {
+        continue;
+      }
+      final V value = table.getSkipCache(key);
+      table.addCacheEntry(cacheKey, value != null
+          ? CacheValue.get(epoch, value) : CacheValue.get(epoch));
+    }
+  }
+}
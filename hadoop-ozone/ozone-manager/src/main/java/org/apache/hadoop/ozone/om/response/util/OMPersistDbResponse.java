@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.response.util;
+
+import jakarta.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+
+/**
+ * Response for PersistDb request, writes the changes as they are.
+ */
+@CleanupTableInfo(cleanupAll = true)
+public class OMPersistDbResponse extends OMClientResponse {
+
+  private final List<DBTableUpdate> tableUpdates;
+
+  public OMPersistDbResponse(@Nonnull OMResponse omResponse,
+      @Nonnull List<DBTableUpdate> tableUpdates) {
+    super(omResponse);
+    this.tableUpdates = tableUpdates;
+  }
+
+  /**
+   * For a response with error status.
+   */
+  public OMPersistDbResponse(@Nonnull OMResponse omResponse) {
+    super(omResponse);
+    checkStatusNotOK();
+    this.tableUpdates = Collections.emptyList();
+  }
+
+  @Override
+  protected void addToDBBatch(OMMetadataManager omMetadataManager,
+      BatchOperation batchOperation) throws IOException {
+    for (DBTableUpdate update : tableUpdates) {
+      final Table<byte[], byte[]> table =
+          omMetadataManager.getStore().getTable(update.getTableName());
+      // The raw table bypasses the negative lookup filter of the table.
+      final Table<?, ?> typedTable =
+          omMetadataManager.getTable(update.getTableName());
+      for (DBTableRecord record : update.getRecordsList()) {
+        if (record.hasValue()) {
+          final byte[] key = record.getKey().toByteArray();
+          typedTable.addToNegativeLookupFilter(key);
+          table.putWithBatch(batchOperation, key,
+              record.getValue().toByteArray());
+        } else {
+          table.deleteWithBatch(batchOperation, record.getKey().toByteArray());
+        }
+      }
+    }
+  }
+}
@@ -220,6 +220,15 @@ public OMRequest getLastRequestToSubmit() {
 
   private OMResponse submitReadRequestToOM(OMRequest request)
       throws ServiceException {
+    final OMResponse response = submitReadRequest(request);
+    // Per-node read counters, to see how reads are spread over the OMs.
+    ozoneManager.getMetrics().incNumReads(
+        omRatisServer.getLeaderStatus() == LEADER_AND_READY);
+    return response;
+  }
+
+  private OMResponse submitReadRequest(OMRequest request)
+      throws ServiceException {
     if (request.getCmdType().equals(PrepareStatus)) {
       // PrepareStatus is an OM request that only target a single OM node.
       // Therefore, all PrepareStatus requests should be served immediately without failover regardless
@@ -390,6 +399,8 @@ boolean allowFollowerReadLocalLease(Division ratisDivision, long leaseLogLimit,
       LOG.debug("FollowerRead Local Lease not allowed: No Leader ");
       return false; // no leader
     }
+    ozoneManager.getMetrics().setFollowerReadLeaderElapsedTimeMs(
+        leaderInfo.getLastRpcElapsedTimeMs());
 
     if (leaseTimeMsLimit != -1 && leaderInfo.getLastRpcElapsedTimeMs() > leaseTimeMsLimit) {
       LOG.debug("FollowerRead Local Lease not allowed: Local lease Time expired. ");
@@ -418,7 +429,9 @@ boolean allowFollowerReadLocalLease(Division ratisDivision, long leaseLogLimit,
       return false;
     }
 
-    boolean ret = divisionInfo.getLastAppliedIndex() + leaseLogLimit >= leaderCommit;
+    final long lagIndex = leaderCommit - divisionInfo.getLastAppliedIndex();
+    ozoneManager.getMetrics().setFollowerReadLagIndex(lagIndex);
+    boolean ret = lagIndex <= leaseLogLimit;
     if (!ret) {
       ozoneManager.getMetrics().incNumFollowerReadLocalLeaseFailLog();
       LOG.debug("FollowerRead Local Lease not allowed: Index Lag exceeds limit. ");
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.request.file.OMFileRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link DirectoryIdCache}.
+ */
+public class TestDirectoryIdCache {
+
+  private static final String VOLUME = "vol1";
+  private static final String BUCKET = "bucket1";
+
+  @TempDir
+  private Path folder;
+
+  private OMMetadataManager omMetadataManager;
+  private DirectoryIdCache cache;
+  private long volumeId;
+  private long bucketId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OMConfigKeys.OZONE_OM_DB_DIRS, folder.toAbsolutePath().toString());
+    conf.setLong(OMConfigKeys.OZONE_OM_DIRECTORY_ID_CACHE_SIZE, 100);
+    omMetadataManager = new OmMetadataManagerImpl(conf,
+        mock(OzoneManager.class));
+    cache = omMetadataManager.getDirectoryIdCache();
+    OMRequestTestUtils.addVolumeAndBucketToDB(VOLUME, BUCKET,
+        omMetadataManager, BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    volumeId = omMetadataManager.getVolumeId(VOLUME);
+    bucketId = omMetadataManager.getBucketId(VOLUME, BUCKET);
+  }
+
+  @AfterEach
+  public void stop() throws Exception {
+    omMetadataManager.stop();
+  }
+
+  @Test
+  public void testGetParentID() throws Exception {
+    assertNotNull(cache);
+    long parentId = OMRequestTestUtils.addParentsToDirTable(VOLUME, BUCKET,
+        "a/b/c", omMetadataManager);
+
+    assertEquals(parentId, OMFileRequest.getParentID(volumeId, bucketId,
+        "a/b/c/file1", omMetadataManager));
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(parentId, cache.getBucket(bucketId).get("a/b/c"));
+
+    // other files of the same directory start from the cached parent
+    assertEquals(parentId, OMFileRequest.getParentID(volumeId, bucketId,
+        "a/b/c/file2", omMetadataManager));
+    assertEquals(2, cache.getHitCount());
+    // and so do files of its ancestors
+    long aId = OMFileRequest.getParentID(volumeId, bucketId, "a/file",
+        omMetadataManager);
+    assertEquals(3, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.75, cache.getHitRatio());
+    assertEquals(aId, cache.getBucket(bucketId).get("a"));
+  }
+
+  @Test
+  public void testInvalidation() throws Exception {
+    long parentId = OMRequestTestUtils.addParentsToDirTable(VOLUME, BUCKET,
+        "a/b", omMetadataManager);
+    long aId = OMFileRequest.getParentID(volumeId, bucketId, "a/file",
+        omMetadataManager);
+    assertEquals(parentId, OMFileRequest.getParentID(volumeId, bucketId,
+        "a/b/file", omMetadataManager));
+
+    // lookups started before the invalidation do not see it
+    DirectoryIdCache.BucketDirectories before = cache.getBucket(bucketId);
+
+    // delete directory b
+    omMetadataManager.getDirectoryTable().addCacheEntry(
+        new CacheKey<>(omMetadataManager.getOzonePathKey(volumeId, bucketId,
+            aId, "b")),
+        CacheValue.get(1));
+    OMFileRequest.invalidateDirectoryIds(omMetadataManager, bucketId);
+    assertEquals(1, cache.getInvalidationCount());
+
+    OMException e = assertThrows(OMException.class,
+        () -> OMFileRequest.getParentID(volumeId, bucketId, "a/b/file",
+            omMetadataManager));
+    assertEquals(OMException.ResultCodes.DIRECTORY_NOT_FOUND, e.getResult());
+
+    before.put("a/b", parentId);
+    assertNull(cache.getBucket(bucketId).get("a/b"));
+    assertEquals(aId, OMFileRequest.getParentID(volumeId, bucketId,
+        "a/file", omMetadataManager));
+
+    // other buckets are not affected
+    cache.getBucket(bucketId + 1).put("a", aId);
+    cache.invalidate(bucketId);
+    assertEquals(aId, cache.getBucket(bucketId + 1).get("a"));
+    cache.invalidateAll();
+    assertNull(cache.getBucket(bucketId + 1).get("a"));
+  }
+}
@@ -42,6 +42,7 @@
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.client.BlockID;
@@ -66,6 +67,7 @@
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs.Builder;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -819,4 +821,95 @@ public void listStatusLightDoesNotRefreshPipeline() throws Exception {
     assertEquals(5, fileStatusList.size());
     verify(containerClient, times(0)).getContainerWithPipelineBatch(anySet());
   }
+
+  @Test
+  public void listStatusRecursiveFSO() throws Exception {
+    String volume = volumeName();
+    String bucket = "bucket-fso";
+    OMRequestTestUtils.addVolumeToDB(volume, OzoneConsts.OZONE,
+        metadataManager);
+    long bucketId = OMRequestTestUtils.addBucketToDB(volume, bucket,
+        metadataManager, BucketLayout.FILE_SYSTEM_OPTIMIZED).getObjectID();
+
+    long dirA = addDirectory(volume, bucket, "a", bucketId + 1, bucketId);
+    long dirB = addDirectory(volume, bucket, "b", bucketId + 2, dirA);
+    long dirC = addDirectory(volume, bucket, "c", bucketId + 3, bucketId);
+    addFile(volume, bucket, "f1", bucketId + 4, dirB);
+    addFile(volume, bucket, "f2", bucketId + 5, dirB);
+    addFile(volume, bucket, "f3", bucketId + 6, dirA);
+    addFile(volume, bucket, "f4", bucketId + 7, dirC);
+    addFile(volume, bucket, "f5", bucketId + 8, bucketId);
+
+    // depth first, in name order at each level
+    assertEquals(Arrays.asList("a", "a/b", "a/b/f1", "a/b/f2", "a/f3", "c",
+        "c/f4", "f5"), listStatusRecursive(volume, bucket, "", 100));
+    for (int pageSize = 2; pageSize <= 4; pageSize++) {
+      assertEquals(Arrays.asList("a", "a/b", "a/b/f1", "a/b/f2", "a/f3", "c",
+          "c/f4", "f5"), listStatusRecursive(volume, bucket, "", pageSize));
+    }
+    assertEquals(Arrays.asList("a/b", "a/b/f1", "a/b/f2", "a/f3"),
+        listStatusRecursive(volume, bucket, "a", 2));
+    assertEquals(singletonList("a/f3"),
+        listStatusRecursive(volume, bucket, "a/f3", 2));
+
+    // resume from a key which is gone
+    assertEquals(Arrays.asList("a/f3", "c", "c/f4"),
+        listStatus(volume, bucket, "", "a/b2/f0", 3));
+    // startKey outside of the listed directory
+    assertEquals(Collections.emptyList(),
+        listStatus(volume, bucket, "a", "c/f4", 3));
+  }
+
+  /** List like the file system client: page by page, from the last key. */
+  private List<String> listStatusRecursive(String volume, String bucket,
+      String keyName, int pageSize) throws IOException {
+    List<String> listed = new ArrayList<>();
+    String startKey = "";
+    while (true) {
+      List<String> page = listStatus(volume, bucket, keyName, startKey,
+          pageSize);
+      if (!startKey.isEmpty()) {
+        // the page starts with startKey
+        assertEquals(startKey, page.remove(0));
+      }
+      if (page.isEmpty()) {
+        return listed;
+      }
+      listed.addAll(page);
+      startKey = page.get(page.size() - 1);
+    }
+  }
+
+  private List<String> listStatus(String volume, String bucket,
+      String keyName, String startKey, int numEntries) throws IOException {
+    OmKeyArgs args = new OmKeyArgs.Builder()
+        .setVolumeName(volume)
+        .setBucketName(bucket)
+        .setKeyName(keyName)
+        .build();
+    return keyManager.listStatus(args, true, startKey, numEntries, null)
+        .stream()
+        .map(status -> status.getKeyInfo().getKeyName())
+        .collect(Collectors.toList());
+  }
+
+  private long addDirectory(String volume, String bucket, String name,
+      long objectId, long parentId) throws Exception {
+    OmDirectoryInfo dirInfo =
+        OMRequestTestUtils.createOmDirectoryInfo(name, objectId, parentId);
+    OMRequestTestUtils.addDirKeyToDirTable(false, dirInfo, volume, bucket,
+        1L, metadataManager);
+    return objectId;
+  }
+
+  private void addFile(String volume, String bucket, String name,
+      long objectId, long parentId) throws Exception {
+    OmKeyInfo keyInfo = OMRequestTestUtils.createOmKeyInfo(volume, bucket,
+        name, RatisReplicationConfig.getInstance(ReplicationFactor.ONE))
+        .setObjectID(objectId)
+        .setParentObjectID(parentId)
+        .build();
+    OMRequestTestUtils.addFileToKeyTable(false, false, name, keyInfo, -1,
+        1L, metadataManager);
+  }
 }
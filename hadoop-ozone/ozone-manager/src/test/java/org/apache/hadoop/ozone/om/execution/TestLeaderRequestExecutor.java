@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.execution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.ServiceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.OzoneManagerPrepareState;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutVersionManager;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ratis.protocol.ClientId;
+import org.apache.ozone.test.GenericTestUtils;
+import org.apache.ratis.protocol.ClientInvocationId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link LeaderRequestExecutor}.
+ */
+public class TestLeaderRequestExecutor {
+
+  private final AtomicLong applied = new AtomicLong(10);
+  private final OMLayoutVersionManager versionManager =
+      mock(OMLayoutVersionManager.class);
+  private final OzoneManager ozoneManager = mock(OzoneManager.class);
+  private final LeaderRequestExecutor executor = new LeaderRequestExecutor(
+      ozoneManager, applied::get);
+
+  @BeforeEach
+  public void setup() {
+    when(versionManager.isAllowed(OMLayoutFeature.LEADER_EXECUTION))
+        .thenReturn(true);
+    when(ozoneManager.getVersionManager()).thenReturn(versionManager);
+    OzoneManagerPrepareState prepareState = mock(OzoneManagerPrepareState.class);
+    when(prepareState.requestAllowed(any())).thenReturn(true);
+    when(ozoneManager.getPrepareState()).thenReturn(prepareState);
+  }
+
+  @Test
+  public void testNextExecutionIndex() {
+    assertEquals(11, executor.nextExecutionIndex());
+    assertEquals(12, executor.nextExecutionIndex());
+    // indexes applied by the state machine, e.g. of a previous leader
+    applied.set(20);
+    assertEquals(21, executor.nextExecutionIndex());
+    applied.set(5);
+    assertEquals(22, executor.nextExecutionIndex());
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    assertTrue(LeaderRequestExecutor.isSupported(Type.CommitKey));
+    assertTrue(LeaderRequestExecutor.isSupported(Type.CreateFile));
+    assertFalse(LeaderRequestExecutor.isSupported(Type.RenameKey));
+    assertFalse(LeaderRequestExecutor.isSupported(Type.CreateBucket));
+    assertFalse(LeaderRequestExecutor.isSupported(Type.PersistDb));
+  }
+
+  @Test
+  public void testBucketKey() {
+    OMRequest request = OMRequest.newBuilder()
+        .setCmdType(Type.CommitKey)
+        .setClientId(UUID.randomUUID().toString())
+        .setCommitKeyRequest(CommitKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName("vol")
+                .setBucketName("bucket")
+                .setKeyName("key"))
+            .setClientID(1))
+        .build();
+    assertEquals("vol/bucket", OzoneManagerRatisUtils.getBucketKey(request));
+    assertNull(OzoneManagerRatisUtils.getBucketKey(request.toBuilder()
+        .setCmdType(Type.CreateBucket)
+        .build()));
+  }
+
+  @Test
+  public void testUnsupportedRequestStamped() throws Exception {
+    List<OMRequest> submitted = new ArrayList<>();
+    OMRequest request = OMRequest.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+    ClientInvocationId invocationId =
+        ClientInvocationId.valueOf(ClientId.randomId(), 1);
+
+    for (int i = 0; i < 2; i++) {
+      OMResponse response = executor.submit(request, invocationId, r -> {
+        submitted.add(r);
+        return CompletableFuture.completedFuture(OMResponse.newBuilder()
+            .setCmdType(r.getCmdType())
+            .setStatus(Status.OK)
+            .build());
+      });
+      assertEquals(Status.OK, response.getStatus());
+    }
+
+    assertEquals(2, submitted.size());
+    assertEquals(11, submitted.get(0).getExecutionIndex());
+    assertEquals(12, submitted.get(1).getExecutionIndex());
+    assertFalse(executor.isExecutedLocally(11));
+  }
+
+  @Test
+  public void testExclusiveNotHeldDuringReplication() throws Exception {
+    List<OMRequest> submitted = new CopyOnWriteArrayList<>();
+    OMRequest request = OMRequest.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+    OMResponse ok = OMResponse.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setStatus(Status.OK)
+        .build();
+    CompletableFuture<OMResponse> replicated = new CompletableFuture<>();
+
+    CompletableFuture<OMResponse> first = CompletableFuture.supplyAsync(() -> {
+      try {
+        return executor.submit(request,
+            ClientInvocationId.valueOf(ClientId.randomId(), 1), r -> {
+              submitted.add(r);
+              return replicated;
+            });
+      } catch (ServiceException e) {
+        throw new CompletionException(e);
+      }
+    });
+    GenericTestUtils.waitFor(() -> submitted.size() == 1, 10, 5000);
+
+    // submitted while the first request is being replicated
+    OMResponse second = executor.submit(request,
+        ClientInvocationId.valueOf(ClientId.randomId(), 2), r -> {
+          submitted.add(r);
+          return CompletableFuture.completedFuture(ok);
+        });
+    assertEquals(Status.OK, second.getStatus());
+    assertFalse(first.isDone());
+
+    replicated.complete(ok);
+    assertEquals(Status.OK, first.get().getStatus());
+    assertEquals(11, submitted.get(0).getExecutionIndex());
+    assertEquals(12, submitted.get(1).getExecutionIndex());
+  }
+
+  @Test
+  public void testApplyToCache() throws Exception {
+    AtomicInteger added = new AtomicInteger();
+    executor.applyToCache(11, PersistDbRequest.getDefaultInstance(),
+        added::incrementAndGet);
+    // not executed here
+    assertEquals(1, added.get());
+  }
+
+  @Test
+  public void testNotFinalized() throws Exception {
+    when(versionManager.isAllowed(OMLayoutFeature.LEADER_EXECUTION))
+        .thenReturn(false);
+    List<OMRequest> submitted = new ArrayList<>();
+    OMRequest request = OMRequest.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+
+    OMResponse response = executor.submit(request,
+        ClientInvocationId.valueOf(ClientId.randomId(), 1), r -> {
+          submitted.add(r);
+          return CompletableFuture.completedFuture(OMResponse.newBuilder()
+              .setCmdType(r.getCmdType())
+              .setStatus(Status.OK)
+              .build());
+        });
+
+    assertEquals(Status.OK, response.getStatus());
+    // submitted as is, the other OMs may not know execution indexes
+    assertEquals(request, submitted.get(0));
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.BUCKET_LOCK;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.LeveledResource.KEY_PATH_LOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link FSOKeyPathLockStrategy}.
+ */
+public class TestFSOKeyPathLockStrategy {
+
+  private static final String VOLUME = "vol1";
+  private static final String BUCKET = "bucket1";
+
+  @TempDir
+  private Path folder;
+
+  private OMMetadataManager omMetadataManager;
+  private IOzoneManagerLock lock;
+  private long parentId;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OMConfigKeys.OZONE_OM_DB_DIRS, folder.toAbsolutePath().toString());
+    omMetadataManager = new OmMetadataManagerImpl(conf,
+        mock(OzoneManager.class));
+    lock = omMetadataManager.getLock();
+    OMRequestTestUtils.addVolumeAndBucketToDB(VOLUME, BUCKET,
+        omMetadataManager, BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    parentId = OMRequestTestUtils.addParentsToDirTable(VOLUME, BUCKET, "a/b",
+        omMetadataManager);
+  }
+
+  @AfterEach
+  public void stop() throws Exception {
+    omMetadataManager.stop();
+  }
+
+  @Test
+  public void testExistingParents() throws Exception {
+    FSOKeyPathLockStrategy strategy = new FSOKeyPathLockStrategy();
+    assertTrue(strategy.acquireWriteLock(omMetadataManager, VOLUME, BUCKET,
+        "a/b/file").isLockAcquired());
+
+    String path = parentId + "/file";
+    assertFalse(strategy.isBucketWriteLocked());
+    assertEquals(path, strategy.getLockedPath());
+    assertEquals(1, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+    assertEquals(0, lock.getWriteHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+    assertEquals(1,
+        lock.getWriteHoldCount(KEY_PATH_LOCK, VOLUME, BUCKET, path));
+
+    // another key of the same directory is not blocked
+    CompletableFuture.runAsync(() -> {
+      FSOKeyPathLockStrategy other = new FSOKeyPathLockStrategy();
+      try {
+        other.acquireWriteLock(omMetadataManager, VOLUME, BUCKET,
+            "a/b/file2");
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      other.releaseWriteLock(omMetadataManager, VOLUME, BUCKET, "a/b/file2");
+    }).get(10, TimeUnit.SECONDS);
+
+    strategy.releaseWriteLock(omMetadataManager, VOLUME, BUCKET, "a/b/file");
+    assertNull(strategy.getLockedPath());
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+    assertEquals(0,
+        lock.getWriteHoldCount(KEY_PATH_LOCK, VOLUME, BUCKET, path));
+  }
+
+  @Test
+  public void testFileInBucket() throws Exception {
+    FSOKeyPathLockStrategy strategy = new FSOKeyPathLockStrategy();
+    strategy.acquireWriteLock(omMetadataManager, VOLUME, BUCKET, "file");
+
+    long bucketId = omMetadataManager.getBucketId(VOLUME, BUCKET);
+    assertFalse(strategy.isBucketWriteLocked());
+    assertEquals(bucketId + "/file", strategy.getLockedPath());
+
+    strategy.releaseWriteLock(omMetadataManager, VOLUME, BUCKET, "file");
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+  }
+
+  @Test
+  public void testMissingParents() throws Exception {
+    FSOKeyPathLockStrategy strategy = new FSOKeyPathLockStrategy();
+    strategy.acquireWriteLock(omMetadataManager, VOLUME, BUCKET, "a/c/file");
+
+    assertTrue(strategy.isBucketWriteLocked());
+    assertNull(strategy.getLockedPath());
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+    assertEquals(1, lock.getWriteHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+
+    strategy.releaseWriteLock(omMetadataManager, VOLUME, BUCKET, "a/c/file");
+    assertFalse(strategy.isBucketWriteLocked());
+    assertEquals(0, lock.getWriteHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+  }
+
+  @Test
+  public void testReadLock() throws Exception {
+    FSOKeyPathLockStrategy strategy = new FSOKeyPathLockStrategy();
+    strategy.acquireReadLock(omMetadataManager, VOLUME, BUCKET, "a/b/file");
+    String path = parentId + "/file";
+    assertEquals(1, lock.getReadHoldCount(KEY_PATH_LOCK, VOLUME, BUCKET, path));
+    strategy.releaseReadLock(omMetadataManager, VOLUME, BUCKET, "a/b/file");
+    assertEquals(0, lock.getReadHoldCount(KEY_PATH_LOCK, VOLUME, BUCKET, path));
+
+    // a key without parents only needs the bucket lock
+    strategy.acquireReadLock(omMetadataManager, VOLUME, BUCKET, "c/file");
+    assertNull(strategy.getLockedPath());
+    assertEquals(1, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+    strategy.releaseReadLock(omMetadataManager, VOLUME, BUCKET, "c/file");
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, BUCKET));
+  }
+
+  @Test
+  public void testBucketNotFound() {
+    FSOKeyPathLockStrategy strategy = new FSOKeyPathLockStrategy();
+    OMException e = assertThrows(OMException.class,
+        () -> strategy.acquireWriteLock(omMetadataManager, VOLUME, "missing",
+            "a/b/file"));
+    assertEquals(OMException.ResultCodes.BUCKET_NOT_FOUND, e.getResult());
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, VOLUME, "missing"));
+  }
+}
@@ -22,9 +22,12 @@
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.Test;
@@ -305,4 +308,62 @@ void testAcquireReadBucketLockWhileAcquiredWriteKeyPathLock() {
         "while holding [" + resource.getName() + "] lock(s).";
     assertThat(ex).hasMessageContaining(message);
   }
+
+  @Test
+  void testKeyPathLockStripeMetrics() throws Exception {
+    OzoneManagerLock lock = new OzoneManagerLock(new OzoneConfiguration());
+    OMLockMetrics metrics = lock.getOMLockMetrics();
+    String[] key = {"vol", "bucket", "key"};
+    int stripe = lock.getKeyPathLockStripe(key);
+
+    lock.acquireWriteLock(resource, key);
+    Thread waiting = new Thread(() -> {
+      lock.acquireWriteLock(resource, key);
+      lock.releaseWriteLock(resource, key);
+    });
+    waiting.start();
+    GenericTestUtils.waitFor(
+        () -> waiting.getState() == Thread.State.WAITING, 10, 10000);
+    Thread.sleep(10);
+    lock.releaseWriteLock(resource, key);
+    waiting.join();
+
+    assertEquals(1, metrics.getKeyPathLockContended());
+    assertEquals(1, metrics.getKeyPathLockContended(stripe));
+    assertEquals(stripe, metrics.getMostContendedKeyPathLockStripe());
+    assertThat(metrics.getKeyPathLockHeldTimeNanos(stripe))
+        .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+
+    // an uncontended lock is not counted
+    lock.acquireReadLock(resource, key);
+    lock.releaseReadLock(resource, key);
+    assertEquals(1, metrics.getKeyPathLockContended());
+  }
+
+  /**
+   * Renames lock both key paths together, in the order of their stripes,
+   * so opposite renames do not deadlock.
+   */
+  @Test
+  void testOppositeMultiKeyPathLocks() throws Exception {
+    OzoneManagerLock lock = new OzoneManagerLock(new OzoneConfiguration());
+    List<String[]> forward = Arrays.asList(
+        new String[] {"vol", "bucket", "key1"},
+        new String[] {"vol", "bucket", "key2"});
+    List<String[]> backward = Arrays.asList(forward.get(1), forward.get(0));
+
+    CompletableFuture<Void> first = CompletableFuture.runAsync(
+        () -> lockRepeatedly(lock, forward, 1000));
+    CompletableFuture<Void> second = CompletableFuture.runAsync(
+        () -> lockRepeatedly(lock, backward, 1000));
+    CompletableFuture.allOf(first, second).get(60, TimeUnit.SECONDS);
+  }
+
+  private void lockRepeatedly(OzoneManagerLock lock, List<String[]> keys,
+      int iterations) {
+    for (int i = 0; i < iterations; i++) {
+      lock.acquireWriteLocks(resource, keys);
+      lock.releaseWriteLocks(resource, keys);
+    }
+  }
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Tests {@link ApplyTransactionScheduler}.
+ */
+@Timeout(60)
+public class TestApplyTransactionScheduler {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final ApplyTransactionScheduler scheduler =
+      new ApplyTransactionScheduler(executor);
+  private final List<String> executed =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<String> completed = new ArrayList<>();
+
+  @AfterEach
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testBucketsExecutedConcurrently() throws Exception {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CompletableFuture<String> a1 = submit("vol/a", "a1", blocked);
+    final CompletableFuture<String> a2 = submit("vol/a", "a2", null);
+    final CompletableFuture<String> b1 = submit("vol/b", "b1", null);
+
+    // b1 is executed while a1 is blocked, but completed after it
+    waitForExecution("b1");
+    assertEquals(Collections.singletonList("b1"), executed);
+    assertFalse(b1.isDone());
+
+    blocked.countDown();
+    CompletableFuture.allOf(a1, a2, b1).get();
+    assertEquals(Arrays.asList("b1", "a1", "a2"), executed);
+    assertEquals(Arrays.asList("a1", "a2", "b1"), completed);
+    assertEquals(0, scheduler.getActiveBuckets());
+  }
+
+  @Test
+  public void testBarrier() throws Exception {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CompletableFuture<String> a1 = submit("vol/a", "a1", blocked);
+    final CompletableFuture<String> barrier = submit(null, "barrier", null);
+    final CompletableFuture<String> b1 = submit("vol/b", "b1", null);
+
+    // nothing is executed before the blocked transaction
+    TimeUnit.MILLISECONDS.sleep(100);
+    assertTrue(executed.isEmpty());
+    assertFalse(barrier.isDone());
+
+    blocked.countDown();
+    CompletableFuture.allOf(a1, barrier, b1).get();
+    assertEquals(Arrays.asList("a1", "barrier", "b1"), executed);
+    assertEquals(Arrays.asList("a1", "barrier", "b1"), completed);
+  }
+
+  @Test
+  public void testFailedExecution() throws Exception {
+    final CompletableFuture<String> failed = scheduler.submit("vol/a",
+        () -> {
+          throw new IllegalStateException("failed");
+        }, this::complete);
+    final CompletableFuture<String> a2 = submit("vol/a", "a2", null);
+    final CompletableFuture<String> barrier = submit(null, "barrier", null);
+
+    CompletableFuture.allOf(a2, barrier).get();
+    assertTrue(failed.isCompletedExceptionally());
+    assertEquals(Arrays.asList("a2", "barrier"), completed);
+  }
+
+  private CompletableFuture<String> submit(String bucketKey, String name,
+      CountDownLatch latch) {
+    return scheduler.submit(bucketKey, () -> {
+      if (latch != null) {
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+      executed.add(name);
+      return name;
+    }, this::complete);
+  }
+
+  private String complete(String name) {
+    // completions are never concurrent
+    completed.add(name);
+    return name;
+  }
+
+  private void waitForExecution(String name) throws InterruptedException {
+    while (!executed.contains(name)) {
+      TimeUnit.MILLISECONDS.sleep(10);
+    }
+  }
+}
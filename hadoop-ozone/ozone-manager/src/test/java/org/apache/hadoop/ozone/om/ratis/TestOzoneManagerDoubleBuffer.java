@@ -17,6 +17,7 @@
 
 package org.apache.hadoop.ozone.om.ratis;
 
+import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 import static org.apache.hadoop.security.authentication.util.KerberosName.DEFAULT_MECHANISM;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -401,6 +402,46 @@ public void testS3SecretCacheSizePostDoubleBufferFlush() throws IOException {
     }
   }
 
+  @Test
+  public void testPipelinedFlush() throws IOException {
+    doubleBuffer.stop();
+    doubleBuffer = OzoneManagerDoubleBuffer.newBuilder()
+        .setOmMetadataManager(ozoneManager.getMetadataManager())
+        .setS3SecretManager(secretManager)
+        .setMaxUnFlushedTransactionCount(1000)
+        .enablePipeline(true)
+        .build();
+
+    final OzoneManagerDoubleBufferMetrics metrics = doubleBuffer.getMetrics();
+    try {
+      List<OMClientResponse> omClientResponses = Arrays.asList(
+          omKeyCreateResponse, omBucketCreateResponse,
+          omSnapshotCreateResponse1, omKeyCreateResponse);
+      for (int i = 0; i < omClientResponses.size(); i++) {
+        doubleBuffer.add(omClientResponses.get(i), TransactionInfo.getTermIndex(i));
+      }
+
+      // The batches are split as usual, the last one is committed
+      // asynchronously.
+      doubleBuffer.flushCurrentBuffer();
+      doubleBuffer.awaitPendingCommit();
+
+      assertEquals(3, doubleBuffer.getFlushIterationsForTesting());
+      assertEquals(4, doubleBuffer.getFlushedTransactionCountForTesting());
+      assertEquals(0, doubleBuffer.getReadyBufferSize());
+      assertEquals(3, ozoneManager.getMetadataManager().getTransactionInfoTable()
+          .get(TRANSACTION_INFO_KEY).getTransactionIndex());
+    } finally {
+      // cleanup metrics
+      metrics.setMaxNumberOfTransactionsFlushedInOneIteration(0);
+      metrics.setAvgFlushTransactionsInOneIteration(0);
+      metrics.incrTotalSizeOfFlushedTransactions(
+          -metrics.getTotalNumOfFlushedTransactions());
+      metrics.incrTotalNumOfFlushOperations(
+          -metrics.getTotalNumOfFlushOperations());
+    }
+  }
+
   private void processSuccessSecretRequest(String userPrincipalId, int txLogIndex) throws IOException {
     S3GetSecretRequest s3GetSecretRequest =
         new S3GetSecretRequest(
@@ -30,6 +30,7 @@
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -101,6 +102,7 @@
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 /**
  * Class to test OzoneManagerStateMachine.
@@ -318,6 +320,45 @@ public void testApplyTransactionBackpressureInterrupt() throws Exception {
     assertInstanceOf(InterruptedException.class, ex.getCause());
   }
 
+  @Test
+  public void testApplyTransactionWithScheduler() throws Exception {
+    ExecutorService applyExecutor = Executors.newFixedThreadPool(2);
+    OzoneManagerStateMachine parallelSm = new OzoneManagerStateMachine(om,
+        doubleBuffer, handler, applyExecutor, null,
+        new ApplyTransactionScheduler(applyExecutor));
+    try {
+      OMRequest keyRequest = sampleWriteRequest();
+      OMRequest bucketRequest = OMRequest.newBuilder()
+          .setCmdType(Type.CreateBucket)
+          .setClientId("test-client")
+          .build();
+
+      OMClientResponse clientResponse = mock(OMClientResponse.class);
+      when(clientResponse.getOMResponse()).thenReturn(OMResponse.newBuilder()
+          .setCmdType(Type.CreateKey)
+          .setStatus(Status.OK)
+          .setSuccess(true)
+          .build());
+      when(handler.handleWriteRequestImpl(any(OMRequest.class), any()))
+          .thenReturn(clientResponse);
+
+      CompletableFuture<Message> first =
+          parallelSm.applyTransaction(mockTrx(keyRequest, 1, 5));
+      CompletableFuture<Message> second =
+          parallelSm.applyTransaction(mockTrx(bucketRequest, 1, 6));
+      assertNotNull(first.get());
+      assertNotNull(second.get());
+
+      // the responses are added to the double buffer in log order
+      InOrder inOrder = inOrder(doubleBuffer);
+      inOrder.verify(doubleBuffer).add(clientResponse, TermIndex.valueOf(1, 5), 5L);
+      inOrder.verify(doubleBuffer).add(clientResponse, TermIndex.valueOf(1, 6), 6L);
+      verify(handler, never()).handleWriteRequest(any(), any(), any());
+    } finally {
+      parallelSm.stop();
+    }
+  }
+
   // --- runCommand tests ---
 
   @Test
@@ -391,7 +432,7 @@ public void testRunCommandIOException() throws Exception {
 
     assertNotNull(result);
     assertFalse(result.getSuccess());
-    verify(doubleBuffer).add(any(), eq(ti));
+    verify(doubleBuffer).add(any(), eq(ti), eq(5L));
   }
 
   @Test
@@ -463,6 +504,23 @@ public void testProcessResponseMetadataErrorTerminates() {
         () -> sm.processResponse(response));
   }
 
+  @Test
+  public void testExecutionIndex() {
+    OMRequest request = sampleWriteRequest();
+    assertEquals(5, sm.getExecutionIndex(request, TermIndex.valueOf(1, 5)));
+    assertEquals(6, sm.getExecutionIndex(request, TermIndex.valueOf(1, 6)));
+
+    // executed on the leader, ahead of the log
+    OMRequest executed = request.toBuilder().setExecutionIndex(10).build();
+    assertEquals(10, sm.getExecutionIndex(executed, TermIndex.valueOf(1, 7)));
+    assertEquals(11, sm.getExecutionIndex(request, TermIndex.valueOf(1, 8)));
+    // executed concurrently with a lower index
+    executed = request.toBuilder().setExecutionIndex(9).build();
+    assertEquals(9, sm.getExecutionIndex(executed, TermIndex.valueOf(1, 9)));
+    assertEquals(11, sm.getLastExecutionIndex());
+    assertEquals(12, sm.getExecutionIndex(request, TermIndex.valueOf(1, 10)));
+  }
+
   // --- createErrorResponse tests ---
 
   @Test
@@ -477,7 +535,7 @@ public void testCreateErrorResponse() {
     assertFalse(response.getSuccess());
     assertEquals(Type.CreateKey, response.getCmdType());
     assertEquals("test error", response.getMessage());
-    verify(doubleBuffer).add(any(), eq(ti));
+    verify(doubleBuffer).add(any(), eq(ti), eq(5L));
   }
 
   @Test
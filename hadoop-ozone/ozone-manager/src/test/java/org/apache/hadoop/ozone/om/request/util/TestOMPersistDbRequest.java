@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.NegativeLookupFilter;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.execution.OMExecutionFlow;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.request.key.OMKeyRequestTests;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutFeature;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableRecord;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DBTableUpdate;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.PersistDbRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ozone.test.GenericTestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests PersistDb request.
+ */
+public class TestOMPersistDbRequest extends OMKeyRequestTests {
+
+  private Table<String, OmKeyInfo> keyTable;
+  private String newKey;
+  private String oldKey;
+  private OmKeyInfo newKeyInfo;
+
+  @BeforeEach
+  public void setupKeys() throws Exception {
+    when(ozoneManager.getVersionManager()
+        .isAllowed(OMLayoutFeature.LEADER_EXECUTION)).thenReturn(true);
+    keyTable = omMetadataManager.getKeyTable(BucketLayout.DEFAULT);
+    newKey = omMetadataManager.getOzoneKey(volumeName, bucketName, "new");
+    oldKey = omMetadataManager.getOzoneKey(volumeName, bucketName, "old");
+    newKeyInfo = OMRequestTestUtils.createOmKeyInfo(volumeName, bucketName,
+        "new", replicationConfig).build();
+    keyTable.put(oldKey, OMRequestTestUtils.createOmKeyInfo(volumeName,
+        bucketName, "old", replicationConfig).build());
+  }
+
+  @Test
+  public void testPreExecute() throws Exception {
+    OMPersistDbRequest request = new OMPersistDbRequest(createRequest());
+    OMException e = assertThrows(OMException.class,
+        () -> request.preExecute(ozoneManager));
+    assertEquals(OMException.ResultCodes.INVALID_REQUEST, e.getResult());
+  }
+
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    OMClientResponse response = new OMPersistDbRequest(createRequest())
+        .validateAndUpdateCache(ozoneManager, 100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    assertEquals(Type.CommitKey, response.getOMResponse().getCmdType());
+
+    // the cache has the changes
+    assertEquals(newKeyInfo.getKeyName(), keyTable.get(newKey).getKeyName());
+    assertNull(keyTable.get(oldKey));
+    assertNotNull(keyTable.getSkipCache(oldKey));
+
+    try (BatchOperation batch = omMetadataManager.getStore()
+        .initBatchOperation()) {
+      response.checkAndUpdateDB(omMetadataManager, batch);
+      omMetadataManager.getStore().commitBatchOperation(batch);
+    }
+    assertEquals(newKeyInfo.getKeyName(),
+        keyTable.getSkipCache(newKey).getKeyName());
+    assertNull(keyTable.getSkipCache(oldKey));
+  }
+
+  @Test
+  public void testNegativeLookupFilter() throws Exception {
+    NegativeLookupFilter filter = keyTable.enableNegativeLookupFilter(1000, 0.01);
+    GenericTestUtils.waitFor(filter::isReady, 10, 10_000);
+
+    OMClientResponse response = new OMPersistDbRequest(createRequest())
+        .validateAndUpdateCache(ozoneManager, 100L);
+    try (BatchOperation batch = omMetadataManager.getStore()
+        .initBatchOperation()) {
+      response.checkAndUpdateDB(omMetadataManager, batch);
+      omMetadataManager.getStore().commitBatchOperation(batch);
+    }
+
+    // the keys written as they are replicated are added to the filter
+    assertTrue(filter.isReady());
+    assertEquals(newKeyInfo.getKeyName(),
+        keyTable.getSkipCache(newKey).getKeyName());
+    assertNull(keyTable.getSkipCache(oldKey));
+  }
+
+  @Test
+  public void testRestoreCache() throws Exception {
+    OMRequest request = createRequest();
+    new OMPersistDbRequest(request).validateAndUpdateCache(ozoneManager, 100L);
+    assertNotNull(keyTable.get(newKey));
+
+    OMPersistDbRequest.restoreCache(omMetadataManager,
+        request.getPersistDbRequest(), 100L, 101L);
+    assertNull(keyTable.get(newKey));
+    assertNotNull(keyTable.get(oldKey));
+
+    // the restored entries are evicted with the epoch they were put in
+    CacheKey<String> restored = new CacheKey<>(newKey);
+    assertEquals(101L, keyTable.getCacheValue(restored).getEpoch());
+    keyTable.cleanupCache(Collections.singletonList(101L));
+    GenericTestUtils.waitFor(() -> keyTable.getCacheValue(restored) == null,
+        10, 10_000);
+  }
+
+  @Test
+  public void testNotFinalized() throws Exception {
+    when(ozoneManager.getVersionManager()
+        .isAllowed(OMLayoutFeature.LEADER_EXECUTION)).thenReturn(false);
+
+    OMClientResponse response = new OMPersistDbRequest(createRequest())
+        .validateAndUpdateCache(ozoneManager, 100L);
+    assertEquals(Status.NOT_SUPPORTED_OPERATION_PRIOR_FINALIZATION,
+        response.getOMResponse().getStatus());
+    assertNull(keyTable.get(newKey));
+    assertNotNull(keyTable.get(oldKey));
+  }
+
+  @Test
+  public void testExecutedLocally() throws Exception {
+    // the changes are not applied again by the execution flow
+    OMExecutionFlow executionFlow = mock(OMExecutionFlow.class);
+    when(ozoneManager.getOmExecutionFlow()).thenReturn(executionFlow);
+
+    OMClientResponse response = new OMPersistDbRequest(createRequest())
+        .validateAndUpdateCache(ozoneManager, 100L);
+    assertEquals(Status.OK, response.getOMResponse().getStatus());
+    // the leader has updated the cache during execution
+    assertNull(keyTable.get(newKey));
+    assertNotNull(keyTable.get(oldKey));
+  }
+
+  private OMRequest createRequest() throws IOException {
+    final String table = OMDBDefinition.KEY_TABLE_DEF.getName();
+    final DBTableUpdate update = DBTableUpdate.newBuilder()
+        .setTableName(table)
+        .addRecords(DBTableRecord.newBuilder()
+            .setKey(ByteString.copyFrom(OMDBDefinition.KEY_TABLE_DEF
+                .getKeyCodec().toPersistedFormat(newKey)))
+            .setValue(ByteString.copyFrom(OMDBDefinition.KEY_TABLE_DEF
+                .getValueCodec().toPersistedFormat(newKeyInfo))))
+        .addRecords(DBTableRecord.newBuilder()
+            .setKey(ByteString.copyFrom(OMDBDefinition.KEY_TABLE_DEF
+                .getKeyCodec().toPersistedFormat(oldKey))))
+        .build();
+    return OMRequest.newBuilder()
+        .setCmdType(Type.PersistDb)
+        .setClientId(UUID.randomUUID().toString())
+        .setExecutionIndex(100L)
+        .setPersistDbRequest(PersistDbRequest.newBuilder()
+            .addTableUpdates(update)
+            .setResponse(OMResponse.newBuilder()
+                .setCmdType(Type.CommitKey)
+                .setStatus(Status.OK)
+                .setSuccess(true)))
+        .build();
+  }
+}
@@ -76,6 +76,7 @@
 import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.OzoneFsServerDefaults;
+import org.apache.hadoop.ozone.OzoneManagerVersion;
 import org.apache.hadoop.ozone.client.BucketArgs;
 import org.apache.hadoop.ozone.client.ObjectStore;
 import org.apache.hadoop.ozone.client.OzoneBucket;
@@ -1328,6 +1329,12 @@ public boolean isFSOptimizedBucket() {
     return false;
   }
 
+  @Override
+  public boolean isRecursiveListStatusSupported() {
+    return proxy.getOzoneManagerVersion().compareTo(
+        OzoneManagerVersion.FSO_RECURSIVE_LIST_STATUS) >= 0;
+  }
+
   @Override
   public FileChecksum getFileChecksum(String keyName, long length)
       throws IOException {
@@ -1201,6 +1201,17 @@ public boolean isFile(Path f) throws IOException {
   public RemoteIterator<LocatedFileStatus> listFiles(Path f, boolean recursive)
       throws IOException {
     incrementCounter(Statistic.INVOCATION_LIST_FILES);
+    if (recursive && adapter.isRecursiveListStatusSupported()) {
+      OFSPath ofsPath = new OFSPath(f, ozoneConfiguration);
+      if (!ofsPath.isRoot() && !ofsPath.isVolume()
+          && !ofsPath.isSnapshotPath()) {
+        // The OM lists the whole subtree page by page, instead of one
+        // listStatus call per directory.  Directories are skipped.
+        return new OzoneFileStatusIterator<>(f,
+            stat -> stat.isFile() ? toLocatedFileStatus(stat) : null,
+            false, true);
+      }
+    }
     return super.listFiles(f, recursive);
   }
 
@@ -1209,9 +1220,12 @@ public RemoteIterator<LocatedFileStatus> listLocatedStatus(Path f)
       throws IOException {
     incrementCounter(Statistic.INVOCATION_LIST_LOCATED_STATUS);
     return new OzoneFileStatusIterator<>(f,
-        (stat) -> stat instanceof LocatedFileStatus ? (LocatedFileStatus) stat :
-            new LocatedFileStatus(stat, stat.isFile() ? new BlockLocation[0] : null),
-        false);
+        BasicRootedOzoneFileSystem::toLocatedFileStatus, false, false);
+  }
+
+  private static LocatedFileStatus toLocatedFileStatus(FileStatus stat) {
+    return stat instanceof LocatedFileStatus ? (LocatedFileStatus) stat :
+        new LocatedFileStatus(stat, stat.isFile() ? new BlockLocation[0] : null);
   }
 
   @Override
@@ -1226,7 +1240,7 @@ public RemoteIterator<FileStatus> listStatusIterator(Path f)
           "Instead use 'ozone sh key list " +
           "<Volume_URI>' command");
     }
-    return new OzoneFileStatusIterator<>(f, stat -> stat, true);
+    return new OzoneFileStatusIterator<>(f, stat -> stat, true, false);
   }
 
   /**
@@ -1243,6 +1257,7 @@ public RemoteIterator<FileStatus> listStatusIterator(Path f)
     private T curStat = null;
     private String startPath = "";
     private boolean lite;
+    private boolean recursive;
 
     /**
      * Constructor to initialize OzoneFileStatusIterator.
@@ -1251,14 +1266,17 @@ public RemoteIterator<FileStatus> listStatusIterator(Path f)
      * @param p path to file/directory.
      * @param transformFunc function to convert FileStatus into an expected type.
      * @param lite if true it should look into fetching a lightweight keys from server.
+     * @param recursive if true all the descendants of the directory are listed.
      * @throws IOException
      */
-    private OzoneFileStatusIterator(Path p, Function<FileStatus, T> transformFunc, boolean lite) throws IOException {
+    private OzoneFileStatusIterator(Path p, Function<FileStatus, T> transformFunc, boolean lite,
+        boolean recursive) throws IOException {
       this.p = p;
       this.lite = lite;
+      this.recursive = recursive;
       this.transformFunc = transformFunc;
       // fetch the first batch of entries in the directory
-      thisListing = listFileStatus(p, startPath, lite);
+      thisListing = listFileStatus(p, startPath, lite, recursive);
       if (thisListing != null && !thisListing.isEmpty()) {
         startPath = pathToKey(
             thisListing.get(thisListing.size() - 1).getPath());
@@ -1297,7 +1315,7 @@ private boolean hasNextNoFilter() throws IOException {
       if (i >= thisListing.size()) {
         if (startPath != null && (!thisListing.isEmpty())) {
           // current listing is exhausted & fetch a new listing
-          thisListing = listFileStatus(p, startPath, lite);
+          thisListing = listFileStatus(p, startPath, lite, recursive);
           if (thisListing != null && !thisListing.isEmpty()) {
             startPath = pathToKey(
                 thisListing.get(thisListing.size() - 1).getPath());
@@ -1333,17 +1351,18 @@ public T next() throws IOException {
    * @param f
    * @param startPath
    * @param lite if true return lightweight keys
+   * @param recursive if true list all the descendants of the directory
    * @return list of file status.
    * @throws IOException
    */
-  private List<FileStatus> listFileStatus(Path f, String startPath, boolean lite)
-      throws IOException {
+  private List<FileStatus> listFileStatus(Path f, String startPath, boolean lite,
+      boolean recursive) throws IOException {
     incrementCounter(Statistic.INVOCATION_LIST_STATUS, 1);
     statistics.incrementReadOps(1);
     LOG.trace("listFileStatus() path:{}", f);
     List<FileStatus> statusList;
     statusList =
-        adapter.listStatus(pathToKey(f), false, startPath,
+        adapter.listStatus(pathToKey(f), recursive, startPath,
                 listingPageSize, uri, workingDir, getUsername(), lite)
             .stream()
             .map(this::convertFileStatus)
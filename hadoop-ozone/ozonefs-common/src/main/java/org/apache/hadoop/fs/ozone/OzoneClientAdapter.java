@@ -102,6 +102,14 @@ default FileStatusAdapter getFileStatus(String key, URI uri,
 
   boolean isFSOptimizedBucket();
 
+  /**
+   * @return whether {@link #listStatus} lists all the descendants of a
+   * directory with recursive=true, for any bucket layout.
+   */
+  default boolean isRecursiveListStatusSupported() {
+    return false;
+  }
+
   FileChecksum getFileChecksum(String keyName, long length) throws IOException;
 
   String createSnapshot(String pathStr, String snapshotName) throws IOException;
@@ -17,20 +17,32 @@
 
 package org.apache.hadoop.fs.ozone;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ReadOnlyBufferException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 import org.apache.hadoop.fs.ByteBufferPositionedReadable;
 import org.apache.hadoop.fs.ByteBufferReadable;
 import org.apache.hadoop.fs.CanUnbuffer;
 import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem.Statistics;
 import org.apache.hadoop.fs.Seekable;
+import org.apache.hadoop.fs.VectoredReadUtils;
+import org.apache.hadoop.fs.impl.CombinedFileRange;
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
 import org.apache.hadoop.hdds.scm.storage.ExtendedInputStream;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
 import org.apache.hadoop.hdds.tracing.TracingUtil;
 
 /**
@@ -211,4 +223,69 @@ public void readFully(long position, ByteBuffer buf) throws IOException {
       }
     }
   }
+
+  /**
+   * Vectored read of a key.  Nearby ranges are merged into a single read,
+   * then the merged ranges are read concurrently, each of them from the
+   * blocks it covers.  Falls back to the default implementation if the
+   * underlying stream is not a plain key stream, e.g. it is encrypted.
+   */
+  @Override
+  public void readVectored(List<? extends FileRange> ranges,
+      IntFunction<ByteBuffer> allocate) throws IOException {
+    if (!(inputStream instanceof MultipartInputStream)) {
+      super.readVectored(ranges, allocate);
+      return;
+    }
+    final MultipartInputStream stream = (MultipartInputStream) inputStream;
+    final List<? extends FileRange> sortedRanges =
+        VectoredReadUtils.validateAndSortRanges(ranges,
+            Optional.of(stream.getLength()));
+    for (FileRange range : sortedRanges) {
+      range.setData(new CompletableFuture<>());
+    }
+    final List<CombinedFileRange> combinedRanges =
+        VectoredReadUtils.mergeSortedRanges(sortedRanges, 1,
+            minSeekForVectorReads(), maxReadSizeForVectorReads());
+    for (CombinedFileRange combined : combinedRanges) {
+      VectoredReadExecutor.INSTANCE.execute(
+          () -> readCombinedRange(stream, combined, allocate));
+    }
+  }
+
+  private void readCombinedRange(MultipartInputStream stream,
+      CombinedFileRange combined, IntFunction<ByteBuffer> allocate) {
+    try {
+      final ByteBuffer buffer = allocate.apply(combined.getLength());
+      buffer.limit(buffer.position() + combined.getLength());
+      stream.readFullyFromParts(combined.getOffset(), buffer);
+      buffer.flip();
+      if (statistics != null) {
+        statistics.incrementBytesRead(combined.getLength());
+      }
+      for (FileRange range : combined.getUnderlying()) {
+        range.getData().complete(
+            VectoredReadUtils.sliceTo(buffer, combined.getOffset(), range));
+      }
+    } catch (Throwable e) {
+      for (FileRange range : combined.getUnderlying()) {
+        range.getData().completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * Threads shared by all streams for vectored reads.  If all threads are
+   * busy, the range is read by the caller.
+   */
+  private static final class VectoredReadExecutor {
+    private static final int MAX_THREADS = 64;
+    private static final ThreadPoolExecutor INSTANCE = new ThreadPoolExecutor(
+        0, MAX_THREADS, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("OzoneVectoredRead-%d")
+            .build(),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
 }
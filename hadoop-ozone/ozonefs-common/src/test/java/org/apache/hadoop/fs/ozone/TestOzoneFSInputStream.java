@@ -19,6 +19,7 @@
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
@@ -28,10 +29,12 @@
 
 import com.google.common.collect.ImmutableList;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.IntFunction;
@@ -41,8 +44,13 @@
 import org.apache.hadoop.crypto.CryptoCodec;
 import org.apache.hadoop.crypto.CryptoInputStream;
 import org.apache.hadoop.crypto.Decryptor;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.StreamCapabilities;
+import org.apache.hadoop.hdds.scm.storage.ByteReaderStrategy;
+import org.apache.hadoop.hdds.scm.storage.ExtendedInputStream;
+import org.apache.hadoop.hdds.scm.storage.MultipartInputStream;
+import org.apache.hadoop.hdds.scm.storage.PartInputStream;
 import org.apache.hadoop.ozone.client.io.KeyInputStream;
 import org.junit.jupiter.api.Test;
 
@@ -164,6 +172,45 @@ public void testCryptoStreamUnbuffer()
     }
   }
 
+  @Test
+  public void testReadVectored() throws Exception {
+    final int partLength = 100;
+    final byte[] source = RandomUtils.secure().randomBytes(3 * partLength);
+    final List<TestPartInputStream> parts = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      parts.add(new TestPartInputStream(Arrays.copyOfRange(source,
+          i * partLength, (i + 1) * partLength)));
+    }
+    final MultipartInputStream key = new MultipartInputStream("key", parts);
+    final OzoneFSInputStream subject = createTestSubject(key);
+    subject.seek(42);
+
+    for (IntFunction<ByteBuffer> constructor : BUFFER_CONSTRUCTORS) {
+      // ranges within a part, merged ranges and ranges spanning parts
+      final List<FileRange> ranges = Arrays.asList(
+          FileRange.createFileRange(250, 50),
+          FileRange.createFileRange(0, 10),
+          FileRange.createFileRange(12, 5),
+          FileRange.createFileRange(90, 120));
+      subject.readVectored(ranges, constructor);
+
+      for (FileRange range : ranges) {
+        final ByteBuffer data = range.getData().get();
+        assertEquals(range.getLength(), data.remaining());
+        final byte[] content = new byte[range.getLength()];
+        data.get(content);
+        assertArrayEquals(Arrays.copyOfRange(source, (int) range.getOffset(),
+            (int) range.getOffset() + range.getLength()), content);
+      }
+    }
+    // the position of the stream is not changed
+    assertEquals(42, subject.getPos());
+
+    assertThrows(EOFException.class, () -> subject.readVectored(
+        Arrays.asList(FileRange.createFileRange(290, 20)),
+        ByteBuffer::allocate));
+  }
+
   private static OzoneFSInputStream createTestSubject(InputStream input) {
     return new OzoneFSInputStream(input,
         new FileSystem.Statistics("test"));
@@ -187,4 +234,51 @@ public int read() {
     };
   }
 
+  /**
+   * A part backed by a byte array.
+   */
+  private static final class TestPartInputStream extends ExtendedInputStream
+      implements PartInputStream {
+    private final byte[] data;
+    private int position;
+
+    TestPartInputStream(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer buffer) {
+      final int len = Math.min(buffer.remaining(), data.length - position);
+      if (len == 0) {
+        return buffer.hasRemaining() ? EOF : 0;
+      }
+      buffer.put(data, position, len);
+      position += len;
+      return len;
+    }
+
+    @Override
+    protected int readWithStrategy(ByteReaderStrategy strategy) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void seek(long pos) {
+      position = (int) pos;
+    }
+
+    @Override
+    public synchronized long getPos() {
+      return position;
+    }
+
+    @Override
+    public long getLength() {
+      return data.length;
+    }
+
+    @Override
+    public void unbuffer() {
+    }
+  }
 }